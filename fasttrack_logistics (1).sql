@@ -23,6 +23,26 @@ SET time_zone = "+00:00";
 
 -- --------------------------------------------------------
 
+--
+-- Table structure for table `dataset_epoch`
+-- (a single row; SnapshotTool restore increments it, so workstations discard data cached from
+--  before the restore, whose deletions no tombstone records)
+--
+
+CREATE TABLE `dataset_epoch` (
+  `id` tinyint(4) NOT NULL,
+  `epoch` bigint(20) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+--
+-- Dumping data for table `dataset_epoch`
+--
+
+INSERT INTO `dataset_epoch` (`id`, `epoch`) VALUES
+(1, 1);
+
+-- --------------------------------------------------------
+
 --
 -- Table structure for table `deliveries`
 --
@@ -37,7 +57,8 @@ CREATE TABLE `deliveries` (
   `actual_delivery_time` datetime DEFAULT NULL,
   `delivery_status` varchar(50) NOT NULL DEFAULT 'Scheduled',
   `route_details` text DEFAULT NULL,
-  `delivery_notes` text DEFAULT NULL
+  `delivery_notes` text DEFAULT NULL,
+  `updated_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3) ON UPDATE current_timestamp(3)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
 
 --
@@ -61,7 +82,8 @@ CREATE TABLE `delivery_personnel` (
   `personnel_type` varchar(50) DEFAULT 'Driver',
   `license_number` varchar(100) DEFAULT NULL,
   `vehicle_details` text DEFAULT NULL,
-  `availability_status` varchar(50) NOT NULL DEFAULT 'Available'
+  `availability_status` varchar(50) NOT NULL DEFAULT 'Available',
+  `updated_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3) ON UPDATE current_timestamp(3)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
 
 --
@@ -87,17 +109,102 @@ CREATE TABLE `notifications` (
   `notification_type` varchar(50) NOT NULL DEFAULT 'Status Update',
   `timestamp` datetime DEFAULT current_timestamp(),
   `is_read` tinyint(1) DEFAULT 0,
-  `contact_method` varchar(50) DEFAULT NULL
+  `contact_method` varchar(50) DEFAULT NULL,
+  `dispatch_status` varchar(20) NOT NULL DEFAULT 'Pending',
+  `dispatch_attempts` int(11) NOT NULL DEFAULT 0,
+  `dispatch_priority` tinyint(4) NOT NULL DEFAULT 2,
+  `next_attempt_at` datetime NOT NULL DEFAULT current_timestamp(),
+  `locked_by` varchar(100) DEFAULT NULL,
+  `locked_at` datetime DEFAULT NULL,
+  `last_error` text DEFAULT NULL,
+  `updated_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3) ON UPDATE current_timestamp(3)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
 
 --
 -- Dumping data for table `notifications`
 --
 
-INSERT INTO `notifications` (`notification_id`, `recipient_type`, `recipient_id`, `related_shipment_id`, `related_personnel_id`, `message`, `notification_type`, `timestamp`, `is_read`, `contact_method`) VALUES
-(1, 'Customer', 1, 1, NULL, 'fghjk', 'Status Update', '2025-05-23 22:19:43', 0, 'App'),
-(2, 'Customer', 1, 1, NULL, 'uyfutryezyd', 'Status Update', '2025-05-23 22:34:08', 0, 'App'),
-(3, 'Personnel', 1, NULL, NULL, 'yuio', 'Status Update', '2025-05-23 22:34:25', 0, 'App');
+INSERT INTO `notifications` (`notification_id`, `recipient_type`, `recipient_id`, `related_shipment_id`, `related_personnel_id`, `message`, `notification_type`, `timestamp`, `is_read`, `contact_method`, `dispatch_status`, `dispatch_attempts`, `dispatch_priority`, `next_attempt_at`, `locked_by`, `locked_at`, `last_error`) VALUES
+(1, 'Customer', 1, 1, NULL, 'fghjk', 'Status Update', '2025-05-23 22:19:43', 0, 'App', 'Sent', 1, 2, '2025-05-23 22:19:43', NULL, NULL, NULL),
+(2, 'Customer', 1, 1, NULL, 'uyfutryezyd', 'Status Update', '2025-05-23 22:34:08', 0, 'App', 'Sent', 1, 2, '2025-05-23 22:34:08', NULL, NULL, NULL),
+(3, 'Personnel', 1, NULL, NULL, 'yuio', 'Status Update', '2025-05-23 22:34:25', 0, 'App', 'Sent', 1, 2, '2025-05-23 22:34:25', NULL, NULL, NULL);
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `notification_unread_counters`
+-- (maintained by NotificationDAO; recipient_id 0 to -15 hold the total for the whole recipient type, in 16 shards:
+-- a recipient's changes go to the shard -(recipient_id mod 16). After upgrading from the single total row at
+-- recipient_id 0, call NotificationDAO.rebuildNotificationCounters once.)
+--
+
+CREATE TABLE `notification_unread_counters` (
+  `recipient_type` varchar(50) NOT NULL,
+  `recipient_id` int(11) NOT NULL,
+  `unread_count` int(11) NOT NULL DEFAULT 0,
+  `total_count` int(11) NOT NULL DEFAULT 0,
+  `updated_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3) ON UPDATE current_timestamp(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+--
+-- Dumping data for table `notification_unread_counters`
+--
+
+INSERT INTO `notification_unread_counters` (`recipient_type`, `recipient_id`, `unread_count`, `total_count`) VALUES
+('Customer', -1, 2, 2),
+('Customer', 1, 2, 2),
+('Personnel', -1, 1, 1),
+('Personnel', 1, 1, 1);
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `notifications_archive`
+-- (read, dispatched notifications moved out of `notifications` by NotificationRetentionJob;
+--  one partition per month so old months are purged with DROP PARTITION)
+--
+
+CREATE TABLE `notifications_archive` (
+  `notification_id` int(11) NOT NULL,
+  `recipient_type` varchar(50) NOT NULL,
+  `recipient_id` int(11) DEFAULT NULL,
+  `related_shipment_id` int(11) DEFAULT NULL,
+  `related_personnel_id` int(11) DEFAULT NULL,
+  `message` text NOT NULL,
+  `notification_type` varchar(50) NOT NULL DEFAULT 'Status Update',
+  `timestamp` datetime NOT NULL,
+  `is_read` tinyint(1) NOT NULL DEFAULT 1,
+  `contact_method` varchar(50) DEFAULT NULL,
+  `dispatch_status` varchar(20) NOT NULL DEFAULT 'Sent',
+  `dispatch_attempts` int(11) NOT NULL DEFAULT 0,
+  `dispatch_priority` tinyint(4) NOT NULL DEFAULT 2,
+  `updated_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3) ON UPDATE current_timestamp(3),
+  PRIMARY KEY (`notification_id`,`timestamp`),
+  KEY `recipient_archive` (`recipient_type`,`recipient_id`,`timestamp`),
+  KEY `recipient_type_archive` (`recipient_type`,`timestamp`),
+  KEY `updated_at` (`updated_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci
+PARTITION BY RANGE (TO_DAYS(`timestamp`)) (
+  PARTITION p202505 VALUES LESS THAN (TO_DAYS('2025-06-01')),
+  PARTITION p202506 VALUES LESS THAN (TO_DAYS('2025-07-01')),
+  PARTITION p202507 VALUES LESS THAN (TO_DAYS('2025-08-01')),
+  PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `row_tombstones`
+-- (one row per deleted shipment, delivery or personnel record, written in the deleting transaction;
+--  lets other workstations remove the row in their delta sync, see DeltaSyncPoller)
+--
+
+CREATE TABLE `row_tombstones` (
+  `tombstone_id` bigint(20) NOT NULL,
+  `table_name` varchar(64) NOT NULL,
+  `row_id` int(11) NOT NULL,
+  `deleted_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
 
 -- --------------------------------------------------------
 
@@ -122,7 +229,8 @@ CREATE TABLE `shipments` (
   `estimated_delivery_time` datetime DEFAULT NULL,
   `actual_delivery_time` datetime DEFAULT NULL,
   `special_instructions` text DEFAULT NULL,
-  `creation_date` timestamp NOT NULL DEFAULT current_timestamp()
+  `creation_date` timestamp NOT NULL DEFAULT current_timestamp(),
+  `updated_at` timestamp(3) NOT NULL DEFAULT current_timestamp(3) ON UPDATE current_timestamp(3)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
 
 --
@@ -137,20 +245,35 @@ INSERT INTO `shipments` (`shipment_id`, `tracking_number`, `sender_name`, `sende
 -- Indexes for dumped tables
 --
 
+--
+-- Indexes for table `dataset_epoch`
+--
+ALTER TABLE `dataset_epoch`
+  ADD PRIMARY KEY (`id`);
+
 --
 -- Indexes for table `deliveries`
 --
 ALTER TABLE `deliveries`
   ADD PRIMARY KEY (`delivery_id`),
   ADD KEY `shipment_id` (`shipment_id`),
-  ADD KEY `personnel_id` (`personnel_id`);
+  ADD KEY `personnel_id` (`personnel_id`),
+  ADD KEY `actual_delivery_time` (`actual_delivery_time`),
+  ADD KEY `updated_at` (`updated_at`),
+  ADD KEY `scheduled_pickup_time` (`scheduled_pickup_time`),
+  ADD KEY `scheduled_delivery_time` (`scheduled_delivery_time`),
+  ADD KEY `delivery_status` (`delivery_status`);
 
 --
 -- Indexes for table `delivery_personnel`
 --
 ALTER TABLE `delivery_personnel`
   ADD PRIMARY KEY (`personnel_id`),
-  ADD UNIQUE KEY `license_number` (`license_number`);
+  ADD UNIQUE KEY `license_number` (`license_number`),
+  ADD KEY `availability_status` (`availability_status`),
+  ADD KEY `updated_at` (`updated_at`),
+  ADD KEY `name` (`name`),
+  ADD KEY `personnel_type` (`personnel_type`);
 
 --
 -- Indexes for table `notifications`
@@ -158,14 +281,39 @@ ALTER TABLE `delivery_personnel`
 ALTER TABLE `notifications`
   ADD PRIMARY KEY (`notification_id`),
   ADD KEY `related_shipment_id` (`related_shipment_id`),
-  ADD KEY `related_personnel_id` (`related_personnel_id`);
+  ADD KEY `related_personnel_id` (`related_personnel_id`),
+  ADD KEY `dispatch_lane_next_attempt` (`dispatch_status`,`dispatch_priority`,`next_attempt_at`),
+  ADD KEY `recipient_inbox` (`recipient_type`,`recipient_id`,`timestamp`,`notification_id`),
+  ADD KEY `recipient_type_inbox` (`recipient_type`,`timestamp`,`notification_id`),
+  ADD KEY `updated_at` (`updated_at`);
+
+--
+-- Indexes for table `notification_unread_counters`
+--
+ALTER TABLE `notification_unread_counters`
+  ADD PRIMARY KEY (`recipient_type`,`recipient_id`),
+  ADD KEY `updated_at` (`updated_at`);
+
+--
+-- Indexes for table `row_tombstones`
+--
+ALTER TABLE `row_tombstones`
+  ADD PRIMARY KEY (`tombstone_id`),
+  ADD KEY `deleted_at` (`deleted_at`);
 
 --
 -- Indexes for table `shipments`
 --
 ALTER TABLE `shipments`
   ADD PRIMARY KEY (`shipment_id`),
-  ADD UNIQUE KEY `tracking_number` (`tracking_number`);
+  ADD UNIQUE KEY `tracking_number` (`tracking_number`),
+  ADD KEY `delivery_status` (`delivery_status`),
+  ADD KEY `updated_at` (`updated_at`),
+  ADD KEY `estimated_delivery_time` (`estimated_delivery_time`),
+  ADD KEY `status_estimated_delivery` (`delivery_status`,`estimated_delivery_time`),
+  ADD KEY `creation_date` (`creation_date`),
+  ADD KEY `receiver_name` (`receiver_name`),
+  ADD KEY `sender_name` (`sender_name`);
 
 --
 -- AUTO_INCREMENT for dumped tables
@@ -189,6 +337,12 @@ ALTER TABLE `delivery_personnel`
 ALTER TABLE `notifications`
   MODIFY `notification_id` int(11) NOT NULL AUTO_INCREMENT, AUTO_INCREMENT=4;
 
+--
+-- AUTO_INCREMENT for table `row_tombstones`
+--
+ALTER TABLE `row_tombstones`
+  MODIFY `tombstone_id` bigint(20) NOT NULL AUTO_INCREMENT;
+
 --
 -- AUTO_INCREMENT for table `shipments`
 --
@@ -1,7 +1,9 @@
 package fasttracklogistics;
 
+import fasttracklogistics.dao.ChangeTrackingDAO;
 import fasttracklogistics.dao.DeliveryDAO;
 import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.dao.NotificationArchiveDAO;
 import fasttracklogistics.dao.NotificationDAO;
 import fasttracklogistics.dao.ShipmentDAO;
 
@@ -12,6 +14,7 @@ import fasttracklogistics.view.TrackShipmentPanel;
 import fasttracklogistics.view.AssignDriversPanel;
 import fasttracklogistics.view.ReportsPanel;
 import fasttracklogistics.view.NotificationPanel;
+import fasttracklogistics.view.LazyTabbedPane;
 
 import fasttracklogistics.controller.ShipmentController;
 import fasttracklogistics.controller.PersonnelController;
@@ -20,15 +23,40 @@ import fasttracklogistics.controller.TrackShipmentController;
 import fasttracklogistics.controller.AssignDriversController;
 import fasttracklogistics.controller.ReportController;
 import fasttracklogistics.controller.NotificationController;
+import fasttracklogistics.controller.NotificationLane;
+import fasttracklogistics.controller.NotificationDeliveryWorkerPool;
+import fasttracklogistics.controller.NotificationRateLimiter;
+import fasttracklogistics.controller.NotificationRetentionJob;
+import fasttracklogistics.controller.DeltaSyncPoller;
+import fasttracklogistics.controller.channel.NotificationChannelRegistry;
+import fasttracklogistics.controller.channel.DaoRecipientAddressResolver;
+import fasttracklogistics.controller.channel.NotificationGateways;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.search.ShipmentSearchIndex;
+import fasttracklogistics.search.TrackingNumberIndex;
+import fasttracklogistics.server.ApiServer;
+import fasttracklogistics.service.DeliveryService;
+import fasttracklogistics.service.ReferenceDataRegistry;
+import fasttracklogistics.service.ShipmentService;
+import fasttracklogistics.service.WarmStartCache;
 
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.net.InetAddress;
 import java.sql.SQLException; // Only needed if you catch SQLException here, but DAOs handle it
+import java.util.Set;
 
 public class FastTrackLogisticsApp {
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer(args.length > 1 ? Integer.parseInt(args[1]) : 8080);
+            return;
+        }
         // Ensure Swing operations are on the Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
             // Instantiate DAOs (Models) - these are responsible for database interaction
@@ -36,7 +64,25 @@ public class FastTrackLogisticsApp {
             ShipmentDAO shipmentDAO = new ShipmentDAO();
             DeliveryPersonnelDAO personnelDAO = new DeliveryPersonnelDAO();
             DeliveryDAO deliveryDAO = new DeliveryDAO();
-            NotificationDAO notificationDAO = new NotificationDAO();
+            // Lanes decide dispatch_priority; status updates for the same shipment within 5 s collapse into one outbox row
+            NotificationDAO notificationDAO = new NotificationDAO(NotificationLane::priorityForType, Set.of("Status Update"), 5);
+            NotificationArchiveDAO notificationArchiveDAO = new NotificationArchiveDAO();
+
+            // Outbox delivery workers; -Dfasttrack.notify.gateways=simulated|local|remote picks the email and SMS transports
+            NotificationGateways notificationGateways;
+            try {
+                notificationGateways = NotificationGateways.fromSystemProperties(new DaoRecipientAddressResolver(shipmentDAO, personnelDAO));
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(null, "Could not start notification gateways: " + e.getMessage(),
+                        "Startup Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            startDeliveryWorkers(notificationDAO, notificationGateways);
+
+            // Hourly retention: archive old read notifications, manage archive partitions
+            NotificationRetentionJob retentionJob = new NotificationRetentionJob(notificationArchiveDAO);
+            retentionJob.start(1, 60);
+            Runtime.getRuntime().addShutdownHook(new Thread(retentionJob::shutdown, "notification-retention-stop"));
 
             // Create the main application frame
             JFrame frame = new JFrame("FastTrack Logistics Management System");
@@ -44,41 +90,138 @@ public class FastTrackLogisticsApp {
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
             frame.setLocationRelativeTo(null); // Center the window
 
-            // Create the tabbed pane
-            JTabbedPane tabbedPane = new JTabbedPane();
+            // Controllers publish committed changes here; every tab applies them row by row
+            DomainEventBus eventBus = new DomainEventBus();
+            // One set of shipment and personnel display names for all panels, kept current from the bus
+            ReferenceDataRegistry referenceData = new ReferenceDataRegistry(shipmentDAO, personnelDAO, eventBus);
+            // Last session's lists and names, read from local disk so the tabs paint before any query; delta sync catches up
+            ChangeTrackingDAO changeTrackingDAO = new ChangeTrackingDAO();
+            WarmStartCache warmStart = new WarmStartCache(WarmStartCache.defaultFile(), changeTrackingDAO, eventBus);
+            warmStart.load(referenceData);
 
             // Instantiate Views (UI Panels)
             ManageShipmentsPanel manageShipmentsPanel = new ManageShipmentsPanel();
             ManagePersonnelPanel managePersonnelPanel = new ManagePersonnelPanel();
-            ScheduleDeliveryPanel scheduleDeliveryPanel = new ScheduleDeliveryPanel();
+            ScheduleDeliveryPanel scheduleDeliveryPanel = new ScheduleDeliveryPanel(referenceData);
             TrackShipmentPanel trackShipmentPanel = new TrackShipmentPanel();
             AssignDriversPanel assignDriversPanel = new AssignDriversPanel();
             ReportsPanel reportsPanel = new ReportsPanel();
-            NotificationPanel notificationPanel = new NotificationPanel();
-
-
-            // Instantiate Controllers, wiring Views to DAOs
-            new ShipmentController(manageShipmentsPanel, shipmentDAO);
-            new PersonnelController(managePersonnelPanel, personnelDAO);
-            new DeliveryController(scheduleDeliveryPanel, deliveryDAO, shipmentDAO, personnelDAO);
-            new TrackShipmentController(trackShipmentPanel, shipmentDAO);
-            new AssignDriversController(assignDriversPanel, shipmentDAO, personnelDAO, deliveryDAO);
-            new ReportController(reportsPanel, shipmentDAO, deliveryDAO, personnelDAO);
-            new NotificationController(notificationPanel, notificationDAO, shipmentDAO, personnelDAO);
-
-
-            // Add panels to the tabbed pane
-            tabbedPane.addTab("Manage Shipments", manageShipmentsPanel);
-            tabbedPane.addTab("Manage Personnel", managePersonnelPanel);
-            tabbedPane.addTab("Schedule Delivery", scheduleDeliveryPanel);
-            tabbedPane.addTab("Track Shipment", trackShipmentPanel);
-            tabbedPane.addTab("Assign Drivers", assignDriversPanel);
-            tabbedPane.addTab("Reports", reportsPanel);
-            tabbedPane.addTab("Notifications", notificationPanel);
-
+            NotificationPanel notificationPanel = new NotificationPanel(referenceData);
+
+            // Shipment and delivery writes go through the same services as the headless server's
+            ShipmentService shipmentService = new ShipmentService(shipmentDAO, notificationDAO, eventBus);
+            DeliveryService deliveryService = new DeliveryService(deliveryDAO, shipmentDAO, personnelDAO, notificationDAO, eventBus);
+
+            // Add panels to the tabbed pane; each tab's controller is constructed when the tab is first selected, so
+            // startup only waits for the first tab. A tab's preload reads its data on a background thread first, so
+            // the controller is wired from the registry and warm-start cache without a query on the EDT.
+            LazyTabbedPane tabbedPane = new LazyTabbedPane();
+            tabbedPane.addLazyTab("Manage Shipments", manageShipmentsPanel,
+                    () -> new ShipmentController(manageShipmentsPanel, shipmentDAO, shipmentService, eventBus, warmStart));
+            tabbedPane.addLazyTab("Manage Personnel", managePersonnelPanel,
+                    () -> PersonnelController.preload(personnelDAO, warmStart),
+                    () -> new PersonnelController(managePersonnelPanel, personnelDAO, eventBus, warmStart));
+            tabbedPane.addLazyTab("Schedule Delivery", scheduleDeliveryPanel,
+                    () -> DeliveryController.preload(deliveryDAO, referenceData, warmStart),
+                    () -> new DeliveryController(scheduleDeliveryPanel, deliveryDAO, shipmentDAO, personnelDAO, deliveryService, referenceData, eventBus, warmStart));
+            tabbedPane.addLazyTab("Track Shipment", trackShipmentPanel, () -> {
+                // Free-text shipment search; built in the background, then kept current from the event bus
+                ShipmentSearchIndex shipmentSearchIndex = new ShipmentSearchIndex(shipmentDAO, deliveryDAO, eventBus);
+                shipmentSearchIndex.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(shipmentSearchIndex::shutdown, "shipment-search-stop"));
+                // Type-ahead for tracking numbers, answered from an in-memory trie
+                TrackingNumberIndex trackingNumberIndex = new TrackingNumberIndex(shipmentDAO, eventBus);
+                trackingNumberIndex.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(trackingNumberIndex::shutdown, "tracking-number-stop"));
+                new TrackShipmentController(trackShipmentPanel, shipmentDAO, shipmentSearchIndex, trackingNumberIndex);
+            });
+            tabbedPane.addLazyTab("Assign Drivers", assignDriversPanel,
+                    () -> AssignDriversController.preload(shipmentDAO, personnelDAO, warmStart),
+                    () -> new AssignDriversController(assignDriversPanel, shipmentDAO, personnelDAO, deliveryService, eventBus, warmStart));
+            tabbedPane.addLazyTab("Reports", reportsPanel,
+                    () -> new ReportController(reportsPanel, shipmentDAO, deliveryDAO, personnelDAO, eventBus));
+            tabbedPane.addLazyTab("Notifications", notificationPanel,
+                    () -> NotificationController.preload(referenceData),
+                    () -> new NotificationController(notificationPanel, notificationDAO, notificationArchiveDAO, shipmentDAO, referenceData, eventBus));
+
+            // Pull other workstations' changes every 3 s (only rows past the updated_at watermark) into the same bus.
+            // Started after the first tab's load; tabs wired up later read their rows after the watermark was taken.
+            DeltaSyncPoller deltaSyncPoller = new DeltaSyncPoller(shipmentDAO, personnelDAO, deliveryDAO, changeTrackingDAO, eventBus);
+            deltaSyncPoller.start(3, warmStart.getWatermark()); // From the cache's watermark when the tabs show cached rows
+            Runtime.getRuntime().addShutdownHook(new Thread(deltaSyncPoller::shutdown, "delta-sync-stop"));
+            // The watermark is read first: the cache already holds every change published up to it
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> warmStart.save(deltaSyncPoller.getWatermark(), referenceData), "warm-start-save"));
+
+            // Once the window is up, load and wire the other tabs one at a time in the background of the user's work;
+            // -Dfasttrack.tabPrewarmMillis sets the gap between them (default 300), a negative value leaves them until selected
+            int tabPrewarmMillis = Integer.getInteger("fasttrack.tabPrewarmMillis", 300);
+            if (tabPrewarmMillis >= 0) {
+                frame.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowOpened(WindowEvent e) {
+                        tabbedPane.prewarmRemainingTabs(tabPrewarmMillis);
+                    }
+                });
+            }
 
             frame.add(tabbedPane, BorderLayout.CENTER);
             frame.setVisible(true);
         });
     }
+
+    /**
+     * Headless mode: the HTTP/JSON API over the same services, no Swing. The outbox delivery workers run as in
+     * the desktop client so notifications written by API calls are sent. Stops on Ctrl+C / SIGTERM.
+     * -Dfasttrack.server.dbPermits caps the requests using MySQL at once (default 32). Listens on 127.0.0.1 unless
+     * -Dfasttrack.server.bind says otherwise, and refuses to start without an API key.
+     */
+    private static void runServer(int port) {
+        // Every route but /api/tracking needs this key; -Dfasttrack.server.apiKey or FASTTRACK_API_KEY
+        String apiKey = System.getProperty("fasttrack.server.apiKey", System.getenv("FASTTRACK_API_KEY"));
+        if (apiKey == null || apiKey.isBlank()) {
+            System.err.println("Set an API key with -Dfasttrack.server.apiKey or FASTTRACK_API_KEY before starting the API server");
+            System.exit(1);
+        }
+        ShipmentDAO shipmentDAO = new ShipmentDAO();
+        DeliveryPersonnelDAO personnelDAO = new DeliveryPersonnelDAO();
+        DeliveryDAO deliveryDAO = new DeliveryDAO();
+        NotificationDAO notificationDAO = new NotificationDAO(NotificationLane::priorityForType, Set.of("Status Update"), 5);
+        DomainEventBus eventBus = new DomainEventBus(); // No EDT subscribers, so events stay off Swing
+        ShipmentService shipmentService = new ShipmentService(shipmentDAO, notificationDAO, eventBus);
+        DeliveryService deliveryService = new DeliveryService(deliveryDAO, shipmentDAO, personnelDAO, notificationDAO, eventBus);
+        // Desktop clients' writes reach the bus through delta sync, which invalidates cached tracking views within ~2 s
+        DeltaSyncPoller deltaSyncPoller = new DeltaSyncPoller(shipmentDAO, personnelDAO, deliveryDAO, new ChangeTrackingDAO(), eventBus);
+        deltaSyncPoller.start(2);
+        Runtime.getRuntime().addShutdownHook(new Thread(deltaSyncPoller::shutdown, "delta-sync-stop"));
+
+        try {
+            startDeliveryWorkers(notificationDAO,
+                    NotificationGateways.fromSystemProperties(new DaoRecipientAddressResolver(shipmentDAO, personnelDAO)));
+            // Loopback only unless -Dfasttrack.server.bind names another interface (e.g. 0.0.0.0 behind a TLS proxy)
+            InetAddress bindAddress = InetAddress.getByName(System.getProperty("fasttrack.server.bind", "127.0.0.1"));
+            ApiServer apiServer = new ApiServer(bindAddress, port, apiKey, Integer.getInteger("fasttrack.server.dbPermits", 32),
+                    shipmentDAO, deliveryDAO, notificationDAO, shipmentService, deliveryService, eventBus);
+            apiServer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(apiServer::close, "api-server-stop"));
+        } catch (IOException e) {
+            System.err.println("Could not start the API server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Starts the outbox delivery workers, rate-limited per channel, and stops them and the gateways on shutdown.
+     */
+    private static void startDeliveryWorkers(NotificationDAO notificationDAO, NotificationGateways notificationGateways) {
+        NotificationChannelRegistry channelRegistry = notificationGateways.getRegistry();
+        NotificationRateLimiter rateLimiter = new NotificationRateLimiter();
+        rateLimiter.limitChannel("Email", 20, 10);
+        rateLimiter.limitChannel("SMS", 10, 2);
+        NotificationDeliveryWorkerPool deliveryWorkerPool = new NotificationDeliveryWorkerPool(notificationDAO, channelRegistry, rateLimiter, 4);
+        deliveryWorkerPool.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            deliveryWorkerPool.shutdown(5_000);
+            notificationGateways.close();
+        }, "notification-delivery-stop"));
+    }
 }
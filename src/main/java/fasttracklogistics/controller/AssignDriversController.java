@@ -2,17 +2,25 @@ package fasttracklogistics.controller;
 
 import fasttracklogistics.model.Shipment;
 import fasttracklogistics.model.DeliveryPersonnel;
-import fasttracklogistics.model.Delivery;
 import fasttracklogistics.dao.ShipmentDAO;
 import fasttracklogistics.dao.DeliveryPersonnelDAO;
-import fasttracklogistics.dao.DeliveryDAO;
+import fasttracklogistics.event.DeliveryAssigned;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.PersonnelCreated;
+import fasttracklogistics.event.PersonnelDeleted;
+import fasttracklogistics.event.PersonnelUpdated;
+import fasttracklogistics.event.ShipmentCreated;
+import fasttracklogistics.event.ShipmentDeleted;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.service.DeliveryService;
+import fasttracklogistics.service.ServiceException;
+import fasttracklogistics.service.WarmStartCache;
 import fasttracklogistics.view.AssignDriversPanel;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.sql.SQLException;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,19 +28,60 @@ public class AssignDriversController {
     private AssignDriversPanel assignDriversView;
     private ShipmentDAO shipmentDAO;
     private DeliveryPersonnelDAO personnelDAO;
-    private DeliveryDAO deliveryDAO;
+    private DeliveryService deliveryService;
+    private DomainEventBus eventBus;
+    private WarmStartCache warmStart;
 
     public AssignDriversController(AssignDriversPanel assignDriversView,
                                    ShipmentDAO shipmentDAO,
                                    DeliveryPersonnelDAO personnelDAO,
-                                   DeliveryDAO deliveryDAO) {
+                                   DeliveryService deliveryService,
+                                   DomainEventBus eventBus,
+                                   WarmStartCache warmStart) {
         this.assignDriversView = assignDriversView;
         this.shipmentDAO = shipmentDAO;
         this.personnelDAO = personnelDAO;
-        this.deliveryDAO = deliveryDAO;
+        this.deliveryService = deliveryService;
+        this.eventBus = eventBus;
+        this.warmStart = warmStart;
 
         initListeners();
-        loadData(); // Initial load
+        subscribeToChanges();
+        List<Shipment> cachedShipments = warmStart.getPendingShipments();
+        List<DeliveryPersonnel> cachedPersonnel = warmStart.getPersonnel();
+        if (cachedShipments != null && cachedPersonnel != null) {
+            // Last session's rows; delta sync applies what changed since
+            assignDriversView.displayUnassignedShipments(cachedShipments);
+            assignDriversView.displayAvailablePersonnel(filterAvailable(cachedPersonnel));
+        } else {
+            loadData(); // Initial load
+        }
+    }
+
+    // A row stays in a table only while it matches that table's filter ("Pending" shipments, "Available" personnel)
+    private void subscribeToChanges() {
+        eventBus.subscribeOnEdt(ShipmentCreated.class, e -> applyShipmentChange(e.getShipment()));
+        eventBus.subscribeOnEdt(ShipmentUpdated.class, e -> applyShipmentChange(e.getShipment()));
+        eventBus.subscribeOnEdt(ShipmentDeleted.class, e -> assignDriversView.removeUnassignedShipment(e.getShipmentId()));
+        eventBus.subscribeOnEdt(PersonnelCreated.class, e -> applyPersonnelChange(e.getPersonnel()));
+        eventBus.subscribeOnEdt(PersonnelUpdated.class, e -> applyPersonnelChange(e.getPersonnel()));
+        eventBus.subscribeOnEdt(PersonnelDeleted.class, e -> assignDriversView.removeAvailablePersonnel(e.getPersonnelId()));
+    }
+
+    private void applyShipmentChange(Shipment shipment) {
+        if ("Pending".equals(shipment.getDeliveryStatus())) {
+            assignDriversView.upsertUnassignedShipment(shipment);
+        } else {
+            assignDriversView.removeUnassignedShipment(shipment.getShipmentId());
+        }
+    }
+
+    private void applyPersonnelChange(DeliveryPersonnel personnel) {
+        if ("Available".equals(personnel.getAvailabilityStatus())) {
+            assignDriversView.upsertAvailablePersonnel(personnel);
+        } else {
+            assignDriversView.removeAvailablePersonnel(personnel.getPersonnelId());
+        }
     }
 
     private void initListeners() {
@@ -40,22 +89,27 @@ public class AssignDriversController {
         assignDriversView.addRefreshButtonListener(e -> loadData());
     }
 
+    /**
+     * Reads the lists the constructor shows into the warm-start cache, unless they are there already, so the
+     * constructor runs no query. Called on a background thread before the tab is wired up.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    public static void preload(ShipmentDAO shipmentDAO, DeliveryPersonnelDAO personnelDAO, WarmStartCache warmStart) throws SQLException {
+        if (warmStart.getPendingShipments() == null) warmStart.rememberPendingShipments(readUnassignedShipments(shipmentDAO));
+        if (warmStart.getPersonnel() == null) warmStart.rememberPersonnel(personnelDAO.getAllPersonnel());
+    }
+
     public void loadData() {
         try {
-            // Load unassigned shipments (e.g., status is 'Pending')
-            List<Shipment> allShipments = shipmentDAO.getAllShipments();
-            List<Shipment> unassignedShipments = allShipments.stream()
-                    .filter(s -> s.getDeliveryStatus().equals("Pending")) // Define "unassigned" status here
-                    .collect(Collectors.toList());
-
+            List<Shipment> unassignedShipments = readUnassignedShipments(shipmentDAO);
             assignDriversView.displayUnassignedShipments(unassignedShipments);
+            warmStart.rememberPendingShipments(unassignedShipments);
 
             // Load available personnel (e.g., status is 'Available')
-            List<DeliveryPersonnel> availablePersonnel = personnelDAO.getAllPersonnel().stream()
-                    .filter(p -> p.getAvailabilityStatus().equals("Available"))
-                    .collect(Collectors.toList());
-
-            assignDriversView.displayAvailablePersonnel(availablePersonnel);
+            List<DeliveryPersonnel> allPersonnel = personnelDAO.getAllPersonnel();
+            assignDriversView.displayAvailablePersonnel(filterAvailable(allPersonnel));
+            warmStart.rememberPersonnel(allPersonnel);
 
         } catch (SQLException e) {
             assignDriversView.showMessage("Error loading data for assignment: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
@@ -63,6 +117,18 @@ public class AssignDriversController {
         }
     }
 
+    private static List<Shipment> readUnassignedShipments(ShipmentDAO shipmentDAO) throws SQLException {
+        return shipmentDAO.getAllShipments().stream()
+                .filter(s -> s.getDeliveryStatus().equals("Pending")) // Define "unassigned" status here
+                .collect(Collectors.toList());
+    }
+
+    private static List<DeliveryPersonnel> filterAvailable(List<DeliveryPersonnel> personnel) {
+        return personnel.stream()
+                .filter(p -> p.getAvailabilityStatus().equals("Available"))
+                .collect(Collectors.toList());
+    }
+
     private void assignDriverToShipment() {
         int selectedShipmentId = assignDriversView.getSelectedShipmentId();
         int selectedPersonnelId = assignDriversView.getSelectedPersonnelId();
@@ -77,49 +143,14 @@ public class AssignDriversController {
         }
 
         try {
-            Shipment shipmentToAssign = shipmentDAO.getShipmentById(selectedShipmentId);
-            DeliveryPersonnel assignedPersonnel = personnelDAO.getPersonnelById(selectedPersonnelId);
-
-            if (shipmentToAssign == null || assignedPersonnel == null) {
-                assignDriversView.showMessage("Selected shipment or personnel not found. Please refresh and try again.", "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            // Check if a delivery already exists for this shipment
-            List<Delivery> existingDeliveries = deliveryDAO.getDeliveriesByShipmentId(shipmentToAssign.getShipmentId());
-            if (!existingDeliveries.isEmpty()) {
-                assignDriversView.showMessage("This shipment is already assigned to a delivery. Please update the existing delivery instead.", "Assignment Error", JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-
-
-            // Create a new Delivery entry
-            Delivery newDelivery = new Delivery(
-                    shipmentToAssign.getShipmentId(),
-                    assignedPersonnel.getPersonnelId(),
-                    LocalDateTime.now(), // Scheduled pickup can be now or estimated
-                    shipmentToAssign.getEstimatedDeliveryTime(), // Use shipment's estimated delivery
-                    "Scheduled", // Initial status
-                    "Auto-assigned route", // Placeholder for route details
-                    "Assigned automatically through system." // Delivery notes
-            );
-
-            deliveryDAO.addDelivery(newDelivery);
-
-            // Update shipment status to "Scheduled"
-            shipmentToAssign.setDeliveryStatus("Scheduled");
-            shipmentDAO.updateShipment(shipmentToAssign);
-
-            // Update personnel status to "On Duty" if they are available
-            if (assignedPersonnel.getAvailabilityStatus().equals("Available")) {
-                assignedPersonnel.setAvailabilityStatus("On Duty");
-                personnelDAO.updatePersonnel(assignedPersonnel);
-            }
-
-            assignDriversView.showMessage("Shipment " + shipmentToAssign.getTrackingNumber() +
-                            " successfully assigned to " + assignedPersonnel.getName(),
+            DeliveryAssigned assignment = deliveryService.assignDriver(selectedShipmentId, selectedPersonnelId);
+            assignDriversView.showMessage("Shipment " + assignment.getShipment().getTrackingNumber() +
+                            " successfully assigned to " + assignment.getPersonnel().getName(),
                     "Assignment Successful", JOptionPane.INFORMATION_MESSAGE);
-            loadData(); // Refresh tables after assignment
+        } catch (ServiceException e) {
+            String title = e.getReason() == ServiceException.Reason.CONFLICT ? "Assignment Error" : "Error";
+            assignDriversView.showMessage(e.getMessage(), title, e.getReason() == ServiceException.Reason.CONFLICT
+                    ? JOptionPane.WARNING_MESSAGE : JOptionPane.ERROR_MESSAGE);
         } catch (SQLException e) {
             assignDriversView.showMessage("Error assigning driver: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             e.printStackTrace();
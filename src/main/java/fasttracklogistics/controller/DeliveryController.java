@@ -2,10 +2,23 @@ package fasttracklogistics.controller;
 
 import fasttracklogistics.model.Delivery;
 import fasttracklogistics.model.Shipment;
-import fasttracklogistics.model.DeliveryPersonnel;
 import fasttracklogistics.dao.DeliveryDAO;
+import fasttracklogistics.dao.QuerySpec;
 import fasttracklogistics.dao.ShipmentDAO;
 import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.event.DeliveryCreated;
+import fasttracklogistics.event.DeliveryDeleted;
+import fasttracklogistics.event.DeliveryUpdated;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.PersonnelCreated;
+import fasttracklogistics.event.PersonnelDeleted;
+import fasttracklogistics.event.PersonnelUpdated;
+import fasttracklogistics.event.ShipmentDeleted;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.service.DeliveryService;
+import fasttracklogistics.service.ReferenceDataRegistry;
+import fasttracklogistics.service.ServiceException;
+import fasttracklogistics.service.WarmStartCache;
 import fasttracklogistics.view.ScheduleDeliveryPanel;
 
 import javax.swing.*;
@@ -14,27 +27,67 @@ import javax.swing.event.ListSelectionListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.sql.SQLException;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class DeliveryController {
     private DeliveryDAO deliveryDAO;
     private ShipmentDAO shipmentDAO;
     private DeliveryPersonnelDAO personnelDAO;
+    private DeliveryService deliveryService;
+    private ReferenceDataRegistry referenceData;
     private ScheduleDeliveryPanel scheduleDeliveryView;
+    private DomainEventBus eventBus;
+    private WarmStartCache warmStart;
+
+    private static final Logger LOGGER = Logger.getLogger(DeliveryController.class.getName());
+
+    // Shipments of rows shown by events whose names are still to be read (EDT only)
+    private final Set<Integer> missingShipmentNames = new LinkedHashSet<>();
+    private boolean shipmentNameLoadRunning;
+    // The query the table shows; rows arriving by event are only upserted in place when it is the default view
+    private QuerySpec shownSpec = new QuerySpec();
+    private boolean filteredReloadQueued;
+    private int latestDeliveryLoad; // Discards a background reload overtaken by a newer load
 
     public DeliveryController(ScheduleDeliveryPanel scheduleDeliveryView,
-                              DeliveryDAO deliveryDAO, ShipmentDAO shipmentDAO, DeliveryPersonnelDAO personnelDAO) {
+                              DeliveryDAO deliveryDAO, ShipmentDAO shipmentDAO, DeliveryPersonnelDAO personnelDAO,
+                              DeliveryService deliveryService, ReferenceDataRegistry referenceData,
+                              DomainEventBus eventBus, WarmStartCache warmStart) {
         this.scheduleDeliveryView = scheduleDeliveryView;
         this.deliveryDAO = deliveryDAO;
         this.shipmentDAO = shipmentDAO;
         this.personnelDAO = personnelDAO;
+        this.deliveryService = deliveryService;
+        this.referenceData = referenceData;
+        this.eventBus = eventBus;
+        this.warmStart = warmStart;
 
         initListeners();
+        scheduleDeliveryView.addQueryChangeListener(this::reloadDeliveries);
+        subscribeToChanges();
         loadAllData(); // Initial load of all related data
     }
 
+    // Keeps the personnel combo, shipment names and delivery rows current without re-reading the three tables
+    // (the registry has applied the change to the names before these run)
+    private void subscribeToChanges() {
+        eventBus.subscribeOnEdt(ShipmentUpdated.class, e -> scheduleDeliveryView.updateShipment(e.getShipment()));
+        eventBus.subscribeOnEdt(ShipmentDeleted.class, e -> scheduleDeliveryView.removeShipment(e.getShipmentId()));
+        eventBus.subscribeOnEdt(PersonnelCreated.class, e -> scheduleDeliveryView.upsertPersonnelOption(e.getPersonnel()));
+        eventBus.subscribeOnEdt(PersonnelUpdated.class, e -> scheduleDeliveryView.upsertPersonnelOption(e.getPersonnel()));
+        eventBus.subscribeOnEdt(PersonnelDeleted.class, e -> scheduleDeliveryView.removePersonnelOption(e.getPersonnelId()));
+        eventBus.subscribeOnEdt(DeliveryCreated.class, e -> showDeliveryRow(e.getDelivery()));
+        eventBus.subscribeOnEdt(DeliveryUpdated.class, e -> showDeliveryRow(e.getDelivery()));
+        eventBus.subscribeOnEdt(DeliveryDeleted.class, e -> scheduleDeliveryView.removeDeliveryRow(e.getDeliveryId()));
+    }
+
     private void initListeners() {
         scheduleDeliveryView.addAddButtonListener(e -> addDelivery());
         scheduleDeliveryView.addUpdateButtonListener(e -> updateDelivery());
@@ -48,28 +101,152 @@ public class DeliveryController {
                 }
             }
         });
-        // If you need to add listeners directly to the combo boxes from the controller
-        // scheduleDeliveryView.getShipmentComboBox().addActionListener(e -> /* handle shipment selection */);
-        // scheduleDeliveryView.getPersonnelComboBox().addActionListener(e -> /* handle personnel selection */);
+        // The shipment picker asks for a page of prefix matches as the user types; shipments are never all loaded
+        scheduleDeliveryView.setShipmentSource(shipmentDAO::findShipmentsByPrefix);
+    }
+
+    /**
+     * Reads what the constructor shows (personnel names, and the default deliveries list with its shipment names
+     * unless the warm-start cache has it) into the registry and cache, so the constructor runs no query.
+     * Called on a background thread before the tab is wired up.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    public static void preload(DeliveryDAO deliveryDAO, ReferenceDataRegistry referenceData, WarmStartCache warmStart) throws SQLException {
+        referenceData.loadPersonnel();
+        if (warmStart.getDeliveries() != null) return;
+        warmStart.rememberDeliveries(readDeliveries(deliveryDAO, referenceData, new QuerySpec()));
     }
 
     public void loadAllData() {
         try {
-            List<Shipment> shipments = shipmentDAO.getAllShipments();
-            scheduleDeliveryView.populateShipmentComboBox(shipments);
-
-            List<DeliveryPersonnel> personnelList = personnelDAO.getAllPersonnel();
-            scheduleDeliveryView.populatePersonnelComboBox(personnelList);
-
-            List<Delivery> deliveries = deliveryDAO.getAllDeliveries();
-            scheduleDeliveryView.displayDeliveries(deliveries);
+            referenceData.loadPersonnel(); // Once for all panels
+            scheduleDeliveryView.populatePersonnelComboBox();
 
+            List<Delivery> cached = warmStart.getDeliveries();
+            if (cached != null && WarmStartCache.isDefaultView(scheduleDeliveryView.getQuerySpec())) {
+                scheduleDeliveryView.displayDeliveries(cached); // Names were primed from the same cache
+            } else {
+                loadDeliveries();
+            }
         } catch (SQLException e) {
             scheduleDeliveryView.showMessage("Error loading data: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             e.printStackTrace();
         }
     }
 
+    /**
+     * Loads the deliveries table with the sort order and filters chosen in the view, both applied by the database.
+     */
+    private void reloadDeliveries() {
+        try {
+            loadDeliveries();
+        } catch (SQLException e) {
+            scheduleDeliveryView.showMessage("Error loading deliveries: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            e.printStackTrace();
+        }
+    }
+
+    private void loadDeliveries() throws SQLException {
+        QuerySpec spec = scheduleDeliveryView.getQuerySpec();
+        if (spec == null) return; // Invalid filter input, already reported by the view
+        latestDeliveryLoad++;
+        List<Delivery> deliveries = readDeliveries(deliveryDAO, referenceData, spec);
+        shownSpec = spec;
+        scheduleDeliveryView.displayDeliveries(deliveries);
+        if (WarmStartCache.isDefaultView(spec)) warmStart.rememberDeliveries(deliveries);
+    }
+
+    // Only the names of the shipments the rows refer to are read (and only those no panel has asked for yet)
+    private static List<Delivery> readDeliveries(DeliveryDAO deliveryDAO, ReferenceDataRegistry referenceData, QuerySpec spec) throws SQLException {
+        List<Delivery> deliveries = deliveryDAO.getDeliveries(spec);
+        Set<Integer> shipmentIds = new LinkedHashSet<>();
+        for (Delivery delivery : deliveries) shipmentIds.add(delivery.getShipmentId());
+        referenceData.loadShipmentNames(shipmentIds);
+        return deliveries;
+    }
+
+    /**
+     * Shows a created or changed delivery at once. If the registry doesn't have its shipment's name yet, the name
+     * is read in the background together with those of the other rows arriving in the same burst of events,
+     * and the rows are repainted when the names are in.
+     *
+     * When the table is filtered or sorted by anything but delivery ID, the row may no longer match the filters
+     * or may belong elsewhere in the order, so the shown query is re-run instead, once per burst.
+     */
+    private void showDeliveryRow(Delivery delivery) {
+        if (!WarmStartCache.isDefaultView(shownSpec)) {
+            if (!filteredReloadQueued) {
+                filteredReloadQueued = true;
+                SwingUtilities.invokeLater(this::reloadShownDeliveries); // After the rest of the burst has been queued
+            }
+            return;
+        }
+        scheduleDeliveryView.upsertDeliveryRow(delivery);
+        int shipmentId = delivery.getShipmentId();
+        if (referenceData.getSnapshot().hasShipmentName(shipmentId)) return;
+        if (missingShipmentNames.isEmpty() && !shipmentNameLoadRunning) {
+            SwingUtilities.invokeLater(this::loadMissingShipmentNames); // After the rest of the burst has been queued
+        }
+        missingShipmentNames.add(shipmentId);
+    }
+
+    // Re-runs the shown query in the background; a load started meanwhile (e.g. a new filter) wins
+    private void reloadShownDeliveries() {
+        filteredReloadQueued = false;
+        QuerySpec spec = shownSpec;
+        int request = ++latestDeliveryLoad;
+        new SwingWorker<List<Delivery>, Void>() {
+            @Override
+            protected List<Delivery> doInBackground() throws SQLException {
+                return readDeliveries(deliveryDAO, referenceData, spec);
+            }
+
+            @Override
+            protected void done() {
+                if (request != latestDeliveryLoad) return;
+                try {
+                    scheduleDeliveryView.displayDeliveries(get());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    // The table keeps the rows from the last load until the next change or reload
+                    LOGGER.log(Level.WARNING, "Error reloading deliveries", ex.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    // One background read at a time; ids arriving meanwhile wait for the next one
+    private void loadMissingShipmentNames() {
+        if (shipmentNameLoadRunning || missingShipmentNames.isEmpty()) return;
+        Set<Integer> shipmentIds = new LinkedHashSet<>(missingShipmentNames);
+        missingShipmentNames.clear();
+        shipmentNameLoadRunning = true;
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws SQLException {
+                referenceData.loadShipmentNames(shipmentIds);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                shipmentNameLoadRunning = false;
+                try {
+                    get();
+                    scheduleDeliveryView.refreshShipmentNames(shipmentIds);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    // The rows still show, with the shipment id instead of its name
+                    LOGGER.log(Level.WARNING, "Error loading shipment names for " + shipmentIds, ex.getCause());
+                }
+                loadMissingShipmentNames();
+            }
+        }.execute();
+    }
+
     private void addDelivery() {
         Delivery newDelivery = scheduleDeliveryView.getDeliveryFromFields();
         if (newDelivery == null) { // Validation failed in view
@@ -77,17 +254,11 @@ public class DeliveryController {
         }
 
         try {
-            deliveryDAO.addDelivery(newDelivery);
-            // Optionally update shipment status to "Scheduled" if it's pending
-            Shipment associatedShipment = shipmentDAO.getShipmentById(newDelivery.getShipmentId()); // Corrected variable name
-            if (associatedShipment != null && associatedShipment.getDeliveryStatus().equals("Pending")) {
-                associatedShipment.setDeliveryStatus("Scheduled");
-                shipmentDAO.updateShipment(associatedShipment);
-            }
-
+            deliveryService.scheduleDelivery(newDelivery);
             scheduleDeliveryView.showMessage("Delivery scheduled successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             scheduleDeliveryView.clearFields();
-            loadAllData(); // Refresh all data
+        } catch (ServiceException e) {
+            scheduleDeliveryView.showMessage(e.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
         } catch (SQLException e) {
             scheduleDeliveryView.showMessage("Error scheduling delivery: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             e.printStackTrace();
@@ -108,17 +279,11 @@ public class DeliveryController {
         updatedDelivery.setDeliveryId(selectedId);
 
         try {
-            deliveryDAO.updateDelivery(updatedDelivery);
-            // Optionally update shipment status based on delivery status
-            Shipment associatedShipment = shipmentDAO.getShipmentById(updatedDelivery.getShipmentId());
-            if (associatedShipment != null && !associatedShipment.getDeliveryStatus().equals(updatedDelivery.getDeliveryStatus())) {
-                associatedShipment.setDeliveryStatus(updatedDelivery.getDeliveryStatus());
-                shipmentDAO.updateShipment(associatedShipment);
-            }
-
+            deliveryService.updateDelivery(updatedDelivery);
             scheduleDeliveryView.showMessage("Delivery updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             scheduleDeliveryView.clearFields();
-            loadAllData();
+        } catch (ServiceException e) {
+            scheduleDeliveryView.showMessage(e.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
         } catch (SQLException e) {
             scheduleDeliveryView.showMessage("Error updating delivery: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             e.printStackTrace();
@@ -136,9 +301,9 @@ public class DeliveryController {
         if (confirm == JOptionPane.YES_OPTION) {
             try {
                 deliveryDAO.deleteDelivery(selectedId);
+                eventBus.publish(new DeliveryDeleted(selectedId));
                 scheduleDeliveryView.showMessage("Delivery removed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 scheduleDeliveryView.clearFields();
-                loadAllData();
             } catch (SQLException e) {
                 scheduleDeliveryView.showMessage("Error removing delivery: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
                 e.printStackTrace();
@@ -152,21 +317,9 @@ public class DeliveryController {
             try {
                 Delivery selectedDelivery = deliveryDAO.getDeliveryById(selectedId);
                 if (selectedDelivery != null) {
-                    // Need to get display names for combo boxes
+                    // The shipment picker holds no list to select from, so it is given the shipment itself
                     Shipment associatedShipment = shipmentDAO.getShipmentById(selectedDelivery.getShipmentId());
-                    DeliveryPersonnel associatedPersonnel = personnelDAO.getPersonnelById(selectedDelivery.getPersonnelId());
-
-                    String shipmentDisplayName = (associatedShipment != null) ?
-                            associatedShipment.getTrackingNumber() + " - " + associatedShipment.getReceiverName() : "Unknown Shipment";
-                    String personnelDisplayName = (associatedPersonnel != null) ?
-                            associatedPersonnel.getName() + " (" + associatedPersonnel.getAvailabilityStatus() + ")" : "Unassigned";
-
-                    scheduleDeliveryView.setDeliveryFields(selectedDelivery); // Pass the delivery object
-
-                    // Corrected: Use getter methods to access and set the selected items in JComboBoxes
-                    // These lines assume you have getShipmentComboBox() and getPersonnelComboBox() in ScheduleDeliveryPanel
-                    scheduleDeliveryView.getShipmentComboBox().setSelectedItem(shipmentDisplayName);
-                    scheduleDeliveryView.getPersonnelComboBox().setSelectedItem(personnelDisplayName);
+                    scheduleDeliveryView.setDeliveryFields(selectedDelivery, associatedShipment);
                 }
             } catch (SQLException e) {
                 scheduleDeliveryView.showMessage("Error retrieving delivery details: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
@@ -0,0 +1,144 @@
+package fasttracklogistics.controller;
+
+import fasttracklogistics.dao.DeliveryDAO;
+import fasttracklogistics.model.Delivery;
+import fasttracklogistics.util.DurationHistogram;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Pickup-to-delivery durations in minutes, one {@link DurationHistogram} per personnel and month of actual delivery.
+ * A month is read from the database the first time a report covers all of it; after that, deliveries completing
+ * in it are added one at a time as their created/updated events arrive, so later reports only merge histograms.
+ * A change a histogram cannot take back (a recorded delivery's times, person or month edited, or the delivery
+ * deleted) drops its month instead, and the next report covering it reads it again.
+ *
+ * Months only partly inside a report's range are counted from a query for those days and not kept.
+ * At most {@value #MAX_CACHED_MONTHS} months are kept, least recently reported first out.
+ * Use from the event dispatch thread only.
+ */
+class DeliveryDurationStats {
+    private static final int MAX_CACHED_MONTHS = 60;
+
+    private final DeliveryDAO deliveryDAO;
+    private final LinkedHashMap<YearMonth, MonthStats> months = new LinkedHashMap<>(16, 0.75f, true); // Access order
+    private final Map<Integer, YearMonth> monthOfDelivery = new HashMap<>(); // Deliveries recorded in a kept month
+
+    /** One month: the histograms and what was recorded for each delivery, to recognise repeats and edits. */
+    private static final class MonthStats {
+        final Map<Integer, DurationHistogram> byPersonnel = new TreeMap<>();
+        final Map<Integer, Delivery> recorded = new HashMap<>();
+    }
+
+    DeliveryDurationStats(DeliveryDAO deliveryDAO) {
+        this.deliveryDAO = deliveryDAO;
+    }
+
+    /**
+     * @param from First day counted, within {@code month}.
+     * @param to Last day counted, within {@code month}.
+     * @return Histogram per personnel id (0 for unassigned) of the deliveries completed between the two days.
+     *         Owned by this object: merge from them, do not modify them.
+     * @throws SQLException If a database access error occurs.
+     */
+    Map<Integer, DurationHistogram> getHistograms(YearMonth month, LocalDate from, LocalDate to) throws SQLException {
+        boolean wholeMonth = from.equals(month.atDay(1)) && to.equals(month.atEndOfMonth());
+        if (!wholeMonth) {
+            MonthStats partial = new MonthStats();
+            for (Delivery d : deliveryDAO.getCompletedDeliveriesBetween(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+                add(partial, d, durationMinutes(d));
+            }
+            return partial.byPersonnel;
+        }
+
+        MonthStats stats = months.get(month);
+        if (stats == null) {
+            stats = new MonthStats();
+            for (Delivery d : deliveryDAO.getCompletedDeliveriesBetween(month.atDay(1).atStartOfDay(),
+                    month.plusMonths(1).atDay(1).atStartOfDay())) {
+                add(stats, d, durationMinutes(d));
+                monthOfDelivery.put(d.getDeliveryId(), month);
+            }
+            months.put(month, stats);
+            evictOldest();
+        }
+        return stats.byPersonnel;
+    }
+
+    /**
+     * Applies a created or updated delivery to the kept months.
+     */
+    void deliveryChanged(Delivery delivery) {
+        YearMonth previousMonth = monthOfDelivery.get(delivery.getDeliveryId());
+        long minutes = durationMinutes(delivery);
+        YearMonth month = minutes < 0 ? null : YearMonth.from(delivery.getActualDeliveryTime());
+
+        if (previousMonth != null) {
+            Delivery recorded = months.get(previousMonth).recorded.get(delivery.getDeliveryId());
+            if (previousMonth.equals(month) && recorded.getPersonnelId() == delivery.getPersonnelId()
+                    && durationMinutes(recorded) == minutes) {
+                return; // Already counted as it is (e.g. only its notes changed, or an event arriving after the load)
+            }
+            dropMonth(previousMonth);
+        }
+        if (month == null) return;
+        MonthStats stats = months.get(month);
+        if (stats != null) {
+            add(stats, delivery, minutes);
+            monthOfDelivery.put(delivery.getDeliveryId(), month);
+        }
+    }
+
+    void deliveryDeleted(int deliveryId) {
+        YearMonth month = monthOfDelivery.get(deliveryId);
+        if (month != null) dropMonth(month);
+    }
+
+    /** A deleted shipment takes its deliveries with it (ON DELETE CASCADE). */
+    void shipmentDeleted(int shipmentId) {
+        List<YearMonth> affected = months.entrySet().stream()
+                .filter(e -> e.getValue().recorded.values().stream().anyMatch(d -> d.getShipmentId() == shipmentId))
+                .map(Map.Entry::getKey)
+                .toList();
+        affected.forEach(this::dropMonth);
+    }
+
+    /**
+     * @return Whole minutes from actual pickup to actual delivery, or -1 if the delivery is not completed
+     *         or its timestamps are inconsistent (skipped rather than skewing the distribution).
+     */
+    static long durationMinutes(Delivery delivery) {
+        if (delivery.getActualPickupTime() == null || delivery.getActualDeliveryTime() == null) return -1;
+        long minutes = ChronoUnit.MINUTES.between(delivery.getActualPickupTime(), delivery.getActualDeliveryTime());
+        return minutes < 0 ? -1 : minutes;
+    }
+
+    private static void add(MonthStats stats, Delivery delivery, long minutes) {
+        stats.recorded.put(delivery.getDeliveryId(), delivery);
+        if (minutes < 0) return;
+        stats.byPersonnel.computeIfAbsent(delivery.getPersonnelId(), id -> new DurationHistogram()).record(minutes);
+    }
+
+    private void dropMonth(YearMonth month) {
+        MonthStats stats = months.remove(month);
+        if (stats != null) stats.recorded.keySet().forEach(monthOfDelivery::remove);
+    }
+
+    private void evictOldest() {
+        Iterator<MonthStats> leastRecent = months.values().iterator();
+        while (months.size() > MAX_CACHED_MONTHS) {
+            MonthStats stats = leastRecent.next();
+            leastRecent.remove();
+            stats.recorded.keySet().forEach(monthOfDelivery::remove);
+        }
+    }
+}
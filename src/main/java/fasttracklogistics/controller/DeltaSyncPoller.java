@@ -0,0 +1,246 @@
+package fasttracklogistics.controller;
+
+import fasttracklogistics.dao.ChangeTrackingDAO;
+import fasttracklogistics.dao.DeliveryDAO;
+import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.event.DeliveryDeleted;
+import fasttracklogistics.event.DeliveryUpdated;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.PersonnelDeleted;
+import fasttracklogistics.event.PersonnelUpdated;
+import fasttracklogistics.event.ShipmentDeleted;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.model.Delivery;
+import fasttracklogistics.model.DeliveryPersonnel;
+import fasttracklogistics.model.Shipment;
+import fasttracklogistics.model.Tombstone;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps open views current with changes made by other workstations.
+ * Every few seconds it fetches only the rows whose updated_at moved past the last watermark,
+ * plus new tombstones for deleted rows, and publishes them on the {@link DomainEventBus} as
+ * Updated/Deleted events, which the views apply row by row. Cost per poll is O(changes), not O(table).
+ *
+ * Watermarks come from the database clock. Each query reaches back an overlap window before the
+ * watermark, because a transaction can commit after a poll with an updated_at stamped before it;
+ * rows and tombstones already published within that window are skipped.
+ */
+public class DeltaSyncPoller {
+    private static final Logger LOGGER = Logger.getLogger(DeltaSyncPoller.class.getName());
+
+    private final ShipmentDAO shipmentDAO;
+    private final DeliveryPersonnelDAO personnelDAO;
+    private final DeliveryDAO deliveryDAO;
+    private final ChangeTrackingDAO changeTrackingDAO;
+    private final DomainEventBus eventBus;
+    private final Duration overlap;
+    private final Duration tombstoneRetention;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "delta-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile LocalDateTime watermark; // Written by the poller thread only; read by getWatermark()
+    // Used by the poller thread only
+    private LocalDateTime lastPurge;
+    private final Map<String, LocalDateTime> seenRowVersions = new HashMap<>(); // "table:id" -> updated_at already published
+    private final Map<Long, LocalDateTime> seenTombstones = new HashMap<>(); // tombstone_id -> deleted_at
+
+    // --- Metrics ---
+    private final AtomicLong pollCount = new AtomicLong();
+    private final AtomicLong failedPollCount = new AtomicLong();
+    private final AtomicLong changedRowCount = new AtomicLong();
+    private final AtomicLong deletedRowCount = new AtomicLong();
+    private final AtomicLong duplicateSkipCount = new AtomicLong();
+
+    /**
+     * Creates a poller with a 5 second overlap window and 24 hours of tombstone retention.
+     */
+    public DeltaSyncPoller(ShipmentDAO shipmentDAO, DeliveryPersonnelDAO personnelDAO, DeliveryDAO deliveryDAO,
+                           ChangeTrackingDAO changeTrackingDAO, DomainEventBus eventBus) {
+        this(shipmentDAO, personnelDAO, deliveryDAO, changeTrackingDAO, eventBus, Duration.ofSeconds(5), Duration.ofHours(24));
+    }
+
+    /**
+     * @param overlap How far before the watermark each poll looks again, covering late commits.
+     * @param tombstoneRetention Tombstones older than this are purged (at most once an hour).
+     */
+    public DeltaSyncPoller(ShipmentDAO shipmentDAO, DeliveryPersonnelDAO personnelDAO, DeliveryDAO deliveryDAO,
+                           ChangeTrackingDAO changeTrackingDAO, DomainEventBus eventBus,
+                           Duration overlap, Duration tombstoneRetention) {
+        this.shipmentDAO = shipmentDAO;
+        this.personnelDAO = personnelDAO;
+        this.deliveryDAO = deliveryDAO;
+        this.changeTrackingDAO = changeTrackingDAO;
+        this.eventBus = eventBus;
+        this.overlap = overlap;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Schedules polling. Call after the views have done their initial load, so the first
+     * watermark (the current database time) does not skip anything they haven't seen.
+     *
+     * @param periodSeconds Delay between the end of one poll and the start of the next.
+     */
+    public void start(long periodSeconds) {
+        start(periodSeconds, null);
+    }
+
+    /**
+     * Schedules polling, resuming from a watermark saved by an earlier session whose rows the views are
+     * showing (see {@link fasttracklogistics.service.WarmStartCache}). The first poll runs at once and
+     * publishes everything changed since, including deletions as long as their tombstones are still kept.
+     *
+     * @param periodSeconds Delay between the end of one poll and the start of the next.
+     * @param resumeFrom The saved watermark, or null to start from the current database time.
+     */
+    public void start(long periodSeconds, LocalDateTime resumeFrom) {
+        if (resumeFrom == null) {
+            scheduler.execute(this::initWatermark);
+        } else {
+            scheduler.execute(() -> {
+                watermark = resumeFrom;
+                lastPurge = resumeFrom;
+                runOnce();
+            });
+        }
+        scheduler.scheduleWithFixedDelay(this::runOnce, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return Database time up to which changes have been published, or null before the first
+     *         successful read of the database clock.
+     */
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        LOGGER.log(Level.INFO, "Delta sync stopped: " + getMetricsSummary());
+    }
+
+    private void initWatermark() {
+        try {
+            watermark = changeTrackingDAO.getDatabaseTime();
+            lastPurge = watermark;
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not read database time, delta sync will retry on the next poll", e);
+        }
+    }
+
+    /**
+     * Fetches and publishes one round of changes. Failures are logged and the same window is retried next time.
+     */
+    public void runOnce() {
+        if (watermark == null) {
+            initWatermark();
+            return;
+        }
+        try {
+            LocalDateTime pollTime = changeTrackingDAO.getDatabaseTime();
+            LocalDateTime since = watermark.minus(overlap);
+
+            for (Shipment shipment : shipmentDAO.getShipmentsChangedSince(since)) {
+                if (firstSeen(ChangeTrackingDAO.TABLE_SHIPMENTS, shipment.getShipmentId(), shipment.getUpdatedAt())) {
+                    eventBus.publish(new ShipmentUpdated(shipment));
+                }
+            }
+            for (DeliveryPersonnel personnel : personnelDAO.getPersonnelChangedSince(since)) {
+                if (firstSeen(ChangeTrackingDAO.TABLE_PERSONNEL, personnel.getPersonnelId(), personnel.getUpdatedAt())) {
+                    eventBus.publish(new PersonnelUpdated(personnel));
+                }
+            }
+            for (Delivery delivery : deliveryDAO.getDeliveriesChangedSince(since)) {
+                if (firstSeen(ChangeTrackingDAO.TABLE_DELIVERIES, delivery.getDeliveryId(), delivery.getUpdatedAt())) {
+                    eventBus.publish(new DeliveryUpdated(delivery));
+                }
+            }
+            for (Tombstone tombstone : changeTrackingDAO.getTombstonesSince(since)) {
+                if (seenTombstones.putIfAbsent(tombstone.getTombstoneId(), tombstone.getDeletedAt()) != null) {
+                    duplicateSkipCount.incrementAndGet();
+                    continue;
+                }
+                seenRowVersions.remove(tombstone.getTableName() + ":" + tombstone.getRowId());
+                publishDeletion(tombstone);
+            }
+
+            watermark = pollTime;
+            forgetBefore(pollTime.minus(overlap));
+            pollCount.incrementAndGet();
+
+            if (Duration.between(lastPurge, pollTime).toHours() >= 1) {
+                lastPurge = pollTime;
+                int purged = changeTrackingDAO.purgeTombstonesBefore(pollTime.minus(tombstoneRetention));
+                if (purged > 0) {
+                    LOGGER.log(Level.INFO, "Purged " + purged + " tombstone(s) older than " + tombstoneRetention.toHours() + "h");
+                }
+            }
+        } catch (SQLException e) {
+            failedPollCount.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Delta sync poll failed", e);
+        }
+    }
+
+    /**
+     * @return true if this version of the row has not been published yet (and records it as published).
+     */
+    private boolean firstSeen(String table, int rowId, LocalDateTime updatedAt) {
+        LocalDateTime previous = seenRowVersions.put(table + ":" + rowId, updatedAt);
+        if (previous != null && updatedAt != null && !updatedAt.isAfter(previous)) {
+            duplicateSkipCount.incrementAndGet();
+            return false;
+        }
+        changedRowCount.incrementAndGet();
+        return true;
+    }
+
+    private void publishDeletion(Tombstone tombstone) {
+        switch (tombstone.getTableName()) {
+            case ChangeTrackingDAO.TABLE_SHIPMENTS -> eventBus.publish(new ShipmentDeleted(tombstone.getRowId()));
+            case ChangeTrackingDAO.TABLE_PERSONNEL -> eventBus.publish(new PersonnelDeleted(tombstone.getRowId()));
+            case ChangeTrackingDAO.TABLE_DELIVERIES -> eventBus.publish(new DeliveryDeleted(tombstone.getRowId()));
+            default -> {
+                LOGGER.log(Level.FINE, "Ignoring tombstone for table " + tombstone.getTableName());
+                return;
+            }
+        }
+        deletedRowCount.incrementAndGet();
+    }
+
+    /** Drops dedupe entries that have fallen out of the overlap window, so memory stays O(recent changes). */
+    private void forgetBefore(LocalDateTime cutoff) {
+        seenRowVersions.values().removeIf(updatedAt -> updatedAt == null || updatedAt.isBefore(cutoff));
+        seenTombstones.values().removeIf(deletedAt -> deletedAt.isBefore(cutoff));
+    }
+
+    // --- Metrics ---
+    public long getPollCount() { return pollCount.get(); }
+    public long getFailedPollCount() { return failedPollCount.get(); }
+    public long getChangedRowCount() { return changedRowCount.get(); }
+    public long getDeletedRowCount() { return deletedRowCount.get(); }
+
+    /**
+     * @return A one-line summary of poll metrics, suitable for logging.
+     */
+    public String getMetricsSummary() {
+        return String.format("polls=%d failed=%d changed=%d deleted=%d duplicatesSkipped=%d",
+                getPollCount(), getFailedPollCount(), getChangedRowCount(), getDeletedRowCount(), duplicateSkipCount.get());
+    }
+}
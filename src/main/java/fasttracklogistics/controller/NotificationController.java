@@ -1,22 +1,36 @@
 package fasttracklogistics.controller;
 
 import fasttracklogistics.view.NotificationPanel;
+import fasttracklogistics.dao.BroadcastSegment;
+import fasttracklogistics.dao.NotificationArchiveDAO;
 import fasttracklogistics.dao.NotificationDAO;
 import fasttracklogistics.dao.ShipmentDAO;
-import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.event.DeliveryAssigned;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.PersonnelCreated;
+import fasttracklogistics.event.PersonnelDeleted;
+import fasttracklogistics.event.PersonnelUpdated;
+import fasttracklogistics.event.ShipmentDeleted;
+import fasttracklogistics.event.ShipmentUpdated;
 import fasttracklogistics.model.Notification; // Generic Notification model (used internally by DAO)
+import fasttracklogistics.model.NotificationCounts;
 import fasttracklogistics.model.CustomerNotification; // New specific model
 import fasttracklogistics.model.PersonnelNotification; // New specific model
-import fasttracklogistics.model.Shipment;
-import fasttracklogistics.model.DeliveryPersonnel;
+import fasttracklogistics.service.ReferenceDataRegistry;
 
 import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors; // Needed for stream operations
@@ -24,34 +38,80 @@ import java.util.stream.Collectors; // Needed for stream operations
 public class NotificationController {
     private NotificationPanel notificationPanel;
     private NotificationDAO notificationDAO;
+    private NotificationArchiveDAO notificationArchiveDAO;
     private ShipmentDAO shipmentDAO;
-    private DeliveryPersonnelDAO personnelDAO;
+    private ReferenceDataRegistry referenceData;
+    private DomainEventBus eventBus;
 
     private static final Logger LOGGER = Logger.getLogger(NotificationController.class.getName());
 
+    private static final int PAGE_SIZE = 50;
+
+    // Keyset paging state for the active tab: the last row of each page already passed (null = first page)
+    private final List<Notification> previousPageCursors = new ArrayList<>(); // Used as a stack; null entries allowed
+    private Notification currentPageCursor;
+    private Notification currentPageLastRow;
+    private int latestPageRequest; // Only the newest page load is shown
+    // One background counter read at a time; assignments arriving meanwhile are covered by one more read (EDT only)
+    private boolean counterRefreshRunning;
+    private boolean counterRefreshRequested;
+
     public NotificationController(NotificationPanel notificationPanel,
                                   NotificationDAO notificationDAO,
+                                  NotificationArchiveDAO notificationArchiveDAO,
                                   ShipmentDAO shipmentDAO,
-                                  DeliveryPersonnelDAO personnelDAO) {
+                                  ReferenceDataRegistry referenceData,
+                                  DomainEventBus eventBus) {
         this.notificationPanel = notificationPanel;
         this.notificationDAO = notificationDAO;
+        this.notificationArchiveDAO = notificationArchiveDAO;
         this.shipmentDAO = shipmentDAO;
-        this.personnelDAO = personnelDAO;
+        this.referenceData = referenceData;
+        this.eventBus = eventBus;
 
         initListeners();
+        subscribeToChanges();
         loadInitialData();
     }
 
-    private void initListeners() {
-        notificationPanel.addSendButtonListener(e -> sendNotification());
-        notificationPanel.addRefreshButtonListener(e -> loadNotificationsForActiveTab());
+    // Shipment changes rename the shown rows and picks; personnel changes rebuild the personnel choices; new assignments update the badges.
+    // The registry has applied the change to the names before these run.
+    private void subscribeToChanges() {
+        eventBus.subscribeOnEdt(ShipmentUpdated.class, e -> notificationPanel.updateShipment(e.getShipment()));
+        eventBus.subscribeOnEdt(ShipmentDeleted.class, e -> notificationPanel.removeShipment(e.getShipmentId()));
+        eventBus.subscribeOnEdt(PersonnelCreated.class, e -> notificationPanel.populatePersonnelComboBox());
+        eventBus.subscribeOnEdt(PersonnelUpdated.class, e -> notificationPanel.populatePersonnelComboBox());
+        eventBus.subscribeOnEdt(PersonnelDeleted.class, e -> notificationPanel.populatePersonnelComboBox());
+        eventBus.subscribeOnEdt(DeliveryAssigned.class, e -> refreshCounters());
+    }
 
-        notificationPanel.addRecipientTypeComboBoxListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                handleRecipientTypeChange();
+    /**
+     * Ids of the personnel recipients whose display name ("Name (id)") contains the typed text, ignoring case.
+     * The personnel list is small, so this filters the registry's snapshot rather than querying.
+     */
+    private List<Integer> findPersonnel(String text, int limit) {
+        String needle = text.toLowerCase(Locale.ROOT);
+        ReferenceDataRegistry.Snapshot names = referenceData.getSnapshot();
+        List<Integer> matches = new ArrayList<>();
+        for (int personnelId : names.getPersonnelIds()) {
+            if (matches.size() >= limit) break;
+            if (needle.isEmpty() || names.getPersonnelName(personnelId).toLowerCase(Locale.ROOT).contains(needle)) {
+                matches.add(personnelId);
             }
-        });
+        }
+        return matches;
+    }
+
+    private void initListeners() {
+        notificationPanel.addSendButtonListener(e -> sendNotification());
+        notificationPanel.addBroadcastButtonListener(e -> broadcastNotification());
+        notificationPanel.addRefreshButtonListener(e -> loadCurrentPage());
+        notificationPanel.addOlderPageButtonListener(e -> showOlderPage());
+        notificationPanel.addNewerPageButtonListener(e -> showNewerPage());
+        notificationPanel.addMarkReadButtonListener(e -> markSelectedRead());
+        notificationPanel.addViewArchiveToggleListener(e -> loadNotificationsForActiveTab());
+        notificationPanel.setShipmentSource(shipmentDAO::findShipmentsByPrefix);
+        notificationPanel.setPersonnelSource(this::findPersonnel);
 
         // Listener for JTabbedPane selection changes
         notificationPanel.getNotificationTabbedPane().addChangeListener(new ChangeListener() {
@@ -62,19 +122,27 @@ public class NotificationController {
         });
     }
 
+    /**
+     * Reads the personnel names the constructor needs into the registry, so the constructor runs no query
+     * (the first page of notifications is read in the background). Called on a background thread before the tab is wired up.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    public static void preload(ReferenceDataRegistry referenceData) throws SQLException {
+        referenceData.loadPersonnel();
+    }
+
     // Initial data loading when the controller is created
     public void loadInitialData() {
         try {
-            // Populate maps in NotificationPanel and pass to sub-panels
-            List<Shipment> shipments = shipmentDAO.getAllShipments();
-            notificationPanel.populateRelatedShipmentComboBox(shipments);
-            notificationPanel.populateCustomerComboBox(shipments);
+            referenceData.loadPersonnel(); // Once for all panels
+            notificationPanel.populatePersonnelComboBox();
 
-            List<DeliveryPersonnel> personnelList = personnelDAO.getAllPersonnel();
-            notificationPanel.populatePersonnelComboBox(personnelList);
+            notificationPanel.populateBroadcastSegmentComboBox(Arrays.stream(BroadcastSegment.values())
+                    .map(BroadcastSegment::getDisplayName)
+                    .collect(Collectors.toList()));
 
             notificationPanel.setSelectedRecipientType("Customer");
-            handleRecipientTypeChange();
 
             // Load notifications for the initially selected tab (Customer Notifications)
             loadNotificationsForActiveTab();
@@ -85,22 +153,6 @@ public class NotificationController {
         }
     }
 
-    private void handleRecipientTypeChange() {
-        String selectedType = notificationPanel.getSelectedRecipientType();
-        try {
-            if ("Customer".equals(selectedType)) {
-                List<Shipment> shipments = shipmentDAO.getAllShipments();
-                notificationPanel.populateCustomerComboBox(shipments);
-            } else if ("Personnel".equals(selectedType)) {
-                List<DeliveryPersonnel> personnelList = personnelDAO.getAllPersonnel();
-                notificationPanel.populatePersonnelComboBox(personnelList);
-            }
-        } catch (SQLException ex) {
-            LOGGER.log(Level.SEVERE, "Error populating recipient combo box", ex);
-            notificationPanel.showMessage("Error loading recipients: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
     private void sendNotification() {
         String recipientType = notificationPanel.getSelectedRecipientType();
         int recipientId = notificationPanel.getSelectedRecipientId(); // Shipment ID for customer, Personnel ID for personnel
@@ -116,126 +168,262 @@ public class NotificationController {
             return;
         }
 
-        try {
-            if ("Customer".equals(recipientType)) {
-                CustomerNotification newCustomerNotification = new CustomerNotification(
-                        recipientId,        // This is the customer's associated shipment ID
-                        relatedShipmentId,  // This is the related shipment ID, potentially different from recipientId
-                        message,
-                        notificationType,
-                        contactMethod
-                );
-                notificationDAO.addCustomerNotification(newCustomerNotification);
-            } else if ("Personnel".equals(recipientType)) {
-                PersonnelNotification newPersonnelNotification = new PersonnelNotification(
-                        recipientId,        // This is the personnel's ID
-                        relatedShipmentId,
-                        relatedPersonnelId, // Can be 0 if not applicable
-                        message,
-                        notificationType,
-                        contactMethod
-                );
-                notificationDAO.addPersonnelNotification(newPersonnelNotification);
+        // The INSERT runs on a background thread so the EDT stays responsive; the result is reported back on the EDT
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws SQLException {
+                if ("Customer".equals(recipientType)) {
+                    CustomerNotification newCustomerNotification = new CustomerNotification(
+                            recipientId,        // This is the customer's associated shipment ID
+                            relatedShipmentId,  // This is the related shipment ID, potentially different from recipientId
+                            message,
+                            notificationType,
+                            contactMethod
+                    );
+                    notificationDAO.addCustomerNotification(newCustomerNotification);
+                } else if ("Personnel".equals(recipientType)) {
+                    PersonnelNotification newPersonnelNotification = new PersonnelNotification(
+                            recipientId,        // This is the personnel's ID
+                            relatedShipmentId,
+                            relatedPersonnelId, // Can be 0 if not applicable
+                            message,
+                            notificationType,
+                            contactMethod
+                    );
+                    notificationDAO.addPersonnelNotification(newPersonnelNotification);
+                }
+                return null;
             }
 
-            notificationPanel.showMessage("Notification sent successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            notificationPanel.clearSendNotificationFields();
-
-            // Refresh the tab corresponding to the notification that was just sent
-            int tabIndex = notificationPanel.getNotificationTabbedPane().indexOfTab(recipientType + " Notifications");
-            if(tabIndex != -1) {
-                notificationPanel.getNotificationTabbedPane().setSelectedIndex(tabIndex);
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    notificationPanel.showMessage("Notification sent successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    notificationPanel.clearSendNotificationFields();
+
+                    // Refresh the tab corresponding to the notification that was just sent
+                    notificationPanel.selectRecipientTypeTab(recipientType);
+                    loadNotificationsForActiveTab(); // Refresh the active tab
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    LOGGER.log(Level.SEVERE, "Error sending notification", ex.getCause());
+                    notificationPanel.showMessage("Error sending notification: " + ex.getCause().getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+                }
             }
-            loadNotificationsForActiveTab(); // Refresh the active tab
-        } catch (SQLException ex) {
-            LOGGER.log(Level.SEVERE, "Error sending notification", ex);
-            notificationPanel.showMessage("Error sending notification: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }.execute();
     }
 
     /**
-     * Determines the currently active tab and loads notifications for its type.
-     * It fetches generic Notifications from DAO and converts them to specific models for the view.
+     * Sends the composed message to every recipient in the selected segment.
+     * The segment is counted and then copied into the notifications table server-side in chunks
+     * on a background thread; the progress bar is updated after each chunk.
      */
-    private void loadNotificationsForActiveTab() {
-        int selectedIndex = notificationPanel.getNotificationTabbedPane().getSelectedIndex();
-        String tabTitle = notificationPanel.getNotificationTabbedPane().getTitleAt(selectedIndex);
-
-        String recipientTypeToLoad = null;
-        if (tabTitle.equals("Customer Notifications")) {
-            recipientTypeToLoad = "Customer";
-        } else if (tabTitle.equals("Personnel Notifications")) {
-            recipientTypeToLoad = "Personnel";
+    private void broadcastNotification() {
+        BroadcastSegment segment = BroadcastSegment.fromDisplayName(notificationPanel.getSelectedBroadcastSegment());
+        String filterValue = notificationPanel.getBroadcastFilterValue();
+        String message = notificationPanel.getNotificationMessage();
+        String notificationType = notificationPanel.getNotificationType();
+        String contactMethod = notificationPanel.getContactMethod();
+
+        if (segment == null || filterValue.isEmpty() || message.isEmpty()) {
+            notificationPanel.showMessage("Segment, matching value and message cannot be empty.", "Validation Error", JOptionPane.WARNING_MESSAGE);
+            return;
         }
 
-        if (recipientTypeToLoad != null) {
-            try {
-                // DAO still returns generic Notification objects
-                List<Notification> genericNotifications = notificationDAO.getNotificationsByRecipientType(recipientTypeToLoad);
+        notificationPanel.setBroadcastInProgress(true);
+        notificationPanel.setBroadcastStatus(" ");
+        long start = System.nanoTime();
 
-                // Pass the generic notifications to the panel, which will handle filtering and conversion to specific models for display
-                notificationPanel.displayNotifications(genericNotifications, recipientTypeToLoad);
+        new SwingWorker<Integer, Integer>() {
+            private volatile int total;
 
-            } catch (SQLException ex) {
-                LOGGER.log(Level.SEVERE, "Error loading " + recipientTypeToLoad + " notifications", ex);
-                notificationPanel.showMessage("Error loading " + recipientTypeToLoad + " notifications: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            @Override
+            protected Integer doInBackground() throws SQLException {
+                total = notificationDAO.countBroadcastRecipients(segment, filterValue);
+                publish(0);
+                if (total == 0) {
+                    return 0;
+                }
+                return notificationDAO.broadcastToSegment(segment, filterValue, message, notificationType, contactMethod, this::publish);
             }
-        }
-    }
 
-    // --- Automated Notification Methods (UPDATED to use new specific models for adding to DAO) ---
+            @Override
+            protected void process(List<Integer> chunks) {
+                notificationPanel.setBroadcastProgress(chunks.get(chunks.size() - 1), total);
+            }
+
+            @Override
+            protected void done() {
+                notificationPanel.setBroadcastInProgress(false);
+                try {
+                    int inserted = get();
+                    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+                    notificationPanel.setBroadcastProgress(inserted, Math.max(total, inserted));
+                    notificationPanel.setBroadcastStatus("Queued " + inserted + " notification(s) in " + elapsedMillis + " ms");
+                    LOGGER.log(Level.INFO, "Broadcast to " + segment + " '" + filterValue + "' queued " + inserted + " notifications");
+                    loadNotificationsForActiveTab();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    LOGGER.log(Level.SEVERE, "Error broadcasting notification", ex.getCause());
+                    notificationPanel.setBroadcastStatus("Broadcast failed");
+                    notificationPanel.showMessage("Error broadcasting notification: " + ex.getCause().getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
 
     /**
-     * Sends a notification to a customer about their shipment status.
-     * @param shipment The shipment object for which to send the notification.
-     * @param notificationMessage The specific message for the customer.
-     * @param notificationType The type of notification (e.g., "Status Update", "Delay").
+     * Shows the first (newest) page of notifications for the active tab.
+     * Called on tab changes and after sends, so paging restarts from the top.
      */
-    public void sendCustomerShipmentNotification(Shipment shipment, String notificationMessage, String notificationType) {
-        if (shipment == null) return;
+    private void loadNotificationsForActiveTab() {
+        previousPageCursors.clear();
+        currentPageCursor = null;
+        loadCurrentPage();
+    }
 
-        int customerId = shipment.getShipmentId(); // Use shipment ID as proxy for customer ID for recipient_id
+    private void showOlderPage() {
+        if (currentPageLastRow == null) return;
+        previousPageCursors.add(currentPageCursor);
+        currentPageCursor = currentPageLastRow;
+        loadCurrentPage();
+    }
 
-        try {
-            CustomerNotification notification = new CustomerNotification(
-                    customerId,             // customerShipmentId (recipient_id in DB)
-                    shipment.getShipmentId(), // relatedShipmentId
-                    notificationMessage,
-                    notificationType,
-                    "App" // Default contact method for automated notifications
-            );
-            notificationDAO.addCustomerNotification(notification); // Call the specific add method
-            LOGGER.log(Level.INFO, "Automated customer notification sent for shipment ID: " + shipment.getShipmentId());
-        } catch (SQLException ex) {
-            LOGGER.log(Level.SEVERE, "Failed to send automated customer notification for shipment ID: " + shipment.getShipmentId(), ex);
+    private void showNewerPage() {
+        if (previousPageCursors.isEmpty()) return;
+        currentPageCursor = previousPageCursors.remove(previousPageCursors.size() - 1);
+        loadCurrentPage();
+    }
+
+    /** A page read in the background, with the counters read alongside it. */
+    private record LoadedPage(List<Notification> rows, boolean hasOlder, NotificationCounts customerCounts,
+                              NotificationCounts personnelCounts) {}
+
+    /**
+     * Loads the page starting after {@link #currentPageCursor} for the active tab (inbox or archive), plus the counters.
+     * It fetches generic Notifications from DAO and the panel converts them to specific models for the view.
+     * One extra row is requested to know whether an older page exists. The queries run on a background thread;
+     * a page still loading when another is asked for is not shown.
+     */
+    private void loadCurrentPage() {
+        String recipientTypeToLoad = notificationPanel.getActiveRecipientType();
+        if (recipientTypeToLoad == null) {
+            return;
         }
+
+        LocalDateTime afterTimestamp = currentPageCursor != null ? currentPageCursor.getTimestamp() : null;
+        int afterId = currentPageCursor != null ? currentPageCursor.getNotificationId() : 0;
+        boolean viewingArchive = notificationPanel.isViewingArchive();
+        int request = ++latestPageRequest;
+        new SwingWorker<LoadedPage, Void>() {
+            @Override
+            protected LoadedPage doInBackground() throws SQLException {
+                // The archive is only read when the user explicitly asks for it
+                List<Notification> page = viewingArchive
+                        ? notificationArchiveDAO.getArchivedNotificationsPage(recipientTypeToLoad, 0, afterTimestamp, afterId, PAGE_SIZE + 1)
+                        : notificationDAO.getNotificationsPage(recipientTypeToLoad, 0, afterTimestamp, afterId, PAGE_SIZE + 1);
+                boolean hasOlder = page.size() > PAGE_SIZE;
+                if (hasOlder) {
+                    page = page.subList(0, PAGE_SIZE);
+                }
+
+                // Name only the shipments this page refers to (customer recipients are shipment ids too)
+                Set<Integer> shipmentIds = new LinkedHashSet<>();
+                for (Notification n : page) {
+                    if ("Customer".equals(n.getRecipientType())) shipmentIds.add(n.getRecipientId());
+                    shipmentIds.add(n.getRelatedShipmentId());
+                }
+                referenceData.loadShipmentNames(shipmentIds); // Skips 0 and names already loaded
+
+                return new LoadedPage(page, hasOlder,
+                        notificationDAO.getTypeTotalCounts("Customer"),
+                        notificationDAO.getTypeTotalCounts("Personnel"));
+            }
+
+            @Override
+            protected void done() {
+                if (request != latestPageRequest) return; // A newer page is on its way
+                try {
+                    LoadedPage loaded = get();
+                    List<Notification> page = loaded.rows();
+                    currentPageLastRow = loaded.hasOlder() ? page.get(page.size() - 1) : null;
+                    // Pass the generic notifications to the panel, which will handle filtering and conversion to specific models for display
+                    notificationPanel.displayNotifications(page, recipientTypeToLoad);
+                    notificationPanel.setPageInfo(previousPageCursors.size() + 1, !previousPageCursors.isEmpty(), loaded.hasOlder());
+                    showCounters(loaded.customerCounts(), loaded.personnelCounts());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    LOGGER.log(Level.SEVERE, "Error loading " + recipientTypeToLoad + " notifications", ex.getCause());
+                    notificationPanel.showMessage("Error loading " + recipientTypeToLoad + " notifications: " + ex.getCause().getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }
 
+    /** Both recipient types' counters, read together in the background. */
+    private record TypeTotals(NotificationCounts customerCounts, NotificationCounts personnelCounts) {}
+
     /**
-     * Sends a notification to delivery personnel (driver) about an assignment or route change.
-     * @param personnel The DeliveryPersonnel object.
-     * @param shipment The related shipment (optional, can be null if not assignment specific).
-     * @param notificationMessage The specific message for the personnel.
-     * @param notificationType The type of notification (e.g., "Assignment", "Route Change", "Urgent").
+     * Updates the tab badges and the active tab's unread/total label from the maintained counters, read in the
+     * background. A burst of assignments costs at most one read in flight and one after it.
      */
-    public void sendPersonnelNotification(DeliveryPersonnel personnel, Shipment shipment, String notificationMessage, String notificationType) {
-        if (personnel == null) return;
+    private void refreshCounters() {
+        if (counterRefreshRunning) {
+            counterRefreshRequested = true;
+            return;
+        }
+        counterRefreshRunning = true;
+        new SwingWorker<TypeTotals, Void>() {
+            @Override
+            protected TypeTotals doInBackground() throws SQLException {
+                return new TypeTotals(notificationDAO.getTypeTotalCounts("Customer"),
+                        notificationDAO.getTypeTotalCounts("Personnel"));
+            }
+
+            @Override
+            protected void done() {
+                counterRefreshRunning = false;
+                try {
+                    TypeTotals totals = get();
+                    showCounters(totals.customerCounts(), totals.personnelCounts());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    // The badges keep their last values until the next refresh or page load
+                    LOGGER.log(Level.WARNING, "Could not refresh notification counters", ex.getCause());
+                }
+                if (counterRefreshRequested) {
+                    counterRefreshRequested = false;
+                    refreshCounters();
+                }
+            }
+        }.execute();
+    }
 
-        int relatedShipmentId = (shipment != null) ? shipment.getShipmentId() : 0;
+    private void showCounters(NotificationCounts customerCounts, NotificationCounts personnelCounts) {
+        notificationPanel.setUnreadBadge("Customer", customerCounts.getUnreadCount());
+        notificationPanel.setUnreadBadge("Personnel", personnelCounts.getUnreadCount());
 
+        NotificationCounts active = "Customer".equals(notificationPanel.getActiveRecipientType()) ? customerCounts : personnelCounts;
+        notificationPanel.setNotificationCounts(active.getUnreadCount(), active.getTotalCount());
+    }
+
+    private void markSelectedRead() {
+        List<Integer> selectedIds = notificationPanel.getSelectedNotificationIds();
+        if (selectedIds.isEmpty()) {
+            notificationPanel.showMessage("Please select one or more notifications.", "No Selection", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
         try {
-            PersonnelNotification notification = new PersonnelNotification(
-                    personnel.getPersonnelId(), // personnelId (recipient_id in DB)
-                    relatedShipmentId,
-                    0, // relatedPersonnelId (not applicable for this scenario)
-                    notificationMessage,
-                    notificationType,
-                    "App" // Default contact method
-            );
-            notificationDAO.addPersonnelNotification(notification); // Call the specific add method
-            LOGGER.log(Level.INFO, "Automated personnel notification sent to ID: " + personnel.getPersonnelId());
+            notificationDAO.updateNotificationsReadStatus(selectedIds, true);
+            loadCurrentPage();
         } catch (SQLException ex) {
-            LOGGER.log(Level.SEVERE, "Failed to send automated personnel notification to ID: " + personnel.getPersonnelId(), ex);
+            LOGGER.log(Level.SEVERE, "Error marking notifications as read", ex);
+            notificationPanel.showMessage("Error updating notifications: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
         }
     }
-}
\ No newline at end of file
+}
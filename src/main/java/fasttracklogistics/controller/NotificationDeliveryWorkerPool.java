@@ -0,0 +1,371 @@
+package fasttracklogistics.controller;
+
+import fasttracklogistics.controller.channel.NotificationChannel;
+import fasttracklogistics.controller.channel.NotificationChannelRegistry;
+import fasttracklogistics.controller.channel.NotificationDeliveryException;
+import fasttracklogistics.dao.NotificationDAO;
+import fasttracklogistics.model.Notification;
+import fasttracklogistics.util.DurationHistogram;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of delivery workers draining the notifications outbox.
+ * Each worker repeatedly claims a small batch of due 'Pending' rows
+ * ({@link NotificationDAO#claimPendingNotifications(String, int, int)} uses SKIP LOCKED, so workers in this
+ * or any other process never claim the same row), hands each one to its {@link NotificationChannel}
+ * and marks it 'Sent', or schedules a retry with exponential backoff and jitter.
+ * After {@code maxAttempts} failures, or on a permanent failure, the row moves to 'Dead'.
+ *
+ * Workers only claim and mark rows; each claimed notification is sent on its own virtual thread and
+ * the worker waits for the batch, so a slow gateway parks cheap virtual threads instead of holding
+ * platform threads, and per-channel concurrency is bounded by the channels themselves.
+ * Throughput scales with the number of workers and the claim batch size; a housekeeping thread returns rows claimed by
+ * a crashed worker to 'Pending' once their claim is older than the stale-claim timeout, and samples each lane's
+ * pending depth for the metrics.
+ *
+ * Workers claim one {@link NotificationLane} at a time, choosing lanes by weighted round robin,
+ * so Urgent and Assignment rows get most of the capacity without starving routine updates.
+ * The first {@code reservedUrgentWorkers} workers only ever claim the Urgent lane and poll it
+ * more often, which bounds urgent latency even when bulk traffic keeps every other worker busy.
+ *
+ * An optional {@link NotificationRateLimiter} is consulted before each send. A notification over
+ * its recipient (Urgent is exempt) or channel limit is not sent and not counted as an attempt; it goes back to 'Pending'
+ * with next_attempt_at set to when a token is expected, so bursts are smoothed rather than dropped.
+ */
+public class NotificationDeliveryWorkerPool {
+    private static final Logger LOGGER = Logger.getLogger(NotificationDeliveryWorkerPool.class.getName());
+
+    private static final long MAX_BACKOFF_SECONDS = 3_600;
+
+    private final NotificationDAO notificationDAO;
+    private final NotificationChannelRegistry channelRegistry;
+    private final NotificationRateLimiter rateLimiter; // Null means unlimited
+    private final int workerCount;
+    private final int claimBatchSize;
+    private final int maxAttempts;
+    private final long baseBackoffSeconds;
+    private final long idlePollMillis;
+    private final int staleClaimSeconds;
+    private final int reservedUrgentWorkers;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread housekeeper;
+    private volatile boolean running;
+
+    // --- Metrics ---
+    private final AtomicLong claimedCount = new AtomicLong();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong retriedCount = new AtomicLong();
+    private final AtomicLong deadLetteredCount = new AtomicLong();
+    private final AtomicLong releasedCount = new AtomicLong();
+    private final AtomicLong rateLimitedCount = new AtomicLong();
+    private final Map<NotificationLane, AtomicLong> sentByLane = new EnumMap<>(NotificationLane.class);
+    private final Map<NotificationLane, AtomicLong> pendingDepthByLane = new EnumMap<>(NotificationLane.class); // As of the last sweep
+    private final Map<NotificationLane, DurationHistogram> deliveryAgeSecondsByLane = new EnumMap<>(NotificationLane.class); // Each guarded by itself
+
+    /**
+     * Creates a pool with default tuning: batches of 20, 6 attempts, 5 s base backoff,
+     * 500 ms idle poll, a 5 minute stale-claim timeout and one worker reserved for Urgent (if there are two or more).
+     */
+    public NotificationDeliveryWorkerPool(NotificationDAO notificationDAO, NotificationChannelRegistry channelRegistry,
+                                          NotificationRateLimiter rateLimiter, int workerCount) {
+        this(notificationDAO, channelRegistry, rateLimiter, workerCount, 20, 6, 5, 500, 300, workerCount > 1 ? 1 : 0);
+    }
+
+    /**
+     * @param notificationDAO DAO used to claim and mark outbox rows.
+     * @param channelRegistry Resolves a notification's contact method to a channel.
+     * @param rateLimiter Per-recipient and per-channel limits checked before each send, or null for none.
+     * @param workerCount Number of concurrent delivery workers.
+     * @param claimBatchSize Rows claimed per round trip.
+     * @param maxAttempts Delivery attempts before a notification is dead-lettered.
+     * @param baseBackoffSeconds Delay before the first retry; doubled on each further attempt (capped at 1 hour).
+     * @param idlePollMillis How long a worker sleeps when the outbox has nothing due.
+     * @param staleClaimSeconds Age after which a 'Processing' claim is considered abandoned.
+     * @param reservedUrgentWorkers How many of the workers only deliver Urgent notifications.
+     */
+    public NotificationDeliveryWorkerPool(NotificationDAO notificationDAO, NotificationChannelRegistry channelRegistry,
+                                          NotificationRateLimiter rateLimiter, int workerCount, int claimBatchSize, int maxAttempts,
+                                          long baseBackoffSeconds, long idlePollMillis, int staleClaimSeconds,
+                                          int reservedUrgentWorkers) {
+        this.notificationDAO = notificationDAO;
+        this.channelRegistry = channelRegistry;
+        this.rateLimiter = rateLimiter;
+        this.workerCount = workerCount;
+        this.claimBatchSize = claimBatchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffSeconds = baseBackoffSeconds;
+        this.idlePollMillis = idlePollMillis;
+        this.staleClaimSeconds = staleClaimSeconds;
+        this.reservedUrgentWorkers = Math.min(reservedUrgentWorkers, workerCount);
+        for (NotificationLane lane : NotificationLane.values()) {
+            sentByLane.put(lane, new AtomicLong());
+            pendingDepthByLane.put(lane, new AtomicLong());
+            deliveryAgeSecondsByLane.put(lane, new DurationHistogram());
+        }
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        String processId = String.valueOf(ProcessHandle.current().pid());
+        for (int i = 0; i < workerCount; i++) {
+            String workerId = "pid-" + processId + "-worker-" + i;
+            Set<NotificationLane> claimableLanes = i < reservedUrgentWorkers
+                    ? EnumSet.of(NotificationLane.URGENT) : EnumSet.allOf(NotificationLane.class);
+            Thread worker = new Thread(() -> runWorker(workerId, claimableLanes), "notification-delivery-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        housekeeper = new Thread(this::runHousekeeping, "notification-delivery-housekeeping");
+        housekeeper.setDaemon(true);
+        housekeeper.start();
+    }
+
+    /**
+     * Stops claiming new rows and waits for in-flight batches to finish.
+     * Anything still claimed after the timeout is recovered later as a stale claim.
+     *
+     * @param timeoutMillis Maximum total time to wait for the workers.
+     */
+    public synchronized void shutdown(long timeoutMillis) {
+        running = false;
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (Thread worker : workers) {
+            try {
+                worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (housekeeper != null) {
+            housekeeper.interrupt();
+        }
+        senders.shutdown();
+        LOGGER.log(Level.INFO, "Notification delivery workers stopped: " + getMetricsSummary());
+    }
+
+    private void runWorker(String workerId, Set<NotificationLane> claimableLanes) {
+        WeightedLaneScheduler laneScheduler = new WeightedLaneScheduler();
+        Set<NotificationLane> drainedLanes = EnumSet.noneOf(NotificationLane.class);
+        long pollMillis = claimableLanes.size() == 1 ? Math.max(50, idlePollMillis / 5) : idlePollMillis;
+
+        while (running) {
+            // Lanes found empty in this round are skipped until some lane yields work again
+            NotificationLane lane = laneScheduler.next(l -> claimableLanes.contains(l) && !drainedLanes.contains(l));
+            if (lane == null) {
+                drainedLanes.clear();
+                sleepQuietly(pollMillis);
+                continue;
+            }
+
+            List<Notification> claimed;
+            try {
+                claimed = notificationDAO.claimPendingNotifications(workerId, lane.getPriority(), claimBatchSize);
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, workerId + " could not claim notifications", e);
+                claimed = List.of();
+            }
+
+            if (claimed.isEmpty()) {
+                drainedLanes.add(lane);
+                continue;
+            }
+            drainedLanes.clear();
+            claimedCount.addAndGet(claimed.size());
+            deliverBatch(workerId, claimed);
+        }
+    }
+
+    private void deliverBatch(String workerId, List<Notification> claimed) {
+        List<Future<?>> sends = new ArrayList<>(claimed.size());
+        for (Notification notification : claimed) {
+            sends.add(senders.submit(() -> deliver(notification)));
+        }
+        for (Future<?> send : sends) {
+            try {
+                send.get();
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.SEVERE, workerId + " delivery task failed", e.getCause());
+            } catch (InterruptedException e) {
+                // Remaining sends finish on their own; the worker just stops waiting
+                Thread.currentThread().interrupt();
+                running = false;
+                return;
+            }
+        }
+    }
+
+    private void deliver(Notification notification) {
+        if (rateLimiter != null) {
+            long waitMillis = rateLimiter.reserve(notification);
+            if (waitMillis > 0) {
+                defer(notification, waitMillis);
+                return;
+            }
+        }
+        try {
+            NotificationChannel channel = channelRegistry.getChannel(notification.getContactMethod());
+            channel.deliver(notification);
+            notificationDAO.markNotificationSent(notification.getNotificationId());
+            sentCount.incrementAndGet();
+            recordDelivered(notification);
+        } catch (NotificationDeliveryException e) {
+            recordFailure(notification, e.getMessage(), e.isPermanent());
+        } catch (SQLException e) {
+            // Delivered but not marked: the stale-claim sweep will requeue it, so the send may repeat once
+            LOGGER.log(Level.SEVERE, "Failed to mark notification " + notification.getNotificationId() + " as sent", e);
+        } catch (RuntimeException e) {
+            // A channel bug or unexpected input: counted as a transient attempt, so it is dead-lettered after maxAttempts
+            LOGGER.log(Level.SEVERE, "Unexpected failure delivering notification " + notification.getNotificationId()
+                    + " via " + notification.getContactMethod(), e);
+            recordFailure(notification, "Unexpected " + e.getClass().getSimpleName() + ": " + e.getMessage(), false);
+        }
+    }
+
+    private void defer(Notification notification, long waitMillis) {
+        try {
+            notificationDAO.deferNotification(notification.getNotificationId(),
+                    LocalDateTime.now().plus(Duration.ofMillis(waitMillis)));
+            rateLimitedCount.incrementAndGet();
+        } catch (SQLException e) {
+            // Still claimed: the stale-claim sweep will return it to 'Pending'
+            LOGGER.log(Level.SEVERE, "Failed to defer rate-limited notification " + notification.getNotificationId(), e);
+        }
+    }
+
+    private void recordDelivered(Notification notification) {
+        NotificationLane lane = NotificationLane.forPriority(notification.getDispatchPriority());
+        sentByLane.get(lane).incrementAndGet();
+        if (notification.getTimestamp() != null) {
+            DurationHistogram ages = deliveryAgeSecondsByLane.get(lane);
+            long ageSeconds = Duration.between(notification.getTimestamp(), LocalDateTime.now()).toSeconds(); // Seconds: a backlog of hours must not clamp
+            synchronized (ages) {
+                ages.record(ageSeconds);
+            }
+        }
+    }
+
+    private void recordFailure(Notification notification, String error, boolean permanent) {
+        int attempt = notification.getDispatchAttempts() + 1;
+        boolean deadLetter = permanent || attempt >= maxAttempts;
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusSeconds(backoffSeconds(attempt));
+        try {
+            notificationDAO.markNotificationFailed(notification.getNotificationId(), error, nextAttemptAt, deadLetter);
+            if (deadLetter) {
+                deadLetteredCount.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Notification " + notification.getNotificationId() +
+                        " dead-lettered after " + attempt + " attempt(s): " + error);
+            } else {
+                retriedCount.incrementAndGet();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Failed to record delivery failure for notification " + notification.getNotificationId(), e);
+        }
+    }
+
+    /**
+     * Exponential backoff with "equal jitter": half of the doubled delay is fixed, the other half random,
+     * so retries from a burst of failures spread out instead of hitting the channel together.
+     */
+    private long backoffSeconds(int attempt) {
+        long exponential = baseBackoffSeconds << Math.min(attempt - 1, 20);
+        long capped = Math.min(exponential, MAX_BACKOFF_SECONDS);
+        long half = Math.max(1, capped / 2);
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void runHousekeeping() {
+        while (running) {
+            try {
+                int released = notificationDAO.releaseStaleClaims(staleClaimSeconds, maxAttempts);
+                if (released > 0) {
+                    releasedCount.addAndGet(released);
+                    LOGGER.log(Level.WARNING, "Released " + released + " stale notification claim(s)");
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Stale claim sweep failed", e);
+            }
+            samplePendingDepth();
+            if (rateLimiter != null) {
+                rateLimiter.evictIdleRecipients();
+            }
+            sleepQuietly(TimeUnit.SECONDS.toMillis(Math.max(1, staleClaimSeconds / 5)));
+        }
+    }
+
+    private void samplePendingDepth() {
+        try {
+            Map<Integer, Long> byPriority = notificationDAO.countPendingByPriority();
+            Map<NotificationLane, Long> byLane = new EnumMap<>(NotificationLane.class);
+            byPriority.forEach((priority, count) -> byLane.merge(NotificationLane.forPriority(priority), count, Long::sum));
+            for (NotificationLane lane : NotificationLane.values()) {
+                pendingDepthByLane.get(lane).set(byLane.getOrDefault(lane, 0L));
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not count pending notifications", e);
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    // --- Metrics ---
+    public long getClaimedCount() { return claimedCount.get(); }
+    public long getSentCount() { return sentCount.get(); }
+    public long getRetriedCount() { return retriedCount.get(); }
+    public long getDeadLetteredCount() { return deadLetteredCount.get(); }
+    public long getReleasedCount() { return releasedCount.get(); }
+    public long getRateLimitedCount() { return rateLimitedCount.get(); }
+    public long getSentCount(NotificationLane lane) { return sentByLane.get(lane).get(); }
+    /** @return 'Pending' rows in the lane, due or not, as of the last housekeeping sweep. */
+    public long getPendingDepth(NotificationLane lane) { return pendingDepthByLane.get(lane).get(); }
+
+    /**
+     * @return A one-line summary of delivery counters, suitable for logging.
+     */
+    public String getMetricsSummary() {
+        StringBuilder summary = new StringBuilder(String.format("workers=%d (urgentOnly=%d) claimed=%d sent=%d retried=%d deadLettered=%d staleReleased=%d rateLimited=%d coalescedAway=%d outboxWrite%s counterUpsert%s",
+                workerCount, reservedUrgentWorkers, getClaimedCount(), getSentCount(), getRetriedCount(),
+                getDeadLetteredCount(), getReleasedCount(), getRateLimitedCount(), notificationDAO.getSuppressedCount(),
+                notificationDAO.getOutboxWriteLatency(), notificationDAO.getCounterUpsertLatency()));
+        for (NotificationLane lane : NotificationLane.values()) {
+            DurationHistogram ages = deliveryAgeSecondsByLane.get(lane);
+            synchronized (ages) {
+                summary.append(String.format(" %s[pending=%d sent=%d ageAtDeliverySec p50=%d p99=%d]", lane, getPendingDepth(lane),
+                        getSentCount(lane), ages.getValueAtPercentile(50), ages.getValueAtPercentile(99)));
+            }
+        }
+        if (rateLimiter != null) {
+            summary.append(" rateLimits[").append(rateLimiter.getMetricsSummary()).append(']');
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package fasttracklogistics.controller;
+
+import java.util.Set;
+
+/**
+ * Priority lanes for notification processing.
+ * Each notification type maps to one lane; lanes are drained by weighted round robin
+ * (see {@link WeightedLaneScheduler}) so higher lanes get most of the throughput without
+ * starving lower ones. The lane's priority is stored as notifications.dispatch_priority
+ * so the outbox workers can claim lane by lane.
+ */
+public enum NotificationLane {
+    /** Time-critical driver messages. */
+    URGENT(0, 8, Set.of("Urgent", "Route Change")),
+    /** New assignments for drivers. */
+    ASSIGNMENT(1, 3, Set.of("Assignment")),
+    /** Customer status updates, delays and everything else. */
+    ROUTINE(2, 1, Set.of());
+
+    private final int priority;
+    private final int weight;
+    private final Set<String> notificationTypes;
+
+    NotificationLane(int priority, int weight, Set<String> notificationTypes) {
+        this.priority = priority;
+        this.weight = weight;
+        this.notificationTypes = notificationTypes;
+    }
+
+    /** @return The value stored in notifications.dispatch_priority (lower is more urgent). */
+    public int getPriority() { return priority; }
+
+    /** @return Relative share of draining capacity when several lanes have work. */
+    public int getWeight() { return weight; }
+
+    /**
+     * @param notificationType e.g. "Urgent", "Assignment", "Status Update".
+     * @return The lane for that type; unknown types go to ROUTINE.
+     */
+    public static NotificationLane forType(String notificationType) {
+        for (NotificationLane lane : values()) {
+            if (lane.notificationTypes.contains(notificationType)) {
+                return lane;
+            }
+        }
+        return ROUTINE;
+    }
+
+    /** Convenience for {@code NotificationDAO}'s priority resolver. */
+    public static int priorityForType(String notificationType) {
+        return forType(notificationType).getPriority();
+    }
+
+    public static NotificationLane forPriority(int priority) {
+        for (NotificationLane lane : values()) {
+            if (lane.priority == priority) {
+                return lane;
+            }
+        }
+        return ROUTINE;
+    }
+}
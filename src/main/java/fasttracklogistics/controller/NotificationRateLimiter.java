@@ -0,0 +1,95 @@
+package fasttracklogistics.controller;
+
+import fasttracklogistics.model.Notification;
+import fasttracklogistics.util.TokenBucketRateLimiter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits for outgoing notifications, applied by the delivery workers just before a send.
+ * Two token buckets must both allow a send: one per contact method (protects the App/Email/SMS
+ * gateways) and one per recipient (protects a single customer or driver from bursts).
+ * Urgent-lane notifications only take a channel token: a driver must get a route change even right
+ * after a burst of routine messages, so they neither wait for nor use up the recipient's budget.
+ * A refused send is not dropped; the caller defers it until a token is expected to be available.
+ */
+public class NotificationRateLimiter {
+    private final TokenBucketRateLimiter<String> recipientLimiter;
+    private final TokenBucketRateLimiter<String> channelLimiter;
+    private final Map<String, TokenBucketRateLimiter<String>> channelOverrides = new ConcurrentHashMap<>();
+
+    /**
+     * Creates limits with defaults: each recipient may receive a burst of 5 then 10 per minute;
+     * each channel a burst of 100 then 50 per second unless overridden with {@link #limitChannel}.
+     */
+    public NotificationRateLimiter() {
+        this(5, 10.0 / 60, 100, 50);
+    }
+
+    /**
+     * @param recipientBurst Notifications a recipient can receive back to back.
+     * @param recipientPerSecond Sustained notifications per second per recipient.
+     * @param channelBurst Default burst per contact method.
+     * @param channelPerSecond Default sustained sends per second per contact method.
+     */
+    public NotificationRateLimiter(double recipientBurst, double recipientPerSecond, double channelBurst, double channelPerSecond) {
+        this.recipientLimiter = new TokenBucketRateLimiter<>(recipientBurst, recipientPerSecond);
+        this.channelLimiter = new TokenBucketRateLimiter<>(channelBurst, channelPerSecond);
+    }
+
+    /**
+     * Sets a specific limit for one contact method, e.g. a slower SMS gateway.
+     */
+    public void limitChannel(String contactMethod, double burst, double perSecond) {
+        channelOverrides.put(contactMethod, new TokenBucketRateLimiter<>(burst, perSecond));
+    }
+
+    /**
+     * Tries to take a channel token and, unless the notification is in the Urgent lane, a recipient token.
+     *
+     * @param notification The notification about to be sent.
+     * @return 0 if it may be sent now, otherwise the number of milliseconds to defer it.
+     */
+    public long reserve(Notification notification) {
+        String channel = notification.getContactMethod() == null ? "App" : notification.getContactMethod();
+        TokenBucketRateLimiter<String> channelBuckets = channelOverrides.getOrDefault(channel, channelLimiter);
+        long channelWait = channelBuckets.tryAcquire(channel);
+        if (channelWait > 0) {
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(channelWait));
+        }
+        if (NotificationLane.forPriority(notification.getDispatchPriority()) == NotificationLane.URGENT) {
+            return 0;
+        }
+        String recipient = notification.getRecipientType() + ":" + notification.getRecipientId();
+        long recipientWait = recipientLimiter.tryAcquire(recipient);
+        if (recipientWait > 0) {
+            channelBuckets.refund(channel); // The send is not happening, so don't charge the gateway for it
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis(recipientWait));
+        }
+        return 0;
+    }
+
+    /**
+     * Drops per-recipient buckets that have fully refilled; called periodically to bound memory.
+     */
+    public int evictIdleRecipients() {
+        return recipientLimiter.evictIdle();
+    }
+
+    /**
+     * @return A one-line summary of limiter state, suitable for logging.
+     */
+    public String getMetricsSummary() {
+        StringBuilder summary = new StringBuilder(String.format("recipients[tracked=%d granted=%d deferred=%d]",
+                recipientLimiter.getTrackedKeyCount(), recipientLimiter.getGrantedCount(), recipientLimiter.getDeniedCount()));
+        summary.append(String.format(" channels[granted=%d deferred=%d]", channelLimiter.getGrantedCount(), channelLimiter.getDeniedCount()));
+        for (Map.Entry<String, TokenBucketRateLimiter<String>> entry : channelOverrides.entrySet()) {
+            TokenBucketRateLimiter<String> limiter = entry.getValue();
+            summary.append(String.format(" %s[tokens=%.1f granted=%d deferred=%d]", entry.getKey(),
+                    limiter.getAvailableTokens(entry.getKey()), limiter.getGrantedCount(), limiter.getDeniedCount()));
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package fasttracklogistics.controller;
+
+import fasttracklogistics.dao.NotificationArchiveDAO;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Scheduled retention for notifications.
+ * Each run:
+ * <ol>
+ *     <li>creates archive partitions for the coming months,</li>
+ *     <li>moves read, fully dispatched notifications older than the hot retention period
+ *     into the archive in small chunks with a pause between them,</li>
+ *     <li>drops archive partitions older than the archive retention period.</li>
+ * </ol>
+ * The hot table therefore only holds recent and unread notifications, and purges never run large DELETEs.
+ */
+public class NotificationRetentionJob {
+    private static final Logger LOGGER = Logger.getLogger(NotificationRetentionJob.class.getName());
+
+    private final NotificationArchiveDAO archiveDAO;
+    private final int hotRetentionDays;
+    private final int archiveRetentionMonths;
+    private final int chunkSize;
+    private final long chunkPauseMillis;
+    private final int maxChunksPerRun;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "notification-retention");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // --- Metrics ---
+    private final AtomicLong archivedCount = new AtomicLong();
+    private final AtomicLong droppedPartitionCount = new AtomicLong();
+
+    /**
+     * Creates a job with default settings: keep 30 days in the hot table, 12 months in the archive,
+     * move 500 rows per chunk with a 100 ms pause, at most 200 chunks per run.
+     */
+    public NotificationRetentionJob(NotificationArchiveDAO archiveDAO) {
+        this(archiveDAO, 30, 12, 500, 100, 200);
+    }
+
+    /**
+     * @param archiveDAO DAO for the partitioned archive.
+     * @param hotRetentionDays Read notifications older than this are archived.
+     * @param archiveRetentionMonths Archive months older than this are dropped.
+     * @param chunkSize Notifications moved per transaction.
+     * @param chunkPauseMillis Pause between chunks so archiving doesn't starve normal traffic.
+     * @param maxChunksPerRun Upper bound on work done by a single run.
+     */
+    public NotificationRetentionJob(NotificationArchiveDAO archiveDAO, int hotRetentionDays, int archiveRetentionMonths,
+                                    int chunkSize, long chunkPauseMillis, int maxChunksPerRun) {
+        this.archiveDAO = archiveDAO;
+        this.hotRetentionDays = hotRetentionDays;
+        this.archiveRetentionMonths = archiveRetentionMonths;
+        this.chunkSize = chunkSize;
+        this.chunkPauseMillis = chunkPauseMillis;
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    /**
+     * Schedules the job.
+     * @param initialDelayMinutes Delay before the first run.
+     * @param periodMinutes Delay between the end of one run and the start of the next.
+     */
+    public void start(long initialDelayMinutes, long periodMinutes) {
+        scheduler.scheduleWithFixedDelay(this::runOnce, initialDelayMinutes, periodMinutes, TimeUnit.MINUTES);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs one retention pass. Failures are logged and retried on the next run.
+     */
+    public void runOnce() {
+        try {
+            int created = archiveDAO.ensureArchivePartitions(YearMonth.now().plusMonths(2));
+            if (created > 0) {
+                LOGGER.log(Level.INFO, "Created " + created + " notification archive partition(s)");
+            }
+
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(hotRetentionDays);
+            int moved = 0;
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                int chunkMoved = archiveDAO.archiveReadNotifications(cutoff, chunkSize);
+                moved += chunkMoved;
+                if (chunkMoved < chunkSize) break;
+                Thread.sleep(chunkPauseMillis);
+            }
+            archivedCount.addAndGet(moved);
+            if (moved > 0) {
+                LOGGER.log(Level.INFO, "Archived " + moved + " notification(s) older than " + cutoff.toLocalDate());
+            }
+
+            List<YearMonth> dropped = archiveDAO.dropArchivePartitionsBefore(YearMonth.now().minusMonths(archiveRetentionMonths));
+            droppedPartitionCount.addAndGet(dropped.size());
+            if (!dropped.isEmpty()) {
+                LOGGER.log(Level.INFO, "Dropped notification archive partition(s) for " + dropped);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Notification retention run failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getArchivedCount() { return archivedCount.get(); }
+    public long getDroppedPartitionCount() { return droppedPartitionCount.get(); }
+}
@@ -2,6 +2,15 @@ package fasttracklogistics.controller;
 
 import fasttracklogistics.model.DeliveryPersonnel;
 import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.dao.QuerySpec;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.PersonnelCreated;
+import fasttracklogistics.event.PersonnelDeleted;
+import fasttracklogistics.event.PersonnelUpdated;
+import fasttracklogistics.importer.CsvImporter;
+import fasttracklogistics.importer.ImportSummary;
+import fasttracklogistics.importer.PersonnelImportTarget;
+import fasttracklogistics.service.WarmStartCache;
 import fasttracklogistics.view.ManagePersonnelPanel;
 
 import javax.swing.*;
@@ -9,19 +18,37 @@ import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class PersonnelController {
     private DeliveryPersonnelDAO personnelDAO;
     private ManagePersonnelPanel managePersonnelView;
+    private DomainEventBus eventBus;
+    private WarmStartCache warmStart;
 
-    public PersonnelController(ManagePersonnelPanel managePersonnelView, DeliveryPersonnelDAO personnelDAO) {
+    public PersonnelController(ManagePersonnelPanel managePersonnelView, DeliveryPersonnelDAO personnelDAO, DomainEventBus eventBus,
+                               WarmStartCache warmStart) {
         this.managePersonnelView = managePersonnelView;
         this.personnelDAO = personnelDAO;
+        this.eventBus = eventBus;
+        this.warmStart = warmStart;
 
         initListeners();
-        loadPersonnel(); // Initial load
+        managePersonnelView.addQueryChangeListener(this::loadPersonnel);
+        // Availability also changes when drivers are assigned on other tabs
+        eventBus.subscribeOnEdt(PersonnelCreated.class, e -> managePersonnelView.upsertPersonnelRow(e.getPersonnel()));
+        eventBus.subscribeOnEdt(PersonnelUpdated.class, e -> managePersonnelView.upsertPersonnelRow(e.getPersonnel()));
+        eventBus.subscribeOnEdt(PersonnelDeleted.class, e -> managePersonnelView.removePersonnelRow(e.getPersonnelId()));
+        List<DeliveryPersonnel> cached = warmStart.getPersonnel();
+        if (cached != null) {
+            managePersonnelView.displayPersonnel(cached); // Last session's rows; delta sync applies what changed since
+        } else {
+            loadPersonnel(); // Initial load
+        }
     }
 
     private void initListeners() {
@@ -29,6 +56,7 @@ public class PersonnelController {
         managePersonnelView.addUpdateButtonListener(e -> updatePersonnel());
         managePersonnelView.addRemoveButtonListener(e -> removePersonnel());
         managePersonnelView.addClearButtonListener(e -> managePersonnelView.clearFields());
+        managePersonnelView.addImportButtonListener(e -> importPersonnel());
         managePersonnelView.addTableSelectionListener(new ListSelectionListener() {
             @Override
             public void valueChanged(ListSelectionEvent e) {
@@ -39,10 +67,58 @@ public class PersonnelController {
         });
     }
 
+    /**
+     * Imports a personnel roster CSV chosen by the user. The import runs in the background; the rows appear in
+     * the table when it finishes, and the summary points to the report of rows that were not imported.
+     */
+    private void importPersonnel() {
+        File file = managePersonnelView.chooseImportFile();
+        if (file == null) return;
+        managePersonnelView.setImportInProgress(true);
+        new SwingWorker<ImportSummary, Void>() {
+            @Override
+            protected ImportSummary doInBackground() throws IOException, InterruptedException {
+                return new CsvImporter<>(new PersonnelImportTarget(personnelDAO)).importFile(file.toPath());
+            }
+
+            @Override
+            protected void done() {
+                managePersonnelView.setImportInProgress(false);
+                try {
+                    ImportSummary summary = get();
+                    managePersonnelView.showMessage(summary.describe(), "Import " + (summary.isComplete() ? "Finished" : "Stopped"),
+                            summary.isComplete() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+                    loadPersonnel(); // Other open workstations get the rows through delta sync
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    managePersonnelView.showMessage("Error importing " + file.getName() + ": " + ex.getCause().getMessage(), "Import Error", JOptionPane.ERROR_MESSAGE);
+                    ex.getCause().printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Reads the personnel list the constructor shows into the warm-start cache, unless it is there already,
+     * so the constructor runs no query. Called on a background thread before the tab is wired up.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    public static void preload(DeliveryPersonnelDAO personnelDAO, WarmStartCache warmStart) throws SQLException {
+        if (warmStart.getPersonnel() == null) warmStart.rememberPersonnel(personnelDAO.getPersonnel(new QuerySpec()));
+    }
+
+    /**
+     * Loads the personnel table with the sort order and filters chosen in the view, both applied by the database.
+     */
     public void loadPersonnel() {
+        QuerySpec spec = managePersonnelView.getQuerySpec();
+        if (spec == null) return; // Invalid filter input, already reported by the view
         try {
-            List<DeliveryPersonnel> personnelList = personnelDAO.getAllPersonnel();
+            List<DeliveryPersonnel> personnelList = personnelDAO.getPersonnel(spec);
             managePersonnelView.displayPersonnel(personnelList);
+            if (WarmStartCache.isDefaultView(spec)) warmStart.rememberPersonnel(personnelList);
         } catch (SQLException e) {
             managePersonnelView.showMessage("Error loading personnel: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             e.printStackTrace();
@@ -56,9 +132,9 @@ public class PersonnelController {
         }
         try {
             personnelDAO.addPersonnel(newPersonnel);
+            eventBus.publish(new PersonnelCreated(newPersonnel));
             managePersonnelView.showMessage("Personnel added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             managePersonnelView.clearFields();
-            loadPersonnel();
         } catch (SQLException e) {
             if (e.getMessage().contains("Duplicate entry") && e.getMessage().contains("license_number")) {
                 managePersonnelView.showMessage("Error: License number already exists. Please use a unique license number.", "Input Error", JOptionPane.ERROR_MESSAGE);
@@ -84,9 +160,9 @@ public class PersonnelController {
 
         try {
             personnelDAO.updatePersonnel(updatedPersonnel);
+            eventBus.publish(new PersonnelUpdated(updatedPersonnel));
             managePersonnelView.showMessage("Personnel updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
             managePersonnelView.clearFields();
-            loadPersonnel();
         } catch (SQLException e) {
             if (e.getMessage().contains("Duplicate entry") && e.getMessage().contains("license_number")) {
                 managePersonnelView.showMessage("Error: License number already exists. Please use a unique license number.", "Input Error", JOptionPane.ERROR_MESSAGE);
@@ -108,9 +184,9 @@ public class PersonnelController {
         if (confirm == JOptionPane.YES_OPTION) {
             try {
                 personnelDAO.deletePersonnel(selectedId);
+                eventBus.publish(new PersonnelDeleted(selectedId));
                 managePersonnelView.showMessage("Personnel removed successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                 managePersonnelView.clearFields();
-                loadPersonnel();
             } catch (SQLException e) {
                 managePersonnelView.showMessage("Error removing personnel: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
                 e.printStackTrace();
@@ -3,9 +3,15 @@ package fasttracklogistics.controller;
 import fasttracklogistics.dao.DeliveryDAO;
 import fasttracklogistics.dao.ShipmentDAO;
 import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.event.DeliveryCreated;
+import fasttracklogistics.event.DeliveryDeleted;
+import fasttracklogistics.event.DeliveryUpdated;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.ShipmentDeleted;
 import fasttracklogistics.model.Delivery;
 import fasttracklogistics.model.DeliveryPersonnel;
 import fasttracklogistics.model.Shipment;
+import fasttracklogistics.util.DurationHistogram;
 import fasttracklogistics.view.ReportsPanel;
 
 import javax.swing.*;
@@ -14,10 +20,12 @@ import java.awt.event.ActionListener;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.time.format.DateTimeFormatter;
 
@@ -26,14 +34,22 @@ public class ReportController {
     private ShipmentDAO shipmentDAO;
     private DeliveryDAO deliveryDAO;
     private DeliveryPersonnelDAO personnelDAO;
+    private DeliveryDurationStats durationStats;
 
-    public ReportController(ReportsPanel reportsView, ShipmentDAO shipmentDAO, DeliveryDAO deliveryDAO, DeliveryPersonnelDAO personnelDAO) {
+    public ReportController(ReportsPanel reportsView, ShipmentDAO shipmentDAO, DeliveryDAO deliveryDAO, DeliveryPersonnelDAO personnelDAO,
+                            DomainEventBus eventBus) {
         this.reportsView = reportsView;
         this.shipmentDAO = shipmentDAO;
         this.deliveryDAO = deliveryDAO;
         this.personnelDAO = personnelDAO;
+        this.durationStats = new DeliveryDurationStats(deliveryDAO);
 
         initListeners();
+        // Deliveries completing after a month's histograms were read are added to them as they happen
+        eventBus.subscribeOnEdt(DeliveryCreated.class, e -> durationStats.deliveryChanged(e.getDelivery()));
+        eventBus.subscribeOnEdt(DeliveryUpdated.class, e -> durationStats.deliveryChanged(e.getDelivery()));
+        eventBus.subscribeOnEdt(DeliveryDeleted.class, e -> durationStats.deliveryDeleted(e.getDeliveryId()));
+        eventBus.subscribeOnEdt(ShipmentDeleted.class, e -> durationStats.shipmentDeleted(e.getShipmentId()));
     }
 
     private void initListeners() {
@@ -67,6 +83,9 @@ public class ReportController {
                 case "Delivery Performance":
                     generateDeliveryPerformanceReport(startDate, endDate);
                     break;
+                case "Delivery Duration Percentiles":
+                    generateDeliveryDurationPercentilesReport(startDate, endDate);
+                    break;
                 case "Personnel Availability":
                     generatePersonnelAvailabilityReport(); // Dates might not be as relevant for current status
                     break;
@@ -169,6 +188,67 @@ public class ReportController {
         reportsView.displaySummaryReport(summary);
     }
 
+    /**
+     * Pickup-to-delivery duration percentiles (p50/p90/p99) per personnel and per month.
+     * Each month's histograms per personnel come from {@link DeliveryDurationStats}, which keeps them current as
+     * deliveries complete; per-personnel and overall rows are produced by merging them, so nothing is sorted.
+     */
+    private void generateDeliveryDurationPercentilesReport(LocalDate startDate, LocalDate endDate) throws SQLException {
+        Map<Integer, String> personnelIdToName = personnelDAO.getAllPersonnel().stream()
+                .collect(Collectors.toMap(DeliveryPersonnel::getPersonnelId, DeliveryPersonnel::getName));
+
+        Map<Integer, TreeMap<YearMonth, DurationHistogram>> byPersonnel = new TreeMap<>();
+        for (YearMonth month = YearMonth.from(startDate); !month.isAfter(YearMonth.from(endDate)); month = month.plusMonths(1)) {
+            LocalDate from = startDate.isAfter(month.atDay(1)) ? startDate : month.atDay(1);
+            LocalDate to = endDate.isBefore(month.atEndOfMonth()) ? endDate : month.atEndOfMonth();
+            for (Map.Entry<Integer, DurationHistogram> entry : durationStats.getHistograms(month, from, to).entrySet()) {
+                byPersonnel.computeIfAbsent(entry.getKey(), id -> new TreeMap<>()).put(month, entry.getValue());
+            }
+        }
+
+        List<String[]> data = new ArrayList<>();
+        String[] columnNames = {"Personnel", "Period", "Deliveries", "p50 (min)", "p90 (min)", "p99 (min)", "Max (min)"};
+        DurationHistogram overall = new DurationHistogram();
+
+        for (Map.Entry<Integer, TreeMap<YearMonth, DurationHistogram>> personnelEntry : byPersonnel.entrySet()) {
+            int personnelId = personnelEntry.getKey();
+            String personnelName = personnelId == 0 ? "Unassigned"
+                    : personnelIdToName.getOrDefault(personnelId, "ID:" + personnelId);
+            DurationHistogram allPeriods = new DurationHistogram();
+
+            for (Map.Entry<YearMonth, DurationHistogram> monthEntry : personnelEntry.getValue().entrySet()) {
+                data.add(percentileRow(personnelName, monthEntry.getKey().toString(), monthEntry.getValue()));
+                allPeriods.merge(monthEntry.getValue());
+            }
+            data.add(percentileRow(personnelName, "All periods", allPeriods));
+            overall.merge(allPeriods);
+        }
+        data.add(percentileRow("All personnel", "All periods", overall));
+
+        String summary = String.format("Completed deliveries in period (%s to %s): %d%s",
+                startDate.format(DateTimeFormatter.ISO_LOCAL_DATE),
+                endDate.format(DateTimeFormatter.ISO_LOCAL_DATE),
+                overall.getTotalCount(),
+                overall.getTotalCount() > 0
+                        ? String.format("\nOverall p50: %d min, p90: %d min, p99: %d min, mean: %.1f min",
+                        overall.getValueAtPercentile(50), overall.getValueAtPercentile(90),
+                        overall.getValueAtPercentile(99), overall.getMean())
+                        : "");
+        reportsView.displayTabularReport(data, columnNames, summary);
+    }
+
+    private String[] percentileRow(String personnel, String period, DurationHistogram histogram) {
+        return new String[]{
+                personnel,
+                period,
+                String.valueOf(histogram.getTotalCount()),
+                String.valueOf(histogram.getValueAtPercentile(50)),
+                String.valueOf(histogram.getValueAtPercentile(90)),
+                String.valueOf(histogram.getValueAtPercentile(99)),
+                String.valueOf(histogram.getMaxValue())
+        };
+    }
+
     private void generatePersonnelAvailabilityReport() throws SQLException {
         List<DeliveryPersonnel> personnelList = personnelDAO.getAllPersonnel();
         List<String[]> data = new ArrayList<>();
@@ -1,7 +1,19 @@
 package fasttracklogistics.controller;
 
 import fasttracklogistics.model.Shipment;
+import fasttracklogistics.dao.QuerySpec;
 import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.ShipmentCreated;
+import fasttracklogistics.event.ShipmentDeleted;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.importer.CsvImporter;
+import fasttracklogistics.importer.ImportSummary;
+import fasttracklogistics.importer.ShipmentImportTarget;
+import fasttracklogistics.service.ServiceException;
+import fasttracklogistics.service.ShipmentService;
+import fasttracklogistics.service.WarmStartCache;
+import fasttracklogistics.view.LazyTableModel;
 import fasttracklogistics.view.ManageShipmentsPanel;
 
 import javax.swing.*;
@@ -9,20 +21,38 @@ import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 public class ShipmentController {
     private ManageShipmentsPanel shipmentView;
     private ShipmentDAO shipmentDAO;
+    private ShipmentService shipmentService;
+    private DomainEventBus eventBus;
+    private WarmStartCache warmStart;
+    // The query the table shows; changed rows are only replaced in place when it is the default view
+    private QuerySpec shownSpec = new QuerySpec();
+    private boolean filteredReloadQueued;
 
-    public ShipmentController(ManageShipmentsPanel shipmentView, ShipmentDAO shipmentDAO) {
+    public ShipmentController(ManageShipmentsPanel shipmentView, ShipmentDAO shipmentDAO, ShipmentService shipmentService,
+                              DomainEventBus eventBus, WarmStartCache warmStart) {
         this.shipmentView = shipmentView;
         this.shipmentDAO = shipmentDAO;
+        this.shipmentService = shipmentService;
+        this.eventBus = eventBus;
+        this.warmStart = warmStart;
 
         initListeners();
-        loadShipments(); // Load initial data when the panel is displayed
+        shipmentView.addQueryChangeListener(() -> applyQuery(false));
+        applyQuery(true); // Initial load: unfiltered, in shipment ID order; from the cache when it holds the first block
+        // Changes from any tab update just the affected row
+        eventBus.subscribeOnEdt(ShipmentCreated.class, e -> showShipmentRow(e.getShipment()));
+        eventBus.subscribeOnEdt(ShipmentUpdated.class, e -> showShipmentRow(e.getShipment()));
+        eventBus.subscribeOnEdt(ShipmentDeleted.class, e -> shipmentView.removeShipmentRow(e.getShipmentId()));
     }
 
     private void initListeners() {
@@ -54,6 +84,8 @@ public class ShipmentController {
             }
         });
 
+        shipmentView.addImportButtonListener(e -> importShipments());
+
         shipmentView.addTableSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) { // Ensures action only on final selection change
                 displaySelectedShipment();
@@ -61,16 +93,98 @@ public class ShipmentController {
         });
     }
 
-    public void loadShipments() {
-        try {
-            List<Shipment> shipments = shipmentDAO.getAllShipments();
-            shipmentView.displayShipments(shipments);
-        } catch (SQLException e) {
-            shipmentView.showMessage("Error loading shipments: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
+    /**
+     * Points the table at the sort order and filters chosen in the view. The database sorts and filters;
+     * the table fetches blocks of the result as they are scrolled into view. In the default view the count and
+     * first block are also handed to the warm-start cache as they are read.
+     *
+     * @param useCache Show the cached count and first block at once if the cache has them.
+     */
+    private void applyQuery(boolean useCache) {
+        QuerySpec spec = shipmentView.getQuerySpec();
+        if (spec == null) return; // Invalid filter input, already reported by the view
+        boolean defaultView = WarmStartCache.isDefaultView(spec);
+        shownSpec = spec;
+        LazyTableModel.PageSource<Shipment> source = new LazyTableModel.PageSource<>() {
+            @Override
+            public int count() throws SQLException {
+                int count = shipmentDAO.countShipments(spec);
+                if (defaultView) warmStart.rememberShipmentCount(count);
+                return count;
+            }
+
+            @Override
+            public List<Shipment> page(int offset, int limit) throws SQLException {
+                List<Shipment> rows = shipmentDAO.getShipmentsPage(spec, offset, limit);
+                if (defaultView && offset == 0) warmStart.rememberFirstShipments(rows, limit);
+                return rows;
+            }
+        };
+        WarmStartCache.ShipmentsHead cached = useCache && defaultView
+                ? warmStart.getShipmentsHead(shipmentView.getShipmentBlockSize()) : null;
+        if (cached != null) {
+            shipmentView.setShipmentSource(source, cached.totalCount(), cached.firstRows());
+        } else {
+            shipmentView.setShipmentSource(source);
+        }
+    }
+
+    /**
+     * Shows a created or changed shipment. When the table is filtered or sorted by anything but shipment ID, the row
+     * may no longer match the filters or may belong elsewhere in the order, so the table is reloaded instead, once
+     * per burst of events.
+     */
+    private void showShipmentRow(Shipment shipment) {
+        if (WarmStartCache.isDefaultView(shownSpec)) {
+            shipmentView.upsertShipmentRow(shipment);
+        } else if (!filteredReloadQueued) {
+            filteredReloadQueued = true;
+            SwingUtilities.invokeLater(() -> { // After the rest of the burst has been queued
+                filteredReloadQueued = false;
+                loadShipments();
+            });
         }
     }
 
+    /**
+     * Reloads the shipments table with the current query; rows are fetched in blocks in the background as the table shows them.
+     */
+    public void loadShipments() {
+        shipmentView.reloadShipments();
+    }
+
+    /**
+     * Imports a shipment manifest CSV chosen by the user. The import runs in the background; the rows appear in
+     * the table when it finishes, and the summary points to the report of rows that were not imported.
+     */
+    private void importShipments() {
+        File file = shipmentView.chooseImportFile();
+        if (file == null) return;
+        shipmentView.setImportInProgress(true);
+        new SwingWorker<ImportSummary, Void>() {
+            @Override
+            protected ImportSummary doInBackground() throws IOException, InterruptedException {
+                return new CsvImporter<>(new ShipmentImportTarget(shipmentDAO)).importFile(file.toPath());
+            }
+
+            @Override
+            protected void done() {
+                shipmentView.setImportInProgress(false);
+                try {
+                    ImportSummary summary = get();
+                    shipmentView.showMessage(summary.describe(), "Import " + (summary.isComplete() ? "Finished" : "Stopped"),
+                            summary.isComplete() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+                    loadShipments(); // Other open workstations get the rows through delta sync
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    shipmentView.showMessage("Error importing " + file.getName() + ": " + ex.getCause().getMessage(), "Import Error", JOptionPane.ERROR_MESSAGE);
+                    ex.getCause().printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
     private void addShipment() {
         Shipment shipment = shipmentView.getShipmentFromFields();
         if (shipment == null) { // Validation failed in view
@@ -78,16 +192,13 @@ public class ShipmentController {
         }
 
         try {
-            shipmentDAO.addShipment(shipment);
+            shipmentService.createShipment(shipment);
             shipmentView.showMessage("Shipment added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadShipments(); // Refresh table
             shipmentView.clearFields();
+        } catch (ServiceException e) {
+            shipmentView.showMessage("Error: " + e.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
         } catch (SQLException e) {
-            if (e.getMessage().contains("Duplicate entry") && e.getMessage().contains("tracking_number")) {
-                shipmentView.showMessage("Error: Tracking number already exists. Please use a unique tracking number.", "Input Error", JOptionPane.ERROR_MESSAGE);
-            } else {
-                shipmentView.showMessage("Error adding shipment: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            shipmentView.showMessage("Error adding shipment: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             e.printStackTrace();
         }
     }
@@ -106,16 +217,13 @@ public class ShipmentController {
         shipment.setShipmentId(selectedId); // Set the ID of the selected shipment
 
         try {
-            shipmentDAO.updateShipment(shipment);
+            shipmentService.updateShipment(shipment);
             shipmentView.showMessage("Shipment updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            loadShipments(); // Refresh table
             shipmentView.clearFields();
+        } catch (ServiceException e) {
+            shipmentView.showMessage("Error: " + e.getMessage(), "Input Error", JOptionPane.ERROR_MESSAGE);
         } catch (SQLException e) {
-            if (e.getMessage().contains("Duplicate entry") && e.getMessage().contains("tracking_number")) {
-                shipmentView.showMessage("Error: Tracking number already exists. Please use a unique tracking number.", "Input Error", JOptionPane.ERROR_MESSAGE);
-            } else {
-                shipmentView.showMessage("Error updating shipment: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            shipmentView.showMessage("Error updating shipment: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             e.printStackTrace();
         }
     }
@@ -130,9 +238,8 @@ public class ShipmentController {
         int confirm = shipmentView.showConfirmDialog("Are you sure you want to delete this shipment?", "Confirm Deletion");
         if (confirm == JOptionPane.YES_OPTION) {
             try {
-                shipmentDAO.deleteShipment(selectedId);
+                shipmentService.deleteShipment(selectedId);
                 shipmentView.showMessage("Shipment deleted successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadShipments(); // Refresh table
                 shipmentView.clearFields();
             } catch (SQLException e) {
                 shipmentView.showMessage("Error deleting shipment: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
@@ -2,20 +2,31 @@ package fasttracklogistics.controller;
 
 import fasttracklogistics.model.Shipment;
 import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.search.ShipmentSearchIndex;
+import fasttracklogistics.search.TrackingNumberIndex;
 import fasttracklogistics.view.TrackShipmentPanel;
 
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.sql.SQLException;
+import java.util.List;
 
 public class TrackShipmentController {
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_SUGGESTIONS = 10;
+
     private ShipmentDAO shipmentDAO;
+    private ShipmentSearchIndex searchIndex;
+    private TrackingNumberIndex trackingNumberIndex;
     private TrackShipmentPanel trackShipmentView;
 
-    public TrackShipmentController(TrackShipmentPanel trackShipmentView, ShipmentDAO shipmentDAO) {
+    public TrackShipmentController(TrackShipmentPanel trackShipmentView, ShipmentDAO shipmentDAO,
+                                   ShipmentSearchIndex searchIndex, TrackingNumberIndex trackingNumberIndex) {
         this.trackShipmentView = trackShipmentView;
         this.shipmentDAO = shipmentDAO;
+        this.searchIndex = searchIndex;
+        this.trackingNumberIndex = trackingNumberIndex;
 
         initListeners();
     }
@@ -27,6 +38,34 @@ public class TrackShipmentController {
                 trackShipment();
             }
         });
+        trackShipmentView.addSearchButtonListener(e -> searchShipments());
+        // Suggestions come from memory, never a query per keystroke
+        trackShipmentView.addTrackingNumberInputListener(() -> trackShipmentView.showTrackingNumberSuggestions(
+                trackingNumberIndex.suggest(trackShipmentView.getTrackingNumberInput(), MAX_SUGGESTIONS)));
+    }
+
+    /**
+     * Looks the words up in the in-memory index, then reads only the matching shipments from the database.
+     */
+    private void searchShipments() {
+        String query = trackShipmentView.getSearchQueryInput();
+        if (query.isEmpty()) {
+            trackShipmentView.showMessage("Please enter words to search for.", "Input Required", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<Integer> shipmentIds = searchIndex.search(query, MAX_SEARCH_RESULTS);
+        long searchMicros = (System.nanoTime() - start) / 1_000;
+        try {
+            List<Shipment> shipments = shipmentDAO.getShipmentsByIds(shipmentIds);
+            String summary = shipments.size() + (shipmentIds.size() == MAX_SEARCH_RESULTS ? "+" : "") + " match(es), index "
+                    + String.format("%.1f", searchMicros / 1000.0) + " ms" + (searchIndex.isReady() ? "" : " (index still building)");
+            trackShipmentView.displaySearchResults(shipments, summary);
+        } catch (SQLException e) {
+            trackShipmentView.showMessage("Error loading search results: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            e.printStackTrace();
+        }
     }
 
     private void trackShipment() {
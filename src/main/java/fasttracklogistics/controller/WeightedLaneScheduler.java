@@ -0,0 +1,39 @@
+package fasttracklogistics.controller;
+
+import java.util.function.Predicate;
+
+/**
+ * Smooth weighted round robin over {@link NotificationLane}s.
+ * Among the lanes that currently have work, each pick goes to the lane with the highest running credit;
+ * over time every busy lane is chosen in proportion to its weight, and picks are interleaved
+ * (e.g. weights 8/3/1 give U U A U U U A U U A U R rather than long runs), so no lane starves.
+ * Not thread-safe: each draining thread keeps its own instance.
+ */
+public class WeightedLaneScheduler {
+    private final NotificationLane[] lanes = NotificationLane.values();
+    private final int[] credit = new int[lanes.length];
+
+    /**
+     * Chooses the next lane to drain.
+     *
+     * @param hasWork Tells whether a lane currently has anything to take.
+     * @return The chosen lane, or null if no lane has work.
+     */
+    public NotificationLane next(Predicate<NotificationLane> hasWork) {
+        int totalWeight = 0;
+        int best = -1;
+        for (int i = 0; i < lanes.length; i++) {
+            if (!hasWork.test(lanes[i])) continue;
+            credit[i] += lanes[i].getWeight();
+            totalWeight += lanes[i].getWeight();
+            if (best == -1 || credit[i] > credit[best]) {
+                best = i;
+            }
+        }
+        if (best == -1) {
+            return null;
+        }
+        credit[best] -= totalWeight;
+        return lanes[best];
+    }
+}
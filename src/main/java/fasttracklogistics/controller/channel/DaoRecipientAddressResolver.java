@@ -0,0 +1,74 @@
+package fasttracklogistics.controller.channel;
+
+import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.model.DeliveryPersonnel;
+import fasttracklogistics.model.Notification;
+import fasttracklogistics.model.Shipment;
+
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves recipients from the database: a customer is reached at the receiver contact of the
+ * shipment used as their ID, personnel at their contact_info. Lookups are cached briefly so a
+ * burst of notifications to the same recipient costs one query.
+ */
+public class DaoRecipientAddressResolver implements RecipientAddressResolver {
+    private static final long CACHE_TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final int MAX_CACHED = 10_000;
+
+    private final ShipmentDAO shipmentDAO;
+    private final DeliveryPersonnelDAO personnelDAO;
+    private final ConcurrentHashMap<String, CachedAddress> cache = new ConcurrentHashMap<>();
+
+    public DaoRecipientAddressResolver(ShipmentDAO shipmentDAO, DeliveryPersonnelDAO personnelDAO) {
+        this.shipmentDAO = shipmentDAO;
+        this.personnelDAO = personnelDAO;
+    }
+
+    @Override
+    public String resolve(Notification notification) throws NotificationDeliveryException {
+        String key = notification.getRecipientType() + ":" + notification.getRecipientId();
+        long now = System.nanoTime();
+        CachedAddress cached = cache.get(key);
+        if (cached != null && now - cached.loadedNanos < CACHE_TTL_NANOS) {
+            return cached.address;
+        }
+
+        String address;
+        try {
+            address = lookup(notification);
+        } catch (SQLException e) {
+            throw new NotificationDeliveryException("Could not look up recipient " + key, e, false);
+        }
+        if (address == null || address.isBlank()) {
+            throw new NotificationDeliveryException("No contact details for recipient " + key, true);
+        }
+        if (cache.size() >= MAX_CACHED) {
+            cache.clear(); // Crude bound; entries are cheap to reload
+        }
+        cache.put(key, new CachedAddress(address.trim(), now));
+        return address.trim();
+    }
+
+    private String lookup(Notification notification) throws SQLException {
+        if ("Personnel".equals(notification.getRecipientType())) {
+            DeliveryPersonnel personnel = personnelDAO.getPersonnelById(notification.getRecipientId());
+            return personnel == null ? null : personnel.getContactInfo();
+        }
+        Shipment shipment = shipmentDAO.getShipmentById(notification.getRecipientId());
+        return shipment == null ? null : shipment.getReceiverContact();
+    }
+
+    private static final class CachedAddress {
+        final String address;
+        final long loadedNanos;
+
+        CachedAddress(String address, long loadedNanos) {
+            this.address = address;
+            this.loadedNanos = loadedNanos;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package fasttracklogistics.controller.channel;
+
+import fasttracklogistics.model.Notification;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers notifications as text messages through an HTTP SMS gateway.
+ * Each send is a form-encoded POST of {@code to} and {@code body} to the gateway endpoint, authenticated
+ * with a bearer API key. A single {@link HttpClient} is shared, so keep-alive connections are reused
+ * across sends; its internal work runs on virtual threads. At most {@code maxConcurrent} requests are
+ * in flight at once.
+ *
+ * Responses map to failures as: 2xx delivered; 408, 429 and 5xx transient; any other 4xx permanent.
+ */
+public class HttpSmsNotificationChannel implements NotificationChannel, Closeable {
+    private final URI endpoint;
+    private final String apiKey;
+    private final RecipientAddressResolver addressResolver;
+    private final Duration timeout;
+    private final Semaphore permits;
+    private final ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+
+    // --- Metrics ---
+    private final AtomicLong deliveredCount = new AtomicLong();
+
+    /**
+     * @param endpoint Gateway URL that accepts the POST, e.g. "https://sms.example/api/messages".
+     * @param apiKey Bearer token for the gateway; may be null for gateways without auth.
+     * @param addressResolver Finds the recipient's phone number.
+     * @param maxConcurrent Maximum requests in flight.
+     * @param timeoutMillis Connect and request timeout, also the longest a send waits for a free slot.
+     */
+    public HttpSmsNotificationChannel(URI endpoint, String apiKey, RecipientAddressResolver addressResolver,
+                                      int maxConcurrent, int timeoutMillis) {
+        this.endpoint = endpoint;
+        this.apiKey = apiKey;
+        this.addressResolver = addressResolver;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.permits = new Semaphore(maxConcurrent);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(clientExecutor)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "SMS";
+    }
+
+    @Override
+    public void deliver(Notification notification) throws NotificationDeliveryException {
+        String to = normalizePhoneNumber(addressResolver.resolve(notification));
+        String form = "to=" + URLEncoder.encode(to, StandardCharsets.UTF_8) +
+                "&body=" + URLEncoder.encode(notification.getMessage() == null ? "" : notification.getMessage(), StandardCharsets.UTF_8);
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        if (apiKey != null) {
+            request.header("Authorization", "Bearer " + apiKey);
+        }
+
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new NotificationDeliveryException("SMS gateway concurrency limit reached", false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NotificationDeliveryException("Interrupted waiting for the SMS gateway", e, false);
+        }
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new NotificationDeliveryException("SMS gateway request failed", e, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NotificationDeliveryException("Interrupted sending SMS", e, false);
+        } finally {
+            permits.release();
+        }
+
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            deliveredCount.incrementAndGet();
+            return;
+        }
+        boolean permanent = status >= 400 && status < 500 && status != 408 && status != 429;
+        throw new NotificationDeliveryException("SMS gateway returned HTTP " + status + ": " + response.body(), permanent);
+    }
+
+    @Override
+    public void close() {
+        httpClient.shutdownNow();
+        clientExecutor.shutdownNow();
+    }
+
+    public long getDeliveredCount() { return deliveredCount.get(); }
+
+    /**
+     * Strips spacing and punctuation from a stored contact number, keeping a leading '+'.
+     *
+     * @throws NotificationDeliveryException (permanent) if the contact has no digits to dial.
+     */
+    static String normalizePhoneNumber(String contact) throws NotificationDeliveryException {
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < contact.length(); i++) {
+            char c = contact.charAt(i);
+            if (Character.isDigit(c) || (c == '+' && digits.length() == 0)) {
+                digits.append(c);
+            }
+        }
+        if (digits.length() < 3 || contact.contains("@")) {
+            throw new NotificationDeliveryException("Recipient contact '" + contact + "' is not a phone number", true);
+        }
+        return digits.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package fasttracklogistics.controller.channel;
+
+import fasttracklogistics.model.Notification;
+
+/**
+ * A transport that delivers a notification to its recipient (in-app inbox, email, SMS, ...).
+ * Implementations must be thread-safe; several delivery workers call {@link #deliver} concurrently.
+ */
+public interface NotificationChannel {
+
+    /**
+     * @return The contact method this channel handles, e.g. "App", "Email", "SMS".
+     */
+    String getName();
+
+    /**
+     * Delivers a single notification.
+     *
+     * @param notification The notification to deliver.
+     * @throws NotificationDeliveryException If delivery failed; see {@link NotificationDeliveryException#isPermanent()}.
+     */
+    void deliver(Notification notification) throws NotificationDeliveryException;
+}
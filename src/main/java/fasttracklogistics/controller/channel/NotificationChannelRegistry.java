@@ -0,0 +1,29 @@
+package fasttracklogistics.controller.channel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps a notification's contact_method to the channel that delivers it.
+ * Notifications without a contact method, or with an unknown one, use the default channel.
+ */
+public class NotificationChannelRegistry {
+    private final Map<String, NotificationChannel> channels = new ConcurrentHashMap<>();
+    private final NotificationChannel defaultChannel;
+
+    public NotificationChannelRegistry(NotificationChannel defaultChannel) {
+        this.defaultChannel = defaultChannel;
+        register(defaultChannel);
+    }
+
+    public void register(NotificationChannel channel) {
+        channels.put(channel.getName(), channel);
+    }
+
+    public NotificationChannel getChannel(String contactMethod) {
+        if (contactMethod == null) {
+            return defaultChannel;
+        }
+        return channels.getOrDefault(contactMethod, defaultChannel);
+    }
+}
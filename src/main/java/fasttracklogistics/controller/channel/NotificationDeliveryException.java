@@ -0,0 +1,24 @@
+package fasttracklogistics.controller.channel;
+
+/**
+ * Thrown by a {@link NotificationChannel} when a notification could not be delivered.
+ * A permanent failure (e.g. invalid address) goes straight to the dead-letter state;
+ * a transient one (e.g. timeout) is retried with backoff.
+ */
+public class NotificationDeliveryException extends Exception {
+    private final boolean permanent;
+
+    public NotificationDeliveryException(String message, boolean permanent) {
+        super(message);
+        this.permanent = permanent;
+    }
+
+    public NotificationDeliveryException(String message, Throwable cause, boolean permanent) {
+        super(message, cause);
+        this.permanent = permanent;
+    }
+
+    public boolean isPermanent() {
+        return permanent;
+    }
+}
@@ -0,0 +1,106 @@
+package fasttracklogistics.controller.channel;
+
+import fasttracklogistics.controller.channel.stub.StubSmsGatewayServer;
+import fasttracklogistics.controller.channel.stub.StubSmtpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Builds the channel registry for the configured delivery mode and owns the resources behind it.
+ * The mode comes from the {@value #MODE_PROPERTY} system property:
+ * <ul>
+ *   <li>{@code simulated} (default) - {@link StubNotificationChannel}s, no network at all.</li>
+ *   <li>{@code local} - real SMTP and HTTP SMS channels talking to in-process stub servers,
+ *       so connection reuse, concurrency limits and failure handling run end to end offline.</li>
+ *   <li>{@code remote} - real channels against {@code fasttrack.smtp.host}/{@code .port}/{@code .from}
+ *       and {@code fasttrack.sms.url}/{@code .apiKey}.</li>
+ * </ul>
+ * The "App" channel is always local: an in-app notification is delivered once its row exists.
+ */
+public class NotificationGateways implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(NotificationGateways.class.getName());
+
+    public static final String MODE_PROPERTY = "fasttrack.notify.gateways";
+
+    private final NotificationChannelRegistry registry = new NotificationChannelRegistry(new StubNotificationChannel("App", 0.0, 0));
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    private NotificationGateways() {
+    }
+
+    /**
+     * @param addressResolver Resolves recipients' email addresses and phone numbers for the real channels.
+     * @return Gateways for the mode selected by system properties.
+     * @throws IOException If a local stub server cannot be started.
+     */
+    public static NotificationGateways fromSystemProperties(RecipientAddressResolver addressResolver) throws IOException {
+        NotificationGateways gateways = new NotificationGateways();
+        String mode = System.getProperty(MODE_PROPERTY, "simulated");
+        int maxConnections = Integer.getInteger("fasttrack.notify.maxConnections", 16);
+        int timeoutMillis = Integer.getInteger("fasttrack.notify.timeoutMillis", 10_000);
+        switch (mode) {
+            case "local" -> {
+                StubSmtpServer smtpServer = gateways.own(new StubSmtpServer(0, 0.02, 20));
+                StubSmsGatewayServer smsServer = gateways.own(new StubSmsGatewayServer(0, 0.02, 40));
+                smtpServer.start();
+                smsServer.start();
+                gateways.register(new SmtpNotificationChannel("127.0.0.1", smtpServer.getPort(), "notifications@fasttrack.local",
+                        addressResolver, maxConnections, timeoutMillis));
+                gateways.register(new HttpSmsNotificationChannel(smsServer.getEndpoint(), null, addressResolver,
+                        maxConnections, timeoutMillis));
+            }
+            case "remote" -> {
+                gateways.register(new SmtpNotificationChannel(System.getProperty("fasttrack.smtp.host", "localhost"),
+                        Integer.getInteger("fasttrack.smtp.port", 25),
+                        System.getProperty("fasttrack.smtp.from", "notifications@fasttrack.example"),
+                        addressResolver, maxConnections, timeoutMillis));
+                String smsUrl = System.getProperty("fasttrack.sms.url");
+                if (smsUrl != null) {
+                    gateways.register(new HttpSmsNotificationChannel(URI.create(smsUrl), System.getProperty("fasttrack.sms.apiKey"),
+                            addressResolver, maxConnections, timeoutMillis));
+                } else {
+                    LOGGER.log(Level.WARNING, "fasttrack.sms.url not set; SMS notifications fall back to the App channel");
+                }
+            }
+            default -> {
+                gateways.registry.register(new StubNotificationChannel("Email", 0.05, 50));
+                gateways.registry.register(new StubNotificationChannel("SMS", 0.05, 100));
+            }
+        }
+        LOGGER.log(Level.INFO, "Notification gateways: " + mode);
+        return gateways;
+    }
+
+    public NotificationChannelRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Closes channels' pooled connections and stops any local stub servers.
+     */
+    @Override
+    public void close() {
+        for (AutoCloseable resource : resources) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error closing notification gateway resource", e);
+            }
+        }
+    }
+
+    private <T extends NotificationChannel & Closeable> void register(T channel) {
+        registry.register(own(channel));
+    }
+
+    private <T extends AutoCloseable> T own(T resource) {
+        resources.add(0, resource); // Closed in reverse order: channels before the stub servers they talk to
+        return resource;
+    }
+}
@@ -0,0 +1,18 @@
+package fasttracklogistics.controller.channel;
+
+import fasttracklogistics.model.Notification;
+
+/**
+ * Looks up where a notification should be sent (an email address, a phone number, ...).
+ * Notifications only carry a recipient type and ID, so external channels need this to address a message.
+ */
+public interface RecipientAddressResolver {
+
+    /**
+     * @param notification The notification being delivered.
+     * @return The recipient's contact string as stored (never null).
+     * @throws NotificationDeliveryException If the recipient has no contact details (permanent)
+     *                                       or the lookup failed (transient).
+     */
+    String resolve(Notification notification) throws NotificationDeliveryException;
+}
@@ -0,0 +1,280 @@
+package fasttracklogistics.controller.channel;
+
+import fasttracklogistics.model.Notification;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Delivers notifications as plain-text email over SMTP.
+ * Connections are kept open and reused across messages (one MAIL/RCPT/DATA transaction each),
+ * so a burst costs one TCP and greeting handshake per pooled connection rather than per email.
+ * At most {@code maxConnections} sends run at once; callers beyond that wait up to the acquire
+ * timeout and then fail transiently, which the delivery workers retry with backoff.
+ *
+ * SMTP replies map to failures as the protocol intends: 5xx is permanent (e.g. unknown mailbox),
+ * 4xx and I/O errors are transient.
+ *
+ * Recipient addresses come from shipment and personnel records that users and the API can edit, so only a plain
+ * {@code local@domain} address (no display name, quoting, comments or control characters) is ever written into
+ * the SMTP envelope or headers; anything else fails permanently before a connection is used.
+ */
+public class SmtpNotificationChannel implements NotificationChannel, Closeable {
+    private static final Logger LOGGER = Logger.getLogger(SmtpNotificationChannel.class.getName());
+    // RFC 5321 dot-atom local part and a host name of letter/digit/hyphen labels; no characters SMTP treats specially
+    private static final Pattern EMAIL_ADDRESS = Pattern.compile(
+            "[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+(\\.[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]+)*"
+                    + "@[A-Za-z0-9]([A-Za-z0-9-]{0,61}[A-Za-z0-9])?(\\.[A-Za-z0-9]([A-Za-z0-9-]{0,61}[A-Za-z0-9])?)*");
+    private static final int MAX_ADDRESS_LENGTH = 254;
+    private static final Pattern CONTROL_CHARACTERS = Pattern.compile("\\p{Cntrl}");
+
+    private final String host;
+    private final int port;
+    private final String fromAddress;
+    private final RecipientAddressResolver addressResolver;
+    private final int timeoutMillis;
+    private final int maxConnections;
+    private final Semaphore permits;
+    private final BlockingQueue<SmtpSession> idleSessions;
+    private volatile boolean closed;
+
+    // --- Metrics ---
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    /**
+     * @param host SMTP server host.
+     * @param port SMTP server port.
+     * @param fromAddress Envelope and header sender, e.g. "notifications@fasttrack.example".
+     * @param addressResolver Finds the recipient's email address.
+     * @param maxConnections Maximum concurrent sends (and pooled connections).
+     * @param timeoutMillis Connect/read timeout, also the longest a send waits for a free connection.
+     */
+    public SmtpNotificationChannel(String host, int port, String fromAddress, RecipientAddressResolver addressResolver,
+                                   int maxConnections, int timeoutMillis) {
+        if (!isValidAddress(fromAddress)) {
+            throw new IllegalArgumentException("Invalid sender address: " + fromAddress);
+        }
+        this.host = host;
+        this.port = port;
+        this.fromAddress = fromAddress;
+        this.addressResolver = addressResolver;
+        this.timeoutMillis = timeoutMillis;
+        this.maxConnections = maxConnections;
+        this.permits = new Semaphore(maxConnections);
+        this.idleSessions = new ArrayBlockingQueue<>(maxConnections);
+    }
+
+    @Override
+    public String getName() {
+        return "Email";
+    }
+
+    @Override
+    public void deliver(Notification notification) throws NotificationDeliveryException {
+        String to = addressResolver.resolve(notification);
+        if (!isValidAddress(to)) {
+            throw new NotificationDeliveryException("Recipient contact '" + printable(to) + "' is not an email address", true);
+        }
+        acquirePermit();
+        SmtpSession session = null;
+        try {
+            session = idleSessions.poll();
+            if (session == null) {
+                session = openSession();
+            }
+            session.send(fromAddress, to, subjectFor(notification), notification.getMessage());
+            deliveredCount.incrementAndGet();
+            returnSession(session);
+            session = null;
+        } catch (SmtpReplyException e) {
+            // The connection is still usable after a rejected transaction once it is reset
+            if (session != null && session.reset()) {
+                returnSession(session);
+                session = null;
+            }
+            throw new NotificationDeliveryException("SMTP " + e.code + ": " + e.getMessage(), e.code >= 500);
+        } catch (IOException e) {
+            throw new NotificationDeliveryException("SMTP connection to " + host + ":" + port + " failed", e, false);
+        } finally {
+            if (session != null) {
+                session.closeQuietly();
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes all pooled connections. Sends in progress finish on their own connections, which are then discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        SmtpSession session;
+        while ((session = idleSessions.poll()) != null) {
+            session.quit();
+        }
+    }
+
+    public long getDeliveredCount() { return deliveredCount.get(); }
+    public long getConnectionsOpened() { return connectionsOpened.get(); }
+
+    private void acquirePermit() throws NotificationDeliveryException {
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new NotificationDeliveryException("All " + maxConnections + " SMTP connections busy", false);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NotificationDeliveryException("Interrupted waiting for an SMTP connection", e, false);
+        }
+    }
+
+    private void returnSession(SmtpSession session) {
+        if (closed || !idleSessions.offer(session)) {
+            session.quit();
+        }
+    }
+
+    private SmtpSession openSession() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            SmtpSession session = new SmtpSession(socket);
+            session.expect(220);
+            session.command("EHLO fasttrack-logistics", 250);
+            connectionsOpened.incrementAndGet();
+            return session;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Whether {@code address} is a plain {@code local@domain} address, safe to write into
+     *         {@code MAIL FROM}/{@code RCPT TO} and the message headers as it is.
+     */
+    static boolean isValidAddress(String address) {
+        return address != null && address.length() <= MAX_ADDRESS_LENGTH && EMAIL_ADDRESS.matcher(address).matches();
+    }
+
+    /** The text with control characters (CR and LF among them) replaced, for headers and log messages. */
+    private static String printable(String text) {
+        return CONTROL_CHARACTERS.matcher(text == null ? "" : text).replaceAll(" ");
+    }
+
+    private static String subjectFor(Notification notification) {
+        String type = notification.getNotificationType() == null ? "Notification" : notification.getNotificationType();
+        return "FastTrack Logistics: " + printable(type);
+    }
+
+    /** One open SMTP connection; used by a single sender at a time. */
+    private static final class SmtpSession {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final BufferedWriter writer;
+
+        SmtpSession(Socket socket) throws IOException {
+            this.socket = socket;
+            this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        void send(String from, String to, String subject, String body) throws IOException {
+            command("MAIL FROM:<" + from + ">", 250);
+            command("RCPT TO:<" + to + ">", 250);
+            command("DATA", 354);
+            writer.write("From: " + from + "\r\n");
+            writer.write("To: " + to + "\r\n");
+            writer.write("Subject: " + subject + "\r\n");
+            writer.write("Content-Type: text/plain; charset=UTF-8\r\n\r\n");
+            for (String line : (body == null ? "" : body).split("\r\n|\r|\n", -1)) { // A bare CR or LF ends a line too
+                // Dot-stuffing: a line starting with '.' must not be read as the end of data
+                writer.write(line.startsWith(".") ? "." + line : line);
+                writer.write("\r\n");
+            }
+            command(".", 250);
+        }
+
+        boolean reset() {
+            try {
+                command("RSET", 250);
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        void quit() {
+            try {
+                command("QUIT", 221);
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "SMTP QUIT failed", e);
+            }
+            closeQuietly();
+        }
+
+        void closeQuietly() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Nothing to recover
+            }
+        }
+
+        void command(String line, int expectedCode) throws IOException {
+            writer.write(line);
+            writer.write("\r\n");
+            writer.flush();
+            expect(expectedCode);
+        }
+
+        /**
+         * Reads a (possibly multi-line) reply and checks its code; 2xx/3xx codes other than the expected
+         * one are accepted as success only for RCPT's 251 "will forward".
+         */
+        void expect(int expectedCode) throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) throw new IOException("SMTP server closed the connection");
+            } while (line.length() > 3 && line.charAt(3) == '-');
+            int code;
+            try {
+                code = Integer.parseInt(line.substring(0, 3));
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed SMTP reply: " + line);
+            }
+            if (code != expectedCode && !(expectedCode == 250 && code == 251)) {
+                throw new SmtpReplyException(code, line.length() > 4 ? line.substring(4) : line);
+            }
+        }
+    }
+
+    /** A well-formed but unsuccessful SMTP reply. */
+    private static final class SmtpReplyException extends IOException {
+        final int code;
+
+        SmtpReplyException(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package fasttracklogistics.controller.channel;
+
+import fasttracklogistics.model.Notification;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local stand-in for a real delivery channel. It logs each notification, sleeps for a fixed
+ * latency and fails a configurable fraction of sends, so retries and dead-lettering can be
+ * exercised without an email or SMS provider.
+ */
+public class StubNotificationChannel implements NotificationChannel {
+    private static final Logger LOGGER = Logger.getLogger(StubNotificationChannel.class.getName());
+
+    private final String name;
+    private final double failureRate;
+    private final long latencyMillis;
+    private final AtomicLong deliveredCount = new AtomicLong();
+
+    /**
+     * @param name Contact method handled, e.g. "Email".
+     * @param failureRate Fraction of sends (0.0 - 1.0) that throw a transient failure.
+     * @param latencyMillis Simulated send time per notification.
+     */
+    public StubNotificationChannel(String name, double failureRate, long latencyMillis) {
+        this.name = name;
+        this.failureRate = failureRate;
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void deliver(Notification notification) throws NotificationDeliveryException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NotificationDeliveryException("Interrupted while sending", e, false);
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new NotificationDeliveryException("Simulated " + name + " gateway failure", false);
+        }
+        deliveredCount.incrementAndGet();
+        LOGGER.log(Level.FINE, "[" + name + "] to " + notification.getRecipientType() + " #" +
+                notification.getRecipientId() + ": " + notification.getMessage());
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount.get();
+    }
+}
@@ -0,0 +1,74 @@
+package fasttracklogistics.controller.channel.stub;
+
+import fasttracklogistics.controller.channel.HttpSmsNotificationChannel;
+import fasttracklogistics.controller.channel.NotificationChannel;
+import fasttracklogistics.controller.channel.NotificationDeliveryException;
+import fasttracklogistics.controller.channel.RecipientAddressResolver;
+import fasttracklogistics.controller.channel.SmtpNotificationChannel;
+import fasttracklogistics.model.Notification;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline throughput and failure check for the SMTP and HTTP SMS channels against the stub servers.
+ * No database is needed: recipients resolve to fixed addresses.
+ *
+ * Usage: {@code java fasttracklogistics.controller.channel.stub.GatewayLoadCheck [messages] [maxConnections] [latencyMs] [failureRate]}
+ */
+public class GatewayLoadCheck {
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int maxConnections = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        double failureRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.02;
+
+        try (StubSmtpServer smtpServer = new StubSmtpServer(0, failureRate, latencyMillis);
+             StubSmsGatewayServer smsServer = new StubSmsGatewayServer(0, failureRate, latencyMillis)) {
+            smtpServer.start();
+            smsServer.start();
+            RecipientAddressResolver emailResolver = n -> "recipient" + n.getRecipientId() + "@example.com";
+            RecipientAddressResolver phoneResolver = n -> "+1555" + (1_000_000 + n.getRecipientId());
+
+            try (SmtpNotificationChannel email = new SmtpNotificationChannel("127.0.0.1", smtpServer.getPort(),
+                    "loadcheck@fasttrack.local", emailResolver, maxConnections, 30_000)) {
+                run(email, messages);
+                System.out.printf("  connections opened: %d, server accepted=%d rejected=%d%n",
+                        email.getConnectionsOpened(), smtpServer.getAcceptedCount(), smtpServer.getRejectedCount());
+            }
+            try (HttpSmsNotificationChannel sms = new HttpSmsNotificationChannel(smsServer.getEndpoint(), null,
+                    phoneResolver, maxConnections, 30_000)) {
+                run(sms, messages);
+                System.out.printf("  server accepted=%d rejected=%d%n", smsServer.getAcceptedCount(), smsServer.getRejectedCount());
+            }
+        }
+    }
+
+    private static void run(NotificationChannel channel, int messages) throws InterruptedException {
+        AtomicLong delivered = new AtomicLong();
+        AtomicLong transientFailures = new AtomicLong();
+        AtomicLong permanentFailures = new AtomicLong();
+        long start = System.nanoTime();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 1; i <= messages; i++) {
+                Notification notification = new Notification("Customer", i, i, 0,
+                        "Load check message " + i, "Status Update", channel.getName());
+                senders.submit(() -> {
+                    try {
+                        channel.deliver(notification);
+                        delivered.incrementAndGet();
+                    } catch (NotificationDeliveryException e) {
+                        (e.isPermanent() ? permanentFailures : transientFailures).incrementAndGet();
+                    }
+                });
+            }
+        } // close() waits for every send
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.printf("%s: %d messages in %.2f s (%.0f/min) delivered=%d transient=%d permanent=%d%n",
+                channel.getName(), messages, seconds, messages / seconds * 60, delivered.get(),
+                transientFailures.get(), permanentFailures.get());
+    }
+}
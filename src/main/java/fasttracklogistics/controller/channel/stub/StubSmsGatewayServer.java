@@ -0,0 +1,123 @@
+package fasttracklogistics.controller.channel.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process HTTP SMS gateway for exercising {@link fasttracklogistics.controller.channel.HttpSmsNotificationChannel}
+ * offline. It accepts form-encoded POSTs to {@code /messages} with {@code to} and {@code body}, answers
+ * 202 with a message id, and can add latency and fail a fraction of requests with 503. A missing
+ * or non-numeric {@code to} gets a 400. Requests are handled on virtual threads.
+ */
+public class StubSmsGatewayServer implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(StubSmsGatewayServer.class.getName());
+
+    private final double failureRate;
+    private final long latencyMillis;
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+
+    // --- Metrics ---
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * @param port Port to listen on (0 picks a free port; see {@link #getEndpoint()}).
+     * @param failureRate Fraction of requests (0.0 - 1.0) answered with 503.
+     * @param latencyMillis Delay before answering each request, simulating a slow gateway.
+     * @throws IOException If the port cannot be bound.
+     */
+    public StubSmsGatewayServer(int port, double failureRate, long latencyMillis) throws IOException {
+        this.failureRate = failureRate;
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 200);
+        this.server.createContext("/messages", this::handle);
+        this.server.setExecutor(handlers);
+    }
+
+    public void start() {
+        server.start();
+        LOGGER.log(Level.INFO, "Stub SMS gateway listening at " + getEndpoint());
+    }
+
+    public URI getEndpoint() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/messages");
+    }
+
+    public long getAcceptedCount() { return acceptedCount.get(); }
+    public long getRejectedCount() { return rejectedCount.get(); }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "{\"error\":\"POST only\"}");
+                return;
+            }
+            Map<String, String> form;
+            try (InputStream body = exchange.getRequestBody()) {
+                form = parseForm(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String to = form.get("to");
+            if (to == null || !to.matches("\\+?\\d{3,}")) {
+                rejectedCount.incrementAndGet();
+                respond(exchange, 400, "{\"error\":\"invalid destination\"}");
+            } else if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                rejectedCount.incrementAndGet();
+                respond(exchange, 503, "{\"error\":\"simulated outage\"}");
+            } else {
+                respond(exchange, 202, "{\"id\":" + acceptedCount.incrementAndGet() + "}");
+            }
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package fasttracklogistics.controller.channel.stub;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Minimal in-process SMTP server for exercising {@link fasttracklogistics.controller.channel.SmtpNotificationChannel}
+ * offline. It speaks just enough SMTP (EHLO/HELO, MAIL, RCPT, DATA, RSET, NOOP, QUIT) to accept mail,
+ * discards message bodies, and can add latency and reject a fraction of messages with a transient 451.
+ * Recipients without an '@' are refused with a permanent 550. Each connection is served on a virtual thread.
+ */
+public class StubSmtpServer implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(StubSmtpServer.class.getName());
+
+    private final double failureRate;
+    private final long latencyMillis;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+
+    // --- Metrics ---
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong connectionCount = new AtomicLong();
+
+    /**
+     * @param port Port to listen on (0 picks a free port; see {@link #getPort()}).
+     * @param failureRate Fraction of messages (0.0 - 1.0) answered with 451 after DATA.
+     * @param latencyMillis Delay before answering each message, simulating a slow relay.
+     * @throws IOException If the port cannot be bound.
+     */
+    public StubSmtpServer(int port, double failureRate, long latencyMillis) throws IOException {
+        this.failureRate = failureRate;
+        this.latencyMillis = latencyMillis;
+        this.serverSocket = new ServerSocket(port, 200, InetAddress.getLoopbackAddress());
+    }
+
+    public void start() {
+        Thread acceptor = new Thread(this::acceptLoop, "stub-smtp-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOGGER.log(Level.INFO, "Stub SMTP server listening on port " + getPort());
+    }
+
+    public int getPort() { return serverSocket.getLocalPort(); }
+    public long getAcceptedCount() { return acceptedCount.get(); }
+    public long getRejectedCount() { return rejectedCount.get(); }
+    public long getConnectionCount() { return connectionCount.get(); }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Error closing stub SMTP socket", e);
+        }
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionCount.incrementAndGet();
+                connections.submit(() -> serve(socket));
+            } catch (SocketException e) {
+                return; // Closed
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Stub SMTP accept failed", e);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+            reply(out, "220 stub.fasttrack.local ESMTP ready");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String verb = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (verb) {
+                    case "EHLO", "HELO" -> reply(out, "250-stub.fasttrack.local\r\n250 PIPELINING");
+                    case "MAIL", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "RCPT" -> reply(out, line.contains("@") ? "250 OK" : "550 No such mailbox");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Body discarded
+                        }
+                        reply(out, finishMessage());
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Stub SMTP connection ended", e);
+        }
+    }
+
+    private String finishMessage() {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            rejectedCount.incrementAndGet();
+            return "451 Simulated temporary failure";
+        }
+        acceptedCount.incrementAndGet();
+        return "250 OK queued";
+    }
+
+    private static void reply(BufferedWriter out, String text) throws IOException {
+        out.write(text);
+        out.write("\r\n");
+        out.flush();
+    }
+}
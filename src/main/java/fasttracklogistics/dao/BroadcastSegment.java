@@ -0,0 +1,47 @@
+package fasttracklogistics.dao;
+
+/**
+ * Recipient segments a notification can be broadcast to.
+ * Each segment is resolved with a single filtered SELECT over one table, which
+ * {@link NotificationDAO#broadcastToSegment} turns into INSERT ... SELECT statements.
+ */
+public enum BroadcastSegment {
+    SHIPMENTS_BY_STATUS("Shipments with status", "Customer", "shipments", "shipment_id", "delivery_status = ?"),
+    SHIPMENTS_BY_LOCATION("Shipments at location matching", "Customer", "shipments", "shipment_id", "current_location LIKE ?"),
+    PERSONNEL_BY_AVAILABILITY("Personnel with availability", "Personnel", "delivery_personnel", "personnel_id", "availability_status = ?");
+
+    private final String displayName;
+    private final String recipientType;
+    private final String table;
+    private final String idColumn;
+    private final String filter;
+
+    BroadcastSegment(String displayName, String recipientType, String table, String idColumn, String filter) {
+        this.displayName = displayName;
+        this.recipientType = recipientType;
+        this.table = table;
+        this.idColumn = idColumn;
+        this.filter = filter;
+    }
+
+    public String getDisplayName() { return displayName; }
+    public String getRecipientType() { return recipientType; }
+
+    String getTable() { return table; }
+    String getIdColumn() { return idColumn; }
+    String getFilter() { return filter; }
+
+    /**
+     * @return True if recipients are shipments (customers), so related_shipment_id is the recipient's shipment.
+     */
+    boolean isShipmentSegment() { return "shipments".equals(table); }
+
+    public static BroadcastSegment fromDisplayName(String displayName) {
+        for (BroadcastSegment segment : values()) {
+            if (segment.displayName.equals(displayName)) {
+                return segment;
+            }
+        }
+        return null;
+    }
+}
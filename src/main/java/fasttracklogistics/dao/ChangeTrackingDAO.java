@@ -0,0 +1,108 @@
+package fasttracklogistics.dao;
+
+import fasttracklogistics.model.Tombstone;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Support for delta sync between workstations: the database clock (watermarks must come from one clock),
+ * the row_tombstones table that records deletes, which updated_at alone cannot express, and the dataset
+ * epoch that a snapshot restore moves on, after which no earlier watermark or cached row is valid.
+ */
+public class ChangeTrackingDAO {
+    public static final String TABLE_SHIPMENTS = "shipments";
+    public static final String TABLE_DELIVERIES = "deliveries";
+    public static final String TABLE_PERSONNEL = "delivery_personnel";
+
+    /**
+     * Records that a row was deleted. Must run in the deleting transaction so the tombstone
+     * exists exactly when the delete is visible.
+     *
+     * @param conn The deleting transaction's connection; not closed by this method.
+     * @param tableName One of the TABLE_ constants.
+     * @param rowId Primary key of the deleted row.
+     * @throws SQLException If a database access error occurs.
+     */
+    static void recordDeletion(Connection conn, String tableName, int rowId) throws SQLException {
+        String sql = "INSERT INTO row_tombstones (table_name, row_id) VALUES (?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, tableName);
+            pstmt.setInt(2, rowId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * @return The database server's current time, the reference clock for updated_at watermarks.
+     * @throws SQLException If a database access error occurs.
+     */
+    public LocalDateTime getDatabaseTime() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP(3)")) {
+            rs.next();
+            return rs.getTimestamp(1).toLocalDateTime();
+        }
+    }
+
+    /**
+     * @return The current dataset epoch (see dataset_epoch); it changes only when a snapshot is restored.
+     * @throws SQLException If a database access error occurs.
+     */
+    public long getDatasetEpoch() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT epoch FROM dataset_epoch WHERE id = 1")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Retrieves deletions recorded after the given time (uses the deleted_at index).
+     *
+     * @param since Exclusive lower bound for deleted_at.
+     * @return Tombstones in deletion order.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Tombstone> getTombstonesSince(LocalDateTime since) throws SQLException {
+        List<Tombstone> tombstones = new ArrayList<>();
+        String sql = "SELECT tombstone_id, table_name, row_id, deleted_at FROM row_tombstones " +
+                "WHERE deleted_at > ? ORDER BY deleted_at, tombstone_id";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(since));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    tombstones.add(new Tombstone(rs.getLong("tombstone_id"), rs.getString("table_name"),
+                            rs.getInt("row_id"), rs.getTimestamp("deleted_at").toLocalDateTime()));
+                }
+            }
+        }
+        return tombstones;
+    }
+
+    /**
+     * Deletes tombstones older than the cutoff. A workstation offline for longer than the
+     * retention period must do a full reload instead of a delta sync.
+     *
+     * @param cutoff Tombstones with deleted_at before this are removed.
+     * @return The number of tombstones removed.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int purgeTombstonesBefore(LocalDateTime cutoff) throws SQLException {
+        String sql = "DELETE FROM row_tombstones WHERE deleted_at < ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            return pstmt.executeUpdate();
+        }
+    }
+}
@@ -6,10 +6,15 @@ import java.sql.SQLException;
 
 public class DatabaseConnection {
     // !!! IMPORTANT: Replace these with your actual database credentials !!!
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/fasttrack_logistics?useSSL=false&allowPublicKeyRetrieval=true";
+    private static final String DB_URL = "jdbc:mysql://localhost:3306/fasttrack_logistics?useSSL=false&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true"; // Batched statements are sent as multi-row INSERTs
     private static final String USER = "fasttrack_user"; // Your database username
     private static final String PASS = "devcorps_2025"; // Your database password
 
+    /** @return The JDBC URL connections are opened with (it identifies the database, not the user). */
+    public static String getDatabaseUrl() {
+        return DB_URL;
+    }
+
     public static Connection getConnection() throws SQLException {
         try {
             // Ensure the JDBC driver is loaded. For modern JDBC (Java 6+), this is often not strictly
@@ -23,6 +28,38 @@ public class DatabaseConnection {
         return DriverManager.getConnection(DB_URL, USER, PASS);
     }
 
+    /**
+     * Unit of work executed inside a database transaction.
+     * It may refuse the change with a checked exception of its own ({@code E}), which rolls back like a failure.
+     */
+    @FunctionalInterface
+    public interface TransactionWork<T, E extends Exception> {
+        T execute(Connection conn) throws SQLException, E;
+    }
+
+    /**
+     * Runs the given work on one connection inside a single transaction.
+     * Commits if the work completes, rolls back and rethrows if it throws.
+     *
+     * @param work The statements to execute; must use the supplied connection.
+     * @return Whatever the work returns.
+     * @throws SQLException If the work or the commit fails.
+     * @throws E If the work refuses the change.
+     */
+    public static <T, E extends Exception> T inTransaction(TransactionWork<T, E> work) throws SQLException, E {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.execute(conn);
+                conn.commit();
+                return result;
+            } catch (Exception e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
     /**
      * Helper method to close a database connection.
      * @param conn The Connection object to close.
@@ -5,8 +5,14 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 public class DeliveryDAO {
+    // Columns a QuerySpec may use; all indexed
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("delivery_id", "scheduled_pickup_time", "scheduled_delivery_time",
+            "actual_delivery_time", "delivery_status");
+    private static final Set<String> FILTERABLE_COLUMNS = Set.of("delivery_status", "scheduled_pickup_time", "scheduled_delivery_time",
+            "actual_delivery_time");
 
     /**
      * Adds a new delivery record to the database.
@@ -16,11 +22,23 @@ public class DeliveryDAO {
      * @throws SQLException If a database access error occurs.
      */
     public void addDelivery(Delivery delivery) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            addDelivery(conn, delivery);
+        }
+    }
+
+    /**
+     * Adds a new delivery record using the caller's connection (and transaction).
+     *
+     * @param conn The connection to use; not closed by this method.
+     * @param delivery The Delivery object to add; its ID is set from the generated key.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void addDelivery(Connection conn, Delivery delivery) throws SQLException {
         String sql = "INSERT INTO deliveries (shipment_id, personnel_id, scheduled_pickup_time, " +
                 "actual_pickup_time, scheduled_delivery_time, actual_delivery_time, " +
                 "delivery_status, route_details, delivery_notes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, delivery.getShipmentId());
             // personnel_id can be null in DB, so handle that
             if (delivery.getPersonnelId() != 0) { // Assuming 0 or -1 means not assigned
@@ -85,6 +103,30 @@ public class DeliveryDAO {
         return deliveries;
     }
 
+    /**
+     * Retrieves the deliveries matching the spec's filters, in its sort order, with both evaluated by the database.
+     *
+     * @param spec Filters and sort order; columns must be in this DAO's whitelists.
+     * @return The matching Delivery objects.
+     * @throws SQLException If a database access error occurs.
+     * @throws IllegalArgumentException If the spec uses a column that cannot be sorted or filtered on.
+     */
+    public List<Delivery> getDeliveries(QuerySpec spec) throws SQLException {
+        String sql = "SELECT * FROM deliveries" + spec.toWhereSql(FILTERABLE_COLUMNS)
+                + spec.toOrderBySql(SORTABLE_COLUMNS, "delivery_id", null);
+        List<Delivery> deliveries = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            spec.bindFilters(stmt, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    deliveries.add(mapResultSetToDelivery(rs));
+                }
+            }
+        }
+        return deliveries;
+    }
+
     /**
      * Retrieves delivery records associated with a specific shipment.
      *
@@ -107,6 +149,25 @@ public class DeliveryDAO {
         return deliveries;
     }
 
+    /**
+     * Checks for a delivery of the shipment inside the caller's transaction. A locking read, so it sees
+     * deliveries committed after the transaction's snapshot was taken.
+     *
+     * @param conn The connection (and transaction) to use; not closed by this method.
+     * @param shipmentId The ID of the shipment.
+     * @return True if the shipment has at least one delivery.
+     * @throws SQLException If a database access error occurs.
+     */
+    public boolean hasDeliveryForShipment(Connection conn, int shipmentId) throws SQLException {
+        String sql = "SELECT 1 FROM deliveries WHERE shipment_id = ? LIMIT 1 FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, shipmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
     /**
      * Retrieves delivery records assigned to a specific personnel.
      *
@@ -129,6 +190,32 @@ public class DeliveryDAO {
         return deliveries;
     }
 
+    /**
+     * Retrieves completed deliveries (both actual pickup and actual delivery times set)
+     * whose actual delivery time falls within the given range.
+     *
+     * @param from Inclusive lower bound for actual_delivery_time.
+     * @param to Exclusive upper bound for actual_delivery_time.
+     * @return A list of completed Delivery objects in the range.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Delivery> getCompletedDeliveriesBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        List<Delivery> deliveries = new ArrayList<>();
+        String sql = "SELECT * FROM deliveries WHERE actual_pickup_time IS NOT NULL " +
+                "AND actual_delivery_time >= ? AND actual_delivery_time < ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(from));
+            stmt.setTimestamp(2, Timestamp.valueOf(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    deliveries.add(mapResultSetToDelivery(rs));
+                }
+            }
+        }
+        return deliveries;
+    }
+
     /**
      * Updates an existing delivery record in the database.
      *
@@ -136,11 +223,23 @@ public class DeliveryDAO {
      * @throws SQLException If a database access error occurs.
      */
     public void updateDelivery(Delivery delivery) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            updateDelivery(conn, delivery);
+        }
+    }
+
+    /**
+     * Updates an existing delivery record using the caller's connection (and transaction).
+     *
+     * @param conn The connection to use; not closed by this method.
+     * @param delivery The Delivery object with updated information.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void updateDelivery(Connection conn, Delivery delivery) throws SQLException {
         String sql = "UPDATE deliveries SET shipment_id=?, personnel_id=?, scheduled_pickup_time=?, " +
                 "actual_pickup_time=?, scheduled_delivery_time=?, actual_delivery_time=?, " +
                 "delivery_status=?, route_details=?, delivery_notes=? WHERE delivery_id=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, delivery.getShipmentId());
             if (delivery.getPersonnelId() != 0) {
                 stmt.setInt(2, delivery.getPersonnelId());
@@ -167,11 +266,37 @@ public class DeliveryDAO {
      */
     public void deleteDelivery(int deliveryId) throws SQLException {
         String sql = "DELETE FROM deliveries WHERE delivery_id = ?";
+        DatabaseConnection.inTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, deliveryId);
+                if (stmt.executeUpdate() > 0) {
+                    ChangeTrackingDAO.recordDeletion(conn, ChangeTrackingDAO.TABLE_DELIVERIES, deliveryId);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves deliveries inserted or updated after the given time (uses the updated_at index).
+     *
+     * @param since Exclusive lower bound for updated_at, on the database clock.
+     * @return The changed deliveries, oldest change first.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Delivery> getDeliveriesChangedSince(LocalDateTime since) throws SQLException {
+        List<Delivery> deliveries = new ArrayList<>();
+        String sql = "SELECT * FROM deliveries WHERE updated_at > ? ORDER BY updated_at";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, deliveryId);
-            stmt.executeUpdate();
+            stmt.setTimestamp(1, Timestamp.valueOf(since));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    deliveries.add(mapResultSetToDelivery(rs));
+                }
+            }
         }
+        return deliveries;
     }
 
     /**
@@ -199,6 +324,7 @@ public class DeliveryDAO {
         delivery.setDeliveryStatus(rs.getString("delivery_status"));
         delivery.setRouteDetails(rs.getString("route_details"));
         delivery.setDeliveryNotes(rs.getString("delivery_notes"));
+        delivery.setUpdatedAt(rs.getTimestamp("updated_at") != null ? rs.getTimestamp("updated_at").toLocalDateTime() : null);
         return delivery;
     }
 }
\ No newline at end of file
@@ -2,10 +2,20 @@ package fasttracklogistics.dao;
 
 import fasttracklogistics.model.DeliveryPersonnel;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 public class DeliveryPersonnelDAO {
+    // Columns a QuerySpec may use; all indexed
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("personnel_id", "name", "personnel_type", "license_number",
+            "availability_status");
+    private static final Set<String> FILTERABLE_COLUMNS = Set.of("name", "personnel_type", "license_number", "availability_status");
 
     /**
      * Adds a new delivery personnel record to the database.
@@ -34,6 +44,67 @@ public class DeliveryPersonnelDAO {
         }
     }
 
+    /**
+     * Adds many personnel records in one transaction with a single batched INSERT.
+     * Each object's ID is set from its generated key.
+     *
+     * @param personnelList The personnel to insert.
+     * @throws SQLException If a database access error occurs; the whole batch is rolled back.
+     */
+    public void addPersonnel(List<DeliveryPersonnel> personnelList) throws SQLException {
+        if (personnelList.isEmpty()) return;
+        String sql = "INSERT INTO delivery_personnel (name, contact_info, personnel_type, license_number, vehicle_details, availability_status) VALUES (?, ?, ?, ?, ?, ?)";
+        DatabaseConnection.inTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (DeliveryPersonnel personnel : personnelList) {
+                    stmt.setString(1, personnel.getName());
+                    stmt.setString(2, personnel.getContactInfo());
+                    stmt.setString(3, personnel.getPersonnelType());
+                    stmt.setString(4, personnel.getLicenseNumber());
+                    stmt.setString(5, personnel.getVehicleDetails());
+                    stmt.setString(6, personnel.getAvailabilityStatus());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (DeliveryPersonnel personnel : personnelList) {
+                        if (!generatedKeys.next()) break;
+                        personnel.setPersonnelId(generatedKeys.getInt(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Finds which of the given license numbers are already registered, in one query.
+     *
+     * @param licenseNumbers The license numbers to check (at most a few thousand per call).
+     * @return The upper-cased license numbers that exist (license_number compares case-insensitively).
+     * @throws SQLException If a database access error occurs.
+     */
+    public Set<String> findExistingLicenseNumbers(Collection<String> licenseNumbers) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        if (licenseNumbers.isEmpty()) return existing;
+        String sql = "SELECT license_number FROM delivery_personnel WHERE license_number IN ("
+                + String.join(",", Collections.nCopies(licenseNumbers.size(), "?")) + ")";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String licenseNumber : licenseNumbers) {
+                stmt.setString(index++, licenseNumber);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1).toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return existing;
+    }
+
     /**
      * Retrieves a delivery personnel record from the database by its ID.
      *
@@ -55,6 +126,27 @@ public class DeliveryPersonnelDAO {
         return null;
     }
 
+    /**
+     * Reads a personnel record and locks its row until the caller's transaction ends.
+     *
+     * @param conn The connection (and transaction) to use; not closed by this method.
+     * @param personnelId The ID of the personnel to retrieve.
+     * @return The DeliveryPersonnel object if found, otherwise null.
+     * @throws SQLException If a database access error occurs.
+     */
+    public DeliveryPersonnel getPersonnelByIdForUpdate(Connection conn, int personnelId) throws SQLException {
+        String sql = "SELECT * FROM delivery_personnel WHERE personnel_id = ? FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, personnelId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToPersonnel(rs);
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Retrieves all delivery personnel records from the database.
      *
@@ -74,6 +166,30 @@ public class DeliveryPersonnelDAO {
         return personnelList;
     }
 
+    /**
+     * Retrieves the personnel matching the spec's filters, in its sort order, with both evaluated by the database.
+     *
+     * @param spec Filters and sort order; columns must be in this DAO's whitelists.
+     * @return The matching DeliveryPersonnel objects.
+     * @throws SQLException If a database access error occurs.
+     * @throws IllegalArgumentException If the spec uses a column that cannot be sorted or filtered on.
+     */
+    public List<DeliveryPersonnel> getPersonnel(QuerySpec spec) throws SQLException {
+        String sql = "SELECT * FROM delivery_personnel" + spec.toWhereSql(FILTERABLE_COLUMNS)
+                + spec.toOrderBySql(SORTABLE_COLUMNS, "personnel_id", null);
+        List<DeliveryPersonnel> personnelList = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            spec.bindFilters(stmt, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    personnelList.add(mapResultSetToPersonnel(rs));
+                }
+            }
+        }
+        return personnelList;
+    }
+
     /**
      * Updates an existing delivery personnel record in the database.
      *
@@ -81,9 +197,21 @@ public class DeliveryPersonnelDAO {
      * @throws SQLException If a database access error occurs.
      */
     public void updatePersonnel(DeliveryPersonnel personnel) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            updatePersonnel(conn, personnel);
+        }
+    }
+
+    /**
+     * Updates an existing delivery personnel record using the caller's connection (and transaction).
+     *
+     * @param conn The connection to use; not closed by this method.
+     * @param personnel The DeliveryPersonnel object with updated information.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void updatePersonnel(Connection conn, DeliveryPersonnel personnel) throws SQLException {
         String sql = "UPDATE delivery_personnel SET name=?, contact_info=?, personnel_type=?, license_number=?, vehicle_details=?, availability_status=? WHERE personnel_id=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, personnel.getName());
             stmt.setString(2, personnel.getContactInfo());
             stmt.setString(3, personnel.getPersonnelType());
@@ -102,12 +230,45 @@ public class DeliveryPersonnelDAO {
      * @throws SQLException If a database access error occurs.
      */
     public void deletePersonnel(int personnelId) throws SQLException {
+        // Unassign explicitly rather than leaving it to ON DELETE SET NULL: foreign key actions
+        // don't bump updated_at, and other workstations need to see those deliveries change
+        String unassignSql = "UPDATE deliveries SET personnel_id = NULL WHERE personnel_id = ?";
         String sql = "DELETE FROM delivery_personnel WHERE personnel_id = ?";
+        DatabaseConnection.inTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(unassignSql)) {
+                stmt.setInt(1, personnelId);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, personnelId);
+                if (stmt.executeUpdate() > 0) {
+                    ChangeTrackingDAO.recordDeletion(conn, ChangeTrackingDAO.TABLE_PERSONNEL, personnelId);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves personnel records inserted or updated after the given time (uses the updated_at index).
+     *
+     * @param since Exclusive lower bound for updated_at, on the database clock.
+     * @return The changed personnel, oldest change first.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<DeliveryPersonnel> getPersonnelChangedSince(LocalDateTime since) throws SQLException {
+        List<DeliveryPersonnel> personnelList = new ArrayList<>();
+        String sql = "SELECT * FROM delivery_personnel WHERE updated_at > ? ORDER BY updated_at";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, personnelId);
-            stmt.executeUpdate();
+            stmt.setTimestamp(1, Timestamp.valueOf(since));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    personnelList.add(mapResultSetToPersonnel(rs));
+                }
+            }
         }
+        return personnelList;
     }
 
     /**
@@ -126,6 +287,10 @@ public class DeliveryPersonnelDAO {
         personnel.setLicenseNumber(rs.getString("license_number"));
         personnel.setVehicleDetails(rs.getString("vehicle_details"));
         personnel.setAvailabilityStatus(rs.getString("availability_status"));
+        Timestamp updatedTs = rs.getTimestamp("updated_at");
+        if (updatedTs != null) {
+            personnel.setUpdatedAt(updatedTs.toLocalDateTime());
+        }
         return personnel;
     }
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package fasttracklogistics.dao;
+
+import fasttracklogistics.model.Notification;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Data Access Object for 'notifications_archive', the cold store for old notifications.
+ * The archive is range-partitioned by month on timestamp (partitions named pYYYYMM plus a
+ * catch-all 'pmax'), so purging a month is a metadata-only DROP PARTITION instead of a large DELETE.
+ * Nothing in the normal UI reads this table; it is only queried on request.
+ */
+public class NotificationArchiveDAO {
+
+    private static final String ARCHIVE_COLUMNS = "notification_id, recipient_type, recipient_id, related_shipment_id, " +
+            "related_personnel_id, message, notification_type, timestamp, is_read, contact_method, " +
+            "dispatch_status, dispatch_attempts, dispatch_priority";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    /**
+     * Moves one chunk of archivable notifications from the hot table to the archive.
+     * A notification is archivable once it is read, its delivery has finished ('Sent' or 'Dead'),
+     * and it is older than the cutoff. Copy, delete and the counter adjustment commit together,
+     * and each chunk is its own short transaction, so the hot table is never locked for long.
+     *
+     * @param cutoff Only notifications with a timestamp before this are moved.
+     * @param chunkSize Maximum number of notifications moved by this call.
+     * @return The number of notifications moved (less than chunkSize once the backlog is drained).
+     * @throws SQLException If a database access error occurs.
+     */
+    public int archiveReadNotifications(LocalDateTime cutoff, int chunkSize) throws SQLException {
+        String selectSql = "SELECT notification_id, recipient_type, recipient_id FROM notifications " +
+                "WHERE is_read = 1 AND dispatch_status IN (?, ?) AND timestamp < ? " +
+                "ORDER BY timestamp LIMIT ? FOR UPDATE SKIP LOCKED";
+
+        return DatabaseConnection.inTransaction(conn -> {
+            List<Integer> ids = new ArrayList<>();
+            NotificationCounterDeltas deltas = new NotificationCounterDeltas();
+            try (PreparedStatement select = conn.prepareStatement(selectSql)) {
+                select.setString(1, NotificationDAO.DISPATCH_SENT);
+                select.setString(2, NotificationDAO.DISPATCH_DEAD);
+                select.setTimestamp(3, Timestamp.valueOf(cutoff));
+                select.setInt(4, chunkSize);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt("notification_id"));
+                        // Archived notifications are read, so only the inbox total shrinks
+                        deltas.add(rs.getString("recipient_type"), rs.getInt("recipient_id"), 0, -1);
+                    }
+                }
+            }
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            StringJoiner placeholders = new StringJoiner(", ", "(", ")");
+            ids.forEach(id -> placeholders.add("?"));
+            String copySql = "INSERT INTO notifications_archive (" + ARCHIVE_COLUMNS + ") SELECT " + ARCHIVE_COLUMNS +
+                    " FROM notifications WHERE notification_id IN " + placeholders;
+            String deleteSql = "DELETE FROM notifications WHERE notification_id IN " + placeholders;
+
+            try (PreparedStatement copy = conn.prepareStatement(copySql);
+                 PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                for (int i = 0; i < ids.size(); i++) {
+                    copy.setInt(i + 1, ids.get(i));
+                    delete.setInt(i + 1, ids.get(i));
+                }
+                copy.executeUpdate();
+                delete.executeUpdate();
+            }
+            deltas.apply(conn);
+            return ids.size();
+        });
+    }
+
+    /**
+     * Retrieves one page of archived notifications, newest first (same keyset scheme as the hot inbox).
+     *
+     * @param recipientType "Customer" or "Personnel".
+     * @param recipientId A single recipient's ID, or 0 for every recipient of the type.
+     * @param afterTimestamp Timestamp of the last row of the previous page, or null for the first page.
+     * @param afterNotificationId Notification ID of the last row of the previous page.
+     * @param pageSize Maximum number of notifications to return.
+     * @return The page of archived notifications.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Notification> getArchivedNotificationsPage(String recipientType, int recipientId, LocalDateTime afterTimestamp,
+                                                           int afterNotificationId, int pageSize) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT * FROM notifications_archive WHERE recipient_type = ?");
+        if (recipientId > 0) {
+            sql.append(" AND recipient_id = ?");
+        }
+        if (afterTimestamp != null) {
+            sql.append(" AND (timestamp < ? OR (timestamp = ? AND notification_id < ?))");
+        }
+        sql.append(" ORDER BY timestamp DESC, notification_id DESC LIMIT ?");
+
+        List<Notification> notifications = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            pstmt.setString(index++, recipientType);
+            if (recipientId > 0) {
+                pstmt.setInt(index++, recipientId);
+            }
+            if (afterTimestamp != null) {
+                Timestamp after = Timestamp.valueOf(afterTimestamp);
+                pstmt.setTimestamp(index++, after);
+                pstmt.setTimestamp(index++, after);
+                pstmt.setInt(index++, afterNotificationId);
+            }
+            pstmt.setInt(index, pageSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    notifications.add(NotificationDAO.mapResultSetToNotification(rs));
+                }
+            }
+        }
+        return notifications;
+    }
+
+    /**
+     * Lists the archive's monthly partitions (excluding the catch-all), oldest first.
+     *
+     * @return The months that currently have a partition.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<YearMonth> getArchivePartitionMonths() throws SQLException {
+        String sql = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notifications_archive' " +
+                "AND PARTITION_NAME LIKE 'p______' ORDER BY PARTITION_ORDINAL_POSITION";
+        List<YearMonth> months = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                String name = rs.getString(1);
+                months.add(YearMonth.of(Integer.parseInt(name.substring(1, 5)), Integer.parseInt(name.substring(5, 7))));
+            }
+        }
+        return months;
+    }
+
+    /**
+     * Makes sure a monthly partition exists for every month up to and including {@code through},
+     * by splitting the new months off the 'pmax' catch-all. Cheap while pmax is empty, which it is
+     * as long as partitions are created ahead of time.
+     *
+     * @param through The last month that must have its own partition.
+     * @return The number of partitions created.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int ensureArchivePartitions(YearMonth through) throws SQLException {
+        List<YearMonth> existing = getArchivePartitionMonths();
+        YearMonth next = existing.isEmpty() ? YearMonth.now() : existing.get(existing.size() - 1).plusMonths(1);
+        if (next.isAfter(through)) {
+            return 0;
+        }
+
+        StringJoiner partitions = new StringJoiner(", ");
+        int created = 0;
+        for (YearMonth month = next; !month.isAfter(through); month = month.plusMonths(1)) {
+            partitions.add("PARTITION " + month.atDay(1).format(PARTITION_NAME) +
+                    " VALUES LESS THAN (TO_DAYS('" + month.plusMonths(1).atDay(1) + "'))");
+            created++;
+        }
+        partitions.add("PARTITION pmax VALUES LESS THAN MAXVALUE");
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE notifications_archive REORGANIZE PARTITION pmax INTO (" + partitions + ")");
+        }
+        return created;
+    }
+
+    /**
+     * Purges every archived month before {@code cutoff} by dropping its partition.
+     * Dropping a partition removes its rows without row-by-row deletes, undo logging or long row locks.
+     *
+     * @param cutoff The first month to keep.
+     * @return The months that were dropped.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<YearMonth> dropArchivePartitionsBefore(YearMonth cutoff) throws SQLException {
+        List<YearMonth> dropped = new ArrayList<>();
+        StringJoiner names = new StringJoiner(", ");
+        for (YearMonth month : getArchivePartitionMonths()) {
+            if (month.isBefore(cutoff)) {
+                names.add(month.atDay(1).format(PARTITION_NAME));
+                dropped.add(month);
+            }
+        }
+        if (dropped.isEmpty()) {
+            return dropped;
+        }
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE notifications_archive DROP PARTITION " + names);
+        }
+        return dropped;
+    }
+}
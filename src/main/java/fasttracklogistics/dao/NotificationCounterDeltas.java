@@ -0,0 +1,58 @@
+package fasttracklogistics.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Accumulates counter changes for one transaction and applies them as a single batched upsert.
+ * Every change to a recipient is also added to its shard of the recipient type's total
+ * (see {@link NotificationDAO#TYPE_TOTAL_SHARDS}). Keys are applied in sorted
+ * order so concurrent transactions lock counter rows in the same order and cannot deadlock.
+ */
+class NotificationCounterDeltas {
+    private final Map<String, Map<Integer, int[]>> deltas = new TreeMap<>();
+
+    void addInserted(String recipientType, int recipientId, boolean isRead) {
+        add(recipientType, recipientId, isRead ? 0 : 1, 1);
+    }
+
+    void add(String recipientType, int recipientId, int unreadDelta, int totalDelta) {
+        accumulate(recipientType, recipientId, unreadDelta, totalDelta);
+        if (recipientId > 0) { // Not itself a total shard
+            accumulate(recipientType, NotificationDAO.typeTotalShardId(recipientId), unreadDelta, totalDelta);
+        }
+    }
+
+    private void accumulate(String recipientType, int recipientId, int unreadDelta, int totalDelta) {
+        int[] delta = deltas.computeIfAbsent(recipientType, k -> new TreeMap<>())
+                .computeIfAbsent(recipientId, k -> new int[2]);
+        delta[0] += unreadDelta;
+        delta[1] += totalDelta;
+    }
+
+    void apply(Connection conn) throws SQLException {
+        if (deltas.isEmpty()) return;
+        String sql = "INSERT INTO notification_unread_counters (recipient_type, recipient_id, unread_count, total_count) " +
+                "VALUES (?, ?, GREATEST(?, 0), GREATEST(?, 0)) " +
+                "ON DUPLICATE KEY UPDATE unread_count = GREATEST(unread_count + ?, 0), total_count = GREATEST(total_count + ?, 0)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Map.Entry<String, Map<Integer, int[]>> type : deltas.entrySet()) {
+                for (Map.Entry<Integer, int[]> recipient : type.getValue().entrySet()) {
+                    int[] delta = recipient.getValue();
+                    if (delta[0] == 0 && delta[1] == 0) continue;
+                    pstmt.setString(1, type.getKey());
+                    pstmt.setInt(2, recipient.getKey());
+                    pstmt.setInt(3, delta[0]);
+                    pstmt.setInt(4, delta[1]);
+                    pstmt.setInt(5, delta[0]);
+                    pstmt.setInt(6, delta[1]);
+                    pstmt.addBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
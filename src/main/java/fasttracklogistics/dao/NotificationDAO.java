@@ -3,11 +3,20 @@ package fasttracklogistics.dao;
 import fasttracklogistics.model.Notification; // Original generic model
 import fasttracklogistics.model.CustomerNotification; // New specific model
 import fasttracklogistics.model.PersonnelNotification; // New specific model
+import fasttracklogistics.model.NotificationCounts;
+import fasttracklogistics.util.DurationHistogram;
 import fasttracklogistics.dao.DatabaseConnection; // Corrected import based on your file structure
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
 
 /**
  * Data Access Object (DAO) for managing Notification records in the database.
@@ -17,6 +26,74 @@ import java.util.List;
  */
 public class NotificationDAO {
 
+    // Outbox delivery states stored in notifications.dispatch_status
+    public static final String DISPATCH_PENDING = "Pending";
+    public static final String DISPATCH_PROCESSING = "Processing";
+    public static final String DISPATCH_SENT = "Sent";
+    public static final String DISPATCH_DEAD = "Dead";
+
+    private static final String INSERT_NOTIFICATION_SQL = "INSERT INTO notifications (" +
+            "recipient_type, recipient_id, related_shipment_id, related_personnel_id, " +
+            "message, notification_type, timestamp, is_read, contact_method, dispatch_priority) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Same, but not claimable by the delivery workers for the coalescing window (11th parameter, seconds)
+    private static final String INSERT_HELD_NOTIFICATION_SQL = "INSERT INTO notifications (" +
+            "recipient_type, recipient_id, related_shipment_id, related_personnel_id, " +
+            "message, notification_type, timestamp, is_read, contact_method, dispatch_priority, next_attempt_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW() + INTERVAL ? SECOND)";
+
+    /** dispatch_priority used when no resolver is configured (matches the column default). */
+    public static final int DEFAULT_DISPATCH_PRIORITY = 2;
+
+    // Maps notification_type to dispatch_priority; the lane configuration itself lives in the controller layer
+    private final ToIntFunction<String> dispatchPriorityResolver;
+    private final Set<String> coalescedTypes;
+    private final int coalesceWindowSeconds;
+
+    // --- Metrics ---
+    private final AtomicLong suppressedCount = new AtomicLong(); // Notifications merged into a pending one instead of sent
+    private final DurationHistogram outboxWriteMicros = new DurationHistogram(); // Guarded by itself
+    private final DurationHistogram counterUpsertMicros = new DurationHistogram(); // Guarded by itself
+
+    /** Percentiles of a write latency histogram, in microseconds; values of a second or more are clamped to about one second. */
+    public record WriteLatency(long count, long p50Micros, long p99Micros, long maxMicros) {
+        private static WriteLatency of(DurationHistogram micros) {
+            synchronized (micros) {
+                return new WriteLatency(micros.getTotalCount(), micros.getValueAtPercentile(50),
+                        micros.getValueAtPercentile(99), micros.getMaxValue());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[n=%d p50=%dus p99=%dus max=%dus]", count, p50Micros, p99Micros, maxMicros);
+        }
+    }
+
+    public NotificationDAO() {
+        this(type -> DEFAULT_DISPATCH_PRIORITY);
+    }
+
+    /**
+     * @param dispatchPriorityResolver Maps a notification type to the dispatch_priority stored with it
+     *                                 (lower is claimed first by the delivery workers).
+     */
+    public NotificationDAO(ToIntFunction<String> dispatchPriorityResolver) {
+        this(dispatchPriorityResolver, Set.of(), 0);
+    }
+
+    /**
+     * @param dispatchPriorityResolver Maps a notification type to the dispatch_priority stored with it
+     *                                 (lower is claimed first by the delivery workers).
+     * @param coalescedTypes Notification types that {@link #addNotification(Connection, Notification)} coalesces.
+     * @param coalesceWindowSeconds How long a coalesced notification waits in the outbox for newer ones to merge into it.
+     */
+    public NotificationDAO(ToIntFunction<String> dispatchPriorityResolver, Set<String> coalescedTypes, int coalesceWindowSeconds) {
+        this.dispatchPriorityResolver = dispatchPriorityResolver;
+        this.coalescedTypes = Set.copyOf(coalescedTypes);
+        this.coalesceWindowSeconds = coalesceWindowSeconds;
+    }
+
     // --- Add methods for new specific models ---
 
     /**
@@ -28,39 +105,44 @@ public class NotificationDAO {
      * @throws SQLException If a database access error occurs.
      */
     public void addCustomerNotification(CustomerNotification customerNotification) throws SQLException {
-        String sql = "INSERT INTO notifications (" +
-                "recipient_type, recipient_id, related_shipment_id, related_personnel_id, " +
-                "message, notification_type, timestamp, is_read, contact_method) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        DatabaseConnection.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_NOTIFICATION_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setString(1, "Customer"); // Hardcode recipient_type
-            pstmt.setInt(2, customerNotification.getCustomerShipmentId()); // customerShipmentId maps to recipient_id
-            pstmt.setInt(3, customerNotification.getRelatedShipmentId());
-            pstmt.setNull(4, Types.INTEGER); // Customer notifications typically don't have related personnel
+                pstmt.setString(1, "Customer"); // Hardcode recipient_type
+                pstmt.setInt(2, customerNotification.getCustomerShipmentId()); // customerShipmentId maps to recipient_id
+                if (customerNotification.getRelatedShipmentId() > 0) {
+                    pstmt.setInt(3, customerNotification.getRelatedShipmentId());
+                } else {
+                    pstmt.setNull(3, Types.INTEGER); // 0 would violate the shipments foreign key
+                }
+                pstmt.setNull(4, Types.INTEGER); // Customer notifications typically don't have related personnel
 
-            pstmt.setString(5, customerNotification.getMessage());
-            pstmt.setString(6, customerNotification.getNotificationType());
-            pstmt.setTimestamp(7, Timestamp.valueOf(customerNotification.getTimestamp()));
-            pstmt.setBoolean(8, customerNotification.isRead());
-            pstmt.setString(9, customerNotification.getContactMethod());
+                pstmt.setString(5, customerNotification.getMessage());
+                pstmt.setString(6, customerNotification.getNotificationType());
+                pstmt.setTimestamp(7, Timestamp.valueOf(customerNotification.getTimestamp()));
+                pstmt.setBoolean(8, customerNotification.isRead());
+                pstmt.setString(9, customerNotification.getContactMethod());
+                pstmt.setInt(10, dispatchPriorityResolver.applyAsInt(customerNotification.getNotificationType()));
 
-            int affectedRows = pstmt.executeUpdate();
+                int affectedRows = pstmt.executeUpdate();
 
-            if (affectedRows == 0) {
-                throw new SQLException("Creating customer notification failed, no rows affected.");
-            }
+                if (affectedRows == 0) {
+                    throw new SQLException("Creating customer notification failed, no rows affected.");
+                }
 
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    customerNotification.setNotificationId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("Creating customer notification failed, no ID obtained.");
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        customerNotification.setNotificationId(generatedKeys.getInt(1));
+                    } else {
+                        throw new SQLException("Creating customer notification failed, no ID obtained.");
+                    }
                 }
             }
-        }
+            NotificationCounterDeltas deltas = new NotificationCounterDeltas();
+            deltas.addInserted("Customer", customerNotification.getCustomerShipmentId(), customerNotification.isRead());
+            deltas.apply(conn);
+            return null;
+        });
     }
 
     /**
@@ -72,48 +154,540 @@ public class NotificationDAO {
      * @throws SQLException If a database access error occurs.
      */
     public void addPersonnelNotification(PersonnelNotification personnelNotification) throws SQLException {
-        String sql = "INSERT INTO notifications (" +
-                "recipient_type, recipient_id, related_shipment_id, related_personnel_id, " +
-                "message, notification_type, timestamp, is_read, contact_method) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        DatabaseConnection.inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_NOTIFICATION_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, "Personnel"); // Hardcode recipient_type
+                pstmt.setInt(2, personnelNotification.getPersonnelId()); // personnelId maps to recipient_id
+
+                if (personnelNotification.getRelatedShipmentId() > 0) {
+                    pstmt.setInt(3, personnelNotification.getRelatedShipmentId());
+                } else {
+                    pstmt.setNull(3, Types.INTEGER);
+                }
+                if (personnelNotification.getRelatedPersonnelId() > 0) {
+                    pstmt.setInt(4, personnelNotification.getRelatedPersonnelId());
+                } else {
+                    pstmt.setNull(4, Types.INTEGER);
+                }
 
-            pstmt.setString(1, "Personnel"); // Hardcode recipient_type
-            pstmt.setInt(2, personnelNotification.getPersonnelId()); // personnelId maps to recipient_id
+                pstmt.setString(5, personnelNotification.getMessage());
+                pstmt.setString(6, personnelNotification.getNotificationType());
+                pstmt.setTimestamp(7, Timestamp.valueOf(personnelNotification.getTimestamp()));
+                pstmt.setBoolean(8, personnelNotification.isRead());
+                pstmt.setString(9, personnelNotification.getContactMethod());
+                pstmt.setInt(10, dispatchPriorityResolver.applyAsInt(personnelNotification.getNotificationType()));
 
-            if (personnelNotification.getRelatedShipmentId() > 0) {
-                pstmt.setInt(3, personnelNotification.getRelatedShipmentId());
-            } else {
-                pstmt.setNull(3, Types.INTEGER);
-            }
-            if (personnelNotification.getRelatedPersonnelId() > 0) {
-                pstmt.setInt(4, personnelNotification.getRelatedPersonnelId());
-            } else {
-                pstmt.setNull(4, Types.INTEGER);
+                int affectedRows = pstmt.executeUpdate();
+
+                if (affectedRows == 0) {
+                    throw new SQLException("Creating personnel notification failed, no rows affected.");
+                }
+
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        personnelNotification.setNotificationId(generatedKeys.getInt(1));
+                    } else {
+                        throw new SQLException("Creating personnel notification failed, no ID obtained.");
+                    }
+                }
             }
+            NotificationCounterDeltas deltas = new NotificationCounterDeltas();
+            deltas.addInserted("Personnel", personnelNotification.getPersonnelId(), personnelNotification.isRead());
+            deltas.apply(conn);
+            return null;
+        });
+    }
 
-            pstmt.setString(5, personnelNotification.getMessage());
-            pstmt.setString(6, personnelNotification.getNotificationType());
-            pstmt.setTimestamp(7, Timestamp.valueOf(personnelNotification.getTimestamp()));
-            pstmt.setBoolean(8, personnelNotification.isRead());
-            pstmt.setString(9, personnelNotification.getContactMethod());
+    /**
+     * Inserts a batch of generic notifications in a single transaction using one batched statement.
+     * Each notification's ID is updated with its auto-generated key.
+     * Used by the API to write a notification it accepted.
+     *
+     * @param notifications The notifications to insert (may mix Customer and Personnel recipients).
+     * @throws SQLException If a database access error occurs; the whole batch is rolled back.
+     */
+    public void addNotifications(List<Notification> notifications) throws SQLException {
+        if (notifications.isEmpty()) return;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_NOTIFICATION_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Notification n : notifications) {
+                    bindNotification(pstmt, n);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
 
-            int affectedRows = pstmt.executeUpdate();
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    for (Notification n : notifications) {
+                        if (!generatedKeys.next()) break;
+                        n.setNotificationId(generatedKeys.getInt(1));
+                    }
+                }
 
-            if (affectedRows == 0) {
-                throw new SQLException("Creating personnel notification failed, no rows affected.");
+                NotificationCounterDeltas deltas = new NotificationCounterDeltas();
+                for (Notification n : notifications) {
+                    deltas.addInserted(n.getRecipientType(), n.getRecipientId(), n.isRead());
+                }
+                deltas.apply(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
+        }
+    }
+
+    /**
+     * Inserts a single generic notification using the caller's connection, so the notification
+     * commits or rolls back together with the shipment/delivery change that caused it.
+     * The new row starts in the 'Pending' dispatch state and is picked up by the delivery workers.
+     *
+     * Notifications of a coalesced type are merged in the outbox: if one with the same recipient, related
+     * shipment and type is still pending and unread, it takes the new message and timestamp instead of a
+     * second row being written, so a burst such as Scheduled, Picked Up, In Transit reaches the customer once,
+     * with the latest status. A new coalesced row is held back from the workers for the coalescing window,
+     * counted from the first notification, so none is delayed by more than one window.
+     *
+     * @param conn The connection (and transaction) to use; not closed by this method.
+     * @param notification The notification to insert; its ID is set from the generated key, or to the
+     *                     ID of the pending notification it was merged into.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void addNotification(Connection conn, Notification notification) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            writeNotification(conn, notification);
+        } finally {
+            record(outboxWriteMicros, start); // Failed writes too: a lock wait timeout is the latency worth seeing
+        }
+    }
 
+    private void writeNotification(Connection conn, Notification notification) throws SQLException {
+        boolean coalesced = coalesceWindowSeconds > 0 && coalescedTypes.contains(notification.getNotificationType());
+        if (coalesced && !notification.isRead() && mergeIntoPending(conn, notification)) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(coalesced ? INSERT_HELD_NOTIFICATION_SQL : INSERT_NOTIFICATION_SQL,
+                Statement.RETURN_GENERATED_KEYS)) {
+            bindNotification(pstmt, notification);
+            if (coalesced) pstmt.setInt(11, coalesceWindowSeconds);
+            pstmt.executeUpdate();
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
-                    personnelNotification.setNotificationId(generatedKeys.getInt(1));
-                } else {
-                    throw new SQLException("Creating personnel notification failed, no ID obtained.");
+                    notification.setNotificationId(generatedKeys.getInt(1));
                 }
             }
         }
+        NotificationCounterDeltas deltas = new NotificationCounterDeltas();
+        deltas.addInserted(notification.getRecipientType(), notification.getRecipientId(), notification.isRead());
+        long countersStart = System.nanoTime();
+        try {
+            deltas.apply(conn);
+        } finally {
+            record(counterUpsertMicros, countersStart);
+        }
+    }
+
+    private static void record(DurationHistogram micros, long startNanos) {
+        long elapsed = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        synchronized (micros) {
+            micros.record(elapsed);
+        }
+    }
+
+    /**
+     * Overwrites the newest pending, unread notification with the same coalescing key, if any.
+     * The conditional UPDATE (by primary key) loses to a worker that claimed the row in the meantime,
+     * in which case the caller inserts a new row. Unread counts do not change: one unread row stays one.
+     *
+     * @return true if the notification was merged.
+     */
+    private boolean mergeIntoPending(Connection conn, Notification notification) throws SQLException {
+        String findSql = "SELECT notification_id FROM notifications WHERE recipient_type = ? AND recipient_id = ? " +
+                "AND related_shipment_id <=> ? AND notification_type = ? AND dispatch_status = ? AND is_read = 0 " +
+                "ORDER BY notification_id DESC LIMIT 1";
+        String mergeSql = "UPDATE notifications SET message = ?, timestamp = ?, contact_method = ? " +
+                "WHERE notification_id = ? AND dispatch_status = ? AND is_read = 0";
+        int pendingId;
+        try (PreparedStatement find = conn.prepareStatement(findSql)) {
+            find.setString(1, notification.getRecipientType());
+            find.setInt(2, notification.getRecipientId());
+            if (notification.getRelatedShipmentId() > 0) {
+                find.setInt(3, notification.getRelatedShipmentId());
+            } else {
+                find.setNull(3, Types.INTEGER);
+            }
+            find.setString(4, notification.getNotificationType());
+            find.setString(5, DISPATCH_PENDING);
+            try (ResultSet rs = find.executeQuery()) {
+                if (!rs.next()) return false;
+                pendingId = rs.getInt(1);
+            }
+        }
+        try (PreparedStatement merge = conn.prepareStatement(mergeSql)) {
+            merge.setString(1, notification.getMessage());
+            merge.setTimestamp(2, Timestamp.valueOf(notification.getTimestamp()));
+            merge.setString(3, notification.getContactMethod());
+            merge.setInt(4, pendingId);
+            merge.setString(5, DISPATCH_PENDING);
+            if (merge.executeUpdate() == 0) return false;
+        }
+        notification.setNotificationId(pendingId);
+        suppressedCount.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * @return Notifications this DAO merged into a pending one, so they were never sent on their own. Counted when
+     *         merged: a merge whose transaction later rolls back is included.
+     */
+    public long getSuppressedCount() {
+        return suppressedCount.get();
+    }
+
+    /**
+     * @return Latency of {@link #addNotification(Connection, Notification)} inside the caller's transaction: the
+     *         outbox insert or merge plus its counter upserts, including any lock waits.
+     */
+    public WriteLatency getOutboxWriteLatency() {
+        return WriteLatency.of(outboxWriteMicros);
+    }
+
+    /** @return Latency of the counter upserts alone within {@link #getOutboxWriteLatency()}. */
+    public WriteLatency getCounterUpsertLatency() {
+        return WriteLatency.of(counterUpsertMicros);
+    }
+
+    // --- Broadcast methods ---
+
+    /**
+     * Number of rows the per-type total in notification_unread_counters is spread over. A single total row was
+     * updated by every notification write and serialized them all; each recipient now adds to the shard at
+     * recipient_id -(recipient_id mod shards), i.e. 0 down to -(shards - 1), and readers sum the shards.
+     */
+    public static final int TYPE_TOTAL_SHARDS = 16;
+
+    /** @return recipient_id of the per-type total shard that a recipient's changes are added to. */
+    static int typeTotalShardId(int recipientId) {
+        return -Math.floorMod(recipientId, TYPE_TOTAL_SHARDS);
+    }
+
+    /** Rows of the segment's table (by primary key range) covered by one INSERT ... SELECT chunk. */
+    private static final int BROADCAST_CHUNK_SIZE = 5_000;
+
+    /**
+     * Counts the recipients in a broadcast segment.
+     *
+     * @param segment The segment to resolve.
+     * @param filterValue Status/availability to match, or a LIKE pattern for locations.
+     * @return The number of recipients the broadcast would reach.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int countBroadcastRecipients(BroadcastSegment segment, String filterValue) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM " + segment.getTable() + " WHERE " + segment.getFilter();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, filterValue);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Inserts one notification for every recipient in a segment, entirely server-side.
+     * The segment's table is walked in primary key ranges of {@value #BROADCAST_CHUNK_SIZE} and each range
+     * is copied with one INSERT ... SELECT, so no recipient rows travel to the client and each
+     * statement commits on its own, keeping row locks short. New rows enter the outbox as 'Pending'.
+     *
+     * @param segment The recipient segment.
+     * @param filterValue Status/availability to match, or a LIKE pattern (% and _ wildcards) for locations.
+     * @param message The notification message.
+     * @param notificationType The notification type (e.g., "Delay").
+     * @param contactMethod The contact method for every notification.
+     * @param progress Receives the running total of inserted notifications after each chunk; may be null.
+     * @return The number of notifications inserted.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int broadcastToSegment(BroadcastSegment segment, String filterValue, String message,
+                                  String notificationType, String contactMethod, IntConsumer progress) throws SQLException {
+        String idColumn = segment.getIdColumn();
+        String rangeSql = "SELECT MIN(" + idColumn + "), MAX(" + idColumn + ") FROM " + segment.getTable() +
+                " WHERE " + segment.getFilter();
+        String insertSql = "INSERT INTO notifications (recipient_type, recipient_id, related_shipment_id, " +
+                "related_personnel_id, message, notification_type, timestamp, is_read, contact_method, dispatch_priority) " +
+                "SELECT ?, " + idColumn + ", " + (segment.isShipmentSegment() ? idColumn : "NULL") +
+                ", NULL, ?, ?, ?, 0, ?, ? FROM " + segment.getTable() +
+                " WHERE " + segment.getFilter() + " AND " + idColumn + " BETWEEN ? AND ?";
+
+        String shardSql = "SELECT MOD(" + idColumn + ", " + TYPE_TOTAL_SHARDS + "), COUNT(*) FROM " + segment.getTable() +
+                " WHERE " + segment.getFilter() + " AND " + idColumn + " BETWEEN ? AND ? GROUP BY 1 LOCK IN SHARE MODE";
+        String counterSql = "INSERT INTO notification_unread_counters (recipient_type, recipient_id, unread_count, total_count) " +
+                "SELECT ?, " + idColumn + ", 1, 1 FROM " + segment.getTable() +
+                " WHERE " + segment.getFilter() + " AND " + idColumn + " BETWEEN ? AND ? ORDER BY " + idColumn + " " +
+                "ON DUPLICATE KEY UPDATE unread_count = unread_count + 1, total_count = total_count + 1";
+
+        int inserted = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            int minId;
+            int maxId;
+            try (PreparedStatement range = conn.prepareStatement(rangeSql)) {
+                range.setString(1, filterValue);
+                try (ResultSet rs = range.executeQuery()) {
+                    if (!rs.next() || rs.getObject(1) == null) {
+                        return 0; // Empty segment
+                    }
+                    minId = rs.getInt(1);
+                    maxId = rs.getInt(2);
+                }
+            }
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            // Each chunk's notifications and counter updates commit together
+            conn.setAutoCommit(false);
+            try (PreparedStatement shards = conn.prepareStatement(shardSql);
+                 PreparedStatement insert = conn.prepareStatement(insertSql);
+                 PreparedStatement counters = conn.prepareStatement(counterSql)) {
+                for (long low = minId; low <= maxId; low += BROADCAST_CHUNK_SIZE) {
+                    long high = Math.min(low + BROADCAST_CHUNK_SIZE - 1, maxId);
+                    // Share-locks the chunk's recipients so the insert below reaches exactly the rows counted per shard
+                    NotificationCounterDeltas typeTotal = new NotificationCounterDeltas();
+                    shards.setString(1, filterValue);
+                    shards.setLong(2, low);
+                    shards.setLong(3, high);
+                    try (ResultSet rs = shards.executeQuery()) {
+                        while (rs.next()) {
+                            int recipients = rs.getInt(2);
+                            typeTotal.add(segment.getRecipientType(), -rs.getInt(1), recipients, recipients);
+                        }
+                    }
+                    insert.setString(1, segment.getRecipientType());
+                    insert.setString(2, message);
+                    insert.setString(3, notificationType);
+                    insert.setTimestamp(4, now);
+                    insert.setString(5, contactMethod);
+                    insert.setInt(6, dispatchPriorityResolver.applyAsInt(notificationType));
+                    insert.setString(7, filterValue);
+                    insert.setLong(8, low);
+                    insert.setLong(9, high);
+                    int chunkInserted = insert.executeUpdate();
+
+                    if (chunkInserted > 0) {
+                        // Total shards (recipient 0 and below) first, then recipients in ascending id: the order
+                        // NotificationCounterDeltas locks in, so a broadcast and a single insert cannot deadlock
+                        typeTotal.apply(conn);
+                        counters.setString(1, segment.getRecipientType());
+                        counters.setString(2, filterValue);
+                        counters.setLong(3, low);
+                        counters.setLong(4, high);
+                        counters.executeUpdate();
+                    }
+                    conn.commit();
+
+                    inserted += chunkInserted;
+                    if (progress != null) {
+                        progress.accept(inserted);
+                    }
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        return inserted;
+    }
+
+    // --- Outbox delivery methods (used by NotificationDeliveryWorkerPool) ---
+
+    /**
+     * Claims up to {@code limit} due notifications of one priority lane for one delivery worker.
+     * Rows are locked with FOR UPDATE SKIP LOCKED so concurrent workers never claim the same row,
+     * then moved to 'Processing' and stamped with the worker ID before the claim transaction commits.
+     * The (dispatch_status, dispatch_priority, next_attempt_at) index makes each lane a single range scan.
+     * Requires MySQL 8.0+ or MariaDB 10.6+.
+     *
+     * @param workerId Identifier of the claiming worker (stored in locked_by).
+     * @param dispatchPriority The lane to claim from.
+     * @param limit Maximum number of rows to claim.
+     * @return The claimed notifications, oldest due first.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Notification> claimPendingNotifications(String workerId, int dispatchPriority, int limit) throws SQLException {
+        String selectSql = "SELECT * FROM notifications WHERE dispatch_status = ? AND dispatch_priority = ? " +
+                "AND next_attempt_at <= NOW() ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED";
+        String claimSql = "UPDATE notifications SET dispatch_status = ?, locked_by = ?, locked_at = NOW() " +
+                "WHERE notification_id = ?";
+
+        return DatabaseConnection.inTransaction(conn -> {
+            List<Notification> claimed = new ArrayList<>();
+            try (PreparedStatement select = conn.prepareStatement(selectSql)) {
+                select.setString(1, DISPATCH_PENDING);
+                select.setInt(2, dispatchPriority);
+                select.setInt(3, limit);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        claimed.add(mapResultSetToNotification(rs));
+                    }
+                }
+            }
+            if (!claimed.isEmpty()) {
+                try (PreparedStatement claim = conn.prepareStatement(claimSql)) {
+                    for (Notification n : claimed) {
+                        claim.setString(1, DISPATCH_PROCESSING);
+                        claim.setString(2, workerId);
+                        claim.setInt(3, n.getNotificationId());
+                        claim.addBatch();
+                        n.setDispatchStatus(DISPATCH_PROCESSING);
+                    }
+                    claim.executeBatch();
+                }
+            }
+            return claimed;
+        });
+    }
+
+    /**
+     * Marks a claimed notification as delivered.
+     * @param notificationId The ID of the delivered notification.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void markNotificationSent(int notificationId) throws SQLException {
+        String sql = "UPDATE notifications SET dispatch_status = ?, dispatch_attempts = dispatch_attempts + 1, " +
+                "locked_by = NULL, locked_at = NULL, last_error = NULL WHERE notification_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, DISPATCH_SENT);
+            pstmt.setInt(2, notificationId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Records a failed delivery attempt. The notification either goes back to 'Pending'
+     * with a later next_attempt_at (retry with backoff) or to the 'Dead' dead-letter state.
+     *
+     * @param notificationId The ID of the notification that failed.
+     * @param error A short description of the failure (stored in last_error).
+     * @param nextAttemptAt When to retry; ignored if deadLetter is true.
+     * @param deadLetter True to stop retrying and move the notification to 'Dead'.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void markNotificationFailed(int notificationId, String error, LocalDateTime nextAttemptAt, boolean deadLetter) throws SQLException {
+        String sql = "UPDATE notifications SET dispatch_status = ?, dispatch_attempts = dispatch_attempts + 1, " +
+                "next_attempt_at = ?, locked_by = NULL, locked_at = NULL, last_error = ? WHERE notification_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, deadLetter ? DISPATCH_DEAD : DISPATCH_PENDING);
+            pstmt.setTimestamp(2, Timestamp.valueOf(nextAttemptAt));
+            pstmt.setString(3, error);
+            pstmt.setInt(4, notificationId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Puts a claimed notification back to 'Pending' without counting a delivery attempt,
+     * e.g. when a rate limit says it cannot be sent yet.
+     *
+     * @param notificationId The ID of the notification to defer.
+     * @param nextAttemptAt Earliest time a worker may claim it again.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void deferNotification(int notificationId, LocalDateTime nextAttemptAt) throws SQLException {
+        String sql = "UPDATE notifications SET dispatch_status = ?, next_attempt_at = ?, locked_by = NULL, locked_at = NULL " +
+                "WHERE notification_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, DISPATCH_PENDING);
+            pstmt.setTimestamp(2, Timestamp.valueOf(nextAttemptAt));
+            pstmt.setInt(3, notificationId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Returns 'Processing' rows whose worker has held them longer than the given age back to 'Pending'.
+     * This recovers notifications claimed by a worker that crashed before marking them. The abandoned claim
+     * counts as a failed attempt, so a message that keeps killing its send is dead-lettered instead of
+     * being retried forever.
+     *
+     * @param olderThanSeconds Minimum claim age before a row is considered abandoned.
+     * @param maxAttempts Attempts after which the row goes to 'Dead' instead of 'Pending'.
+     * @return The number of notifications released.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int releaseStaleClaims(int olderThanSeconds, int maxAttempts) throws SQLException {
+        // dispatch_status is assigned before dispatch_attempts, so it still sees the attempts before this one
+        String sql = "UPDATE notifications SET dispatch_status = IF(dispatch_attempts + 1 >= ?, ?, ?), " +
+                "dispatch_attempts = dispatch_attempts + 1, locked_by = NULL, locked_at = NULL, " +
+                "last_error = 'Claim abandoned by its worker' " +
+                "WHERE dispatch_status = ? AND locked_at < NOW() - INTERVAL ? SECOND";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, maxAttempts);
+            pstmt.setString(2, DISPATCH_DEAD);
+            pstmt.setString(3, DISPATCH_PENDING);
+            pstmt.setString(4, DISPATCH_PROCESSING);
+            pstmt.setInt(5, olderThanSeconds);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Counts the 'Pending' notifications per dispatch_priority, due or not, in one grouped query that reads only the
+     * (dispatch_status, dispatch_priority, next_attempt_at) index.
+     *
+     * @return Pending rows per dispatch_priority; priorities with none are absent.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Map<Integer, Long> countPendingByPriority() throws SQLException {
+        String sql = "SELECT dispatch_priority, COUNT(*) FROM notifications WHERE dispatch_status = ? GROUP BY dispatch_priority";
+        Map<Integer, Long> counts = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, DISPATCH_PENDING);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getInt(1), rs.getLong(2));
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Returns 'Processing' rows that no worker holds (locked_at NULL) to 'Pending'. Only a restore leaves such
+     * rows: snapshots carry dispatch_status but not the lease, and the stale-claim sweep only sees leased rows.
+     *
+     * @return The number of notifications released.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int releaseUnleasedClaims() throws SQLException {
+        String sql = "UPDATE notifications SET dispatch_status = ?, locked_by = NULL WHERE dispatch_status = ? AND locked_at IS NULL";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, DISPATCH_PENDING);
+            pstmt.setString(2, DISPATCH_PROCESSING);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Puts a dead-lettered notification back into the delivery queue with a fresh attempt budget.
+     * @param notificationId The ID of the notification to retry.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void requeueDeadNotification(int notificationId) throws SQLException {
+        String sql = "UPDATE notifications SET dispatch_status = ?, dispatch_attempts = 0, next_attempt_at = NOW() " +
+                "WHERE notification_id = ? AND dispatch_status = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, DISPATCH_PENDING);
+            pstmt.setInt(2, notificationId);
+            pstmt.setString(3, DISPATCH_DEAD);
+            pstmt.executeUpdate();
+        }
     }
 
     // --- Existing methods (return generic Notification model) ---
@@ -133,18 +707,7 @@ public class NotificationDAO {
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                notifications.add(new Notification(
-                        rs.getInt("notification_id"),
-                        rs.getString("recipient_type"),
-                        rs.getInt("recipient_id"),
-                        rs.getInt("related_shipment_id"),
-                        rs.getInt("related_personnel_id"),
-                        rs.getString("message"),
-                        rs.getString("notification_type"),
-                        rs.getTimestamp("timestamp").toLocalDateTime(),
-                        rs.getBoolean("is_read"),
-                        rs.getString("contact_method")
-                ));
+                notifications.add(mapResultSetToNotification(rs));
             }
         }
         return notifications;
@@ -166,18 +729,7 @@ public class NotificationDAO {
             pstmt.setString(1, recipientType);
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
-                    notifications.add(new Notification(
-                            rs.getInt("notification_id"),
-                            rs.getString("recipient_type"),
-                            rs.getInt("recipient_id"),
-                            rs.getInt("related_shipment_id"),
-                            rs.getInt("related_personnel_id"),
-                            rs.getString("message"),
-                            rs.getString("notification_type"),
-                            rs.getTimestamp("timestamp").toLocalDateTime(),
-                            rs.getBoolean("is_read"),
-                            rs.getString("contact_method")
-                    ));
+                    notifications.add(mapResultSetToNotification(rs));
                 }
             }
         }
@@ -185,32 +737,242 @@ public class NotificationDAO {
     }
 
     /**
-     * Updates the 'is_read' status of a notification.
-     * @param notificationId The ID of the notification to update.
-     * @param isRead The new read status (true for read, false for unread).
+     * Retrieves one page of notifications, newest first, using keyset pagination on (timestamp, notification_id).
+     * The inner query walks only the (recipient_type[, recipient_id], timestamp) index to pick the page's IDs,
+     * and full rows are fetched for those IDs alone, so the cost depends on the page size, not on table size
+     * or how deep the user has paged.
+     *
+     * @param recipientType "Customer" or "Personnel".
+     * @param recipientId A single recipient's ID, or 0 for every recipient of the type.
+     * @param afterTimestamp Timestamp of the last row of the previous page, or null for the first page.
+     * @param afterNotificationId Notification ID of the last row of the previous page (ignored for the first page).
+     * @param pageSize Maximum number of notifications to return.
+     * @return The page of generic Notification objects.
      * @throws SQLException If a database access error occurs.
      */
-    public void updateNotificationReadStatus(int notificationId, boolean isRead) throws SQLException {
-        String sql = "UPDATE notifications SET is_read = ? WHERE notification_id = ?";
+    public List<Notification> getNotificationsPage(String recipientType, int recipientId, LocalDateTime afterTimestamp,
+                                                   int afterNotificationId, int pageSize) throws SQLException {
+        StringBuilder inner = new StringBuilder("SELECT notification_id FROM notifications WHERE recipient_type = ?");
+        if (recipientId > 0) {
+            inner.append(" AND recipient_id = ?");
+        }
+        if (afterTimestamp != null) {
+            inner.append(" AND (timestamp < ? OR (timestamp = ? AND notification_id < ?))");
+        }
+        inner.append(" ORDER BY timestamp DESC, notification_id DESC LIMIT ?");
+        String sql = "SELECT n.* FROM notifications n JOIN (" + inner + ") page " +
+                "ON n.notification_id = page.notification_id ORDER BY n.timestamp DESC, n.notification_id DESC";
+
+        List<Notification> notifications = new ArrayList<>();
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setBoolean(1, isRead);
-            pstmt.setInt(2, notificationId);
-            pstmt.executeUpdate();
+            int index = 1;
+            pstmt.setString(index++, recipientType);
+            if (recipientId > 0) {
+                pstmt.setInt(index++, recipientId);
+            }
+            if (afterTimestamp != null) {
+                Timestamp after = Timestamp.valueOf(afterTimestamp);
+                pstmt.setTimestamp(index++, after);
+                pstmt.setTimestamp(index++, after);
+                pstmt.setInt(index++, afterNotificationId);
+            }
+            pstmt.setInt(index, pageSize);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    notifications.add(mapResultSetToNotification(rs));
+                }
+            }
+        }
+        return notifications;
+    }
+
+    /**
+     * Returns the maintained unread/total counts for one recipient, or for a whole recipient type.
+     * This is a single primary key lookup on 'notification_unread_counters'.
+     *
+     * @param recipientType "Customer" or "Personnel".
+     * @param recipientId The recipient's ID, or 0 for the totals of the whole type.
+     * @return The counts (zero if the recipient has never received a notification).
+     * @throws SQLException If a database access error occurs.
+     */
+    public NotificationCounts getNotificationCounts(String recipientType, int recipientId) throws SQLException {
+        String sql = "SELECT unread_count, total_count FROM notification_unread_counters " +
+                "WHERE recipient_type = ? AND recipient_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, recipientType);
+            pstmt.setInt(2, recipientId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new NotificationCounts(rs.getInt("unread_count"), rs.getInt("total_count"));
+                }
+            }
+        }
+        return new NotificationCounts(0, 0);
+    }
+
+    /**
+     * Sums the per-type total shards (one primary key range read).
+     *
+     * @param recipientType "Customer" or "Personnel".
+     * @return Unread and total notifications of every recipient of the type.
+     * @throws SQLException If a database access error occurs.
+     */
+    public NotificationCounts getTypeTotalCounts(String recipientType) throws SQLException {
+        String sql = "SELECT COALESCE(SUM(unread_count), 0), COALESCE(SUM(total_count), 0) FROM notification_unread_counters " +
+                "WHERE recipient_type = ? AND recipient_id BETWEEN ? AND 0";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, recipientType);
+            pstmt.setInt(2, -(TYPE_TOTAL_SHARDS - 1));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new NotificationCounts(rs.getInt(1), rs.getInt(2));
+                }
+            }
         }
+        return new NotificationCounts(0, 0);
     }
 
     /**
-     * Deletes a notification record from the database by its ID.
+     * Recomputes every counter from the notifications table.
+     * Only needed after manual data fixes; normal inserts, read-status changes and deletes keep counters current.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void rebuildNotificationCounters() throws SQLException {
+        DatabaseConnection.inTransaction(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM notification_unread_counters");
+                stmt.executeUpdate("INSERT INTO notification_unread_counters (recipient_type, recipient_id, unread_count, total_count) " +
+                        "SELECT recipient_type, recipient_id, SUM(is_read = 0), COUNT(*) FROM notifications " +
+                        "WHERE recipient_id IS NOT NULL GROUP BY recipient_type, recipient_id");
+                stmt.executeUpdate("INSERT INTO notification_unread_counters (recipient_type, recipient_id, unread_count, total_count) " +
+                        "SELECT recipient_type, -MOD(recipient_id, " + TYPE_TOTAL_SHARDS + "), SUM(is_read = 0), COUNT(*) FROM notifications " +
+                        "WHERE recipient_id IS NOT NULL GROUP BY recipient_type, MOD(recipient_id, " + TYPE_TOTAL_SHARDS + ")");
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Updates the 'is_read' status of a notification and adjusts the unread counters if the status actually changed.
+     * @param notificationId The ID of the notification to update.
+     * @param isRead The new read status (true for read, false for unread).
+     * @throws SQLException If a database access error occurs.
+     */
+    public void updateNotificationReadStatus(int notificationId, boolean isRead) throws SQLException {
+        updateNotificationsReadStatus(List.of(notificationId), isRead);
+    }
+
+    /**
+     * Updates the 'is_read' status of several notifications in one transaction.
+     * @param notificationIds The IDs of the notifications to update.
+     * @param isRead The new read status.
+     * @return The number of notifications whose status changed.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int updateNotificationsReadStatus(List<Integer> notificationIds, boolean isRead) throws SQLException {
+        if (notificationIds.isEmpty()) return 0;
+        String selectSql = "SELECT recipient_type, recipient_id, is_read FROM notifications WHERE notification_id = ? FOR UPDATE";
+        String updateSql = "UPDATE notifications SET is_read = ? WHERE notification_id = ?";
+
+        return DatabaseConnection.inTransaction(conn -> {
+            int changed = 0;
+            NotificationCounterDeltas deltas = new NotificationCounterDeltas();
+            try (PreparedStatement select = conn.prepareStatement(selectSql);
+                 PreparedStatement update = conn.prepareStatement(updateSql)) {
+                for (int notificationId : notificationIds) {
+                    select.setInt(1, notificationId);
+                    try (ResultSet rs = select.executeQuery()) {
+                        if (!rs.next() || rs.getBoolean("is_read") == isRead) {
+                            continue; // Missing or already in the requested state: counters stay as they are
+                        }
+                        deltas.add(rs.getString("recipient_type"), rs.getInt("recipient_id"), isRead ? -1 : 1, 0);
+                    }
+                    update.setBoolean(1, isRead);
+                    update.setInt(2, notificationId);
+                    update.executeUpdate();
+                    changed++;
+                }
+            }
+            deltas.apply(conn);
+            return changed;
+        });
+    }
+
+    /**
+     * Deletes a notification record from the database by its ID and removes it from the counters.
      * @param notificationId The ID of the notification to delete.
      * @throws SQLException If a database access error occurs.
      */
     public void deleteNotification(int notificationId) throws SQLException {
+        String selectSql = "SELECT recipient_type, recipient_id, is_read FROM notifications WHERE notification_id = ? FOR UPDATE";
         String sql = "DELETE FROM notifications WHERE notification_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, notificationId);
-            pstmt.executeUpdate();
+        DatabaseConnection.inTransaction(conn -> {
+            NotificationCounterDeltas deltas = new NotificationCounterDeltas();
+            try (PreparedStatement select = conn.prepareStatement(selectSql)) {
+                select.setInt(1, notificationId);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    deltas.add(rs.getString("recipient_type"), rs.getInt("recipient_id"), rs.getBoolean("is_read") ? 0 : -1, -1);
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, notificationId);
+                pstmt.executeUpdate();
+            }
+            deltas.apply(conn);
+            return null;
+        });
+    }
+
+    /**
+     * Binds a generic notification to the 10 parameters of INSERT_NOTIFICATION_SQL.
+     * Related IDs of 0 are stored as NULL so they don't violate the foreign keys.
+     */
+    private void bindNotification(PreparedStatement pstmt, Notification n) throws SQLException {
+        pstmt.setString(1, n.getRecipientType());
+        pstmt.setInt(2, n.getRecipientId());
+        if (n.getRelatedShipmentId() > 0) {
+            pstmt.setInt(3, n.getRelatedShipmentId());
+        } else {
+            pstmt.setNull(3, Types.INTEGER);
+        }
+        if (n.getRelatedPersonnelId() > 0) {
+            pstmt.setInt(4, n.getRelatedPersonnelId());
+        } else {
+            pstmt.setNull(4, Types.INTEGER);
         }
+        pstmt.setString(5, n.getMessage());
+        pstmt.setString(6, n.getNotificationType());
+        pstmt.setTimestamp(7, Timestamp.valueOf(n.getTimestamp()));
+        pstmt.setBoolean(8, n.isRead());
+        pstmt.setString(9, n.getContactMethod());
+        pstmt.setInt(10, dispatchPriorityResolver.applyAsInt(n.getNotificationType()));
+    }
+
+    /**
+     * Maps a ResultSet row to a generic Notification object, including its outbox delivery state.
+     */
+    static Notification mapResultSetToNotification(ResultSet rs) throws SQLException {
+        Notification notification = new Notification(
+                rs.getInt("notification_id"),
+                rs.getString("recipient_type"),
+                rs.getInt("recipient_id"),
+                rs.getInt("related_shipment_id"),
+                rs.getInt("related_personnel_id"),
+                rs.getString("message"),
+                rs.getString("notification_type"),
+                rs.getTimestamp("timestamp").toLocalDateTime(),
+                rs.getBoolean("is_read"),
+                rs.getString("contact_method")
+        );
+        notification.setDispatchStatus(rs.getString("dispatch_status"));
+        notification.setDispatchAttempts(rs.getInt("dispatch_attempts"));
+        notification.setDispatchPriority(rs.getInt("dispatch_priority"));
+        return notification;
     }
-}
\ No newline at end of file
+}
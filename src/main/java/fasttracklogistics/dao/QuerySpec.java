@@ -0,0 +1,145 @@
+package fasttracklogistics.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sort order and filters for a table query, evaluated by the database rather than over an in-memory list.
+ * Columns are database column names; each DAO checks them against its own whitelist before they are
+ * written into SQL, and every value is bound as a parameter.
+ *
+ * Filters are kept to forms an index can serve: equality, half-open ranges ({@code col >= ? AND col < ?},
+ * never a function of the column) and prefix matches ({@code LIKE 'abc%'}, never a leading wildcard).
+ */
+public class QuerySpec {
+    public enum Direction { ASC, DESC }
+
+    private enum Operator { EQUALS, AT_LEAST, BEFORE, STARTS_WITH }
+
+    private String sortColumn;
+    private Direction sortDirection = Direction.ASC;
+    private final List<Filter> filters = new ArrayList<>();
+
+    /**
+     * Sorts by the given column; ties are broken by the table's primary key in the same direction.
+     */
+    public QuerySpec sortBy(String column, Direction direction) {
+        this.sortColumn = column;
+        this.sortDirection = direction;
+        return this;
+    }
+
+    public QuerySpec whereEquals(String column, String value) {
+        filters.add(new Filter(column, Operator.EQUALS, value));
+        return this;
+    }
+
+    /** Keeps rows whose column is at or after the given time. */
+    public QuerySpec whereFrom(String column, LocalDateTime inclusiveStart) {
+        filters.add(new Filter(column, Operator.AT_LEAST, inclusiveStart));
+        return this;
+    }
+
+    /** Keeps rows whose column is strictly before the given time. */
+    public QuerySpec whereBefore(String column, LocalDateTime exclusiveEnd) {
+        filters.add(new Filter(column, Operator.BEFORE, exclusiveEnd));
+        return this;
+    }
+
+    /** Keeps rows whose column starts with the given text (matched literally, wildcards included). */
+    public QuerySpec whereStartsWith(String column, String prefix) {
+        filters.add(new Filter(column, Operator.STARTS_WITH, prefix));
+        return this;
+    }
+
+    public String getSortColumn() { return sortColumn; }
+    public Direction getSortDirection() { return sortDirection; }
+    public boolean hasFilters() { return !filters.isEmpty(); }
+
+    /**
+     * Renders the filters as a WHERE clause.
+     *
+     * @param filterableColumns The columns this table allows filtering on.
+     * @return " WHERE ..." with one placeholder per filter, or an empty string if there are no filters.
+     * @throws IllegalArgumentException If a filter uses a column outside the whitelist.
+     */
+    String toWhereSql(Set<String> filterableColumns) {
+        if (filters.isEmpty()) return "";
+        StringBuilder sql = new StringBuilder(" WHERE ");
+        for (int i = 0; i < filters.size(); i++) {
+            Filter filter = filters.get(i);
+            if (!filterableColumns.contains(filter.column)) {
+                throw new IllegalArgumentException("Filtering on column '" + filter.column + "' is not supported");
+            }
+            if (i > 0) sql.append(" AND ");
+            sql.append(filter.column).append(switch (filter.operator) {
+                case EQUALS -> " = ?";
+                case AT_LEAST -> " >= ?";
+                case BEFORE -> " < ?";
+                case STARTS_WITH -> " LIKE ? ESCAPE '!'";
+            });
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Renders the sort order as an ORDER BY clause with the primary key as tie breaker, so paging is stable.
+     *
+     * @param sortableColumns The columns this table allows sorting on (normally the indexed ones).
+     * @param keyColumn The table's primary key, used when no sort column is set and as tie breaker.
+     * @param tableAlias Alias to qualify the columns with, or null.
+     * @throws IllegalArgumentException If the sort column is outside the whitelist.
+     */
+    String toOrderBySql(Set<String> sortableColumns, String keyColumn, String tableAlias) {
+        String prefix = tableAlias == null ? "" : tableAlias + ".";
+        String direction = sortDirection == Direction.DESC ? " DESC" : "";
+        if (sortColumn == null || sortColumn.equals(keyColumn)) {
+            return " ORDER BY " + prefix + keyColumn + direction;
+        }
+        if (!sortableColumns.contains(sortColumn)) {
+            throw new IllegalArgumentException("Sorting by column '" + sortColumn + "' is not supported");
+        }
+        return " ORDER BY " + prefix + sortColumn + direction + ", " + prefix + keyColumn + direction;
+    }
+
+    /**
+     * Binds the filter values in the order {@link #toWhereSql} wrote their placeholders.
+     *
+     * @return The next free parameter index.
+     * @throws SQLException If a database access error occurs.
+     */
+    int bindFilters(PreparedStatement stmt, int index) throws SQLException {
+        for (Filter filter : filters) {
+            if (filter.value instanceof LocalDateTime time) {
+                stmt.setTimestamp(index++, Timestamp.valueOf(time));
+            } else if (filter.operator == Operator.STARTS_WITH) {
+                stmt.setString(index++, escapeLike((String) filter.value) + "%");
+            } else {
+                stmt.setString(index++, (String) filter.value);
+            }
+        }
+        return index;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /** One filter condition. */
+    private static final class Filter {
+        private final String column;
+        private final Operator operator;
+        private final Object value;
+
+        private Filter(String column, Operator operator, Object value) {
+            this.column = column;
+            this.operator = operator;
+            this.value = value;
+        }
+    }
+}
@@ -1,13 +1,27 @@
 package fasttracklogistics.dao;
 
 import fasttracklogistics.model.Shipment;
+import fasttracklogistics.model.TrackingView;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public class ShipmentDAO {
+    // Columns a QuerySpec may use; all indexed, so the database can sort and filter 500k+ rows without a full scan
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("shipment_id", "tracking_number", "sender_name", "receiver_name",
+            "delivery_status", "estimated_delivery_time", "creation_date");
+    private static final Set<String> FILTERABLE_COLUMNS = Set.of("tracking_number", "sender_name", "receiver_name",
+            "delivery_status", "estimated_delivery_time", "creation_date");
 
     /**
      * Adds a new shipment record to the database.
@@ -50,6 +64,53 @@ public class ShipmentDAO {
         }
     }
 
+    /**
+     * Adds many shipments in one transaction with a single batched INSERT (sent as multi-row statements,
+     * see rewriteBatchedStatements in {@link DatabaseConnection}). Each shipment's ID is set from its generated key.
+     * Unlike {@link #addShipment}, the actual delivery time is stored too, since imported shipments may be complete.
+     *
+     * @param shipments The shipments to insert.
+     * @throws SQLException If a database access error occurs; the whole batch is rolled back.
+     */
+    public void addShipments(List<Shipment> shipments) throws SQLException {
+        if (shipments.isEmpty()) return;
+        String sql = "INSERT INTO shipments (tracking_number, sender_name, sender_address, sender_contact, " +
+                "receiver_name, receiver_address, receiver_contact, package_contents, weight, dimensions, " +
+                "delivery_status, current_location, estimated_delivery_time, actual_delivery_time, special_instructions) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        DatabaseConnection.inTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Shipment shipment : shipments) {
+                    stmt.setString(1, shipment.getTrackingNumber());
+                    stmt.setString(2, shipment.getSenderName());
+                    stmt.setString(3, shipment.getSenderAddress());
+                    stmt.setString(4, shipment.getSenderContact());
+                    stmt.setString(5, shipment.getReceiverName());
+                    stmt.setString(6, shipment.getReceiverAddress());
+                    stmt.setString(7, shipment.getReceiverContact());
+                    stmt.setString(8, shipment.getPackageContents());
+                    stmt.setDouble(9, shipment.getWeight());
+                    stmt.setString(10, shipment.getDimensions());
+                    stmt.setString(11, shipment.getDeliveryStatus());
+                    stmt.setString(12, shipment.getCurrentLocation());
+                    stmt.setTimestamp(13, shipment.getEstimatedDeliveryTime() != null ? Timestamp.valueOf(shipment.getEstimatedDeliveryTime()) : null);
+                    stmt.setTimestamp(14, shipment.getActualDeliveryTime() != null ? Timestamp.valueOf(shipment.getActualDeliveryTime()) : null);
+                    stmt.setString(15, shipment.getSpecialInstructions());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (Shipment shipment : shipments) {
+                        if (!generatedKeys.next()) break;
+                        shipment.setShipmentId(generatedKeys.getInt(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
     /**
      * Retrieves a shipment record from the database by its ID.
      *
@@ -71,6 +132,28 @@ public class ShipmentDAO {
         return null;
     }
 
+    /**
+     * Reads a shipment and locks its row until the caller's transaction ends, so a change derived from it
+     * cannot interleave with another transaction doing the same.
+     *
+     * @param conn The connection (and transaction) to use; not closed by this method.
+     * @param shipmentId The ID of the shipment to retrieve.
+     * @return The Shipment object if found, otherwise null.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Shipment getShipmentByIdForUpdate(Connection conn, int shipmentId) throws SQLException {
+        String sql = "SELECT * FROM shipments WHERE shipment_id = ? FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, shipmentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToShipment(rs);
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Retrieves a shipment record from the database by its tracking number.
      *
@@ -92,6 +175,35 @@ public class ShipmentDAO {
         return null;
     }
 
+    /**
+     * Retrieves only the public tracking columns of a shipment, for the high-volume tracking endpoint.
+     *
+     * @param trackingNumber The tracking number to look up.
+     * @return The tracking view if found, otherwise null.
+     * @throws SQLException If a database access error occurs.
+     */
+    public TrackingView getTrackingView(String trackingNumber) throws SQLException {
+        String sql = "SELECT shipment_id, tracking_number, delivery_status, current_location, estimated_delivery_time, " +
+                "actual_delivery_time, updated_at FROM shipments WHERE tracking_number = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, trackingNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    Timestamp estTime = rs.getTimestamp("estimated_delivery_time");
+                    Timestamp actTime = rs.getTimestamp("actual_delivery_time");
+                    Timestamp updatedTs = rs.getTimestamp("updated_at");
+                    return new TrackingView(rs.getInt("shipment_id"), rs.getString("tracking_number"),
+                            rs.getString("delivery_status"), rs.getString("current_location"),
+                            estTime != null ? estTime.toLocalDateTime() : null,
+                            actTime != null ? actTime.toLocalDateTime() : null,
+                            updatedTs != null ? updatedTs.toLocalDateTime() : null);
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Retrieves all shipment records from the database.
      *
@@ -111,6 +223,213 @@ public class ShipmentDAO {
         return shipments;
     }
 
+    /**
+     * @return The total number of shipments.
+     * @throws SQLException If a database access error occurs.
+     */
+    public int countShipments() throws SQLException {
+        return countShipments(new QuerySpec());
+    }
+
+    /**
+     * @param spec Filters to apply (its sort order is ignored).
+     * @return The number of shipments matching the spec's filters.
+     * @throws SQLException If a database access error occurs.
+     * @throws IllegalArgumentException If the spec filters on a column that is not supported.
+     */
+    public int countShipments(QuerySpec spec) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM shipments" + spec.toWhereSql(FILTERABLE_COLUMNS);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            spec.bindFilters(stmt, 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Retrieves one block of shipments in shipment_id order, for tables that load rows as they are scrolled into view.
+     * The offset is applied to the primary key alone and only the rows of the block are then read in full,
+     * so a deep offset skips index entries rather than whole rows.
+     *
+     * @param offset Number of shipments to skip.
+     * @param limit Maximum number of shipments to return.
+     * @return The shipments of the block, in shipment_id order.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Shipment> getShipmentsPage(int offset, int limit) throws SQLException {
+        return getShipmentsPage(new QuerySpec(), offset, limit);
+    }
+
+    /**
+     * Retrieves one block of the shipments matching the spec's filters, in its sort order.
+     * Filtering, sorting and the offset are applied by the database over indexed columns and the primary key;
+     * full rows are read only for the block.
+     *
+     * @param spec Filters and sort order; columns must be in this DAO's whitelists.
+     * @param offset Number of matching shipments to skip.
+     * @param limit Maximum number of shipments to return.
+     * @return The shipments of the block, in the spec's order.
+     * @throws SQLException If a database access error occurs.
+     * @throws IllegalArgumentException If the spec uses a column that cannot be sorted or filtered on.
+     */
+    public List<Shipment> getShipmentsPage(QuerySpec spec, int offset, int limit) throws SQLException {
+        List<Shipment> shipments = new ArrayList<>(limit);
+        String sql = "SELECT s.* FROM shipments s " +
+                "JOIN (SELECT shipment_id FROM shipments" + spec.toWhereSql(FILTERABLE_COLUMNS)
+                + spec.toOrderBySql(SORTABLE_COLUMNS, "shipment_id", null) + " LIMIT ? OFFSET ?) page USING (shipment_id)"
+                + spec.toOrderBySql(SORTABLE_COLUMNS, "shipment_id", "s");
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = spec.bindFilters(stmt, 1);
+            stmt.setInt(index++, limit);
+            stmt.setInt(index, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    shipments.add(mapResultSetToShipment(rs));
+                }
+            }
+        }
+        return shipments;
+    }
+
+    /**
+     * Finds shipments whose tracking number or receiver name starts with the given text, for pickers.
+     * Each prefix is a range scan on its own index that stops after limit rows, so the cost does not
+     * depend on the size of the table. With blank text the newest shipments are returned.
+     *
+     * @param text The typed prefix (matched literally, case-insensitively under the default collation).
+     * @param limit Maximum number of shipments to return.
+     * @return Tracking number matches first, then receiver name matches, without duplicates.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Shipment> findShipmentsByPrefix(String text, int limit) throws SQLException {
+        if (text == null || text.isBlank()) {
+            return getShipmentsPage(new QuerySpec().sortBy("shipment_id", QuerySpec.Direction.DESC), 0, limit);
+        }
+        String prefix = text.trim();
+        Map<Integer, Shipment> matches = new LinkedHashMap<>();
+        for (Shipment shipment : getShipmentsPage(new QuerySpec().whereStartsWith("tracking_number", prefix)
+                .sortBy("tracking_number", QuerySpec.Direction.ASC), 0, limit)) {
+            matches.put(shipment.getShipmentId(), shipment);
+        }
+        if (matches.size() < limit) {
+            for (Shipment shipment : getShipmentsPage(new QuerySpec().whereStartsWith("receiver_name", prefix)
+                    .sortBy("receiver_name", QuerySpec.Direction.ASC), 0, limit)) {
+                if (matches.size() == limit) break;
+                matches.putIfAbsent(shipment.getShipmentId(), shipment);
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    /**
+     * Retrieves every shipment's tracking number, for in-memory lookups.
+     * Reads only the tracking_number index (which also holds the primary key), not the rows.
+     *
+     * @return Tracking numbers by shipment_id.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Map<Integer, String> getTrackingNumbers() throws SQLException {
+        Map<Integer, String> trackingNumbers = new HashMap<>();
+        String sql = "SELECT shipment_id, tracking_number FROM shipments";
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                trackingNumbers.put(rs.getInt("shipment_id"), rs.getString("tracking_number"));
+            }
+        }
+        return trackingNumbers;
+    }
+
+    /**
+     * Retrieves the next batch of shipments after the given id, in shipment_id order.
+     * Seeks on the primary key, so walking a whole table batch by batch costs the same per batch at any depth.
+     *
+     * @param afterShipmentId Exclusive lower bound (0 for the first batch).
+     * @param limit Maximum number of shipments to return.
+     * @return The shipments of the batch; fewer than limit at the end of the table.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Shipment> getShipmentsAfter(int afterShipmentId, int limit) throws SQLException {
+        List<Shipment> shipments = new ArrayList<>(limit);
+        String sql = "SELECT * FROM shipments WHERE shipment_id > ? ORDER BY shipment_id LIMIT ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterShipmentId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    shipments.add(mapResultSetToShipment(rs));
+                }
+            }
+        }
+        return shipments;
+    }
+
+    /**
+     * Retrieves the shipments with the given ids in one query, e.g. the hits of a search.
+     *
+     * @param shipmentIds The ids to fetch.
+     * @return The shipments found, in the order of the given ids; ids with no shipment are left out.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Shipment> getShipmentsByIds(List<Integer> shipmentIds) throws SQLException {
+        if (shipmentIds.isEmpty()) return new ArrayList<>();
+        Map<Integer, Shipment> byId = new HashMap<>();
+        String sql = "SELECT * FROM shipments WHERE shipment_id IN ("
+                + String.join(",", Collections.nCopies(shipmentIds.size(), "?")) + ")";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < shipmentIds.size(); i++) {
+                stmt.setInt(i + 1, shipmentIds.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Shipment shipment = mapResultSetToShipment(rs);
+                    byId.put(shipment.getShipmentId(), shipment);
+                }
+            }
+        }
+        List<Shipment> shipments = new ArrayList<>(byId.size());
+        for (int shipmentId : shipmentIds) {
+            Shipment shipment = byId.get(shipmentId);
+            if (shipment != null) shipments.add(shipment);
+        }
+        return shipments;
+    }
+
+    /**
+     * Finds which of the given tracking numbers are already taken, in one query.
+     * tracking_number compares case-insensitively, so the result is upper-cased for the caller to look up.
+     *
+     * @param trackingNumbers The tracking numbers to check (at most a few thousand per call).
+     * @return The upper-cased tracking numbers that exist.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Set<String> findExistingTrackingNumbers(Collection<String> trackingNumbers) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        if (trackingNumbers.isEmpty()) return existing;
+        String sql = "SELECT tracking_number FROM shipments WHERE tracking_number IN ("
+                + String.join(",", Collections.nCopies(trackingNumbers.size(), "?")) + ")";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String trackingNumber : trackingNumbers) {
+                stmt.setString(index++, trackingNumber);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1).toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return existing;
+    }
+
     /**
      * Updates an existing shipment record in the database.
      *
@@ -118,12 +437,25 @@ public class ShipmentDAO {
      * @throws SQLException If a database access error occurs.
      */
     public void updateShipment(Shipment shipment) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            updateShipment(conn, shipment);
+        }
+    }
+
+    /**
+     * Updates an existing shipment record using the caller's connection, so it can take part
+     * in a larger transaction (e.g. together with the notification it triggers).
+     *
+     * @param conn The connection (and transaction) to use; not closed by this method.
+     * @param shipment The Shipment object with updated information.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void updateShipment(Connection conn, Shipment shipment) throws SQLException {
         String sql = "UPDATE shipments SET tracking_number=?, sender_name=?, sender_address=?, sender_contact=?, " +
                 "receiver_name=?, receiver_address=?, receiver_contact=?, package_contents=?, weight=?, dimensions=?, " +
                 "delivery_status=?, current_location=?, estimated_delivery_time=?, actual_delivery_time=?, special_instructions=? " +
                 "WHERE shipment_id=?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, shipment.getTrackingNumber());
             stmt.setString(2, shipment.getSenderName());
@@ -153,12 +485,45 @@ public class ShipmentDAO {
      * @throws SQLException If a database access error occurs.
      */
     public void deleteShipment(int shipmentId) throws SQLException {
+        // The deliveries removed by ON DELETE CASCADE get tombstones too, so other workstations drop them as well
+        String cascadeTombstonesSql = "INSERT INTO row_tombstones (table_name, row_id) " +
+                "SELECT '" + ChangeTrackingDAO.TABLE_DELIVERIES + "', delivery_id FROM deliveries WHERE shipment_id = ?";
         String sql = "DELETE FROM shipments WHERE shipment_id = ?";
+        DatabaseConnection.inTransaction(conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement(cascadeTombstonesSql)) {
+                stmt.setInt(1, shipmentId);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, shipmentId);
+                if (stmt.executeUpdate() > 0) {
+                    ChangeTrackingDAO.recordDeletion(conn, ChangeTrackingDAO.TABLE_SHIPMENTS, shipmentId);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Retrieves shipments inserted or updated after the given time (uses the updated_at index).
+     *
+     * @param since Exclusive lower bound for updated_at, on the database clock.
+     * @return The changed shipments, oldest change first.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Shipment> getShipmentsChangedSince(LocalDateTime since) throws SQLException {
+        List<Shipment> shipments = new ArrayList<>();
+        String sql = "SELECT * FROM shipments WHERE updated_at > ? ORDER BY updated_at";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, shipmentId);
-            stmt.executeUpdate();
+            stmt.setTimestamp(1, Timestamp.valueOf(since));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    shipments.add(mapResultSetToShipment(rs));
+                }
+            }
         }
+        return shipments;
     }
 
     /**
@@ -199,6 +564,10 @@ public class ShipmentDAO {
         if (creationTs != null) {
             shipment.setCreationDate(creationTs.toLocalDateTime());
         }
+        Timestamp updatedTs = rs.getTimestamp("updated_at");
+        if (updatedTs != null) {
+            shipment.setUpdatedAt(updatedTs.toLocalDateTime());
+        }
 
         return shipment;
     }
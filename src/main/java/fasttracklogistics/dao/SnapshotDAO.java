@@ -0,0 +1,223 @@
+package fasttracklogistics.dao;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk table access for snapshot export and restore. Both work on one dedicated connection: an export
+ * reads every table inside one consistent-snapshot transaction, so the tables agree with each other even
+ * while other users keep writing; a restore inserts with foreign key and unique checks switched off for
+ * its session, which is safe because a snapshot comes from a database that enforced them.
+ */
+public class SnapshotDAO {
+    private static final int INSERT_BATCH_ROWS = 1_000;
+    private static final int COMMIT_ROWS = 50_000;
+
+    /** Receives exported rows. */
+    @FunctionalInterface
+    public interface RowHandler {
+        void accept(Object[] row) throws IOException;
+    }
+
+    /** Supplies rows to restore; returns null after the last one. */
+    @FunctionalInterface
+    public interface RowSource {
+        Object[] next() throws IOException;
+    }
+
+    /**
+     * Opens a read-only transaction that sees the database as of now for all the tables it reads.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    public ExportSession openExport() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        try (Statement stmt = conn.createStatement()) {
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            stmt.execute("START TRANSACTION READ ONLY, WITH CONSISTENT SNAPSHOT");
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return new ExportSession(conn);
+    }
+
+    /**
+     * Opens a session for bulk inserts with constraint checks deferred (off until the session closes).
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    public RestoreSession openRestore() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("SET SESSION foreign_key_checks = 0, unique_checks = 0");
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return new RestoreSession(conn);
+    }
+
+    private static String columnList(List<String> columns) {
+        return columns.stream().map(column -> "`" + column + "`").collect(Collectors.joining(", "));
+    }
+
+    /** One export: call {@link #streamRows} for each table, then close. */
+    public static class ExportSession implements AutoCloseable {
+        private final Connection conn;
+
+        private ExportSession(Connection conn) {
+            this.conn = conn;
+        }
+
+        /**
+         * Streams every row of a table in order of its first column (the primary key) without holding
+         * the result in memory.
+         *
+         * @param columns Columns to read; the first must be the primary key.
+         * @param types The Java type to read each column as (Integer, String, LocalDateTime, BigDecimal or Boolean).
+         * @return The number of rows read.
+         * @throws SQLException If a database access error occurs.
+         * @throws IOException If the handler fails.
+         */
+        public long streamRows(String table, List<String> columns, List<Class<?>> types, RowHandler handler)
+                throws SQLException, IOException {
+            String sql = "SELECT " + columnList(columns) + " FROM `" + table + "` ORDER BY `" + columns.get(0) + "`";
+            long rows = 0;
+            try (PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(Integer.MIN_VALUE); // MySQL Connector/J: stream rows instead of buffering the whole table
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Object[] row = new Object[columns.size()];
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = rs.getObject(i + 1, types.get(i));
+                        }
+                        handler.accept(row);
+                        rows++;
+                    }
+                }
+            }
+            return rows;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                conn.rollback(); // Nothing was written; ends the snapshot transaction
+            } finally {
+                conn.close();
+            }
+        }
+    }
+
+    /** One restore: optionally {@link #deleteAll}, then {@link #insertRows} per table, then close. */
+    public static class RestoreSession implements AutoCloseable {
+        private final Connection conn;
+
+        private RestoreSession(Connection conn) {
+            this.conn = conn;
+        }
+
+        /**
+         * @return The number of rows in the table.
+         * @throws SQLException If a database access error occurs.
+         */
+        public long countRows(String table) throws SQLException {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM `" + table + "`")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+
+        /**
+         * Moves the dataset to a new epoch and commits. Call before changing any rows: workstations compare
+         * the epoch with the one their cached data was read in and discard it if they differ, because
+         * the rows a restore removes leave no tombstones.
+         *
+         * @return The new epoch.
+         * @throws SQLException If a database access error occurs.
+         */
+        public long bumpDatasetEpoch() throws SQLException {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("UPDATE dataset_epoch SET epoch = epoch + 1 WHERE id = 1");
+                long epoch;
+                try (ResultSet rs = stmt.executeQuery("SELECT epoch FROM dataset_epoch WHERE id = 1")) {
+                    rs.next();
+                    epoch = rs.getLong(1);
+                }
+                conn.commit();
+                return epoch;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+
+        /**
+         * Empties the tables with TRUNCATE, which drops and recreates each one instead of deleting and
+         * undo-logging its rows one by one. It commits implicitly and cannot be rolled back; foreign key
+         * checks are off for this session, so parents can be truncated while children reference them.
+         *
+         * @param tables Children before parents.
+         * @throws SQLException If a database access error occurs; tables already emptied stay empty.
+         */
+        public void deleteAll(List<String> tables) throws SQLException {
+            try (Statement stmt = conn.createStatement()) {
+                for (String table : tables) {
+                    stmt.executeUpdate("TRUNCATE TABLE `" + table + "`");
+                }
+            }
+        }
+
+        /**
+         * Inserts rows with their primary keys as given, in batched multi-row INSERTs, committing every
+         * {@value #COMMIT_ROWS} rows. Columns not listed (updated_at) take their defaults, so restored rows
+         * carry fresh versions. AUTO_INCREMENT moves past the largest key by itself.
+         *
+         * @return The number of rows inserted.
+         * @throws SQLException If a database access error occurs; rows committed before it stay.
+         * @throws IOException If the source fails.
+         */
+        public long insertRows(String table, List<String> columns, RowSource source) throws SQLException, IOException {
+            String sql = "INSERT INTO `" + table + "` (" + columnList(columns) + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+            long rows = 0;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Object[] row;
+                while ((row = source.next()) != null) {
+                    for (int i = 0; i < row.length; i++) {
+                        stmt.setObject(i + 1, row[i]);
+                    }
+                    stmt.addBatch();
+                    rows++;
+                    if (rows % INSERT_BATCH_ROWS == 0) stmt.executeBatch();
+                    if (rows % COMMIT_ROWS == 0) conn.commit();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+            return rows;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET SESSION foreign_key_checks = 1, unique_checks = 1");
+            } finally {
+                conn.close();
+            }
+        }
+    }
+}
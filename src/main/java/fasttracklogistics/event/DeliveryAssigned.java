@@ -0,0 +1,33 @@
+package fasttracklogistics.event;
+
+import fasttracklogistics.model.Delivery;
+import fasttracklogistics.model.DeliveryPersonnel;
+import fasttracklogistics.model.Shipment;
+
+/**
+ * A driver or courier was assigned a shipment's delivery (and notified of it).
+ * Published alongside the row-level created/updated events for the same commit.
+ */
+public class DeliveryAssigned implements DomainEvent {
+    private final Delivery delivery;
+    private final Shipment shipment;
+    private final DeliveryPersonnel personnel;
+
+    public DeliveryAssigned(Delivery delivery, Shipment shipment, DeliveryPersonnel personnel) {
+        this.delivery = delivery;
+        this.shipment = shipment;
+        this.personnel = personnel;
+    }
+
+    public Delivery getDelivery() {
+        return delivery;
+    }
+
+    public Shipment getShipment() {
+        return shipment;
+    }
+
+    public DeliveryPersonnel getPersonnel() {
+        return personnel;
+    }
+}
@@ -0,0 +1,18 @@
+package fasttracklogistics.event;
+
+import fasttracklogistics.model.Delivery;
+
+/**
+ * A delivery was scheduled.
+ */
+public class DeliveryCreated implements DomainEvent {
+    private final Delivery delivery;
+
+    public DeliveryCreated(Delivery delivery) {
+        this.delivery = delivery;
+    }
+
+    public Delivery getDelivery() {
+        return delivery;
+    }
+}
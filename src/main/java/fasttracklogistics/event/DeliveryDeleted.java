@@ -0,0 +1,16 @@
+package fasttracklogistics.event;
+
+/**
+ * A delivery was removed.
+ */
+public class DeliveryDeleted implements DomainEvent {
+    private final int deliveryId;
+
+    public DeliveryDeleted(int deliveryId) {
+        this.deliveryId = deliveryId;
+    }
+
+    public int getDeliveryId() {
+        return deliveryId;
+    }
+}
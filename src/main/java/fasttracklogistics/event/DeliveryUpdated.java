@@ -0,0 +1,25 @@
+package fasttracklogistics.event;
+
+import fasttracklogistics.model.Delivery;
+
+import java.util.List;
+
+/**
+ * A delivery's schedule, assignment or status changed.
+ */
+public class DeliveryUpdated implements DomainEvent {
+    private final Delivery delivery;
+
+    public DeliveryUpdated(Delivery delivery) {
+        this.delivery = delivery;
+    }
+
+    public Delivery getDelivery() {
+        return delivery;
+    }
+
+    @Override
+    public Object coalescingKey() {
+        return List.of(DeliveryUpdated.class, delivery.getDeliveryId());
+    }
+}
@@ -0,0 +1,17 @@
+package fasttracklogistics.event;
+
+/**
+ * Something that happened to the data after a successful commit, published on the {@link DomainEventBus}.
+ */
+public interface DomainEvent {
+
+    /**
+     * Events with equal non-null keys that are waiting for the same EDT dispatch are collapsed into
+     * the latest one (e.g. three updates to one shipment become one row refresh).
+     *
+     * @return The coalescing key, or null if every instance must be delivered.
+     */
+    default Object coalescingKey() {
+        return null;
+    }
+}
@@ -0,0 +1,120 @@
+package fasttracklogistics.event;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-process publish/subscribe bus for {@link DomainEvent}s.
+ * Writers publish after their transaction commits; views subscribe and apply the change to the
+ * affected row instead of re-reading whole tables.
+ *
+ * Listeners registered with {@link #subscribeOnEdt} run on the Swing event dispatch thread.
+ * Events for them are queued and drained by a single {@code invokeLater}, so everything published
+ * while a drain is pending (typically all events of one user action) is handled in one EDT pass,
+ * and repeated events for the same entity collapse via {@link DomainEvent#coalescingKey()}.
+ * Listeners registered with {@link #subscribe} run synchronously on the publishing thread.
+ */
+public class DomainEventBus {
+    private static final Logger LOGGER = Logger.getLogger(DomainEventBus.class.getName());
+
+    private final List<Subscription<?>> directSubscriptions = new CopyOnWriteArrayList<>();
+    private final List<Subscription<?>> edtSubscriptions = new CopyOnWriteArrayList<>();
+    private final ConcurrentLinkedQueue<DomainEvent> pendingEdtEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean edtDrainScheduled = new AtomicBoolean();
+
+    // --- Metrics ---
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    private final AtomicLong edtBatchCount = new AtomicLong();
+
+    /**
+     * Registers a listener called on the publishing thread for every event of the given type (or a subtype).
+     */
+    public <E extends DomainEvent> void subscribe(Class<E> type, Consumer<? super E> listener) {
+        directSubscriptions.add(new Subscription<>(type, listener));
+    }
+
+    /**
+     * Registers a listener called on the event dispatch thread, in coalesced batches.
+     */
+    public <E extends DomainEvent> void subscribeOnEdt(Class<E> type, Consumer<? super E> listener) {
+        edtSubscriptions.add(new Subscription<>(type, listener));
+    }
+
+    /**
+     * Publishes an event. Call only after the change it describes has been committed.
+     */
+    public void publish(DomainEvent event) {
+        publishedCount.incrementAndGet();
+        dispatch(directSubscriptions, event);
+        if (!edtSubscriptions.isEmpty()) {
+            pendingEdtEvents.add(event);
+            if (edtDrainScheduled.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(this::drainOnEdt);
+            }
+        }
+    }
+
+    private void drainOnEdt() {
+        edtDrainScheduled.set(false); // Events published from here on schedule a new drain
+        Map<Object, DomainEvent> batch = new LinkedHashMap<>();
+        DomainEvent event;
+        while ((event = pendingEdtEvents.poll()) != null) {
+            Object key = event.coalescingKey();
+            if (key == null) {
+                key = new Object(); // Never equal to another key
+            } else if (batch.containsKey(key)) {
+                coalescedCount.incrementAndGet();
+            }
+            batch.put(key, event); // Keeps the first position, latest value
+        }
+        if (batch.isEmpty()) return;
+        edtBatchCount.incrementAndGet();
+        for (DomainEvent pending : new ArrayList<>(batch.values())) {
+            dispatch(edtSubscriptions, pending);
+        }
+    }
+
+    private static void dispatch(List<Subscription<?>> subscriptions, DomainEvent event) {
+        for (Subscription<?> subscription : subscriptions) {
+            try {
+                subscription.deliverIfMatches(event);
+            } catch (RuntimeException e) {
+                // One failing view must not stop the others from seeing the change
+                LOGGER.log(Level.SEVERE, "Event listener failed for " + event.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    // --- Metrics ---
+    public long getPublishedCount() { return publishedCount.get(); }
+    public long getCoalescedCount() { return coalescedCount.get(); }
+    public long getEdtBatchCount() { return edtBatchCount.get(); }
+
+    /** A listener and the event type it wants. */
+    private static final class Subscription<E extends DomainEvent> {
+        final Class<E> type;
+        final Consumer<? super E> listener;
+
+        Subscription(Class<E> type, Consumer<? super E> listener) {
+            this.type = type;
+            this.listener = listener;
+        }
+
+        void deliverIfMatches(DomainEvent event) {
+            if (type.isInstance(event)) {
+                listener.accept(type.cast(event));
+            }
+        }
+    }
+}
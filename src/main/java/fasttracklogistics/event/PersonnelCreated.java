@@ -0,0 +1,18 @@
+package fasttracklogistics.event;
+
+import fasttracklogistics.model.DeliveryPersonnel;
+
+/**
+ * A delivery personnel record was added.
+ */
+public class PersonnelCreated implements DomainEvent {
+    private final DeliveryPersonnel personnel;
+
+    public PersonnelCreated(DeliveryPersonnel personnel) {
+        this.personnel = personnel;
+    }
+
+    public DeliveryPersonnel getPersonnel() {
+        return personnel;
+    }
+}
@@ -0,0 +1,16 @@
+package fasttracklogistics.event;
+
+/**
+ * A delivery personnel record was deleted. Their deliveries became unassigned (ON DELETE SET NULL).
+ */
+public class PersonnelDeleted implements DomainEvent {
+    private final int personnelId;
+
+    public PersonnelDeleted(int personnelId) {
+        this.personnelId = personnelId;
+    }
+
+    public int getPersonnelId() {
+        return personnelId;
+    }
+}
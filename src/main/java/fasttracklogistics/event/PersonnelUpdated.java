@@ -0,0 +1,25 @@
+package fasttracklogistics.event;
+
+import fasttracklogistics.model.DeliveryPersonnel;
+
+import java.util.List;
+
+/**
+ * A delivery personnel record changed, e.g. its availability status.
+ */
+public class PersonnelUpdated implements DomainEvent {
+    private final DeliveryPersonnel personnel;
+
+    public PersonnelUpdated(DeliveryPersonnel personnel) {
+        this.personnel = personnel;
+    }
+
+    public DeliveryPersonnel getPersonnel() {
+        return personnel;
+    }
+
+    @Override
+    public Object coalescingKey() {
+        return List.of(PersonnelUpdated.class, personnel.getPersonnelId());
+    }
+}
@@ -0,0 +1,18 @@
+package fasttracklogistics.event;
+
+import fasttracklogistics.model.Shipment;
+
+/**
+ * A shipment was added; carries the row as stored.
+ */
+public class ShipmentCreated implements DomainEvent {
+    private final Shipment shipment;
+
+    public ShipmentCreated(Shipment shipment) {
+        this.shipment = shipment;
+    }
+
+    public Shipment getShipment() {
+        return shipment;
+    }
+}
@@ -0,0 +1,16 @@
+package fasttracklogistics.event;
+
+/**
+ * A shipment was deleted. Its deliveries were removed with it (ON DELETE CASCADE).
+ */
+public class ShipmentDeleted implements DomainEvent {
+    private final int shipmentId;
+
+    public ShipmentDeleted(int shipmentId) {
+        this.shipmentId = shipmentId;
+    }
+
+    public int getShipmentId() {
+        return shipmentId;
+    }
+}
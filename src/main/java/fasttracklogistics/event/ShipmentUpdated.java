@@ -0,0 +1,25 @@
+package fasttracklogistics.event;
+
+import fasttracklogistics.model.Shipment;
+
+import java.util.List;
+
+/**
+ * A shipment's fields (including its delivery status) changed; carries the row as stored.
+ */
+public class ShipmentUpdated implements DomainEvent {
+    private final Shipment shipment;
+
+    public ShipmentUpdated(Shipment shipment) {
+        this.shipment = shipment;
+    }
+
+    public Shipment getShipment() {
+        return shipment;
+    }
+
+    @Override
+    public Object coalescingKey() {
+        return List.of(ShipmentUpdated.class, shipment.getShipmentId());
+    }
+}
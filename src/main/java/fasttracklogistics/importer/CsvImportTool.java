@@ -0,0 +1,38 @@
+package fasttracklogistics.importer;
+
+import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.dao.ShipmentDAO;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Imports a CSV file from the command line, e.g. a partner manifest delivered overnight, and prints the
+ * summary with the elapsed time. Uses the same pipeline and checks as the Import CSV buttons.
+ *
+ * Usage: {@code java fasttracklogistics.importer.CsvImportTool shipments|personnel <file.csv> [validatorThreads]}
+ */
+public class CsvImportTool {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: java fasttracklogistics.importer.CsvImportTool shipments|personnel <file.csv> [validatorThreads]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[1]);
+        int validators = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        ImportSummary summary;
+        switch (args[0]) {
+            case "shipments" -> summary = new CsvImporter<>(new ShipmentImportTarget(new ShipmentDAO()), 1_000, validators).importFile(file);
+            case "personnel" -> summary = new CsvImporter<>(new PersonnelImportTarget(new DeliveryPersonnelDAO()), 1_000, validators).importFile(file);
+            default -> {
+                System.err.println("Unknown target '" + args[0] + "'; expected shipments or personnel");
+                System.exit(2);
+                return;
+            }
+        }
+        System.out.println(summary.describe());
+        System.exit(summary.isComplete() ? 0 : 1);
+    }
+}
@@ -0,0 +1,329 @@
+package fasttracklogistics.importer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bulk-loads a CSV file through a three-stage pipeline, so parsing, validation and database writes overlap
+ * and memory stays bounded however large the file is:
+ * <ol>
+ *   <li>a reader thread streams the file and cuts it into chunks of {@code chunkSize} rows;</li>
+ *   <li>validator threads (one per core) parse and normalize the rows of a chunk via the {@link ImportTarget};</li>
+ *   <li>the calling thread writes the chunks in file order: it drops keys seen earlier in the file, checks the
+ *       rest against the database in one query, and inserts the new rows in one batched transaction.</li>
+ * </ol>
+ * The stages hand over through small bounded queues, so a slow database holds back the reader instead of the
+ * whole file piling up in memory. A single writer keeps "first occurrence wins" deterministic and needs only one
+ * connection at a time. Each chunk commits on its own: if a write fails the import stops, earlier chunks stay
+ * imported and the summary says where it stopped. Rejected and duplicate rows go to {@code <file>.rejected.csv}.
+ *
+ * No domain events are published per row; open views and indexes pick the new rows up through delta sync.
+ */
+public class CsvImporter<T> {
+    private static final Logger LOGGER = Logger.getLogger(CsvImporter.class.getName());
+    private static final int DEFAULT_CHUNK_SIZE = 1_000;
+    private static final int QUEUE_CHUNKS_PER_VALIDATOR = 2;
+
+    /** One row that passed validation. */
+    private record ParsedRow<T>(CsvRecord record, T value) {
+    }
+
+    /** One row that did not, and why. */
+    private record Rejection(CsvRecord record, String reason) {
+    }
+
+    /** A chunk of raw rows in file order; {@code sequence} -1 marks the end of the input. */
+    private record Chunk(long sequence, List<CsvRecord> records) {
+    }
+
+    /** A validated chunk; {@code sequence} -1 marks that a validator has finished. */
+    private record ValidatedChunk<T>(long sequence, List<ParsedRow<T>> rows, List<Rejection> rejections) {
+    }
+
+    private static final Chunk END_OF_INPUT = new Chunk(-1, List.of());
+
+    private final ImportTarget<T> target;
+    private final int chunkSize;
+    private final int validatorCount;
+
+    public CsvImporter(ImportTarget<T> target) {
+        this(target, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    public CsvImporter(ImportTarget<T> target, int chunkSize, int validatorCount) {
+        this.target = target;
+        this.chunkSize = chunkSize;
+        this.validatorCount = Math.max(1, validatorCount);
+    }
+
+    /**
+     * Imports the file, writing from the calling thread (so call it off the EDT).
+     *
+     * @param csvFile A UTF-8 CSV file whose first row names the columns.
+     * @return What was imported, rejected and skipped.
+     * @throws IOException If the file cannot be opened or lacks a required column (nothing is imported then).
+     * @throws InterruptedException If the calling thread is interrupted; chunks already written stay imported.
+     */
+    public ImportSummary importFile(Path csvFile) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        CsvReader reader = new CsvReader(Files.newBufferedReader(csvFile, StandardCharsets.UTF_8));
+        List<String> header;
+        Map<String, Integer> columns;
+        try {
+            header = reader.readRecord();
+            if (header == null) throw new IOException("The file is empty");
+            columns = columnIndex(header);
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+
+        BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(validatorCount * QUEUE_CHUNKS_PER_VALIDATOR);
+        BlockingQueue<ValidatedChunk<T>> validated = new ArrayBlockingQueue<>(validatorCount * QUEUE_CHUNKS_PER_VALIDATOR);
+        AtomicReference<String> failure = new AtomicReference<>(); // Stops the import
+        AtomicReference<String> readFailure = new AtomicReference<>(); // Stops reading; rows read so far are still written
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(validatorCount + 1, r -> {
+            Thread thread = new Thread(r, "csv-import-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Writer writer = new Writer(new RejectedRowsReport(csvFile.resolveSibling(csvFile.getFileName() + ".rejected.csv"), header));
+        try {
+            executor.execute(() -> readChunks(reader, columns, chunks, readFailure));
+            for (int i = 0; i < validatorCount; i++) {
+                executor.execute(() -> validateChunks(chunks, validated, header.size(), failure));
+            }
+            writer.drain(validated, failure);
+        } finally {
+            executor.shutdownNow(); // Unblocks the other stages if the writer stopped early
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+            reader.close();
+            try {
+                writer.report.close();
+            } catch (IOException e) {
+                failure.compareAndSet(null, "Could not write the rejected-rows report: " + e.getMessage());
+            }
+        }
+
+        failure.compareAndSet(null, readFailure.get());
+        ImportSummary summary = new ImportSummary(target.getName(), writer.rowsRead, writer.imported, writer.rejected,
+                writer.duplicates, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), writer.report.getPath(), failure.get());
+        LOGGER.info(String.format("Imported %s from %s: %s (%.0f rows/s)", target.getName(), csvFile, summary,
+                summary.getRowsRead() * 1000.0 / Math.max(1, summary.getElapsedMillis())));
+        return summary;
+    }
+
+    private Map<String, Integer> columnIndex(List<String> header) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(CsvRecord.normalizeColumn(header.get(i)), i);
+        }
+        List<String> missing = new ArrayList<>();
+        for (String column : target.getRequiredColumns()) {
+            if (!columns.containsKey(CsvRecord.normalizeColumn(column))) missing.add(column);
+        }
+        if (!missing.isEmpty()) {
+            throw new IOException("The first row must name the columns; missing required column(s): " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    // --- Stage 1: reader ---
+
+    private void readChunks(CsvReader reader, Map<String, Integer> columns, BlockingQueue<Chunk> chunks,
+                            AtomicReference<String> readFailure) {
+        try {
+            long sequence = 0;
+            List<CsvRecord> records = new ArrayList<>(chunkSize);
+            try {
+                List<String> fields;
+                while ((fields = reader.readRecord()) != null) {
+                    if (fields.size() == 1 && fields.get(0).isBlank()) continue; // Blank line
+                    records.add(new CsvRecord(reader.getRecordLineNumber(), fields, columns));
+                    if (records.size() == chunkSize) {
+                        chunks.put(new Chunk(sequence++, records));
+                        records = new ArrayList<>(chunkSize);
+                    }
+                }
+            } catch (IOException e) {
+                readFailure.set("Could not read the file after line " + reader.getRecordLineNumber() + ": " + e.getMessage());
+            }
+            if (!records.isEmpty()) chunks.put(new Chunk(sequence, records));
+            for (int i = 0; i < validatorCount; i++) {
+                chunks.put(END_OF_INPUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Import aborted
+        }
+    }
+
+    // --- Stage 2: validators ---
+
+    private void validateChunks(BlockingQueue<Chunk> chunks, BlockingQueue<ValidatedChunk<T>> validated,
+                                int headerSize, AtomicReference<String> failure) {
+        try {
+            try {
+                Chunk chunk;
+                while ((chunk = chunks.take()) != END_OF_INPUT) {
+                    validated.put(validate(chunk, headerSize));
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Import validation failed", e);
+                failure.compareAndSet(null, "Unexpected validation error: " + e);
+            }
+            validated.put(new ValidatedChunk<>(-1, List.of(), List.of()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Import aborted
+        }
+    }
+
+    private ValidatedChunk<T> validate(Chunk chunk, int headerSize) {
+        List<ParsedRow<T>> rows = new ArrayList<>(chunk.records().size());
+        List<Rejection> rejections = new ArrayList<>();
+        for (CsvRecord record : chunk.records()) {
+            if (record.getFields().size() != headerSize) { // Probably a stray comma or quote: fields would land in the wrong columns
+                rejections.add(new Rejection(record, "Expected " + headerSize + " fields, found " + record.getFields().size()));
+                continue;
+            }
+            try {
+                rows.add(new ParsedRow<>(record, target.parse(record)));
+            } catch (RejectedRowException e) {
+                rejections.add(new Rejection(record, e.getMessage()));
+            }
+        }
+        return new ValidatedChunk<>(chunk.sequence(), rows, rejections);
+    }
+
+    // --- Stage 3: writer ---
+
+    /** State of the single writer; only touched by the thread that called {@link #importFile}. */
+    private class Writer {
+        final RejectedRowsReport report;
+        final Map<String, Long> firstLineByKey = new HashMap<>(); // Keys seen in this file -> line of first occurrence
+        long rowsRead;
+        long imported;
+        long rejected;
+        long duplicates;
+
+        Writer(RejectedRowsReport report) {
+            this.report = report;
+        }
+
+        /** Takes validated chunks until every validator has finished, writing them in file order. */
+        void drain(BlockingQueue<ValidatedChunk<T>> validated, AtomicReference<String> failure) throws InterruptedException {
+            TreeMap<Long, ValidatedChunk<T>> pending = new TreeMap<>(); // Chunks that overtook an earlier one
+            long next = 0;
+            int finishedValidators = 0;
+            while (finishedValidators < validatorCount && failure.get() == null) {
+                ValidatedChunk<T> chunk = validated.take();
+                if (chunk.sequence() < 0) {
+                    finishedValidators++;
+                    continue;
+                }
+                pending.put(chunk.sequence(), chunk);
+                while (failure.get() == null && !pending.isEmpty() && pending.firstKey() == next) {
+                    try {
+                        write(pending.pollFirstEntry().getValue());
+                        next++;
+                    } catch (SQLException e) {
+                        LOGGER.log(Level.SEVERE, "Import of " + target.getName() + " failed", e);
+                        failure.compareAndSet(null, "Database error: " + e.getMessage());
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, "Could not write the rejected-rows report: " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        private void write(ValidatedChunk<T> chunk) throws SQLException, IOException {
+            List<Rejection> skipped = new ArrayList<>(chunk.rejections());
+            rowsRead += chunk.rows().size() + chunk.rejections().size();
+            rejected += chunk.rejections().size();
+
+            // Within the file the first occurrence of a key wins
+            Map<String, ParsedRow<T>> keyed = new LinkedHashMap<>();
+            List<ParsedRow<T>> unkeyed = new ArrayList<>();
+            for (ParsedRow<T> row : chunk.rows()) {
+                String key = target.getDedupeKey(row.value());
+                if (key == null) {
+                    unkeyed.add(row);
+                    continue;
+                }
+                Long firstLine = firstLineByKey.putIfAbsent(key, row.record().getLineNumber());
+                if (firstLine != null) {
+                    skipped.add(new Rejection(row.record(), "Duplicate " + target.getKeyDescription() + " (first on line " + firstLine + ")"));
+                    duplicates++;
+                } else {
+                    keyed.put(key, row);
+                }
+            }
+
+            List<ParsedRow<T>> fresh = insertNew(keyed, unkeyed, skipped);
+            imported += fresh.size();
+
+            skipped.sort(Comparator.comparingLong(rejection -> rejection.record().getLineNumber()));
+            for (Rejection rejection : skipped) {
+                report.write(rejection.record(), rejection.reason());
+            }
+        }
+
+        /**
+         * Drops keys already in the database and inserts the rest. If another user inserts one of the keys
+         * between the check and the insert, the batch is rolled back, so check again and retry once.
+         *
+         * @return The rows inserted.
+         */
+        private List<ParsedRow<T>> insertNew(Map<String, ParsedRow<T>> keyed, List<ParsedRow<T>> unkeyed,
+                                             List<Rejection> skipped) throws SQLException {
+            for (int attempt = 1; ; attempt++) {
+                Set<String> existing = target.findExisting(keyed.keySet());
+                for (String key : existing) {
+                    ParsedRow<T> row = keyed.remove(key);
+                    if (row != null) {
+                        skipped.add(new Rejection(row.record(), "The " + target.getKeyDescription() + " already exists"));
+                        duplicates++;
+                    }
+                }
+                List<ParsedRow<T>> fresh = new ArrayList<>(keyed.values());
+                fresh.addAll(unkeyed);
+                List<T> values = new ArrayList<>(fresh.size());
+                for (ParsedRow<T> row : fresh) {
+                    values.add(row.value());
+                }
+                try {
+                    target.insert(values);
+                    return fresh;
+                } catch (SQLException e) {
+                    if (attempt == 2 || !isDuplicateKey(e)) throw e;
+                }
+            }
+        }
+
+        /** Integrity constraint violations have SQLSTATE class 23; a failed batch reports its first one. */
+        private boolean isDuplicateKey(SQLException e) {
+            return e.getSQLState() != null && e.getSQLState().startsWith("23");
+        }
+    }
+}
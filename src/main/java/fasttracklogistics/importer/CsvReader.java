@@ -0,0 +1,104 @@
+package fasttracklogistics.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV parser: reads one record at a time, so a file of any size is parsed in constant memory.
+ * Fields may be quoted; inside quotes, commas and line breaks are data and {@code ""} is one quote.
+ * Records end at LF, CRLF or CR. A leading UTF-8 byte order mark is skipped. Not thread-safe.
+ */
+public class CsvReader implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char BYTE_ORDER_MARK = 0xFEFF;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long lineNumber = 1; // Line the next record starts on
+    private long recordLineNumber;
+    private boolean started;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * @return The fields of the next record, or null at the end of the input. A blank line is a record with one empty field.
+     * @throws IOException If reading fails or the input ends inside a quoted field.
+     */
+    public List<String> readRecord() throws IOException {
+        if (!started) {
+            started = true;
+            if (fill() && buffer[position] == BYTE_ORDER_MARK) position++;
+        }
+        if (position >= limit && !fill()) return null;
+
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean afterQuote = false; // Just closed a quoted section: only a separator, a quote or an end may follow
+        while (true) {
+            if (position >= limit && !fill()) {
+                if (quoted) throw new IOException("Unterminated quoted field starting on line " + recordLineNumber);
+                fields.add(field.toString());
+                return fields;
+            }
+            char c = buffer[position++];
+            if (quoted) {
+                if (c == '"') {
+                    quoted = false;
+                    afterQuote = true;
+                } else {
+                    if (c == '\n') lineNumber++;
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                if (afterQuote) {
+                    field.append('"'); // "" inside a quoted field
+                    quoted = true;
+                } else if (field.length() == 0) {
+                    quoted = true;
+                } else {
+                    field.append('"'); // Stray quote inside an unquoted field: keep it as data
+                }
+                afterQuote = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && (position < limit || fill()) && buffer[position] == '\n') position++;
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append(c);
+                afterQuote = false;
+            }
+        }
+    }
+
+    /** @return The line number (from 1) on which the last record returned by {@link #readRecord()} started. */
+    public long getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    private boolean fill() throws IOException {
+        if (position < limit) return true;
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) return false;
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
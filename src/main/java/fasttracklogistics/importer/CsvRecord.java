@@ -0,0 +1,48 @@
+package fasttracklogistics.importer;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One data row of an import file, with its fields looked up by header column name.
+ */
+public class CsvRecord {
+    private final long lineNumber;
+    private final List<String> fields;
+    private final Map<String, Integer> columns; // Normalized header name -> field index, shared by all rows
+
+    CsvRecord(long lineNumber, List<String> fields, Map<String, Integer> columns) {
+        this.lineNumber = lineNumber;
+        this.fields = fields;
+        this.columns = columns;
+    }
+
+    /**
+     * @param column A column name; case, spaces and punctuation are ignored, so "Tracking Number" matches tracking_number.
+     * @return The trimmed field, or "" if the file has no such column.
+     */
+    public String get(String column) {
+        Integer index = columns.get(normalizeColumn(column));
+        return index != null && index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    /** @return The line number (from 1) on which this row starts in the file. */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /** @return The fields as read, untrimmed. */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    static String normalizeColumn(String column) {
+        StringBuilder normalized = new StringBuilder(column.length());
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (Character.isLetterOrDigit(c)) normalized.append(c);
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+}
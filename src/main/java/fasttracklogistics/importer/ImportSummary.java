@@ -0,0 +1,63 @@
+package fasttracklogistics.importer;
+
+import java.nio.file.Path;
+
+/**
+ * The outcome of one {@link CsvImporter} run. If the import failed part way, the rows counted as imported
+ * are committed and the rest of the file was not processed.
+ */
+public class ImportSummary {
+    private final String targetName;
+    private final long rowsRead;
+    private final long imported;
+    private final long rejected;
+    private final long duplicates;
+    private final long elapsedMillis;
+    private final Path reportPath;
+    private final String failure;
+
+    ImportSummary(String targetName, long rowsRead, long imported, long rejected, long duplicates,
+                  long elapsedMillis, Path reportPath, String failure) {
+        this.targetName = targetName;
+        this.rowsRead = rowsRead;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.duplicates = duplicates;
+        this.elapsedMillis = elapsedMillis;
+        this.reportPath = reportPath;
+        this.failure = failure;
+    }
+
+    public long getRowsRead() { return rowsRead; }
+    public long getImported() { return imported; }
+    /** @return Rows that failed validation. */
+    public long getRejected() { return rejected; }
+    /** @return Rows skipped because their key was already in the database or earlier in the file. */
+    public long getDuplicates() { return duplicates; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    /** @return The rejected-rows report (which also lists duplicates), or null if every row was imported. */
+    public Path getReportPath() { return reportPath; }
+    /** @return Why the import stopped early, or null if the whole file was processed. */
+    public String getFailure() { return failure; }
+
+    public boolean isComplete() {
+        return failure == null;
+    }
+
+    /** @return A multi-line description for the user. */
+    public String describe() {
+        StringBuilder text = new StringBuilder();
+        if (failure != null) text.append("Import stopped: ").append(failure).append("\n\n");
+        text.append(String.format("Imported %d of %d %s in %.1f s.", imported, rowsRead, targetName, elapsedMillis / 1000.0));
+        if (rejected > 0) text.append("\nRejected (invalid): ").append(rejected);
+        if (duplicates > 0) text.append("\nSkipped (duplicates): ").append(duplicates);
+        if (reportPath != null) text.append("\nDetails: ").append(reportPath);
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ImportSummary{" + targetName + ", read=" + rowsRead + ", imported=" + imported + ", rejected=" + rejected +
+                ", duplicates=" + duplicates + ", elapsedMillis=" + elapsedMillis + (failure != null ? ", failure=" + failure : "") + '}';
+    }
+}
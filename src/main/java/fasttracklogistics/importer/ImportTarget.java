@@ -0,0 +1,52 @@
+package fasttracklogistics.importer;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What {@link CsvImporter} needs to know about one kind of record: how to turn a row into a model object,
+ * which key must be unique, and how to check and insert in bulk.
+ *
+ * @param <T> The model type imported.
+ */
+public interface ImportTarget<T> {
+
+    /** @return A plural noun for messages, e.g. "shipments". */
+    String getName();
+
+    /** @return The header columns a file must have (other columns are optional and default when absent). */
+    List<String> getRequiredColumns();
+
+    /**
+     * Validates and normalizes one row. Called concurrently from several validator threads, so it must not
+     * touch shared mutable state or the database.
+     *
+     * @throws RejectedRowException If the row cannot be stored; the message says why.
+     */
+    T parse(CsvRecord record) throws RejectedRowException;
+
+    /**
+     * @return The row's unique key, upper-cased (the database compares keys case-insensitively), or null if
+     *         the row has none and is never a duplicate.
+     */
+    String getDedupeKey(T row);
+
+    /** @return A short description of the key for the report, e.g. "tracking number". */
+    String getKeyDescription();
+
+    /**
+     * @param keys Upper-cased keys, at most one chunk's worth.
+     * @return Those of the keys already in the database, upper-cased.
+     * @throws SQLException If a database access error occurs.
+     */
+    Set<String> findExisting(Collection<String> keys) throws SQLException;
+
+    /**
+     * Inserts the rows in one batched transaction.
+     *
+     * @throws SQLException If a database access error occurs; none of the rows are stored.
+     */
+    void insert(List<T> rows) throws SQLException;
+}
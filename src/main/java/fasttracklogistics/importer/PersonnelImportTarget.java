@@ -0,0 +1,69 @@
+package fasttracklogistics.importer;
+
+import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.model.DeliveryPersonnel;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Imports personnel rosters with columns name, contact_info, personnel_type, license_number, vehicle_details
+ * and availability_status. Type defaults to Driver and availability to Available. License numbers must be
+ * unique; personnel without one (stored as NULL) are never duplicates.
+ */
+public class PersonnelImportTarget implements ImportTarget<DeliveryPersonnel> {
+    private static final int LICENSE_LENGTH = 100;
+
+    private final DeliveryPersonnelDAO personnelDAO;
+
+    public PersonnelImportTarget(DeliveryPersonnelDAO personnelDAO) {
+        this.personnelDAO = personnelDAO;
+    }
+
+    @Override
+    public String getName() {
+        return "personnel";
+    }
+
+    @Override
+    public List<String> getRequiredColumns() {
+        return List.of("name", "contact_info");
+    }
+
+    @Override
+    public DeliveryPersonnel parse(CsvRecord record) throws RejectedRowException {
+        DeliveryPersonnel personnel = new DeliveryPersonnel();
+        personnel.setName(RowValidation.required(record, "name", "Name", 255));
+        personnel.setContactInfo(RowValidation.required(record, "contact_info", "Contact info", 255));
+        personnel.setPersonnelType(RowValidation.oneOf(record, "personnel_type", "Personnel type",
+                DeliveryPersonnel.PERSONNEL_TYPES, "Driver"));
+        personnel.setLicenseNumber(RowValidation.optional(record, "license_number", "License number", LICENSE_LENGTH));
+        personnel.setVehicleDetails(RowValidation.optional(record, "vehicle_details", "Vehicle details", 65_535));
+        personnel.setAvailabilityStatus(RowValidation.oneOf(record, "availability_status", "Availability status",
+                DeliveryPersonnel.AVAILABILITY_STATUSES, "Available"));
+        return personnel;
+    }
+
+    @Override
+    public String getDedupeKey(DeliveryPersonnel row) {
+        return row.getLicenseNumber() != null ? row.getLicenseNumber().toUpperCase(Locale.ROOT) : null;
+    }
+
+    @Override
+    public String getKeyDescription() {
+        return "license number";
+    }
+
+    @Override
+    public Set<String> findExisting(Collection<String> keys) throws SQLException {
+        return personnelDAO.findExistingLicenseNumbers(keys);
+    }
+
+    @Override
+    public void insert(List<DeliveryPersonnel> rows) throws SQLException {
+        personnelDAO.addPersonnel(rows);
+    }
+}
@@ -0,0 +1,11 @@
+package fasttracklogistics.importer;
+
+/**
+ * Thrown while parsing an import row that cannot be stored; the message becomes the reason in the rejected-rows report.
+ */
+public class RejectedRowException extends Exception {
+
+    public RejectedRowException(String reason) {
+        super(reason);
+    }
+}
@@ -0,0 +1,60 @@
+package fasttracklogistics.importer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * CSV file listing the rows an import did not store: line number, reason, then the row's original fields,
+ * so the user can fix the rows and import the report itself (after dropping the first two columns).
+ * The file is only created once there is something to write. Used by the import's single writer thread.
+ */
+class RejectedRowsReport implements AutoCloseable {
+    private final Path path;
+    private final List<String> header;
+    private BufferedWriter out;
+
+    RejectedRowsReport(Path path, List<String> header) {
+        this.path = path;
+        this.header = header;
+    }
+
+    void write(CsvRecord record, String reason) throws IOException {
+        if (out == null) {
+            out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            writeRow("line", "reason", header);
+        }
+        writeRow(Long.toString(record.getLineNumber()), reason, record.getFields());
+    }
+
+    /** @return The report file, or null if nothing was written. */
+    Path getPath() {
+        return out != null ? path : null;
+    }
+
+    private void writeRow(String first, String second, List<String> rest) throws IOException {
+        out.write(quote(first));
+        out.write(',');
+        out.write(quote(second));
+        for (String field : rest) {
+            out.write(',');
+            out.write(quote(field));
+        }
+        out.write("\r\n"); // RFC 4180 line ending
+    }
+
+    private static String quote(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) out.close();
+    }
+}
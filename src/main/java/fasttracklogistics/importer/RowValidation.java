@@ -0,0 +1,62 @@
+package fasttracklogistics.importer;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Field checks shared by the import targets, mirroring what the Manage panels accept when a row is typed in.
+ */
+final class RowValidation {
+    /** The format the Manage Shipments panel shows and accepts. */
+    private static final DateTimeFormatter PANEL_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private RowValidation() {
+    }
+
+    /** @return The trimmed field, which must be present and at most {@code maxLength} characters. */
+    static String required(CsvRecord record, String column, String label, int maxLength) throws RejectedRowException {
+        String value = record.get(column);
+        if (value.isEmpty()) throw new RejectedRowException(label + " is required");
+        return checkLength(value, label, maxLength);
+    }
+
+    /** @return The trimmed field, or null if blank. At most {@code maxLength} characters. */
+    static String optional(CsvRecord record, String column, String label, int maxLength) throws RejectedRowException {
+        String value = record.get(column);
+        return value.isEmpty() ? null : checkLength(value, label, maxLength);
+    }
+
+    /**
+     * @return The canonical spelling of the field among {@code allowed} (matched ignoring case), or
+     *         {@code defaultValue} if blank.
+     */
+    static String oneOf(CsvRecord record, String column, String label, List<String> allowed, String defaultValue)
+            throws RejectedRowException {
+        String value = record.get(column);
+        if (value.isEmpty()) return defaultValue;
+        for (String candidate : allowed) {
+            if (candidate.equalsIgnoreCase(value)) return candidate;
+        }
+        throw new RejectedRowException(label + " must be one of " + allowed + ", got '" + value + "'");
+    }
+
+    /** @return The field as a date and time ("yyyy-MM-dd HH:mm:ss" or ISO-8601), or null if blank. */
+    static LocalDateTime dateTime(CsvRecord record, String column, String label) throws RejectedRowException {
+        String value = record.get(column);
+        if (value.isEmpty()) return null;
+        try {
+            return value.indexOf('T') > 0 ? LocalDateTime.parse(value) : LocalDateTime.parse(value, PANEL_DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new RejectedRowException(label + " must be in yyyy-MM-dd HH:mm:ss format, got '" + value + "'");
+        }
+    }
+
+    private static String checkLength(String value, String label, int maxLength) throws RejectedRowException {
+        if (value.length() > maxLength) {
+            throw new RejectedRowException(label + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,111 @@
+package fasttracklogistics.importer;
+
+import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.model.Shipment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Imports shipment manifests. Columns are named after the shipments table (tracking_number, sender_name, ...,
+ * special_instructions, in any order and spelling of case and separators). Tracking numbers are upper-cased
+ * with spaces removed and must be unique; a blank status becomes Pending.
+ */
+public class ShipmentImportTarget implements ImportTarget<Shipment> {
+    private static final Pattern TRACKING_NUMBER = Pattern.compile("[A-Z0-9][A-Z0-9-]{0,63}");
+    private static final double MAX_WEIGHT = 99_999_999.99; // decimal(10,2)
+    private static final int VARCHAR = 255;
+    private static final int TEXT = 65_535;
+
+    private final ShipmentDAO shipmentDAO;
+
+    public ShipmentImportTarget(ShipmentDAO shipmentDAO) {
+        this.shipmentDAO = shipmentDAO;
+    }
+
+    @Override
+    public String getName() {
+        return "shipments";
+    }
+
+    @Override
+    public List<String> getRequiredColumns() {
+        return List.of("tracking_number", "sender_name", "receiver_name", "weight");
+    }
+
+    @Override
+    public Shipment parse(CsvRecord record) throws RejectedRowException {
+        Shipment shipment = new Shipment();
+        shipment.setTrackingNumber(trackingNumber(record));
+        shipment.setSenderName(RowValidation.required(record, "sender_name", "Sender name", VARCHAR));
+        shipment.setSenderAddress(blankIfNull(RowValidation.optional(record, "sender_address", "Sender address", TEXT)));
+        shipment.setSenderContact(RowValidation.optional(record, "sender_contact", "Sender contact", VARCHAR));
+        shipment.setReceiverName(RowValidation.required(record, "receiver_name", "Receiver name", VARCHAR));
+        shipment.setReceiverAddress(blankIfNull(RowValidation.optional(record, "receiver_address", "Receiver address", TEXT)));
+        shipment.setReceiverContact(RowValidation.optional(record, "receiver_contact", "Receiver contact", VARCHAR));
+        shipment.setPackageContents(RowValidation.optional(record, "package_contents", "Package contents", TEXT));
+        shipment.setWeight(weight(record));
+        shipment.setDimensions(RowValidation.optional(record, "dimensions", "Dimensions", VARCHAR));
+        shipment.setDeliveryStatus(RowValidation.oneOf(record, "delivery_status", "Delivery status",
+                Shipment.DELIVERY_STATUSES, "Pending"));
+        shipment.setCurrentLocation(RowValidation.optional(record, "current_location", "Current location", VARCHAR));
+        shipment.setEstimatedDeliveryTime(RowValidation.dateTime(record, "estimated_delivery_time", "Estimated delivery time"));
+        shipment.setActualDeliveryTime(RowValidation.dateTime(record, "actual_delivery_time", "Actual delivery time"));
+        shipment.setSpecialInstructions(RowValidation.optional(record, "special_instructions", "Special instructions", TEXT));
+        return shipment;
+    }
+
+    private static String trackingNumber(CsvRecord record) throws RejectedRowException {
+        String raw = RowValidation.required(record, "tracking_number", "Tracking number", VARCHAR);
+        String trackingNumber = raw.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+        if (!TRACKING_NUMBER.matcher(trackingNumber).matches()) {
+            throw new RejectedRowException("Tracking number must be letters, digits and dashes (at most 64), got '" + raw + "'");
+        }
+        return trackingNumber;
+    }
+
+    private static double weight(CsvRecord record) throws RejectedRowException {
+        String value = record.get("weight");
+        if (value.isEmpty()) throw new RejectedRowException("Weight is required");
+        double weight;
+        try {
+            weight = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new RejectedRowException("Weight must be a number, got '" + value + "'");
+        }
+        if (!Double.isFinite(weight) || weight < 0 || weight > MAX_WEIGHT) {
+            throw new RejectedRowException("Weight must be between 0 and " + MAX_WEIGHT + ", got '" + value + "'");
+        }
+        return BigDecimal.valueOf(weight).setScale(2, RoundingMode.HALF_UP).doubleValue(); // As the column stores it
+    }
+
+    private static String blankIfNull(String value) {
+        return value != null ? value : ""; // The address columns are NOT NULL
+    }
+
+    @Override
+    public String getDedupeKey(Shipment row) {
+        return row.getTrackingNumber(); // Already upper-cased by parse
+    }
+
+    @Override
+    public String getKeyDescription() {
+        return "tracking number";
+    }
+
+    @Override
+    public Set<String> findExisting(Collection<String> keys) throws SQLException {
+        return shipmentDAO.findExistingTrackingNumbers(keys);
+    }
+
+    @Override
+    public void insert(List<Shipment> rows) throws SQLException {
+        shipmentDAO.addShipments(rows);
+    }
+}
@@ -13,6 +13,7 @@ public class Delivery {
     private String deliveryStatus; // e.g., "Scheduled", "Picked Up", "In Transit", "Delivered", "Failed"
     private String routeDetails; // Simple string or could be a separate Route model
     private String deliveryNotes;
+    private LocalDateTime updatedAt; // Set by the database on every write; used as the delta-sync watermark
 
     // Default Constructor
     public Delivery() {
@@ -71,6 +72,9 @@ public class Delivery {
     public String getDeliveryNotes() { return deliveryNotes; }
     public void setDeliveryNotes(String deliveryNotes) { this.deliveryNotes = deliveryNotes; }
 
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
     @Override
     public String toString() {
         return "Delivery{" +
@@ -1,6 +1,13 @@
 package fasttracklogistics.model;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public class DeliveryPersonnel {
+    /** Types and availability statuses offered by the Manage Personnel form and accepted by the CSV import. */
+    public static final List<String> PERSONNEL_TYPES = List.of("Driver", "Courier", "Administrator");
+    public static final List<String> AVAILABILITY_STATUSES = List.of("Available", "On Duty", "On Leave", "Unavailable");
+
     private int personnelId;
     private String name;
     private String contactInfo; // e.g., phone number, email
@@ -8,6 +15,7 @@ public class DeliveryPersonnel {
     private String licenseNumber;
     private String vehicleDetails; // e.g., 'Toyota Hiace, ABC-1234'
     private String availabilityStatus; // e.g., "Available", "On Duty", "Off Duty", "Break"
+    private LocalDateTime updatedAt; // Set by the database on every write; used as the delta-sync watermark
 
     // Default Constructor
     public DeliveryPersonnel() {
@@ -53,6 +61,9 @@ public class DeliveryPersonnel {
     public String getAvailabilityStatus() { return availabilityStatus; }
     public void setAvailabilityStatus(String availabilityStatus) { this.availabilityStatus = availabilityStatus; }
 
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
     @Override
     public String toString() {
         return "DeliveryPersonnel{" +
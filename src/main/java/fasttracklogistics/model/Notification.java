@@ -20,6 +20,11 @@ public class Notification {
     private boolean isRead;
     private String contactMethod; // e.g., "App", "Email", "SMS"
 
+    // Outbox delivery state (the notifications table doubles as the delivery outbox)
+    private String dispatchStatus = "Pending"; // "Pending", "Processing", "Sent" or "Dead"
+    private int dispatchAttempts;
+    private int dispatchPriority = 2; // Lower is more urgent; see controller.NotificationLane
+
     /**
      * Full constructor for loading Notification objects from the database.
      * This is the constructor the DAO uses when retrieving data from the 'notifications' table.
@@ -79,6 +84,49 @@ public class Notification {
         this.isRead = false; // New notifications are unread by default
     }
 
+    /**
+     * Creates (but does not persist) an automated customer notification about a shipment.
+     * The services write it through {@code NotificationDAO#addNotification(Connection, Notification)}
+     * in the same transaction as the shipment change.
+     * @param shipment The shipment the notification is about.
+     * @param notificationMessage The specific message for the customer.
+     * @param notificationType The type of notification (e.g., "Status Update", "Delay").
+     * @return A new pending Notification.
+     */
+    public static Notification forCustomerShipment(Shipment shipment, String notificationMessage, String notificationType) {
+        int customerId = shipment.getShipmentId(); // Use shipment ID as proxy for customer ID for recipient_id
+        return new Notification(
+                "Customer",
+                customerId,               // recipient_id in DB
+                shipment.getShipmentId(), // relatedShipmentId
+                0,                        // Customer notifications don't have related personnel
+                notificationMessage,
+                notificationType,
+                "App" // Default contact method for automated notifications
+        );
+    }
+
+    /**
+     * Creates (but does not persist) an automated notification to delivery personnel.
+     * @param personnel The DeliveryPersonnel object.
+     * @param shipment The related shipment (optional, can be null if not assignment specific).
+     * @param notificationMessage The specific message for the personnel.
+     * @param notificationType The type of notification (e.g., "Assignment", "Route Change", "Urgent").
+     * @return A new pending Notification.
+     */
+    public static Notification forPersonnel(DeliveryPersonnel personnel, Shipment shipment, String notificationMessage, String notificationType) {
+        int relatedShipmentId = (shipment != null) ? shipment.getShipmentId() : 0;
+        return new Notification(
+                "Personnel",
+                personnel.getPersonnelId(), // recipient_id in DB
+                relatedShipmentId,
+                0, // relatedPersonnelId (not applicable for this scenario)
+                notificationMessage,
+                notificationType,
+                "App" // Default contact method
+        );
+    }
+
     // --- Getters and Setters ---
     public int getNotificationId() { return notificationId; }
     public void setNotificationId(int notificationId) { this.notificationId = notificationId; }
@@ -110,6 +158,15 @@ public class Notification {
     public String getContactMethod() { return contactMethod; }
     public void setContactMethod(String contactMethod) { this.contactMethod = contactMethod; }
 
+    public String getDispatchStatus() { return dispatchStatus; }
+    public void setDispatchStatus(String dispatchStatus) { this.dispatchStatus = dispatchStatus; }
+
+    public int getDispatchAttempts() { return dispatchAttempts; }
+    public void setDispatchAttempts(int dispatchAttempts) { this.dispatchAttempts = dispatchAttempts; }
+
+    public int getDispatchPriority() { return dispatchPriority; }
+    public void setDispatchPriority(int dispatchPriority) { this.dispatchPriority = dispatchPriority; }
+
     @Override
     public String toString() {
         return "Notification{" +
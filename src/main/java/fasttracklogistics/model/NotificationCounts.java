@@ -0,0 +1,23 @@
+package fasttracklogistics.model;
+
+/**
+ * Unread and total notification counts for one recipient, or for a whole recipient type.
+ * Read from the maintained 'notification_unread_counters' table rather than counted on demand.
+ */
+public class NotificationCounts {
+    private final int unreadCount;
+    private final int totalCount;
+
+    public NotificationCounts(int unreadCount, int totalCount) {
+        this.unreadCount = unreadCount;
+        this.totalCount = totalCount;
+    }
+
+    public int getUnreadCount() { return unreadCount; }
+    public int getTotalCount() { return totalCount; }
+
+    @Override
+    public String toString() {
+        return "NotificationCounts{unread=" + unreadCount + ", total=" + totalCount + '}';
+    }
+}
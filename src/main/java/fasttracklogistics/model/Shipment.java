@@ -1,8 +1,13 @@
 package fasttracklogistics.model;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class Shipment {
+    /** The statuses offered by the Manage Shipments form and accepted by the CSV import. */
+    public static final List<String> DELIVERY_STATUSES = List.of(
+            "Pending", "Scheduled", "In Transit", "Out for Delivery", "Delivered", "Canceled", "Failed");
+
     private int shipmentId;
     private String trackingNumber;
     private String senderName;
@@ -20,6 +25,7 @@ public class Shipment {
     private LocalDateTime actualDeliveryTime;
     private String specialInstructions;
     private LocalDateTime creationDate;
+    private LocalDateTime updatedAt; // Set by the database on every write; used as the delta-sync watermark
 
     // Default Constructor (important for DAOs and when building from ResultSet)
     public Shipment() {
@@ -126,6 +132,9 @@ public class Shipment {
     public LocalDateTime getCreationDate() { return creationDate; }
     public void setCreationDate(LocalDateTime creationDate) { this.creationDate = creationDate; }
 
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
     @Override
     public String toString() {
         return "Shipment{" +
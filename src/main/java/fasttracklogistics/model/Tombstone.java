@@ -0,0 +1,25 @@
+package fasttracklogistics.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record that a row was deleted, kept so other workstations can drop it from their views.
+ */
+public class Tombstone {
+    private long tombstoneId;
+    private String tableName; // "shipments", "deliveries" or "delivery_personnel"
+    private int rowId;
+    private LocalDateTime deletedAt;
+
+    public Tombstone(long tombstoneId, String tableName, int rowId, LocalDateTime deletedAt) {
+        this.tombstoneId = tombstoneId;
+        this.tableName = tableName;
+        this.rowId = rowId;
+        this.deletedAt = deletedAt;
+    }
+
+    public long getTombstoneId() { return tombstoneId; }
+    public String getTableName() { return tableName; }
+    public int getRowId() { return rowId; }
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+}
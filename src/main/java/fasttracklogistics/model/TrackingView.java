@@ -0,0 +1,41 @@
+package fasttracklogistics.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * The public tracking status of one shipment: what a customer's tracking page shows, without sender,
+ * receiver or package details. updatedAt is the row version (millisecond precision) and changes with every write.
+ */
+public class TrackingView {
+    private final int shipmentId;
+    private final String trackingNumber;
+    private final String deliveryStatus;
+    private final String currentLocation;
+    private final LocalDateTime estimatedDeliveryTime;
+    private final LocalDateTime actualDeliveryTime;
+    private final LocalDateTime updatedAt;
+
+    public TrackingView(int shipmentId, String trackingNumber, String deliveryStatus, String currentLocation,
+                        LocalDateTime estimatedDeliveryTime, LocalDateTime actualDeliveryTime, LocalDateTime updatedAt) {
+        this.shipmentId = shipmentId;
+        this.trackingNumber = trackingNumber;
+        this.deliveryStatus = deliveryStatus;
+        this.currentLocation = currentLocation;
+        this.estimatedDeliveryTime = estimatedDeliveryTime;
+        this.actualDeliveryTime = actualDeliveryTime;
+        this.updatedAt = updatedAt;
+    }
+
+    public int getShipmentId() { return shipmentId; }
+    public String getTrackingNumber() { return trackingNumber; }
+    public String getDeliveryStatus() { return deliveryStatus; }
+    public String getCurrentLocation() { return currentLocation; }
+    public LocalDateTime getEstimatedDeliveryTime() { return estimatedDeliveryTime; }
+    public LocalDateTime getActualDeliveryTime() { return actualDeliveryTime; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    @Override
+    public String toString() {
+        return "TrackingView{" + trackingNumber + ", status=" + deliveryStatus + ", updatedAt=" + updatedAt + '}';
+    }
+}
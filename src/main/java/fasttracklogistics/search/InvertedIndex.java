@@ -0,0 +1,258 @@
+package fasttracklogistics.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from terms to the documents containing them, answering ranked AND queries.
+ *
+ * Documents are identified by an external id (e.g. a shipment_id). Internally each version of a document
+ * gets the next document number, so posting lists only ever grow at the end: updating a document marks
+ * its old number deleted and appends the new version. Deleted numbers are skipped at query time and
+ * squeezed out by {@link #compact()} once they make up a quarter of the index.
+ *
+ * A query returns only documents containing every query term. The shortest posting list drives the
+ * intersection and the others are advanced to its candidates with their skip entries, so the cost follows
+ * the rarest term rather than the most common one. Matches are scored with BM25-style saturation
+ * (inverse document frequency times a damped term frequency) and the top results are kept in a bounded heap.
+ *
+ * Thread-safe: queries share a read lock, changes take the write lock.
+ */
+public class InvertedIndex {
+    private static final double K1 = 1.2; // Term frequency saturation
+
+    /** One ranked match. */
+    public static final class Hit {
+        private final int id;
+        private final double score;
+
+        Hit(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        /** @return The external id the document was added with. */
+        public int getId() { return id; }
+        public double getScore() { return score; }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Integer, Integer> docById = new HashMap<>();
+    private int[] idByDoc = new int[1024];
+    private final BitSet deletedDocs = new BitSet();
+    private int nextDoc;
+
+    /**
+     * Adds a document, replacing any earlier version with the same id.
+     *
+     * @param id External id returned in query results.
+     * @param termFrequencies Weighted number of occurrences per term (see {@link Tokenizer}).
+     */
+    public void put(int id, Map<String, Integer> termFrequencies) {
+        lock.writeLock().lock();
+        try {
+            deleteLocked(id);
+            if (termFrequencies.isEmpty()) return;
+            int doc = nextDoc++;
+            if (doc == idByDoc.length) {
+                idByDoc = Arrays.copyOf(idByDoc, idByDoc.length * 2);
+            }
+            idByDoc[doc] = id;
+            docById.put(id, doc);
+            for (Map.Entry<String, Integer> term : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), t -> new PostingList()).add(doc, term.getValue());
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the document with the given id, if indexed.
+     */
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            deleteLocked(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every document.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docById.clear();
+            deletedDocs.clear();
+            idByDoc = new int[1024];
+            nextDoc = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents containing all of the given terms, best first.
+     *
+     * @param terms Query terms, already tokenized; repeats are ignored.
+     * @param limit Maximum number of hits to return.
+     * @return The hits, highest score first; empty if there are no terms or any term is unknown.
+     */
+    public List<Hit> search(List<String> terms, int limit) {
+        Set<String> distinctTerms = new LinkedHashSet<>(terms);
+        if (distinctTerms.isEmpty() || limit <= 0) return Collections.emptyList();
+
+        lock.readLock().lock();
+        try {
+            int termCount = distinctTerms.size();
+            PostingList[] lists = new PostingList[termCount];
+            int i = 0;
+            for (String term : distinctTerms) {
+                PostingList list = postings.get(term);
+                if (list == null) return Collections.emptyList(); // AND: one missing term means no match
+                lists[i++] = list;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size)); // Rarest term leads
+
+            int liveDocs = docById.size();
+            PostingList.Cursor[] cursors = new PostingList.Cursor[termCount];
+            double[] idf = new double[termCount];
+            for (i = 0; i < termCount; i++) {
+                cursors[i] = lists[i].cursor();
+                int df = lists[i].size();
+                idf[i] = Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+            }
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::getScore));
+            PostingList.Cursor lead = cursors[0];
+            int doc = lead.next();
+            while (doc != PostingList.NO_MORE_DOCS) {
+                int candidate = doc;
+                for (i = 1; i < termCount; i++) {
+                    int found = cursors[i].advance(candidate);
+                    if (found != candidate) {
+                        candidate = found;
+                        break;
+                    }
+                }
+                if (candidate != doc) {
+                    doc = lead.advance(candidate); // Some list has nothing until candidate: jump the lead there
+                    continue;
+                }
+                if (!deletedDocs.get(doc)) {
+                    double score = 0;
+                    for (i = 0; i < termCount; i++) {
+                        double tf = cursors[i].frequency();
+                        score += idf[i] * tf * (K1 + 1) / (tf + K1);
+                    }
+                    if (best.size() < limit) {
+                        best.add(new Hit(idByDoc[doc], score));
+                    } else if (score > best.peek().getScore()) {
+                        best.poll();
+                        best.add(new Hit(idByDoc[doc], score));
+                    }
+                }
+                doc = lead.next();
+            }
+
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(Comparator.comparingDouble(Hit::getScore).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return The number of documents currently indexed. */
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return docById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return The number of distinct terms. */
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return The encoded size of all posting lists in bytes. */
+    public long getPostingBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (PostingList list : postings.values()) bytes += list.byteSize();
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void deleteLocked(int id) {
+        Integer oldDoc = docById.remove(id);
+        if (oldDoc != null) deletedDocs.set(oldDoc);
+    }
+
+    private void compactIfNeeded() {
+        int deleted = nextDoc - docById.size();
+        if (deleted > 1024 && deleted * 4 > nextDoc) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites every posting list without deleted documents, renumbering the live ones densely.
+     * Caller holds the write lock.
+     */
+    private void compact() {
+        int[] newDocByOld = new int[nextDoc];
+        int[] newIdByDoc = new int[Math.max(1024, docById.size())];
+        int live = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (deletedDocs.get(doc)) {
+                newDocByOld[doc] = -1;
+            } else {
+                newDocByOld[doc] = live;
+                newIdByDoc[live] = idByDoc[doc];
+                docById.put(idByDoc[doc], live);
+                live++;
+            }
+        }
+        postings.replaceAll((term, list) -> {
+            PostingList compacted = new PostingList();
+            PostingList.Cursor cursor = list.cursor();
+            for (int doc = cursor.next(); doc != PostingList.NO_MORE_DOCS; doc = cursor.next()) {
+                if (newDocByOld[doc] != -1) compacted.add(newDocByOld[doc], cursor.frequency());
+            }
+            return compacted;
+        });
+        postings.values().removeIf(list -> list.size() == 0);
+        idByDoc = newIdByDoc;
+        deletedDocs.clear();
+        nextDoc = live;
+    }
+}
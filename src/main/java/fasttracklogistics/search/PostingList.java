@@ -0,0 +1,132 @@
+package fasttracklogistics.search;
+
+import java.util.Arrays;
+
+/**
+ * The documents containing one term, in increasing document order, with the term's weighted frequency in each.
+ * Postings are stored as variable-byte encoded gaps between document numbers followed by the frequency,
+ * so most postings take two bytes. Every {@value #SKIP_INTERVAL} postings a skip entry records the
+ * document number and byte offset reached, which lets an AND query jump over runs of documents
+ * that cannot match instead of decoding them.
+ *
+ * Postings can only be appended, with document numbers greater than the last one; the owning
+ * {@link InvertedIndex} guarantees this and handles locking.
+ */
+final class PostingList {
+    static final int SKIP_INTERVAL = 128;
+    static final int NO_MORE_DOCS = Integer.MAX_VALUE;
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int count;
+    private int lastDoc = -1;
+    private int[] skipDocs = new int[0]; // skipDocs[i]: last document before posting (i + 1) * SKIP_INTERVAL
+    private int[] skipOffsets = new int[0]; // skipOffsets[i]: byte offset of posting (i + 1) * SKIP_INTERVAL
+
+    void add(int doc, int frequency) {
+        if (doc <= lastDoc) {
+            throw new IllegalArgumentException("Document " + doc + " is not after " + lastDoc);
+        }
+        if (count > 0 && count % SKIP_INTERVAL == 0) {
+            int skip = count / SKIP_INTERVAL - 1;
+            if (skip == skipDocs.length) {
+                int capacity = Math.max(4, skipDocs.length * 2);
+                skipDocs = Arrays.copyOf(skipDocs, capacity);
+                skipOffsets = Arrays.copyOf(skipOffsets, capacity);
+            }
+            skipDocs[skip] = lastDoc;
+            skipOffsets[skip] = length;
+        }
+        writeVInt(doc - lastDoc);
+        writeVInt(frequency);
+        lastDoc = doc;
+        count++;
+    }
+
+    /** Number of postings, i.e. the term's document frequency (including documents since deleted). */
+    int size() {
+        return count;
+    }
+
+    /** Encoded size in bytes, for metrics. */
+    int byteSize() {
+        return length + skipCount() * 8;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    private int skipCount() {
+        return count == 0 ? 0 : (count - 1) / SKIP_INTERVAL;
+    }
+
+    private void writeVInt(int value) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    /** Reads the postings in order. Starts before the first posting. */
+    final class Cursor {
+        private int offset;
+        private int index; // Postings read so far
+        private int doc = -1;
+        private int frequency;
+
+        /** @return The current document, -1 before the first call to next(), or NO_MORE_DOCS at the end. */
+        int doc() {
+            return doc;
+        }
+
+        int frequency() {
+            return frequency;
+        }
+
+        /** Moves to the next posting. */
+        int next() {
+            if (index >= count) {
+                return doc = NO_MORE_DOCS;
+            }
+            doc += readVInt();
+            frequency = readVInt();
+            index++;
+            return doc;
+        }
+
+        /**
+         * Moves to the first posting whose document is at least the target, never backwards.
+         * Uses the skip entries to jump over whole runs of postings.
+         */
+        int advance(int target) {
+            if (doc >= target) return doc;
+            int skips = skipCount();
+            int skip = index / SKIP_INTERVAL; // First skip entry ahead of the cursor
+            if (skip < skips && skipDocs[skip] < target) {
+                while (skip + 1 < skips && skipDocs[skip + 1] < target) skip++;
+                doc = skipDocs[skip];
+                offset = skipOffsets[skip];
+                index = (skip + 1) * SKIP_INTERVAL;
+            }
+            while (next() < target) {
+                // Decode within the run
+            }
+            return doc;
+        }
+
+        private int readVInt() {
+            byte b = data[offset++];
+            int value = b & 0x7F;
+            for (int shift = 7; b < 0; shift += 7) {
+                b = data[offset++];
+                value |= (b & 0x7F) << shift;
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package fasttracklogistics.search;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A set of strings stored as a radix tree: chains of single-child nodes are collapsed into one edge
+ * labelled with the whole run of characters, so keys sharing a long prefix (like tracking numbers) share
+ * its storage and a lookup visits one node per branching point rather than one per character.
+ * Children are kept in arrays sorted by first character, which makes prefix enumeration come out in
+ * lexicographic order and lets it stop as soon as enough keys are found.
+ *
+ * Each key carries a display value (e.g. the original spelling of a case-folded key). Not thread-safe.
+ */
+final class RadixTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private static final class Node {
+        String label; // Characters on the edge from the parent
+        Node[] children = NO_CHILDREN; // Sorted by the first character of their labels
+        String value; // Non-null if a key ends here
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Node root = new Node("");
+    private int size;
+
+    /**
+     * Adds a key, or replaces its value if present.
+     *
+     * @return true if the key was new.
+     */
+    boolean put(String key, String value) {
+        Node node = root;
+        int i = 0;
+        while (true) {
+            if (i == key.length()) {
+                boolean added = node.value == null;
+                node.value = value;
+                if (added) size++;
+                return added;
+            }
+            int childIndex = childIndex(node, key.charAt(i));
+            if (childIndex < 0) {
+                Node leaf = new Node(key.substring(i));
+                leaf.value = value;
+                insertChild(node, -childIndex - 1, leaf);
+                size++;
+                return true;
+            }
+            Node child = node.children[childIndex];
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // The key leaves the edge part-way: split it at the point where they differ
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[]{child};
+                node.children[childIndex] = split;
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+    }
+
+    /**
+     * Removes a key, merging nodes that are left with a single child so the tree stays compact.
+     *
+     * @return true if the key was present.
+     */
+    boolean remove(String key) {
+        Node parent = null;
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            int childIndex = childIndex(node, key.charAt(i));
+            if (childIndex < 0) return false;
+            Node child = node.children[childIndex];
+            if (!key.startsWith(child.label, i)) return false;
+            parent = node;
+            node = child;
+            i += child.label.length();
+        }
+        if (node.value == null) return false;
+        node.value = null;
+        size--;
+
+        if (node == root) return true;
+        if (node.children.length == 0) {
+            removeChild(parent, node);
+            if (parent != root && parent.value == null && parent.children.length == 1) {
+                mergeWithOnlyChild(parent);
+            }
+        } else if (node.children.length == 1) {
+            mergeWithOnlyChild(node);
+        }
+        return true;
+    }
+
+    /**
+     * Adds to the list the values of keys starting with the prefix, in key order, until it holds the limit.
+     */
+    void collect(String prefix, int limit, List<String> values) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int childIndex = childIndex(node, prefix.charAt(i));
+            if (childIndex < 0) return;
+            Node child = node.children[childIndex];
+            int common = commonPrefixLength(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                node = child; // The prefix ends on or inside this edge: every key below matches
+                break;
+            }
+            if (common < child.label.length()) return;
+            node = child;
+            i += common;
+        }
+        collectSubtree(node, limit, values);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static void collectSubtree(Node node, int limit, List<String> values) {
+        if (values.size() >= limit) return;
+        if (node.value != null) values.add(node.value);
+        for (Node child : node.children) {
+            if (values.size() >= limit) return;
+            collectSubtree(child, limit, values);
+        }
+    }
+
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midFirst = node.children[mid].label.charAt(0);
+            if (midFirst < first) low = mid + 1;
+            else if (midFirst > first) high = mid - 1;
+            else return mid;
+        }
+        return -(low + 1);
+    }
+
+    private static void insertChild(Node node, int index, Node child) {
+        Node[] children = Arrays.copyOf(node.children, node.children.length + 1);
+        System.arraycopy(children, index, children, index + 1, node.children.length - index);
+        children[index] = child;
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, Node child) {
+        int index = childIndex(node, child.label.charAt(0));
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        node.children = children.length == 0 ? NO_CHILDREN : children;
+    }
+
+    private static void mergeWithOnlyChild(Node node) {
+        Node child = node.children[0];
+        node.label = node.label + child.label;
+        node.children = child.children;
+        node.value = child.value;
+    }
+
+    private static int commonPrefixLength(String label, String key, int keyOffset) {
+        int max = Math.min(label.length(), key.length() - keyOffset);
+        int length = 0;
+        while (length < max && label.charAt(length) == key.charAt(keyOffset + length)) length++;
+        return length;
+    }
+}
@@ -0,0 +1,240 @@
+package fasttracklogistics.search;
+
+import fasttracklogistics.dao.DeliveryDAO;
+import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.event.DeliveryAssigned;
+import fasttracklogistics.event.DeliveryCreated;
+import fasttracklogistics.event.DeliveryDeleted;
+import fasttracklogistics.event.DeliveryUpdated;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.ShipmentCreated;
+import fasttracklogistics.event.ShipmentDeleted;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.model.Delivery;
+import fasttracklogistics.model.Shipment;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Free-text search over shipments: names, addresses, contacts, contents and special instructions,
+ * plus the route details and notes of the shipment's deliveries. Each shipment is one document in an
+ * {@link InvertedIndex}; a query returns the shipment ids containing all of its words, best match first.
+ * Tracking numbers and names weigh more than the rest, so a hit there ranks above a passing mention in a note.
+ *
+ * The index is built in the background at startup by walking the shipments table in primary-key batches,
+ * then kept current from the {@link DomainEventBus}: every shipment or delivery event re-indexes the shipment
+ * concerned. This covers writes made here and, through the delta sync, on other workstations.
+ * All index writes run on one indexer thread, in event order.
+ */
+public class ShipmentSearchIndex {
+    private static final Logger LOGGER = Logger.getLogger(ShipmentSearchIndex.class.getName());
+    private static final int BUILD_BATCH_SIZE = 1_000;
+
+    // Term weights per field
+    private static final int TRACKING_NUMBER_WEIGHT = 4;
+    private static final int NAME_WEIGHT = 3;
+    private static final int ADDRESS_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+
+    private final ShipmentDAO shipmentDAO;
+    private final DeliveryDAO deliveryDAO;
+    private final InvertedIndex index = new InvertedIndex();
+    private final Map<Integer, Integer> shipmentIdByDeliveryId = new ConcurrentHashMap<>(); // To re-index after a delivery is deleted
+    private volatile boolean ready;
+
+    private final ScheduledExecutorService indexer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "shipment-search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // --- Metrics ---
+    private final AtomicLong indexedCount = new AtomicLong();
+    private final AtomicLong failedIndexCount = new AtomicLong();
+    private final AtomicLong queryCount = new AtomicLong();
+    private final AtomicLong totalQueryNanos = new AtomicLong();
+    private final AtomicLong maxQueryNanos = new AtomicLong();
+    private volatile long buildMillis;
+
+    public ShipmentSearchIndex(ShipmentDAO shipmentDAO, DeliveryDAO deliveryDAO, DomainEventBus eventBus) {
+        this.shipmentDAO = shipmentDAO;
+        this.deliveryDAO = deliveryDAO;
+
+        eventBus.subscribe(ShipmentCreated.class, e -> indexer.execute(() -> reindexShipment(e.getShipment().getShipmentId())));
+        eventBus.subscribe(ShipmentUpdated.class, e -> indexer.execute(() -> reindexShipment(e.getShipment().getShipmentId())));
+        eventBus.subscribe(ShipmentDeleted.class, e -> indexer.execute(() -> removeShipment(e.getShipmentId())));
+        eventBus.subscribe(DeliveryCreated.class, e -> indexer.execute(() -> onDeliveryChanged(e.getDelivery())));
+        eventBus.subscribe(DeliveryUpdated.class, e -> indexer.execute(() -> onDeliveryChanged(e.getDelivery())));
+        eventBus.subscribe(DeliveryAssigned.class, e -> indexer.execute(() -> onDeliveryChanged(e.getDelivery())));
+        eventBus.subscribe(DeliveryDeleted.class, e -> indexer.execute(() -> {
+            Integer shipmentId = shipmentIdByDeliveryId.remove(e.getDeliveryId());
+            if (shipmentId != null) reindexShipment(shipmentId);
+        }));
+    }
+
+    /**
+     * Builds the index in the background. Until {@link #isReady()}, searches see only the shipments indexed so far.
+     */
+    public void start() {
+        indexer.execute(this::build);
+    }
+
+    public void shutdown() {
+        indexer.shutdownNow();
+        try {
+            indexer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.log(Level.INFO, "Shipment search index stopped: " + getMetricsSummary());
+    }
+
+    /** @return true once the initial build has finished. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finds the shipments containing every word of the query.
+     *
+     * @param query Free text; tokenized like the indexed fields.
+     * @param limit Maximum number of results.
+     * @return Matching shipment ids, best match first; empty if nothing matches.
+     */
+    public List<Integer> search(String query, int limit) {
+        List<String> terms = new ArrayList<>();
+        Tokenizer.tokenize(query, terms::add);
+        if (terms.isEmpty()) return Collections.emptyList();
+
+        long start = System.nanoTime();
+        List<InvertedIndex.Hit> hits = index.search(terms, limit);
+        long elapsed = System.nanoTime() - start;
+        queryCount.incrementAndGet();
+        totalQueryNanos.addAndGet(elapsed);
+        maxQueryNanos.accumulateAndGet(elapsed, Math::max);
+
+        List<Integer> shipmentIds = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) shipmentIds.add(hit.getId());
+        return shipmentIds;
+    }
+
+    /** Runs on the indexer thread: loads every delivery's text, then walks the shipments in batches. */
+    private void build() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<Integer, List<Delivery>> deliveriesByShipment = new HashMap<>();
+            for (Delivery delivery : deliveryDAO.getAllDeliveries()) {
+                deliveriesByShipment.computeIfAbsent(delivery.getShipmentId(), id -> new ArrayList<>()).add(delivery);
+                shipmentIdByDeliveryId.put(delivery.getDeliveryId(), delivery.getShipmentId());
+            }
+            int afterId = 0;
+            List<Shipment> batch;
+            do {
+                batch = shipmentDAO.getShipmentsAfter(afterId, BUILD_BATCH_SIZE);
+                for (Shipment shipment : batch) {
+                    index.put(shipment.getShipmentId(), termsOf(shipment,
+                            deliveriesByShipment.getOrDefault(shipment.getShipmentId(), Collections.emptyList())));
+                    indexedCount.incrementAndGet();
+                    afterId = shipment.getShipmentId();
+                }
+            } while (batch.size() == BUILD_BATCH_SIZE && !Thread.currentThread().isInterrupted());
+            buildMillis = System.currentTimeMillis() - start;
+            ready = true;
+            LOGGER.log(Level.INFO, "Shipment search index built: " + getMetricsSummary());
+        } catch (SQLException e) {
+            failedIndexCount.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Could not build the shipment search index; retrying in 30 s", e);
+            index.clear();
+            indexer.schedule(this::build, 30, TimeUnit.SECONDS);
+        }
+    }
+
+    private void onDeliveryChanged(Delivery delivery) {
+        Integer previousShipmentId = shipmentIdByDeliveryId.put(delivery.getDeliveryId(), delivery.getShipmentId());
+        if (previousShipmentId != null && previousShipmentId != delivery.getShipmentId()) {
+            reindexShipment(previousShipmentId); // Moved to another shipment: drop its text from the old one
+        }
+        reindexShipment(delivery.getShipmentId());
+    }
+
+    private void reindexShipment(int shipmentId) {
+        try {
+            Shipment shipment = shipmentDAO.getShipmentById(shipmentId);
+            if (shipment == null) {
+                removeShipment(shipmentId);
+                return;
+            }
+            index.put(shipmentId, termsOf(shipment, deliveryDAO.getDeliveriesByShipmentId(shipmentId)));
+            indexedCount.incrementAndGet();
+        } catch (SQLException e) {
+            failedIndexCount.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Could not re-index shipment " + shipmentId + "; it is searchable again after its next change", e);
+        }
+    }
+
+    private void removeShipment(int shipmentId) {
+        index.remove(shipmentId);
+        shipmentIdByDeliveryId.values().removeIf(id -> id == shipmentId); // Its deliveries were cascaded
+    }
+
+    /** Builds the weighted term frequencies of one shipment document. */
+    static Map<String, Integer> termsOf(Shipment shipment, List<Delivery> deliveries) {
+        Map<String, Integer> terms = new HashMap<>();
+        addField(terms, shipment.getTrackingNumber(), TRACKING_NUMBER_WEIGHT);
+        addField(terms, shipment.getSenderName(), NAME_WEIGHT);
+        addField(terms, shipment.getReceiverName(), NAME_WEIGHT);
+        addField(terms, shipment.getSenderAddress(), ADDRESS_WEIGHT);
+        addField(terms, shipment.getReceiverAddress(), ADDRESS_WEIGHT);
+        addField(terms, shipment.getCurrentLocation(), ADDRESS_WEIGHT);
+        addField(terms, shipment.getSenderContact(), TEXT_WEIGHT);
+        addField(terms, shipment.getReceiverContact(), TEXT_WEIGHT);
+        addField(terms, shipment.getPackageContents(), ADDRESS_WEIGHT);
+        addField(terms, shipment.getSpecialInstructions(), TEXT_WEIGHT);
+        for (Delivery delivery : deliveries) {
+            addField(terms, delivery.getRouteDetails(), TEXT_WEIGHT);
+            addField(terms, delivery.getDeliveryNotes(), TEXT_WEIGHT);
+        }
+        return terms;
+    }
+
+    private static void addField(Map<String, Integer> terms, String text, int weight) {
+        Tokenizer.tokenize(text, term -> terms.merge(term, weight, Integer::sum));
+    }
+
+    // --- Metrics ---
+    public int getDocumentCount() { return index.getDocumentCount(); }
+    public long getIndexedCount() { return indexedCount.get(); }
+    public long getFailedIndexCount() { return failedIndexCount.get(); }
+    public long getQueryCount() { return queryCount.get(); }
+    public long getBuildMillis() { return buildMillis; }
+
+    /** @return Mean query time in microseconds, or 0 before the first query. */
+    public long getAverageQueryMicros() {
+        long queries = queryCount.get();
+        return queries == 0 ? 0 : totalQueryNanos.get() / queries / 1_000;
+    }
+
+    public String getMetricsSummary() {
+        return "documents=" + index.getDocumentCount()
+                + ", terms=" + index.getTermCount()
+                + ", postingBytes=" + index.getPostingBytes()
+                + ", buildMillis=" + buildMillis
+                + ", indexed=" + indexedCount.get()
+                + ", failed=" + failedIndexCount.get()
+                + ", queries=" + queryCount.get()
+                + ", avgQueryMicros=" + getAverageQueryMicros()
+                + ", maxQueryMicros=" + maxQueryNanos.get() / 1_000;
+    }
+}
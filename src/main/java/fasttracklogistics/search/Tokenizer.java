@@ -0,0 +1,55 @@
+package fasttracklogistics.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Splits free text into index terms.
+ * Text is Unicode-normalized (NFKD) with accents dropped and lower-cased, then split on every
+ * character that is not a letter or digit, so "Zoë's 12-B Rd." yields {@code zoe}, {@code 12} and {@code rd}
+ * (single letters are dropped). Queries go through the same steps as documents.
+ */
+public final class Tokenizer {
+    /** Longer tokens are cut to this length; they are almost always ids or noise. */
+    static final int MAX_TOKEN_LENGTH = 40;
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Passes each term of the text to the consumer, in order and with repeats.
+     * Single letters are skipped; single digits are kept (house and unit numbers).
+     */
+    public static void tokenize(String text, Consumer<String> terms) {
+        if (text == null || text.isEmpty()) return;
+        String normalized = normalize(text);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (token.length() < MAX_TOKEN_LENGTH) token.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                emit(token, terms);
+            }
+        }
+        emit(token, terms);
+    }
+
+    private static String normalize(String text) {
+        boolean ascii = true;
+        for (int i = 0; i < text.length() && ascii; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+        // Decomposing puts accents into separate combining marks, which the caller then skips
+        String decomposed = ascii ? text : Normalizer.normalize(text, Normalizer.Form.NFKD);
+        return decomposed.toLowerCase(Locale.ROOT);
+    }
+
+    private static void emit(StringBuilder token, Consumer<String> terms) {
+        if (token.length() > 1 || (token.length() == 1 && Character.isDigit(token.charAt(0)))) {
+            terms.accept(token.toString());
+        }
+        token.setLength(0);
+    }
+}
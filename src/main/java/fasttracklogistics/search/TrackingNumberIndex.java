@@ -0,0 +1,175 @@
+package fasttracklogistics.search;
+
+import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.ShipmentCreated;
+import fasttracklogistics.event.ShipmentDeleted;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.model.Shipment;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Type-ahead lookup of tracking numbers by prefix, answered from memory.
+ * All tracking numbers are loaded once at startup (a scan of the tracking_number index, not the rows)
+ * into a {@link RadixTrie}, which then follows shipment creates, updates and deletes from the
+ * {@link DomainEventBus}. Matching is case-insensitive; suggestions keep the stored spelling.
+ * A suggestion lookup costs microseconds, so it can run on the event dispatch thread per keystroke.
+ */
+public class TrackingNumberIndex {
+    private static final Logger LOGGER = Logger.getLogger(TrackingNumberIndex.class.getName());
+
+    private final ShipmentDAO shipmentDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RadixTrie trie = new RadixTrie();
+    private final Map<Integer, String> trackingNumberById = new HashMap<>(); // To remove the old number on update/delete
+    private volatile boolean ready;
+
+    // Loading and events are applied on this thread, in order
+    private final ScheduledExecutorService indexer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "tracking-number-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // --- Metrics ---
+    private final AtomicLong lookupCount = new AtomicLong();
+    private final AtomicLong totalLookupNanos = new AtomicLong();
+    private volatile long loadMillis;
+
+    public TrackingNumberIndex(ShipmentDAO shipmentDAO, DomainEventBus eventBus) {
+        this.shipmentDAO = shipmentDAO;
+        eventBus.subscribe(ShipmentCreated.class, e -> indexer.execute(() -> put(e.getShipment())));
+        eventBus.subscribe(ShipmentUpdated.class, e -> indexer.execute(() -> put(e.getShipment())));
+        eventBus.subscribe(ShipmentDeleted.class, e -> indexer.execute(() -> remove(e.getShipmentId())));
+    }
+
+    /**
+     * Loads the tracking numbers in the background.
+     */
+    public void start() {
+        indexer.execute(this::load);
+    }
+
+    public void shutdown() {
+        indexer.shutdownNow();
+        LOGGER.log(Level.INFO, "Tracking number index stopped: " + getMetricsSummary());
+    }
+
+    /** @return true once the startup load has finished. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @param prefix The characters typed so far (case-insensitive, surrounding blanks ignored).
+     * @param limit Maximum number of suggestions.
+     * @return Up to limit tracking numbers starting with the prefix, in alphabetical order; empty for a blank prefix.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) return Collections.emptyList();
+        long start = System.nanoTime();
+        List<String> suggestions = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            trie.collect(key, limit, suggestions);
+        } finally {
+            lock.readLock().unlock();
+        }
+        lookupCount.incrementAndGet();
+        totalLookupNanos.addAndGet(System.nanoTime() - start);
+        return suggestions;
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<Integer, String> trackingNumbers = shipmentDAO.getTrackingNumbers();
+            lock.writeLock().lock();
+            try {
+                for (Map.Entry<Integer, String> entry : trackingNumbers.entrySet()) {
+                    putLocked(entry.getKey(), entry.getValue());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loadMillis = System.currentTimeMillis() - start;
+            ready = true;
+            LOGGER.log(Level.INFO, "Tracking number index loaded: " + getMetricsSummary());
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not load tracking numbers for suggestions; retrying in 30 s", e);
+            indexer.schedule(this::load, 30, TimeUnit.SECONDS);
+        }
+    }
+
+    private void put(Shipment shipment) {
+        lock.writeLock().lock();
+        try {
+            putLocked(shipment.getShipmentId(), shipment.getTrackingNumber());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putLocked(int shipmentId, String trackingNumber) {
+        if (trackingNumber == null || trackingNumber.isBlank()) return;
+        String previous = trackingNumberById.put(shipmentId, trackingNumber);
+        if (previous != null && !previous.equals(trackingNumber)) {
+            trie.remove(normalize(previous));
+        }
+        trie.put(normalize(trackingNumber), trackingNumber);
+    }
+
+    private void remove(int shipmentId) {
+        lock.writeLock().lock();
+        try {
+            String previous = trackingNumberById.remove(shipmentId);
+            if (previous != null) trie.remove(normalize(previous));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String normalize(String trackingNumber) {
+        return trackingNumber == null ? "" : trackingNumber.trim().toUpperCase(Locale.ROOT);
+    }
+
+    // --- Metrics ---
+    public int getSize() {
+        lock.readLock().lock();
+        try {
+            return trie.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getLookupCount() { return lookupCount.get(); }
+
+    /** @return Mean suggestion lookup time in microseconds, or 0 before the first lookup. */
+    public long getAverageLookupMicros() {
+        long lookups = lookupCount.get();
+        return lookups == 0 ? 0 : totalLookupNanos.get() / lookups / 1_000;
+    }
+
+    public String getMetricsSummary() {
+        return "trackingNumbers=" + getSize()
+                + ", loadMillis=" + loadMillis
+                + ", lookups=" + lookupCount.get()
+                + ", avgLookupMicros=" + getAverageLookupMicros();
+    }
+}
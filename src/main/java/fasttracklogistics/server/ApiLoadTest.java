@@ -0,0 +1,116 @@
+package fasttracklogistics.server;
+
+import fasttracklogistics.util.DurationHistogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load check for a running API server: each of {@code concurrency} virtual-thread clients looks up the
+ * given tracking numbers (comma-separated, used round-robin) back to back, then throughput, status codes
+ * and latency percentiles are printed, followed by the server's own /api/metrics. With the {@code tracking}
+ * endpoint each client polls like a tracking page: it sends back the last ETag it saw, so unchanged views get 304.
+ * Start the server first with {@code java fasttracklogistics.FastTrackLogisticsApp --server [port]}; the same
+ * {@code -Dfasttrack.server.apiKey} (or FASTTRACK_API_KEY) is sent with every request.
+ *
+ * Usage: {@code java fasttracklogistics.server.ApiLoadTest [baseUrl] [trackingNumbers] [requests] [concurrency] [track|tracking]}
+ */
+public class ApiLoadTest {
+
+    /** What one client saw. */
+    private record ClientResult(DurationHistogram latencyMillis, Map<Integer, Long> statusCounts) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://127.0.0.1:8080";
+        String[] trackingNumbers = (args.length > 1 ? args[1] : "TRK001").split(",");
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        String endpoint = args.length > 4 ? args[4] : "track";
+        String apiKey = System.getProperty("fasttrack.server.apiKey", System.getenv("FASTTRACK_API_KEY"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        List<URI> uris = new ArrayList<>();
+        for (String trackingNumber : trackingNumbers) {
+            uris.add(URI.create(baseUrl + "/api/" + endpoint + "/" + URLEncoder.encode(trackingNumber.trim(), StandardCharsets.UTF_8)));
+        }
+
+        // Warm up connections and the server's JIT before measuring
+        boolean conditional = endpoint.equals("tracking");
+        run(client, uris, apiKey, Math.min(requests / 10, 2_000), concurrency, conditional);
+        long start = System.nanoTime();
+        ClientResult total = run(client, uris, apiKey, requests, concurrency, conditional);
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+
+        DurationHistogram latency = total.latencyMillis();
+        System.out.printf("GET /api/%s: %d requests in %.2f s (%.0f/s) with %d clients, statuses=%s%n",
+                endpoint, requests, seconds, requests / seconds, concurrency, total.statusCounts());
+        System.out.printf("  latency ms: mean=%.2f p50=%d p99=%d max=%d%n",
+                latency.getMean(), latency.getValueAtPercentile(50), latency.getValueAtPercentile(99), latency.getMaxValue());
+
+        HttpRequest.Builder metricsRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/metrics"));
+        if (apiKey != null) metricsRequest.header("Authorization", "Bearer " + apiKey);
+        HttpResponse<String> metrics = client.send(metricsRequest.build(),
+                HttpResponse.BodyHandlers.ofString());
+        System.out.println("  server metrics: " + metrics.body());
+    }
+
+    private static ClientResult run(HttpClient client, List<URI> uris, String apiKey, int requests, int concurrency,
+                                    boolean conditional) throws Exception {
+        List<Future<ClientResult>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                int share = requests / concurrency + (c < requests % concurrency ? 1 : 0);
+                int offset = c;
+                clients.add(executor.submit(() -> {
+                    DurationHistogram latency = new DurationHistogram();
+                    Map<Integer, Long> statuses = new TreeMap<>();
+                    String[] etags = new String[uris.size()]; // Last ETag seen per URI, as a browser cache keeps it
+                    for (int i = 0; i < share; i++) {
+                        int target = (offset + i) % uris.size();
+                        HttpRequest.Builder request = HttpRequest.newBuilder(uris.get(target)).timeout(Duration.ofSeconds(10));
+                        if (apiKey != null) request.header("Authorization", "Bearer " + apiKey);
+                        if (conditional && etags[target] != null) request.header("If-None-Match", etags[target]);
+                        long sent = System.nanoTime();
+                        int status;
+                        try {
+                            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                            status = response.statusCode();
+                            response.headers().firstValue("ETag").ifPresent(etag -> etags[target] = etag);
+                        } catch (IOException e) {
+                            status = -1; // Connection failure
+                        }
+                        latency.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sent)); // Overloaded runs exceed the range in micros
+                        statuses.merge(status, 1L, Long::sum);
+                    }
+                    return new ClientResult(latency, statuses);
+                }));
+            }
+        }
+        DurationHistogram latency = new DurationHistogram();
+        Map<Integer, Long> statuses = new TreeMap<>();
+        for (Future<ClientResult> result : clients) {
+            latency.merge(result.get().latencyMillis());
+            result.get().statusCounts().forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        }
+        return new ClientResult(latency, statuses);
+    }
+}
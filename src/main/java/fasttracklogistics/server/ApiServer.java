@@ -0,0 +1,559 @@
+package fasttracklogistics.server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import fasttracklogistics.dao.DeliveryDAO;
+import fasttracklogistics.dao.NotificationDAO;
+import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.event.DeliveryAssigned;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.model.Delivery;
+import fasttracklogistics.model.Notification;
+import fasttracklogistics.model.NotificationCounts;
+import fasttracklogistics.model.Shipment;
+import fasttracklogistics.service.DeliveryService;
+import fasttracklogistics.service.ServiceException;
+import fasttracklogistics.service.ShipmentService;
+import fasttracklogistics.util.DurationHistogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless HTTP/JSON front end over the same DAOs and services as the desktop client, for the customer
+ * portal and handheld devices. Built on the JDK's {@link HttpServer}; every request runs on its own virtual
+ * thread, so a request blocked on MySQL costs no platform thread.
+ *
+ * <pre>
+ * GET    /api/track/{trackingNumber}       shipment and its deliveries
+ * GET    /api/tracking/{trackingNumber}    public status only; cacheable, with ETag and If-None-Match
+ * GET    /api/shipments?after=&amp;limit=      page of shipments by id (keyset)
+ * POST   /api/shipments                    create
+ * GET    /api/shipments/{id}
+ * PUT    /api/shipments/{id}               replace all fields
+ * DELETE /api/shipments/{id}
+ * GET    /api/deliveries?shipmentId=
+ * POST   /api/deliveries                   schedule
+ * POST   /api/assignments                  {"shipmentId":1,"personnelId":2}
+ * GET    /api/notifications?recipientType=&amp;recipientId=&amp;limit=
+ * POST   /api/notifications                queue one notification
+ * GET    /api/metrics                      per-route counts and latency percentiles
+ * </pre>
+ *
+ * Every route except /api/tracking writes or reveals customer data, so it needs the server's API key, sent as
+ * {@code Authorization: Bearer <key>} or {@code X-Api-Key: <key>}; a missing or wrong key gets 401 before any
+ * database work. The server listens on the address it is given, loopback unless configured otherwise.
+ *
+ * Refusals map to status codes: invalid input 400, unknown ids 404, conflicts 409. There is no connection
+ * pool, so each request opens its own MySQL connection; to keep a burst of virtual threads from exhausting
+ * MySQL's max_connections, at most {@code maxDatabaseRequests} requests work at once and the rest wait up
+ * to {@link #PERMIT_WAIT_MILLIS} before getting 503 with Retry-After.
+ *
+ * /api/tracking is the customer portal's polling path. Its rendered views are cached in memory (see
+ * {@link TrackingViewCache}), so a poll whose If-None-Match is still current gets 304 without touching the
+ * database or taking a permit; clients and proxies may reuse a response for {@link #TRACKING_MAX_AGE_SECONDS}.
+ */
+public class ApiServer implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ApiServer.class.getName());
+    static final long PERMIT_WAIT_MILLIS = 2_000;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    static final int TRACKING_MAX_AGE_SECONDS = 5;
+    private static final long TRACKING_CACHE_MAX_AGE_MILLIS = 60_000; // Backstop should an invalidation event be missed
+    private static final int TRACKING_CACHE_MAX_ENTRIES = 200_000;
+
+    /** Status and body of a handled request: a value to write as JSON, already rendered bytes, or null for none. */
+    private record Reply(int status, Object body) {
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Reply handle(HttpExchange exchange, String[] path)
+                throws ServiceException, SQLException, IOException, Json.ParseException, InterruptedException;
+    }
+
+    /** Counters and a latency histogram (milliseconds, so slow requests up to ~17 minutes are not clamped) for one method and route. */
+    private static final class RouteMetrics {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong errors = new AtomicLong(); // 5xx only; 4xx are the client's
+        private final DurationHistogram latencyMillis = new DurationHistogram(); // Guarded by this
+
+        synchronized void record(long millis) {
+            latencyMillis.record(millis);
+        }
+
+        synchronized Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("requests", requests.get());
+            json.put("errors", errors.get());
+            json.put("meanMillis", Math.round(latencyMillis.getMean()));
+            json.put("p50Millis", latencyMillis.getValueAtPercentile(50));
+            json.put("p99Millis", latencyMillis.getValueAtPercentile(99));
+            json.put("maxMillis", latencyMillis.getMaxValue());
+            return json;
+        }
+    }
+
+    private final ShipmentDAO shipmentDAO;
+    private final DeliveryDAO deliveryDAO;
+    private final NotificationDAO notificationDAO;
+    private final ShipmentService shipmentService;
+    private final DeliveryService deliveryService;
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore databasePermits;
+    private final TrackingViewCache trackingCache;
+    private final byte[] apiKey;
+
+    // --- Metrics ---
+    private final Map<String, RouteMetrics> routeMetrics = new ConcurrentHashMap<>();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong overloadRejections = new AtomicLong();
+    private final AtomicLong notModifiedCount = new AtomicLong();
+    private final AtomicLong unauthorizedCount = new AtomicLong();
+
+    /**
+     * @param bindAddress Interface to listen on, e.g. the loopback address.
+     * @param port Port to listen on (0 picks a free port; see {@link #getPort()}).
+     * @param apiKey Key every route but /api/tracking requires; must not be blank.
+     * @param maxDatabaseRequests Requests allowed to use the database at the same time.
+     * @param eventBus Where committed shipment changes arrive, to invalidate cached tracking views.
+     * @throws IOException If the port cannot be bound.
+     */
+    public ApiServer(InetAddress bindAddress, int port, String apiKey, int maxDatabaseRequests, ShipmentDAO shipmentDAO,
+                     DeliveryDAO deliveryDAO, NotificationDAO notificationDAO, ShipmentService shipmentService,
+                     DeliveryService deliveryService, DomainEventBus eventBus) throws IOException {
+        if (apiKey == null || apiKey.isBlank()) throw new IllegalArgumentException("An API key is required");
+        this.apiKey = apiKey.getBytes(StandardCharsets.UTF_8);
+        this.shipmentDAO = shipmentDAO;
+        this.deliveryDAO = deliveryDAO;
+        this.notificationDAO = notificationDAO;
+        this.shipmentService = shipmentService;
+        this.deliveryService = deliveryService;
+        this.databasePermits = new Semaphore(maxDatabaseRequests);
+        this.trackingCache = new TrackingViewCache(shipmentDAO, eventBus, TRACKING_CACHE_MAX_AGE_MILLIS, TRACKING_CACHE_MAX_ENTRIES);
+        this.server = HttpServer.create(new InetSocketAddress(bindAddress, port), 1_000);
+        route("/api/track", this::track, true, true);
+        route("/api/tracking", this::trackingStatus, false, false); // Public; takes a permit only on a cache miss
+        route("/api/shipments", this::shipments, true, true);
+        route("/api/deliveries", this::deliveries, true, true);
+        route("/api/assignments", this::assignments, true, true);
+        route("/api/notifications", this::notifications, true, true);
+        route("/api/metrics", (exchange, path) -> new Reply(200, metricsJson()), false, true);
+        this.server.setExecutor(handlers);
+    }
+
+    public void start() {
+        server.start();
+        LOGGER.log(Level.INFO, "API server listening on " + server.getAddress().getAddress().getHostAddress() + ":" + getPort());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** Stops accepting requests, gives running ones up to a second to finish, then interrupts them. */
+    @Override
+    public void close() {
+        server.stop(1);
+        handlers.shutdownNow();
+        LOGGER.log(Level.INFO, "API server stopped: " + getMetricsSummary());
+    }
+
+    // --- Routes ---
+
+    private Reply track(HttpExchange exchange, String[] path) throws SQLException {
+        if (path.length != 3) return notFound();
+        if (!isGet(exchange)) return methodNotAllowed();
+        Shipment shipment = shipmentDAO.getShipmentByTrackingNumber(path[2]);
+        if (shipment == null) return error(404, "No shipment with tracking number " + path[2]);
+        Map<String, Object> json = ModelJson.shipment(shipment);
+        json.put("deliveries", deliveriesJson(deliveryDAO.getDeliveriesByShipmentId(shipment.getShipmentId())));
+        return new Reply(200, json);
+    }
+
+    private Reply trackingStatus(HttpExchange exchange, String[] path) throws SQLException, InterruptedException {
+        if (path.length != 3) return notFound();
+        if (!isGet(exchange)) return methodNotAllowed();
+        TrackingViewCache.Entry view = trackingCache.getCached(path[2]);
+        if (view == null) {
+            acquireDatabasePermit();
+            try {
+                view = trackingCache.load(path[2]);
+            } finally {
+                databasePermits.release();
+            }
+            if (view == null) return error(404, "No shipment with tracking number " + path[2]);
+        }
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("ETag", view.etag());
+        headers.set("Cache-Control", "public, max-age=" + TRACKING_MAX_AGE_SECONDS);
+        if (matchesAny(exchange.getRequestHeaders().getFirst("If-None-Match"), view.etag())) {
+            notModifiedCount.incrementAndGet();
+            return new Reply(304, null);
+        }
+        return new Reply(200, view.body());
+    }
+
+    /** If-None-Match uses the weak comparison: a W/ prefix is ignored, and * matches any current representation. */
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private Reply shipments(HttpExchange exchange, String[] path) throws ServiceException, SQLException, IOException, Json.ParseException {
+        String method = exchange.getRequestMethod();
+        if (path.length == 2) {
+            if (method.equals("GET")) {
+                Map<String, String> query = query(exchange);
+                List<Shipment> page = shipmentDAO.getShipmentsAfter(intParam(query, "after", 0), pageSize(query));
+                List<Object> items = new ArrayList<>(page.size());
+                for (Shipment s : page) items.add(ModelJson.shipment(s));
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("shipments", items);
+                json.put("nextAfter", page.isEmpty() ? null : page.get(page.size() - 1).getShipmentId());
+                return new Reply(200, json);
+            }
+            if (method.equals("POST")) {
+                Shipment created = shipmentService.createShipment(ModelJson.toShipment(body(exchange)));
+                exchange.getResponseHeaders().set("Location", "/api/shipments/" + created.getShipmentId());
+                return new Reply(201, ModelJson.shipment(created));
+            }
+            return methodNotAllowed();
+        }
+        if (path.length != 3) return notFound();
+        int shipmentId = pathId(path[2]);
+        switch (method) {
+            case "GET" -> {
+                Shipment shipment = shipmentDAO.getShipmentById(shipmentId);
+                return shipment != null ? new Reply(200, ModelJson.shipment(shipment)) : error(404, "Shipment " + shipmentId + " does not exist.");
+            }
+            case "PUT" -> {
+                Shipment shipment = ModelJson.toShipment(body(exchange));
+                shipment.setShipmentId(shipmentId);
+                return new Reply(200, ModelJson.shipment(shipmentService.updateShipment(shipment)));
+            }
+            case "DELETE" -> {
+                if (shipmentDAO.getShipmentById(shipmentId) == null) return error(404, "Shipment " + shipmentId + " does not exist.");
+                shipmentService.deleteShipment(shipmentId);
+                return new Reply(204, null);
+            }
+            default -> {
+                return methodNotAllowed();
+            }
+        }
+    }
+
+    private Reply deliveries(HttpExchange exchange, String[] path) throws ServiceException, SQLException, IOException, Json.ParseException {
+        if (path.length != 2) return notFound();
+        if (isGet(exchange)) {
+            int shipmentId = intParam(query(exchange), "shipmentId", 0);
+            if (shipmentId == 0) return error(400, "shipmentId is required");
+            return new Reply(200, Map.of("deliveries", deliveriesJson(deliveryDAO.getDeliveriesByShipmentId(shipmentId))));
+        }
+        if (!exchange.getRequestMethod().equals("POST")) return methodNotAllowed();
+        Delivery delivery = deliveryService.scheduleDelivery(ModelJson.toDelivery(body(exchange)));
+        return new Reply(201, ModelJson.delivery(delivery));
+    }
+
+    private Reply assignments(HttpExchange exchange, String[] path) throws ServiceException, SQLException, IOException, Json.ParseException {
+        if (path.length != 2) return notFound();
+        if (!exchange.getRequestMethod().equals("POST")) return methodNotAllowed();
+        Map<String, Object> request = body(exchange);
+        DeliveryAssigned assignment = deliveryService.assignDriver(
+                ModelJson.requiredInt(request, "shipmentId"), ModelJson.requiredInt(request, "personnelId"));
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("delivery", ModelJson.delivery(assignment.getDelivery()));
+        json.put("shipment", ModelJson.shipment(assignment.getShipment()));
+        json.put("personnel", ModelJson.personnel(assignment.getPersonnel()));
+        return new Reply(201, json);
+    }
+
+    private Reply notifications(HttpExchange exchange, String[] path) throws ServiceException, SQLException, IOException, Json.ParseException {
+        if (path.length != 2) return notFound();
+        if (isGet(exchange)) {
+            Map<String, String> query = query(exchange);
+            String recipientType = query.getOrDefault("recipientType", "Customer");
+            if (!recipientType.equals("Customer") && !recipientType.equals("Personnel")) {
+                return error(400, "recipientType must be Customer or Personnel");
+            }
+            int recipientId = intParam(query, "recipientId", 0);
+            List<Object> items = new ArrayList<>();
+            for (Notification n : notificationDAO.getNotificationsPage(recipientType, recipientId, null, 0, pageSize(query))) {
+                items.add(ModelJson.notification(n));
+            }
+            NotificationCounts counts = notificationDAO.getNotificationCounts(recipientType, recipientId);
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("notifications", items);
+            json.put("unread", counts.getUnreadCount());
+            json.put("total", counts.getTotalCount());
+            return new Reply(200, json);
+        }
+        if (!exchange.getRequestMethod().equals("POST")) return methodNotAllowed();
+        Notification notification = ModelJson.toNotification(body(exchange));
+        notificationDAO.addNotifications(List.of(notification)); // Outbox row; the delivery workers send it
+        return new Reply(201, ModelJson.notification(notification));
+    }
+
+    // --- Plumbing ---
+
+    private void route(String context, Handler handler, boolean usesDatabase, boolean requiresKey) {
+        server.createContext(context, exchange -> serve(exchange, context, handler, usesDatabase, requiresKey));
+    }
+
+    private void serve(HttpExchange exchange, String context, Handler handler, boolean usesDatabase, boolean requiresKey)
+            throws IOException {
+        long start = System.nanoTime();
+        RouteMetrics metrics = routeMetrics.computeIfAbsent(exchange.getRequestMethod() + " " + context, key -> new RouteMetrics());
+        metrics.requests.incrementAndGet();
+        inFlight.incrementAndGet();
+        Reply reply;
+        try (exchange) {
+            boolean permitted = false;
+            try {
+                if (requiresKey && !hasApiKey(exchange)) throw new UnauthorizedException();
+                if (usesDatabase) {
+                    acquireDatabasePermit();
+                    permitted = true;
+                }
+                reply = handler.handle(exchange, splitPath(exchange.getRequestURI().getPath()));
+            } catch (UnauthorizedException e) {
+                unauthorizedCount.incrementAndGet();
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                reply = error(401, "Missing or invalid API key");
+            } catch (ServerBusyException e) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                reply = error(503, e.getMessage());
+            } catch (ServiceException e) {
+                reply = error(switch (e.getReason()) {
+                    case INVALID -> 400;
+                    case NOT_FOUND -> 404;
+                    case CONFLICT -> 409;
+                }, e.getMessage());
+            } catch (Json.ParseException e) {
+                reply = error(400, "Malformed JSON: " + e.getMessage());
+            } catch (RequestTooLargeException e) {
+                reply = error(413, e.getMessage());
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Database error serving " + exchange.getRequestMethod() + " " + exchange.getRequestURI(), e);
+                reply = error(500, "Database error");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reply = error(503, "Server shutting down");
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Unexpected error serving " + exchange.getRequestMethod() + " " + exchange.getRequestURI(), e);
+                reply = error(500, "Internal error");
+            } finally {
+                if (permitted) databasePermits.release();
+            }
+            if (reply.status() >= 500) metrics.errors.incrementAndGet();
+            respond(exchange, reply);
+        } finally {
+            inFlight.decrementAndGet();
+            metrics.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /** No database permit became free within {@link #PERMIT_WAIT_MILLIS}. */
+    private static final class ServerBusyException extends RuntimeException {
+        ServerBusyException() {
+            super("Server busy, try again shortly");
+        }
+    }
+
+    /** The request did not carry the server's API key. */
+    private static final class UnauthorizedException extends RuntimeException {
+        UnauthorizedException() {
+            super("Missing or invalid API key");
+        }
+    }
+
+    /** Compares in constant time, so the key cannot be guessed byte by byte from response times. */
+    private boolean hasApiKey(HttpExchange exchange) {
+        Headers headers = exchange.getRequestHeaders();
+        String presented = headers.getFirst("X-Api-Key");
+        String authorization = headers.getFirst("Authorization");
+        if (presented == null && authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            presented = authorization.substring(7).trim();
+        }
+        return presented != null && MessageDigest.isEqual(apiKey, presented.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void acquireDatabasePermit() throws InterruptedException {
+        if (!databasePermits.tryAcquire(PERMIT_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+            overloadRejections.incrementAndGet();
+            throw new ServerBusyException();
+        }
+    }
+
+    /** "/api/shipments/12" becomes ["api", "shipments", "12"], each segment URL-decoded. */
+    private static String[] splitPath(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        if (trimmed.endsWith("/")) trimmed = trimmed.substring(0, trimmed.length() - 1);
+        String[] segments = trimmed.split("/");
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = URLDecoder.decode(segments[i], StandardCharsets.UTF_8);
+        }
+        return segments;
+    }
+
+    private static void respond(HttpExchange exchange, Reply reply) throws IOException {
+        if (reply.body() == null) {
+            exchange.sendResponseHeaders(reply.status(), -1);
+            return;
+        }
+        byte[] bytes = reply.body() instanceof byte[] rendered ? rendered : Json.write(reply.body()).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(reply.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** A request body over {@link #MAX_BODY_BYTES}. */
+    private static final class RequestTooLargeException extends RuntimeException {
+        RequestTooLargeException() {
+            super("Request body exceeds " + MAX_BODY_BYTES + " bytes");
+        }
+    }
+
+    private static Map<String, Object> body(HttpExchange exchange) throws IOException, Json.ParseException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) throw new RequestTooLargeException();
+        return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) throws ServiceException {
+        String value = query.get(name);
+        if (value == null || value.isEmpty()) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ServiceException(ServiceException.Reason.INVALID, name + " must be an integer");
+        }
+    }
+
+    private static int pageSize(Map<String, String> query) throws ServiceException {
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, intParam(query, "limit", DEFAULT_PAGE_SIZE)));
+    }
+
+    private static int pathId(String segment) throws ServiceException {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new ServiceException(ServiceException.Reason.NOT_FOUND, "No such resource: " + segment);
+        }
+    }
+
+    private static List<Object> deliveriesJson(List<Delivery> deliveries) {
+        List<Object> items = new ArrayList<>(deliveries.size());
+        for (Delivery d : deliveries) items.add(ModelJson.delivery(d));
+        return items;
+    }
+
+    private static boolean isGet(HttpExchange exchange) {
+        return exchange.getRequestMethod().equals("GET");
+    }
+
+    private static Reply error(int status, String message) {
+        return new Reply(status, Map.of("error", message));
+    }
+
+    private static Reply notFound() {
+        return error(404, "No such resource");
+    }
+
+    private static Reply methodNotAllowed() {
+        return error(405, "Method not allowed");
+    }
+
+    // --- Metrics ---
+    public long getInFlight() { return inFlight.get(); }
+    public long getOverloadRejections() { return overloadRejections.get(); }
+    public long getNotModifiedCount() { return notModifiedCount.get(); }
+    public long getUnauthorizedCount() { return unauthorizedCount.get(); }
+
+    private Map<String, Object> metricsJson() {
+        Map<String, Object> routes = new TreeMap<>();
+        routeMetrics.forEach((route, metrics) -> routes.put(route, metrics.toJson()));
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("inFlight", inFlight.get());
+        json.put("overloadRejections", overloadRejections.get());
+        json.put("unauthorized", unauthorizedCount.get());
+        json.put("availableDatabasePermits", databasePermits.availablePermits());
+        json.put("trackingNotModified", notModifiedCount.get());
+        json.put("notificationsCoalescedAway", notificationDAO.getSuppressedCount());
+        json.put("notificationOutboxWrite", latencyJson(notificationDAO.getOutboxWriteLatency()));
+        json.put("notificationCounterUpsert", latencyJson(notificationDAO.getCounterUpsertLatency()));
+        json.put("trackingCache", trackingCache.metricsJson());
+        json.put("routes", routes);
+        return json;
+    }
+
+    private static Map<String, Object> latencyJson(NotificationDAO.WriteLatency latency) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("writes", latency.count());
+        json.put("p50Micros", latency.p50Micros());
+        json.put("p99Micros", latency.p99Micros());
+        json.put("maxMicros", latency.maxMicros());
+        return json;
+    }
+
+    public String getMetricsSummary() {
+        long requests = 0;
+        long errors = 0;
+        for (RouteMetrics metrics : routeMetrics.values()) {
+            requests += metrics.requests.get();
+            errors += metrics.errors.get();
+        }
+        return "requests=" + requests
+                + ", serverErrors=" + errors
+                + ", overloadRejections=" + overloadRejections.get()
+                + ", inFlight=" + inFlight.get();
+    }
+}
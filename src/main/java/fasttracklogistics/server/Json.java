@@ -0,0 +1,248 @@
+package fasttracklogistics.server;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the HTTP API, so the server needs no library beyond the JDK.
+ *
+ * {@link #write} turns maps, collections, strings, numbers, booleans, null and {@link LocalDateTime}
+ * (as "yyyy-MM-ddTHH:mm:ss") into JSON text. {@link #parse} reads any JSON value: objects become
+ * {@code LinkedHashMap<String, Object>}, arrays {@code ArrayList<Object>}, numbers {@code Long} or {@code Double}.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /** Malformed JSON input; the message says where. */
+    static final class ParseException extends Exception {
+        ParseException(String message) {
+            super(message);
+        }
+    }
+
+    static String write(Object value) {
+        StringBuilder out = new StringBuilder(256);
+        write(value, out);
+        return out.toString();
+    }
+
+    private static void write(Object value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String s) {
+            writeString(s, out);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof LocalDateTime time) {
+            writeString(time.toString(), out);
+        } else if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first) out.append(',');
+                first = false;
+                writeString(String.valueOf(entry.getKey()), out);
+                out.append(':');
+                write(entry.getValue(), out);
+            }
+            out.append('}');
+        } else if (value instanceof Collection<?> items) {
+            out.append('[');
+            boolean first = true;
+            for (Object item : items) {
+                if (!first) out.append(',');
+                first = false;
+                write(item, out);
+            }
+            out.append(']');
+        } else {
+            writeString(value.toString(), out);
+        }
+    }
+
+    private static void writeString(String s, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    static Object parse(String text) throws ParseException {
+        Parser parser = new Parser(text);
+        Object value = parser.value();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) throw parser.error("Unexpected text after the JSON value");
+        return value;
+    }
+
+    /** @return The parsed JSON object. */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseObject(String text) throws ParseException {
+        Object value = parse(text);
+        if (!(value instanceof Map)) throw new ParseException("Expected a JSON object");
+        return (Map<String, Object>) value;
+    }
+
+    /** Recursive-descent parser over one string. */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Object value() throws ParseException {
+            skipWhitespace();
+            if (pos >= text.length()) throw error("Unexpected end of input");
+            char c = text.charAt(pos);
+            return switch (c) {
+                case '{' -> object();
+                case '[' -> array();
+                case '"' -> string();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> number();
+            };
+        }
+
+        private Map<String, Object> object() throws ParseException {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++; // {
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') throw error("Expected a field name");
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                map.put(key, value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect('}');
+                    return map;
+                }
+            }
+        }
+
+        private List<Object> array() throws ParseException {
+            List<Object> list = new ArrayList<>();
+            pos++; // [
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                list.add(value());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(']');
+                    return list;
+                }
+            }
+        }
+
+        private String string() throws ParseException {
+            pos++; // Opening quote
+            StringBuilder out = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') return out.toString();
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) break;
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case '"', '\\', '/' -> out.append(escaped);
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'n' -> out.append('\n');
+                    case 'r' -> out.append('\r');
+                    case 't' -> out.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) throw error("Truncated \\u escape");
+                        try {
+                            out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid \\u escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw error("Invalid escape \\" + escaped);
+                }
+            }
+            throw error("Unterminated string");
+        }
+
+        private Object number() throws ParseException {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) pos++;
+            String token = text.substring(start, pos);
+            if (token.isEmpty()) throw error("Unexpected character '" + text.charAt(start) + "'");
+            try {
+                if (token.indexOf('.') < 0 && token.indexOf('e') < 0 && token.indexOf('E') < 0) {
+                    return Long.parseLong(token);
+                }
+                return Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number " + token);
+            }
+        }
+
+        private Object literal(String word, Object value) throws ParseException {
+            if (!text.startsWith(word, pos)) throw error("Unexpected character '" + text.charAt(pos) + "'");
+            pos += word.length();
+            return value;
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        private void expect(char c) throws ParseException {
+            if (peek() != c) throw error("Expected '" + c + "'");
+            pos++;
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        ParseException error(String message) {
+            return new ParseException(message + " at position " + pos);
+        }
+    }
+}
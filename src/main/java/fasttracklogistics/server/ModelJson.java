@@ -0,0 +1,179 @@
+package fasttracklogistics.server;
+
+import fasttracklogistics.model.Delivery;
+import fasttracklogistics.model.DeliveryPersonnel;
+import fasttracklogistics.model.Notification;
+import fasttracklogistics.model.Shipment;
+import fasttracklogistics.service.ServiceException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Converts models to and from the JSON objects of the HTTP API. Field names are the camelCase model
+ * properties; date-times are written as ISO-8601 and read as ISO-8601 or "yyyy-MM-dd HH:mm:ss" (the
+ * desktop client's format). Input errors are {@link ServiceException}s with reason INVALID.
+ */
+final class ModelJson {
+    private static final DateTimeFormatter DESKTOP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private ModelJson() {
+    }
+
+    static Map<String, Object> shipment(Shipment s) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("shipmentId", s.getShipmentId());
+        json.put("trackingNumber", s.getTrackingNumber());
+        json.put("senderName", s.getSenderName());
+        json.put("senderAddress", s.getSenderAddress());
+        json.put("senderContact", s.getSenderContact());
+        json.put("receiverName", s.getReceiverName());
+        json.put("receiverAddress", s.getReceiverAddress());
+        json.put("receiverContact", s.getReceiverContact());
+        json.put("packageContents", s.getPackageContents());
+        json.put("weight", s.getWeight());
+        json.put("dimensions", s.getDimensions());
+        json.put("deliveryStatus", s.getDeliveryStatus());
+        json.put("currentLocation", s.getCurrentLocation());
+        json.put("estimatedDeliveryTime", s.getEstimatedDeliveryTime());
+        json.put("actualDeliveryTime", s.getActualDeliveryTime());
+        json.put("specialInstructions", s.getSpecialInstructions());
+        json.put("creationDate", s.getCreationDate());
+        json.put("updatedAt", s.getUpdatedAt());
+        return json;
+    }
+
+    static Map<String, Object> delivery(Delivery d) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("deliveryId", d.getDeliveryId());
+        json.put("shipmentId", d.getShipmentId());
+        json.put("personnelId", d.getPersonnelId());
+        json.put("scheduledPickupTime", d.getScheduledPickupTime());
+        json.put("actualPickupTime", d.getActualPickupTime());
+        json.put("scheduledDeliveryTime", d.getScheduledDeliveryTime());
+        json.put("actualDeliveryTime", d.getActualDeliveryTime());
+        json.put("deliveryStatus", d.getDeliveryStatus());
+        json.put("routeDetails", d.getRouteDetails());
+        json.put("deliveryNotes", d.getDeliveryNotes());
+        return json;
+    }
+
+    /** The public part of a person: no contact details. */
+    static Map<String, Object> personnel(DeliveryPersonnel p) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("personnelId", p.getPersonnelId());
+        json.put("name", p.getName());
+        json.put("availabilityStatus", p.getAvailabilityStatus());
+        return json;
+    }
+
+    static Map<String, Object> notification(Notification n) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("notificationId", n.getNotificationId());
+        json.put("recipientType", n.getRecipientType());
+        json.put("recipientId", n.getRecipientId());
+        json.put("relatedShipmentId", n.getRelatedShipmentId());
+        json.put("relatedPersonnelId", n.getRelatedPersonnelId());
+        json.put("message", n.getMessage());
+        json.put("notificationType", n.getNotificationType());
+        json.put("timestamp", n.getTimestamp());
+        json.put("read", n.isRead());
+        json.put("contactMethod", n.getContactMethod());
+        return json;
+    }
+
+    /**
+     * Reads a shipment with the same required fields as the Manage Shipments form.
+     */
+    static Shipment toShipment(Map<String, Object> json) throws ServiceException {
+        Shipment s = new Shipment();
+        s.setTrackingNumber(requiredString(json, "trackingNumber"));
+        s.setSenderName(requiredString(json, "senderName"));
+        s.setSenderAddress(string(json, "senderAddress"));
+        s.setSenderContact(string(json, "senderContact"));
+        s.setReceiverName(requiredString(json, "receiverName"));
+        s.setReceiverAddress(string(json, "receiverAddress"));
+        s.setReceiverContact(string(json, "receiverContact"));
+        s.setPackageContents(string(json, "packageContents"));
+        Object weight = json.get("weight");
+        if (weight != null && !(weight instanceof Number)) throw invalid("weight must be a number");
+        s.setWeight(weight != null ? ((Number) weight).doubleValue() : 0.0);
+        s.setDimensions(string(json, "dimensions"));
+        s.setDeliveryStatus(requiredString(json, "deliveryStatus"));
+        s.setCurrentLocation(string(json, "currentLocation"));
+        s.setEstimatedDeliveryTime(dateTime(json, "estimatedDeliveryTime"));
+        s.setActualDeliveryTime(dateTime(json, "actualDeliveryTime"));
+        s.setSpecialInstructions(string(json, "specialInstructions"));
+        return s;
+    }
+
+    static Delivery toDelivery(Map<String, Object> json) throws ServiceException {
+        String status = string(json, "deliveryStatus");
+        return new Delivery(
+                requiredInt(json, "shipmentId"),
+                optionalInt(json, "personnelId"),
+                dateTime(json, "scheduledPickupTime"),
+                dateTime(json, "scheduledDeliveryTime"),
+                status != null ? status : "Scheduled",
+                string(json, "routeDetails"),
+                string(json, "deliveryNotes"));
+    }
+
+    static Notification toNotification(Map<String, Object> json) throws ServiceException {
+        String recipientType = requiredString(json, "recipientType");
+        if (!recipientType.equals("Customer") && !recipientType.equals("Personnel")) {
+            throw invalid("recipientType must be Customer or Personnel");
+        }
+        String contactMethod = string(json, "contactMethod");
+        return new Notification(recipientType,
+                requiredInt(json, "recipientId"),
+                optionalInt(json, "relatedShipmentId"),
+                optionalInt(json, "relatedPersonnelId"),
+                requiredString(json, "message"),
+                requiredString(json, "notificationType"),
+                contactMethod != null ? contactMethod : "App"); // The Notifications tab's default
+    }
+
+    static String requiredString(Map<String, Object> json, String field) throws ServiceException {
+        String value = string(json, field);
+        if (value == null || value.isBlank()) throw invalid(field + " is required");
+        return value;
+    }
+
+    static String string(Map<String, Object> json, String field) throws ServiceException {
+        Object value = json.get(field);
+        if (value == null) return null;
+        if (!(value instanceof String s)) throw invalid(field + " must be a string");
+        return s;
+    }
+
+    static int requiredInt(Map<String, Object> json, String field) throws ServiceException {
+        if (json.get(field) == null) throw invalid(field + " is required");
+        return optionalInt(json, field);
+    }
+
+    /** @return The field's value, or 0 if absent (the desktop client's "none"). */
+    static int optionalInt(Map<String, Object> json, String field) throws ServiceException {
+        Object value = json.get(field);
+        if (value == null) return 0;
+        if (!(value instanceof Long l) || l < 0 || l > Integer.MAX_VALUE) throw invalid(field + " must be a non-negative integer");
+        return l.intValue();
+    }
+
+    static LocalDateTime dateTime(Map<String, Object> json, String field) throws ServiceException {
+        String value = string(json, field);
+        if (value == null || value.isBlank()) return null;
+        try {
+            return value.indexOf('T') >= 0 ? LocalDateTime.parse(value) : LocalDateTime.parse(value, DESKTOP_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw invalid(field + " must be a date-time like 2025-01-31T14:30:00");
+        }
+    }
+
+    private static ServiceException invalid(String message) {
+        return new ServiceException(ServiceException.Reason.INVALID, message);
+    }
+}
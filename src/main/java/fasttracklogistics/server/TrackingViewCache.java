@@ -0,0 +1,139 @@
+package fasttracklogistics.server;
+
+import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.ShipmentDeleted;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.model.TrackingView;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rendered tracking views by tracking number, so a poll whose ETag is still current is answered from
+ * memory. Entries are dropped when a {@link ShipmentUpdated} or {@link ShipmentDeleted} event names their
+ * shipment (this process's own writes, and other workstations' via the delta sync poller), and in any case
+ * after {@code maxAgeMillis}, which bounds staleness if an event is missed. Unknown tracking numbers are not cached.
+ *
+ * A load that races with an invalidation must not put the old row back. Every invalidation stamps its
+ * shipment's stripe with a new epoch before removing the entry; a load notes the epoch before reading and,
+ * after caching, drops its own entry again if the stripe was stamped since.
+ */
+class TrackingViewCache {
+    private static final int STRIPES = 1024; // Power of two; shipments sharing a stripe only cost a spare reload
+
+    /** One rendered view. */
+    record Entry(int shipmentId, String etag, byte[] body, long loadedAtNanos) {
+    }
+
+    private final ShipmentDAO shipmentDAO;
+    private final long maxAgeNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>(); // Normalized tracking number -> view
+    private final Map<Integer, String> keyByShipmentId = new ConcurrentHashMap<>(); // To find the entry of an event
+    private final AtomicLong epoch = new AtomicLong();
+    private final AtomicLongArray invalidatedAt = new AtomicLongArray(STRIPES);
+
+    // --- Metrics ---
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private final AtomicLong raceDropCount = new AtomicLong();
+
+    /**
+     * @param maxAgeMillis Longest an entry is served without re-reading the database.
+     * @param maxEntries Entries kept before the cache starts over (the busiest ones come straight back).
+     */
+    TrackingViewCache(ShipmentDAO shipmentDAO, DomainEventBus eventBus, long maxAgeMillis, int maxEntries) {
+        this.shipmentDAO = shipmentDAO;
+        this.maxAgeNanos = maxAgeMillis * 1_000_000;
+        this.maxEntries = maxEntries;
+        eventBus.subscribe(ShipmentUpdated.class, e -> invalidate(e.getShipment().getShipmentId()));
+        eventBus.subscribe(ShipmentDeleted.class, e -> invalidate(e.getShipmentId()));
+    }
+
+    /** @return The cached view if present and fresh, else null (the caller then calls {@link #load}). */
+    Entry getCached(String trackingNumber) {
+        Entry entry = entries.get(normalize(trackingNumber));
+        if (entry == null || System.nanoTime() - entry.loadedAtNanos() > maxAgeNanos) return null;
+        hitCount.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Reads the view from the database and caches it.
+     *
+     * @return The view, or null if there is no such tracking number.
+     * @throws SQLException If a database access error occurs.
+     */
+    Entry load(String trackingNumber) throws SQLException {
+        long loadEpoch = epoch.get();
+        TrackingView view = shipmentDAO.getTrackingView(trackingNumber);
+        loadCount.incrementAndGet();
+        if (view == null) return null;
+
+        Entry entry = new Entry(view.getShipmentId(), etag(view), render(view), System.nanoTime());
+        String key = normalize(trackingNumber);
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+            keyByShipmentId.clear();
+        }
+        keyByShipmentId.put(view.getShipmentId(), key);
+        entries.put(key, entry);
+        if (invalidatedAt.get(stripe(view.getShipmentId())) > loadEpoch) {
+            entries.remove(key, entry); // The row changed while it was being read; serve it once, don't keep it
+            raceDropCount.incrementAndGet();
+        }
+        return entry;
+    }
+
+    private void invalidate(int shipmentId) {
+        invalidatedAt.set(stripe(shipmentId), epoch.incrementAndGet());
+        String key = keyByShipmentId.remove(shipmentId);
+        if (key != null && entries.remove(key) != null) invalidationCount.incrementAndGet();
+    }
+
+    /**
+     * Strong validator from the row version: updated_at has millisecond precision and changes on every write.
+     */
+    static String etag(TrackingView view) {
+        long version = view.getUpdatedAt() != null ? view.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+        return "\"" + view.getShipmentId() + "-" + Long.toHexString(version) + "\"";
+    }
+
+    private static byte[] render(TrackingView view) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("trackingNumber", view.getTrackingNumber());
+        json.put("deliveryStatus", view.getDeliveryStatus());
+        json.put("currentLocation", view.getCurrentLocation());
+        json.put("estimatedDeliveryTime", view.getEstimatedDeliveryTime());
+        json.put("actualDeliveryTime", view.getActualDeliveryTime());
+        return Json.write(json).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stripe(int shipmentId) {
+        return shipmentId & (STRIPES - 1);
+    }
+
+    private static String normalize(String trackingNumber) {
+        return trackingNumber.trim().toUpperCase(Locale.ROOT); // tracking_number compares case-insensitively
+    }
+
+    // --- Metrics ---
+    Map<String, Object> metricsJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("entries", entries.size());
+        json.put("hits", hitCount.get());
+        json.put("loads", loadCount.get());
+        json.put("invalidations", invalidationCount.get());
+        json.put("raceDrops", raceDropCount.get());
+        return json;
+    }
+}
@@ -0,0 +1,200 @@
+package fasttracklogistics.service;
+
+import fasttracklogistics.dao.DatabaseConnection;
+import fasttracklogistics.dao.DeliveryDAO;
+import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.dao.NotificationDAO;
+import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.event.DeliveryAssigned;
+import fasttracklogistics.event.DeliveryCreated;
+import fasttracklogistics.event.DeliveryUpdated;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.PersonnelUpdated;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.model.Delivery;
+import fasttracklogistics.model.DeliveryPersonnel;
+import fasttracklogistics.model.Notification;
+import fasttracklogistics.model.Shipment;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Delivery scheduling and driver assignment, shared by the desktop client and the HTTP server.
+ * Each operation writes the delivery, the status changes it implies and the outbox notifications in one
+ * transaction, then publishes the domain events. Thread-safe (stateless apart from its collaborators).
+ */
+public class DeliveryService {
+    private final DeliveryDAO deliveryDAO;
+    private final ShipmentDAO shipmentDAO;
+    private final DeliveryPersonnelDAO personnelDAO;
+    private final NotificationDAO notificationDAO;
+    private final DomainEventBus eventBus;
+
+    public DeliveryService(DeliveryDAO deliveryDAO, ShipmentDAO shipmentDAO, DeliveryPersonnelDAO personnelDAO,
+                           NotificationDAO notificationDAO, DomainEventBus eventBus) {
+        this.deliveryDAO = deliveryDAO;
+        this.shipmentDAO = shipmentDAO;
+        this.personnelDAO = personnelDAO;
+        this.notificationDAO = notificationDAO;
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Schedules a delivery. A pending shipment becomes "Scheduled" and its customer is told; an assigned person is told too.
+     *
+     * @param delivery The delivery to add (personnel id 0 = unassigned); its id is set on return.
+     * @return The same delivery.
+     * @throws ServiceException NOT_FOUND if the shipment or the person does not exist.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Delivery scheduleDelivery(Delivery delivery) throws ServiceException, SQLException {
+        DeliveryPersonnel assignedPersonnel = delivery.getPersonnelId() != 0 ? personnelDAO.getPersonnelById(delivery.getPersonnelId()) : null;
+        if (delivery.getPersonnelId() != 0 && assignedPersonnel == null) {
+            throw new ServiceException(ServiceException.Reason.NOT_FOUND, "Personnel " + delivery.getPersonnelId() + " does not exist.");
+        }
+
+        // Delivery row, shipment status and outbox notifications are written in one transaction;
+        // the shipment is read there, locked, so the status written back is based on its current row
+        ShipmentWrite write = DatabaseConnection.inTransaction(conn -> {
+            Shipment associatedShipment = lockShipment(conn, delivery.getShipmentId());
+            boolean scheduleShipment = associatedShipment.getDeliveryStatus().equals("Pending");
+            deliveryDAO.addDelivery(conn, delivery);
+            if (scheduleShipment) {
+                associatedShipment.setDeliveryStatus("Scheduled");
+                shipmentDAO.updateShipment(conn, associatedShipment);
+                notificationDAO.addNotification(conn, Notification.forCustomerShipment(associatedShipment,
+                        "Your shipment " + associatedShipment.getTrackingNumber() + " has been scheduled for delivery.",
+                        "Status Update"));
+            }
+            if (assignedPersonnel != null) {
+                notificationDAO.addNotification(conn, Notification.forPersonnel(assignedPersonnel, associatedShipment,
+                        "You have been assigned delivery #" + delivery.getDeliveryId() + ".",
+                        "Assignment"));
+            }
+            return new ShipmentWrite(associatedShipment, scheduleShipment);
+        });
+
+        eventBus.publish(new DeliveryCreated(delivery));
+        if (write.statusChanged()) {
+            eventBus.publish(new ShipmentUpdated(write.shipment()));
+        }
+        if (assignedPersonnel != null) {
+            eventBus.publish(new DeliveryAssigned(delivery, write.shipment(), assignedPersonnel));
+        }
+        return delivery;
+    }
+
+    /**
+     * Saves an edited delivery. If its status differs from its shipment's, the shipment takes the delivery's status
+     * and its customer is told.
+     *
+     * @param delivery The delivery with its new values; its id selects the row.
+     * @return The same delivery.
+     * @throws ServiceException NOT_FOUND if the shipment does not exist.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Delivery updateDelivery(Delivery delivery) throws ServiceException, SQLException {
+        ShipmentWrite write = DatabaseConnection.inTransaction(conn -> {
+            Shipment associatedShipment = lockShipment(conn, delivery.getShipmentId());
+            boolean shipmentStatusChanged = !associatedShipment.getDeliveryStatus().equals(delivery.getDeliveryStatus());
+            deliveryDAO.updateDelivery(conn, delivery);
+            if (shipmentStatusChanged) {
+                associatedShipment.setDeliveryStatus(delivery.getDeliveryStatus());
+                shipmentDAO.updateShipment(conn, associatedShipment);
+                notificationDAO.addNotification(conn, Notification.forCustomerShipment(associatedShipment,
+                        "Your shipment " + associatedShipment.getTrackingNumber() + " is now " + associatedShipment.getDeliveryStatus() + ".",
+                        "Status Update"));
+            }
+            return new ShipmentWrite(associatedShipment, shipmentStatusChanged);
+        });
+
+        eventBus.publish(new DeliveryUpdated(delivery));
+        if (write.statusChanged()) {
+            eventBus.publish(new ShipmentUpdated(write.shipment()));
+        }
+        return delivery;
+    }
+
+    /**
+     * Assigns a driver to a shipment that has no delivery yet: creates a "Scheduled" delivery, marks the shipment
+     * "Scheduled", puts an available driver "On Duty" and notifies both the customer and the driver.
+     * The shipment and the driver are read and locked inside the transaction, so a second assignment of the same
+     * shipment waits for the first to commit and then finds its delivery, and neither row is written back stale.
+     *
+     * @return The assignment as published: the new delivery, the shipment and the driver, with their new statuses.
+     * @throws ServiceException NOT_FOUND if the shipment or the person does not exist, CONFLICT if the shipment
+     * already has a delivery.
+     * @throws SQLException If a database access error occurs.
+     */
+    public DeliveryAssigned assignDriver(int shipmentId, int personnelId) throws ServiceException, SQLException {
+        // Delivery, status changes and both notifications commit together or not at all
+        Assignment result = DatabaseConnection.inTransaction(conn -> {
+            // Locked in the same order (shipment, then personnel) as everywhere else
+            Shipment shipmentToAssign = shipmentDAO.getShipmentByIdForUpdate(conn, shipmentId);
+            DeliveryPersonnel assignedPersonnel = personnelDAO.getPersonnelByIdForUpdate(conn, personnelId);
+            if (shipmentToAssign == null || assignedPersonnel == null) {
+                throw new ServiceException(ServiceException.Reason.NOT_FOUND, "Selected shipment or personnel not found. Please refresh and try again.");
+            }
+
+            // Check if a delivery already exists for this shipment
+            if (deliveryDAO.hasDeliveryForShipment(conn, shipmentId)) {
+                throw new ServiceException(ServiceException.Reason.CONFLICT,
+                        "This shipment is already assigned to a delivery. Please update the existing delivery instead.");
+            }
+
+            // Create a new Delivery entry
+            Delivery newDelivery = new Delivery(
+                    shipmentToAssign.getShipmentId(),
+                    assignedPersonnel.getPersonnelId(),
+                    LocalDateTime.now(), // Scheduled pickup can be now or estimated
+                    shipmentToAssign.getEstimatedDeliveryTime(), // Use shipment's estimated delivery
+                    "Scheduled", // Initial status
+                    "Auto-assigned route", // Placeholder for route details
+                    "Assigned automatically through system." // Delivery notes
+            );
+            deliveryDAO.addDelivery(conn, newDelivery);
+
+            // Update shipment status to "Scheduled"
+            shipmentToAssign.setDeliveryStatus("Scheduled");
+            shipmentDAO.updateShipment(conn, shipmentToAssign);
+
+            // Update personnel status to "On Duty" if they are available
+            boolean personnelGoesOnDuty = assignedPersonnel.getAvailabilityStatus().equals("Available");
+            if (personnelGoesOnDuty) {
+                assignedPersonnel.setAvailabilityStatus("On Duty");
+                personnelDAO.updatePersonnel(conn, assignedPersonnel);
+            }
+
+            notificationDAO.addNotification(conn, Notification.forCustomerShipment(shipmentToAssign,
+                    "Your shipment " + shipmentToAssign.getTrackingNumber() + " has been assigned a driver.",
+                    "Status Update"));
+            notificationDAO.addNotification(conn, Notification.forPersonnel(assignedPersonnel, shipmentToAssign,
+                    "New assignment: shipment " + shipmentToAssign.getTrackingNumber() + ".",
+                    "Assignment"));
+            return new Assignment(new DeliveryAssigned(newDelivery, shipmentToAssign, assignedPersonnel), personnelGoesOnDuty);
+        });
+
+        DeliveryAssigned assignment = result.event();
+        eventBus.publish(new DeliveryCreated(assignment.getDelivery()));
+        eventBus.publish(new ShipmentUpdated(assignment.getShipment()));
+        if (result.personnelWentOnDuty()) {
+            eventBus.publish(new PersonnelUpdated(assignment.getPersonnel()));
+        }
+        eventBus.publish(assignment);
+        return assignment;
+    }
+
+    // What a transaction committed, for the events published after it
+    private record ShipmentWrite(Shipment shipment, boolean statusChanged) {}
+    private record Assignment(DeliveryAssigned event, boolean personnelWentOnDuty) {}
+
+    private Shipment lockShipment(Connection conn, int shipmentId) throws ServiceException, SQLException {
+        Shipment shipment = shipmentDAO.getShipmentByIdForUpdate(conn, shipmentId);
+        if (shipment == null) {
+            throw new ServiceException(ServiceException.Reason.NOT_FOUND, "Shipment " + shipmentId + " does not exist.");
+        }
+        return shipment;
+    }
+}
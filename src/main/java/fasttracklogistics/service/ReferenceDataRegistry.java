@@ -0,0 +1,269 @@
+package fasttracklogistics.service;
+
+import fasttracklogistics.dao.DeliveryPersonnelDAO;
+import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.PersonnelCreated;
+import fasttracklogistics.event.PersonnelDeleted;
+import fasttracklogistics.event.PersonnelUpdated;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.model.DeliveryPersonnel;
+import fasttracklogistics.model.Shipment;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Application-wide display names of personnel and shipments, shared by every panel instead of each one
+ * keeping its own id-to-name maps filled from its own full-table loads.
+ *
+ * Readers get an immutable {@link Snapshot} without locking; writers copy the part that changes, apply the
+ * change and swap the new snapshot in (copy-on-write), so a table painting on the EDT never sees a half-applied
+ * update. Personnel names are loaded once in full (the table is small). Shipments are far too many for that:
+ * only the names panels ask for are fetched, in batches, and kept until {@link #MAX_SHIPMENT_NAMES} is reached.
+ * Both are kept current from the {@link DomainEventBus} on the publishing thread, so the snapshot is updated
+ * before the panels' own EDT listeners run and repaint.
+ */
+public class ReferenceDataRegistry {
+    private static final Logger LOGGER = Logger.getLogger(ReferenceDataRegistry.class.getName());
+    private static final int SHIPMENT_LOOKUP_BATCH = 500; // Ids per IN (...) query
+    static final int MAX_SHIPMENT_NAMES = 50_000; // Beyond this the shipment names start over from the ones asked for
+
+    /** Display names at one point in time. Never modified after it is published. */
+    public static final class Snapshot {
+        private final Map<Integer, String> personnelNames; // In load order, then creation order
+        private final List<Integer> personnelIds;
+        private final Map<Integer, ShipmentNames> shipmentNames;
+        private final boolean personnelLoaded;
+
+        private Snapshot(Map<Integer, String> personnelNames, Map<Integer, ShipmentNames> shipmentNames, boolean personnelLoaded) {
+            this.personnelNames = Collections.unmodifiableMap(personnelNames);
+            this.personnelIds = Collections.unmodifiableList(new ArrayList<>(personnelNames.keySet()));
+            this.shipmentNames = Collections.unmodifiableMap(shipmentNames);
+            this.personnelLoaded = personnelLoaded;
+        }
+
+        /** @return The ids of all personnel, in a stable order for combo boxes. */
+        public List<Integer> getPersonnelIds() { return personnelIds; }
+
+        /** @return "Name (id)", or null if no such person is known. */
+        public String getPersonnelName(int personnelId) { return personnelNames.get(personnelId); }
+
+        /** @return "TRK123 (Receiver Name)", or null if the name has not been loaded. */
+        public String getShipmentName(int shipmentId) {
+            ShipmentNames names = shipmentNames.get(shipmentId);
+            return names != null ? names.shipmentName : null;
+        }
+
+        /** @return "Receiver Name (Shipment: TRK123)" for the customer identified by the shipment, or null if not loaded. */
+        public String getCustomerName(int shipmentId) {
+            ShipmentNames names = shipmentNames.get(shipmentId);
+            return names != null ? names.customerName : null;
+        }
+
+        public boolean hasShipmentName(int shipmentId) { return shipmentNames.containsKey(shipmentId); }
+    }
+
+    /** Both names of one shipment, formatted once. */
+    static final class ShipmentNames {
+        final String shipmentName;
+        final String customerName;
+
+        ShipmentNames(Shipment shipment) {
+            this(shipmentName(shipment), customerName(shipment));
+        }
+
+        ShipmentNames(String shipmentName, String customerName) {
+            this.shipmentName = shipmentName;
+            this.customerName = customerName;
+        }
+    }
+
+    private final ShipmentDAO shipmentDAO;
+    private final DeliveryPersonnelDAO personnelDAO;
+    private final Object writeLock = new Object(); // Serializes copy-and-swap; readers never take it
+    private volatile Snapshot snapshot = new Snapshot(new LinkedHashMap<>(), new HashMap<>(), false);
+
+    // --- Metrics ---
+    private final AtomicLong swapCount = new AtomicLong();
+    private final AtomicLong shipmentLookupCount = new AtomicLong();
+    private final AtomicLong shipmentNamesFetched = new AtomicLong();
+    private final AtomicLong shipmentNameResets = new AtomicLong();
+
+    public ReferenceDataRegistry(ShipmentDAO shipmentDAO, DeliveryPersonnelDAO personnelDAO, DomainEventBus eventBus) {
+        this.shipmentDAO = shipmentDAO;
+        this.personnelDAO = personnelDAO;
+        eventBus.subscribe(PersonnelCreated.class, e -> putPersonnel(e.getPersonnel()));
+        eventBus.subscribe(PersonnelUpdated.class, e -> putPersonnel(e.getPersonnel()));
+        eventBus.subscribe(PersonnelDeleted.class, e -> removePersonnel(e.getPersonnelId()));
+        eventBus.subscribe(ShipmentUpdated.class, e -> renameShipment(e.getShipment()));
+        // A deleted shipment keeps its name: notifications about it still show it
+    }
+
+    /** @return The current names; hold on to it for one pass (e.g. one paint) to read consistent values. */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Loads every person's name, unless already loaded (later changes arrive as events).
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    public void loadPersonnel() throws SQLException {
+        if (snapshot.personnelLoaded) return;
+        synchronized (writeLock) {
+            if (snapshot.personnelLoaded) return;
+            Map<Integer, String> names = new LinkedHashMap<>();
+            for (DeliveryPersonnel p : personnelDAO.getAllPersonnel()) {
+                names.put(p.getPersonnelId(), personnelName(p));
+            }
+            swap(new Snapshot(names, snapshot.shipmentNames, true));
+            LOGGER.log(Level.INFO, "Loaded " + names.size() + " personnel names");
+        }
+    }
+
+    /**
+     * Makes sure the names of the given shipments are in the snapshot, fetching the missing ones in batches.
+     * Ids with no shipment are left out.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    public void loadShipmentNames(Collection<Integer> shipmentIds) throws SQLException {
+        Snapshot current = snapshot;
+        List<Integer> missing = new ArrayList<>();
+        for (int shipmentId : shipmentIds) {
+            if (shipmentId != 0 && !current.shipmentNames.containsKey(shipmentId)) missing.add(shipmentId);
+        }
+        shipmentLookupCount.incrementAndGet();
+        if (missing.isEmpty()) return;
+
+        List<Shipment> fetched = new ArrayList<>(missing.size());
+        for (int from = 0; from < missing.size(); from += SHIPMENT_LOOKUP_BATCH) {
+            fetched.addAll(shipmentDAO.getShipmentsByIds(missing.subList(from, Math.min(from + SHIPMENT_LOOKUP_BATCH, missing.size()))));
+        }
+        shipmentNamesFetched.addAndGet(fetched.size());
+        synchronized (writeLock) {
+            Map<Integer, ShipmentNames> names;
+            if (snapshot.shipmentNames.size() + fetched.size() > MAX_SHIPMENT_NAMES) {
+                // Start over from what this caller needs; other panels re-fetch theirs on their next load
+                shipmentNameResets.incrementAndGet();
+                names = new HashMap<>();
+                for (int shipmentId : shipmentIds) {
+                    ShipmentNames known = snapshot.shipmentNames.get(shipmentId);
+                    if (known != null) names.put(shipmentId, known);
+                }
+            } else {
+                names = new HashMap<>(snapshot.shipmentNames);
+            }
+            for (Shipment shipment : fetched) names.put(shipment.getShipmentId(), new ShipmentNames(shipment));
+            swap(new Snapshot(snapshot.personnelNames, names, snapshot.personnelLoaded));
+        }
+    }
+
+    /**
+     * Seeds names saved by a previous session (see {@link WarmStartCache}), so panels can show them before any
+     * query. Names already known are kept. Changes made while the client was closed arrive later as delta sync events.
+     */
+    void prime(Collection<DeliveryPersonnel> personnel, Map<Integer, ShipmentNames> shipmentNames) {
+        synchronized (writeLock) {
+            Map<Integer, String> personnelNames = snapshot.personnelNames;
+            boolean personnelLoaded = snapshot.personnelLoaded;
+            if (!personnelLoaded && personnel != null) {
+                personnelNames = new LinkedHashMap<>();
+                for (DeliveryPersonnel p : personnel) {
+                    personnelNames.put(p.getPersonnelId(), personnelName(p));
+                }
+                personnelLoaded = true;
+            }
+            Map<Integer, ShipmentNames> names = new HashMap<>(shipmentNames);
+            names.putAll(snapshot.shipmentNames);
+            swap(new Snapshot(personnelNames, names, personnelLoaded));
+        }
+    }
+
+    /** @return The names known for the given shipments, for {@link WarmStartCache} to save. */
+    Map<Integer, ShipmentNames> getShipmentNames(Collection<Integer> shipmentIds) {
+        Snapshot current = snapshot;
+        Map<Integer, ShipmentNames> names = new HashMap<>();
+        for (int shipmentId : shipmentIds) {
+            ShipmentNames known = current.shipmentNames.get(shipmentId);
+            if (known != null) names.put(shipmentId, known);
+        }
+        return names;
+    }
+
+    private void putPersonnel(DeliveryPersonnel personnel) {
+        synchronized (writeLock) {
+            if (!snapshot.personnelLoaded) return; // The full load will include it
+            String name = personnelName(personnel);
+            if (name.equals(snapshot.personnelNames.get(personnel.getPersonnelId()))) return;
+            Map<Integer, String> names = new LinkedHashMap<>(snapshot.personnelNames);
+            names.put(personnel.getPersonnelId(), name);
+            swap(new Snapshot(names, snapshot.shipmentNames, true));
+        }
+    }
+
+    private void removePersonnel(int personnelId) {
+        synchronized (writeLock) {
+            if (!snapshot.personnelNames.containsKey(personnelId)) return;
+            Map<Integer, String> names = new LinkedHashMap<>(snapshot.personnelNames);
+            names.remove(personnelId);
+            swap(new Snapshot(names, snapshot.shipmentNames, snapshot.personnelLoaded));
+        }
+    }
+
+    private void renameShipment(Shipment shipment) {
+        synchronized (writeLock) {
+            ShipmentNames known = snapshot.shipmentNames.get(shipment.getShipmentId());
+            if (known == null) return; // Not shown anywhere; fetched when it is
+            ShipmentNames renamed = new ShipmentNames(shipment);
+            if (renamed.shipmentName.equals(known.shipmentName)) return;
+            Map<Integer, ShipmentNames> names = new HashMap<>(snapshot.shipmentNames);
+            names.put(shipment.getShipmentId(), renamed);
+            swap(new Snapshot(snapshot.personnelNames, names, snapshot.personnelLoaded));
+        }
+    }
+
+    private void swap(Snapshot next) {
+        snapshot = next;
+        swapCount.incrementAndGet();
+    }
+
+    // --- Display name formats, the same in every panel ---
+    public static String shipmentName(Shipment s) {
+        return s.getTrackingNumber() + " (" + s.getReceiverName() + ")";
+    }
+
+    public static String customerName(Shipment s) {
+        return s.getReceiverName() + " (Shipment: " + s.getTrackingNumber() + ")";
+    }
+
+    public static String personnelName(DeliveryPersonnel p) {
+        return p.getName() + " (" + p.getPersonnelId() + ")"; // Use ID for unique display
+    }
+
+    // --- Metrics ---
+    public long getSwapCount() { return swapCount.get(); }
+    public long getShipmentLookupCount() { return shipmentLookupCount.get(); }
+    public long getShipmentNamesFetched() { return shipmentNamesFetched.get(); }
+
+    public String getMetricsSummary() {
+        Snapshot current = snapshot;
+        return "personnelNames=" + current.personnelNames.size()
+                + ", shipmentNames=" + current.shipmentNames.size()
+                + ", swaps=" + swapCount.get()
+                + ", shipmentLookups=" + shipmentLookupCount.get()
+                + ", shipmentNamesFetched=" + shipmentNamesFetched.get()
+                + ", shipmentNameResets=" + shipmentNameResets.get();
+    }
+}
@@ -0,0 +1,29 @@
+package fasttracklogistics.service;
+
+/**
+ * A request the business rules refuse, as opposed to a database failure ({@link java.sql.SQLException}).
+ * The message is meant for the user; the {@link Reason} lets each front end pick its own way of saying no
+ * (a dialog in the desktop client, a status code in the HTTP server).
+ */
+public class ServiceException extends Exception {
+
+    public enum Reason {
+        /** The input is incomplete or malformed. */
+        INVALID,
+        /** A referenced shipment, delivery or person does not exist. */
+        NOT_FOUND,
+        /** The change clashes with the current data, e.g. a duplicate tracking number. */
+        CONFLICT
+    }
+
+    private final Reason reason;
+
+    public ServiceException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
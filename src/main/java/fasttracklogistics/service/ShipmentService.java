@@ -0,0 +1,100 @@
+package fasttracklogistics.service;
+
+import fasttracklogistics.dao.DatabaseConnection;
+import fasttracklogistics.dao.NotificationDAO;
+import fasttracklogistics.dao.ShipmentDAO;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.ShipmentCreated;
+import fasttracklogistics.event.ShipmentDeleted;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.model.Notification;
+import fasttracklogistics.model.Shipment;
+
+import java.sql.SQLException;
+
+/**
+ * Shipment writes shared by the desktop client and the HTTP server: each one commits, then publishes its
+ * domain event so every view, index and cache sees the change. Callers validate field formats; this class
+ * enforces the rules that need the database. Thread-safe (stateless apart from its collaborators).
+ */
+public class ShipmentService {
+    private final ShipmentDAO shipmentDAO;
+    private final NotificationDAO notificationDAO;
+    private final DomainEventBus eventBus;
+
+    public ShipmentService(ShipmentDAO shipmentDAO, NotificationDAO notificationDAO, DomainEventBus eventBus) {
+        this.shipmentDAO = shipmentDAO;
+        this.notificationDAO = notificationDAO;
+        this.eventBus = eventBus;
+    }
+
+    /**
+     * Adds a shipment.
+     *
+     * @return The stored shipment, including database defaults such as creation_date.
+     * @throws ServiceException CONFLICT if the tracking number is already used.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Shipment createShipment(Shipment shipment) throws ServiceException, SQLException {
+        try {
+            shipmentDAO.addShipment(shipment);
+        } catch (SQLException e) {
+            throw duplicateTrackingNumberOr(e);
+        }
+        Shipment stored = shipmentDAO.getShipmentById(shipment.getShipmentId());
+        Shipment created = stored != null ? stored : shipment;
+        eventBus.publish(new ShipmentCreated(created));
+        return created;
+    }
+
+    /**
+     * Replaces a shipment's fields. A status change queues a status notification to the customer in the same transaction.
+     *
+     * @param shipment The new values; its id selects the shipment.
+     * @return The stored shipment.
+     * @throws ServiceException NOT_FOUND if there is no such shipment, CONFLICT if the new tracking number is already used.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Shipment updateShipment(Shipment shipment) throws ServiceException, SQLException {
+        try {
+            // The shipment change and the customer's status notification commit (or roll back) together. The row is
+            // read and locked inside the transaction, so of two concurrent edits only the first sees the old status.
+            DatabaseConnection.inTransaction(conn -> {
+                Shipment previous = shipmentDAO.getShipmentByIdForUpdate(conn, shipment.getShipmentId());
+                if (previous == null) {
+                    throw new ServiceException(ServiceException.Reason.NOT_FOUND, "Shipment " + shipment.getShipmentId() + " does not exist.");
+                }
+                shipmentDAO.updateShipment(conn, shipment);
+                if (!previous.getDeliveryStatus().equals(shipment.getDeliveryStatus())) {
+                    notificationDAO.addNotification(conn, Notification.forCustomerShipment(shipment,
+                            "Your shipment " + shipment.getTrackingNumber() + " is now " + shipment.getDeliveryStatus() + ".",
+                            "Status Update"));
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw duplicateTrackingNumberOr(e);
+        }
+        Shipment stored = shipmentDAO.getShipmentById(shipment.getShipmentId());
+        Shipment updated = stored != null ? stored : shipment;
+        eventBus.publish(new ShipmentUpdated(updated));
+        return updated;
+    }
+
+    /**
+     * Deletes a shipment; the database cascades the delete to its deliveries.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    public void deleteShipment(int shipmentId) throws SQLException {
+        shipmentDAO.deleteShipment(shipmentId);
+        eventBus.publish(new ShipmentDeleted(shipmentId));
+    }
+
+    private static SQLException duplicateTrackingNumberOr(SQLException e) throws ServiceException {
+        if (e.getMessage() != null && e.getMessage().contains("Duplicate entry") && e.getMessage().contains("tracking_number")) {
+            throw new ServiceException(ServiceException.Reason.CONFLICT, "Tracking number already exists. Please use a unique tracking number.");
+        }
+        return e;
+    }
+}
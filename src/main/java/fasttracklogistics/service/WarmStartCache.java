@@ -0,0 +1,601 @@
+package fasttracklogistics.service;
+
+import fasttracklogistics.dao.ChangeTrackingDAO;
+import fasttracklogistics.dao.DatabaseConnection;
+import fasttracklogistics.dao.QuerySpec;
+import fasttracklogistics.event.DeliveryCreated;
+import fasttracklogistics.event.DeliveryDeleted;
+import fasttracklogistics.event.DeliveryUpdated;
+import fasttracklogistics.event.DomainEventBus;
+import fasttracklogistics.event.PersonnelCreated;
+import fasttracklogistics.event.PersonnelDeleted;
+import fasttracklogistics.event.PersonnelUpdated;
+import fasttracklogistics.event.ShipmentCreated;
+import fasttracklogistics.event.ShipmentDeleted;
+import fasttracklogistics.event.ShipmentUpdated;
+import fasttracklogistics.model.Delivery;
+import fasttracklogistics.model.DeliveryPersonnel;
+import fasttracklogistics.model.Shipment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * What the panels showed when the client last closed, kept on local disk so the next start can paint
+ * them before running more than one small query: the shipment count and first block of the shipments
+ * table, all personnel, the pending shipments waiting for a driver, the unfiltered deliveries list, and the
+ * names of the shipments those deliveries refer to.
+ *
+ * The cache is kept current from the {@link DomainEventBus} on the publishing thread, so at exit it holds
+ * every change published up to the {@link fasttracklogistics.controller.DeltaSyncPoller} watermark saved
+ * with it. On the next start the poller resumes from that watermark and publishes whatever changed while
+ * the client was closed, and the panels apply it like any other change. A cache is only used if it was
+ * written for the same database, in the same dataset epoch (a snapshot restore moves it on, and the rows it
+ * removes leave no tombstones), and is younger than {@link #MAX_AGE}, so the deletions made since are still
+ * in the tombstone table; otherwise the panels load from the database as before. Each list is also dropped
+ * once it was read from the database more than {@link #MAX_DATA_AGE} ago, however often it was saved and
+ * loaded since, so a change delta sync cannot see (a row deleted outside the DAOs) lasts no longer than that.
+ *
+ * The file is written once, at exit, to a temporary file that is then renamed over the old one, and read
+ * once, at start, through a read-only memory mapping: the operating system pages it in straight from its
+ * file cache, with a CRC-32C over the whole file catching torn or foreign files.
+ */
+public class WarmStartCache {
+    private static final Logger LOGGER = Logger.getLogger(WarmStartCache.class.getName());
+    private static final long MAGIC = 0x46544C5741524D31L; // "FTLWARM1"
+    private static final int FORMAT_VERSION = 2;
+    /** Kept below the delta sync's 24 hour tombstone retention, so no deletion can be missed. */
+    static final Duration MAX_AGE = Duration.ofHours(20);
+    /** Longest time a list is carried over from session to session before it is read from the database again. */
+    static final Duration MAX_DATA_AGE = Duration.ofDays(3);
+    private static final int ABSENT = -1; // Count of a list that was never loaded in full, or length of a null string
+    private static final long UNKNOWN_EPOCH = -1;
+
+    /** The shipments table's row count and first block in the default view, to show before any query. */
+    public record ShipmentsHead(int totalCount, List<Shipment> firstRows) {}
+
+    private final Path file;
+    private final ChangeTrackingDAO changeTrackingDAO;
+
+    // Each is null until it has been loaded in full, from the file or from the database; guarded by this.
+    // Each *ReadAt is when (this machine's clock, ms) its list was last read from the database.
+    private Map<Integer, DeliveryPersonnel> personnel;
+    private long personnelReadAt;
+    private Map<Integer, Shipment> pendingShipments;
+    private long pendingShipmentsReadAt;
+    private Map<Integer, Delivery> deliveries;
+    private long deliveriesReadAt;
+    private int shipmentCount = ABSENT; // All shipments; ABSENT until counted
+    private long shipmentCountReadAt;
+    private Map<Integer, Shipment> firstShipments; // The first block in shipment ID order
+    private int firstShipmentsLimit; // Block size it was read with
+    private long firstShipmentsReadAt;
+    private LocalDateTime watermark; // From the file
+    private long datasetEpoch = UNKNOWN_EPOCH; // Read at load; the epoch the lists belong to
+
+    public WarmStartCache(Path file, ChangeTrackingDAO changeTrackingDAO, DomainEventBus eventBus) {
+        this.file = file;
+        this.changeTrackingDAO = changeTrackingDAO;
+        eventBus.subscribe(PersonnelCreated.class, e -> putPersonnel(e.getPersonnel()));
+        eventBus.subscribe(PersonnelUpdated.class, e -> putPersonnel(e.getPersonnel()));
+        eventBus.subscribe(PersonnelDeleted.class, e -> removePersonnel(e.getPersonnelId()));
+        eventBus.subscribe(ShipmentCreated.class, e -> putShipment(e.getShipment(), true));
+        eventBus.subscribe(ShipmentUpdated.class, e -> putShipment(e.getShipment(), false));
+        eventBus.subscribe(ShipmentDeleted.class, e -> removeShipment(e.getShipmentId()));
+        eventBus.subscribe(DeliveryCreated.class, e -> putDelivery(e.getDelivery()));
+        eventBus.subscribe(DeliveryUpdated.class, e -> putDelivery(e.getDelivery()));
+        eventBus.subscribe(DeliveryDeleted.class, e -> removeDelivery(e.getDeliveryId()));
+    }
+
+    /**
+     * @return {@code ~/.fasttrack/warm-start.bin}, or the path in the {@code fasttrack.warmStartFile} system property.
+     */
+    public static Path defaultFile() {
+        String override = System.getProperty("fasttrack.warmStartFile");
+        if (override != null) return Paths.get(override);
+        return Paths.get(System.getProperty("user.home"), ".fasttrack", "warm-start.bin");
+    }
+
+    /**
+     * @return true if the spec is the one a panel opens with (no filters, database order), i.e. the rows
+     *         this cache holds.
+     */
+    public static boolean isDefaultView(QuerySpec spec) {
+        return spec != null && !spec.hasFilters() && spec.getSortColumn() == null;
+    }
+
+    /**
+     * Reads the dataset epoch (one primary key lookup), then the file saved by the last session, and seeds
+     * the registry's names from it. A missing, stale, foreign or damaged file is logged and ignored: the
+     * panels then load from the database. If the epoch cannot be read, nothing is loaded or saved.
+     */
+    public void load(ReferenceDataRegistry referenceData) {
+        long start = System.nanoTime();
+        try {
+            long epoch = changeTrackingDAO.getDatasetEpoch();
+            synchronized (this) {
+                datasetEpoch = epoch;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not read the dataset epoch; not using the warm-start cache", e);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Map<Integer, ReferenceDataRegistry.ShipmentNames> shipmentNames = decode(mapped);
+            referenceData.prime(getPersonnel(), shipmentNames);
+            LOGGER.log(Level.INFO, String.format("Warm start: %,d bytes read in %d ms (watermark %s)",
+                    channel.size(), (System.nanoTime() - start) / 1_000_000, watermark));
+        } catch (NoSuchFileException e) {
+            LOGGER.log(Level.INFO, "No warm-start cache yet at " + file);
+        } catch (IOException | RuntimeException e) {
+            clear();
+            LOGGER.log(Level.INFO, "Ignoring warm-start cache " + file + ": " + e.getMessage());
+        }
+    }
+
+    private synchronized Map<Integer, ReferenceDataRegistry.ShipmentNames> decode(ByteBuffer in) throws IOException {
+        try {
+            if (in.limit() < 4) throw new IOException("file is truncated");
+            CRC32C crc = new CRC32C();
+            crc.update(in.duplicate().limit(in.limit() - 4));
+            if ((int) crc.getValue() != in.getInt(in.limit() - 4)) throw new IOException("checksum mismatch");
+
+            if (in.getLong() != MAGIC) throw new IOException("not a warm-start cache");
+            int version = in.getInt();
+            if (version != FORMAT_VERSION) throw new IOException("format version " + version + " is not supported");
+            long now = System.currentTimeMillis(); // All times in the file are on this machine's clock
+            Duration age = Duration.ofMillis(now - in.getLong());
+            if (age.isNegative() || age.compareTo(MAX_AGE) > 0) throw new IOException("saved " + age.toMinutes() + " minutes ago");
+            LocalDateTime savedWatermark = readDateTime(in);
+            String databaseUrl = readString(in);
+            if (!DatabaseConnection.getDatabaseUrl().equals(databaseUrl)) throw new IOException("saved for another database");
+            long savedEpoch = in.getLong();
+            if (savedEpoch != datasetEpoch) throw new IOException("saved in dataset epoch " + savedEpoch + ", now " + datasetEpoch + " (restored since)");
+
+            long savedPersonnelReadAt = in.getLong();
+            Map<Integer, DeliveryPersonnel> savedPersonnel = null;
+            int count = in.getInt();
+            if (count != ABSENT) {
+                savedPersonnel = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    DeliveryPersonnel p = readPersonnel(in);
+                    savedPersonnel.put(p.getPersonnelId(), p);
+                }
+            }
+            long savedShipmentsReadAt = in.getLong();
+            Map<Integer, Shipment> savedShipments = null;
+            count = in.getInt();
+            if (count != ABSENT) {
+                savedShipments = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    Shipment s = readShipment(in);
+                    savedShipments.put(s.getShipmentId(), s);
+                }
+            }
+            long savedDeliveriesReadAt = in.getLong();
+            Map<Integer, Delivery> savedDeliveries = null;
+            count = in.getInt();
+            if (count != ABSENT) {
+                savedDeliveries = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    Delivery d = readDelivery(in);
+                    savedDeliveries.put(d.getDeliveryId(), d);
+                }
+            }
+            long savedShipmentCountReadAt = in.getLong();
+            int savedShipmentCount = in.getInt();
+            long savedFirstShipmentsReadAt = in.getLong();
+            int savedFirstShipmentsLimit = in.getInt();
+            Map<Integer, Shipment> savedFirstShipments = null;
+            count = in.getInt();
+            if (count != ABSENT) {
+                savedFirstShipments = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    Shipment s = readShipment(in);
+                    savedFirstShipments.put(s.getShipmentId(), s);
+                }
+            }
+            Map<Integer, ReferenceDataRegistry.ShipmentNames> shipmentNames = new LinkedHashMap<>();
+            count = in.getInt();
+            for (int i = 0; i < count; i++) {
+                shipmentNames.put(in.getInt(), new ReferenceDataRegistry.ShipmentNames(readString(in), readString(in)));
+            }
+            if (in.remaining() != 4) throw new IOException("unexpected data after the last section");
+
+            // Rows remembered from the database in the meantime are newer than the file's; lists read from
+            // the database too long ago are left to be read again
+            if (personnel == null && isFresh(savedPersonnelReadAt, now)) {
+                personnel = savedPersonnel;
+                personnelReadAt = savedPersonnelReadAt;
+            }
+            if (pendingShipments == null && isFresh(savedShipmentsReadAt, now)) {
+                pendingShipments = savedShipments;
+                pendingShipmentsReadAt = savedShipmentsReadAt;
+            }
+            if (deliveries == null && isFresh(savedDeliveriesReadAt, now)) {
+                deliveries = savedDeliveries;
+                deliveriesReadAt = savedDeliveriesReadAt;
+            }
+            if (shipmentCount == ABSENT && isFresh(savedShipmentCountReadAt, now)) {
+                shipmentCount = savedShipmentCount;
+                shipmentCountReadAt = savedShipmentCountReadAt;
+            }
+            if (firstShipments == null && isFresh(savedFirstShipmentsReadAt, now)) {
+                firstShipments = savedFirstShipments;
+                firstShipmentsLimit = savedFirstShipmentsLimit;
+                firstShipmentsReadAt = savedFirstShipmentsReadAt;
+            }
+            watermark = savedWatermark;
+            return shipmentNames;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("file is truncated", e);
+        }
+    }
+
+    private static boolean isFresh(long readAt, long now) {
+        return now - readAt >= 0 && now - readAt <= MAX_DATA_AGE.toMillis();
+    }
+
+    /**
+     * Writes the current contents to the file, replacing the previous one only once complete. Called at exit.
+     *
+     * @param syncWatermark The delta sync watermark, read before this call; everything it covers has been
+     *                      applied to the cache. Nothing is written if it is null (the database clock was never read)
+     *                      or if the dataset epoch was never read.
+     */
+    public void save(LocalDateTime syncWatermark, ReferenceDataRegistry referenceData) {
+        if (syncWatermark == null) return;
+        synchronized (this) {
+            if (datasetEpoch == UNKNOWN_EPOCH) return;
+        }
+        long start = System.nanoTime();
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        try {
+            byte[] bytes = encode(syncWatermark, referenceData);
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                out.write(bytes);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.log(Level.INFO, String.format("Warm-start cache saved: %,d bytes in %d ms",
+                    bytes.length, (System.nanoTime() - start) / 1_000_000));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not save the warm-start cache to " + file, e);
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ignored) {
+                // Overwritten by the next save
+            }
+        }
+    }
+
+    private synchronized byte[] encode(LocalDateTime syncWatermark, ReferenceDataRegistry referenceData) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 16);
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeLong(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(System.currentTimeMillis());
+        writeDateTime(out, syncWatermark);
+        writeString(out, DatabaseConnection.getDatabaseUrl());
+        out.writeLong(datasetEpoch); // The epoch the lists were read in, even if the database has moved on since
+
+        out.writeLong(personnelReadAt);
+        out.writeInt(personnel == null ? ABSENT : personnel.size());
+        if (personnel != null) {
+            for (DeliveryPersonnel p : personnel.values()) writePersonnel(out, p);
+        }
+        out.writeLong(pendingShipmentsReadAt);
+        out.writeInt(pendingShipments == null ? ABSENT : pendingShipments.size());
+        if (pendingShipments != null) {
+            for (Shipment s : pendingShipments.values()) writeShipment(out, s);
+        }
+        out.writeLong(deliveriesReadAt);
+        out.writeInt(deliveries == null ? ABSENT : deliveries.size());
+        Set<Integer> shipmentIds = new HashSet<>();
+        if (deliveries != null) {
+            for (Delivery d : deliveries.values()) {
+                writeDelivery(out, d);
+                shipmentIds.add(d.getShipmentId());
+            }
+        }
+        out.writeLong(shipmentCountReadAt);
+        out.writeInt(shipmentCount);
+        out.writeLong(firstShipmentsReadAt);
+        out.writeInt(firstShipmentsLimit);
+        out.writeInt(firstShipments == null ? ABSENT : firstShipments.size());
+        if (firstShipments != null) {
+            for (Shipment s : firstShipments.values()) writeShipment(out, s);
+        }
+        Map<Integer, ReferenceDataRegistry.ShipmentNames> shipmentNames = referenceData.getShipmentNames(shipmentIds);
+        out.writeInt(shipmentNames.size());
+        for (Map.Entry<Integer, ReferenceDataRegistry.ShipmentNames> entry : shipmentNames.entrySet()) {
+            out.writeInt(entry.getKey());
+            writeString(out, entry.getValue().shipmentName);
+            writeString(out, entry.getValue().customerName);
+        }
+        out.flush();
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return buffer.toByteArray();
+    }
+
+    // --- Cached lists: a copy in display order, or null if there is none ---
+
+    public synchronized List<DeliveryPersonnel> getPersonnel() {
+        return personnel == null ? null : new ArrayList<>(personnel.values());
+    }
+
+    public synchronized List<Shipment> getPendingShipments() {
+        return pendingShipments == null ? null : new ArrayList<>(pendingShipments.values());
+    }
+
+    public synchronized List<Delivery> getDeliveries() {
+        return deliveries == null ? null : new ArrayList<>(deliveries.values());
+    }
+
+    /**
+     * @param blockSize The block size of the table about to show them.
+     * @return The shipment count and first block of the default view, or null if either is missing or they
+     *         were read with another block size or no longer agree (a row was deleted from the block).
+     */
+    public synchronized ShipmentsHead getShipmentsHead(int blockSize) {
+        if (shipmentCount == ABSENT || firstShipments == null || firstShipmentsLimit != blockSize) return null;
+        if (firstShipments.size() != Math.min(blockSize, shipmentCount)) return null;
+        return new ShipmentsHead(shipmentCount, new ArrayList<>(firstShipments.values()));
+    }
+
+    /** @return The delta sync watermark the cached lists are current to, or null if nothing was loaded from the file. */
+    public synchronized LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    // --- Full lists just read from the database ---
+
+    public synchronized void rememberPersonnel(List<DeliveryPersonnel> all) {
+        personnel = new LinkedHashMap<>();
+        for (DeliveryPersonnel p : all) personnel.put(p.getPersonnelId(), p);
+        personnelReadAt = System.currentTimeMillis();
+    }
+
+    public synchronized void rememberPendingShipments(List<Shipment> pending) {
+        pendingShipments = new LinkedHashMap<>();
+        for (Shipment s : pending) pendingShipments.put(s.getShipmentId(), s);
+        pendingShipmentsReadAt = System.currentTimeMillis();
+    }
+
+    /** @param all The deliveries as shown in the {@link #isDefaultView default view}. */
+    public synchronized void rememberDeliveries(List<Delivery> all) {
+        deliveries = new LinkedHashMap<>();
+        for (Delivery d : all) deliveries.put(d.getDeliveryId(), d);
+        deliveriesReadAt = System.currentTimeMillis();
+    }
+
+    /** @param count The number of shipments in the {@link #isDefaultView default view}. */
+    public synchronized void rememberShipmentCount(int count) {
+        shipmentCount = count;
+        shipmentCountReadAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @param rows The first block of the {@link #isDefaultView default view} (shipment ID order).
+     * @param limit The block size they were read with.
+     */
+    public synchronized void rememberFirstShipments(List<Shipment> rows, int limit) {
+        firstShipments = new LinkedHashMap<>();
+        for (Shipment s : rows) firstShipments.put(s.getShipmentId(), s);
+        firstShipmentsLimit = limit;
+        firstShipmentsReadAt = System.currentTimeMillis();
+    }
+
+    private synchronized void clear() {
+        personnel = null;
+        pendingShipments = null;
+        deliveries = null;
+        shipmentCount = ABSENT;
+        firstShipments = null;
+        watermark = null;
+    }
+
+    // --- Change events ---
+
+    private synchronized void putPersonnel(DeliveryPersonnel p) {
+        if (personnel != null) personnel.put(p.getPersonnelId(), p);
+    }
+
+    private synchronized void removePersonnel(int personnelId) {
+        if (personnel != null) personnel.remove(personnelId);
+    }
+
+    private synchronized void putShipment(Shipment s, boolean created) {
+        if (created && shipmentCount != ABSENT) shipmentCount++;
+        if (firstShipments != null) {
+            // A new shipment has the highest ID, so it belongs to the first block only while that is not full.
+            // Delta sync reports new rows as updates; the table re-counts in the background and catches those.
+            if (firstShipments.containsKey(s.getShipmentId()) || (created && firstShipments.size() < firstShipmentsLimit)) {
+                firstShipments.put(s.getShipmentId(), s);
+            }
+        }
+        if (pendingShipments == null) return;
+        if ("Pending".equals(s.getDeliveryStatus())) {
+            pendingShipments.put(s.getShipmentId(), s);
+        } else {
+            pendingShipments.remove(s.getShipmentId());
+        }
+    }
+
+    private synchronized void removeShipment(int shipmentId) {
+        if (shipmentCount != ABSENT) shipmentCount--;
+        if (firstShipments != null && firstShipments.containsKey(shipmentId)) {
+            firstShipments = null; // The next row would move up into the block; it is read again instead
+        }
+        if (pendingShipments != null) pendingShipments.remove(shipmentId);
+        if (deliveries != null) deliveries.values().removeIf(d -> d.getShipmentId() == shipmentId); // ON DELETE CASCADE
+    }
+
+    private synchronized void putDelivery(Delivery d) {
+        if (deliveries != null) deliveries.put(d.getDeliveryId(), d);
+    }
+
+    private synchronized void removeDelivery(int deliveryId) {
+        if (deliveries != null) deliveries.remove(deliveryId);
+    }
+
+    // --- Encoding: fixed-width big-endian numbers, strings as a UTF-8 byte count and bytes ---
+
+    private static void writePersonnel(DataOutputStream out, DeliveryPersonnel p) throws IOException {
+        out.writeInt(p.getPersonnelId());
+        writeString(out, p.getName());
+        writeString(out, p.getContactInfo());
+        writeString(out, p.getPersonnelType());
+        writeString(out, p.getLicenseNumber());
+        writeString(out, p.getVehicleDetails());
+        writeString(out, p.getAvailabilityStatus());
+        writeDateTime(out, p.getUpdatedAt());
+    }
+
+    private static DeliveryPersonnel readPersonnel(ByteBuffer in) throws IOException {
+        DeliveryPersonnel p = new DeliveryPersonnel();
+        p.setPersonnelId(in.getInt());
+        p.setName(readString(in));
+        p.setContactInfo(readString(in));
+        p.setPersonnelType(readString(in));
+        p.setLicenseNumber(readString(in));
+        p.setVehicleDetails(readString(in));
+        p.setAvailabilityStatus(readString(in));
+        p.setUpdatedAt(readDateTime(in));
+        return p;
+    }
+
+    private static void writeShipment(DataOutputStream out, Shipment s) throws IOException {
+        out.writeInt(s.getShipmentId());
+        writeString(out, s.getTrackingNumber());
+        writeString(out, s.getSenderName());
+        writeString(out, s.getSenderAddress());
+        writeString(out, s.getSenderContact());
+        writeString(out, s.getReceiverName());
+        writeString(out, s.getReceiverAddress());
+        writeString(out, s.getReceiverContact());
+        writeString(out, s.getPackageContents());
+        out.writeDouble(s.getWeight());
+        writeString(out, s.getDimensions());
+        writeString(out, s.getDeliveryStatus());
+        writeString(out, s.getCurrentLocation());
+        writeDateTime(out, s.getEstimatedDeliveryTime());
+        writeDateTime(out, s.getActualDeliveryTime());
+        writeString(out, s.getSpecialInstructions());
+        writeDateTime(out, s.getCreationDate());
+        writeDateTime(out, s.getUpdatedAt());
+    }
+
+    private static Shipment readShipment(ByteBuffer in) throws IOException {
+        Shipment s = new Shipment();
+        s.setShipmentId(in.getInt());
+        s.setTrackingNumber(readString(in));
+        s.setSenderName(readString(in));
+        s.setSenderAddress(readString(in));
+        s.setSenderContact(readString(in));
+        s.setReceiverName(readString(in));
+        s.setReceiverAddress(readString(in));
+        s.setReceiverContact(readString(in));
+        s.setPackageContents(readString(in));
+        s.setWeight(in.getDouble());
+        s.setDimensions(readString(in));
+        s.setDeliveryStatus(readString(in));
+        s.setCurrentLocation(readString(in));
+        s.setEstimatedDeliveryTime(readDateTime(in));
+        s.setActualDeliveryTime(readDateTime(in));
+        s.setSpecialInstructions(readString(in));
+        s.setCreationDate(readDateTime(in));
+        s.setUpdatedAt(readDateTime(in));
+        return s;
+    }
+
+    private static void writeDelivery(DataOutputStream out, Delivery d) throws IOException {
+        out.writeInt(d.getDeliveryId());
+        out.writeInt(d.getShipmentId());
+        out.writeInt(d.getPersonnelId());
+        writeDateTime(out, d.getScheduledPickupTime());
+        writeDateTime(out, d.getActualPickupTime());
+        writeDateTime(out, d.getScheduledDeliveryTime());
+        writeDateTime(out, d.getActualDeliveryTime());
+        writeString(out, d.getDeliveryStatus());
+        writeString(out, d.getRouteDetails());
+        writeString(out, d.getDeliveryNotes());
+        writeDateTime(out, d.getUpdatedAt());
+    }
+
+    private static Delivery readDelivery(ByteBuffer in) throws IOException {
+        Delivery d = new Delivery();
+        d.setDeliveryId(in.getInt());
+        d.setShipmentId(in.getInt());
+        d.setPersonnelId(in.getInt());
+        d.setScheduledPickupTime(readDateTime(in));
+        d.setActualPickupTime(readDateTime(in));
+        d.setScheduledDeliveryTime(readDateTime(in));
+        d.setActualDeliveryTime(readDateTime(in));
+        d.setDeliveryStatus(readString(in));
+        d.setRouteDetails(readString(in));
+        d.setDeliveryNotes(readString(in));
+        d.setUpdatedAt(readDateTime(in));
+        return d;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(ABSENT);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        if (length == ABSENT) return null;
+        if (length < 0 || length > in.remaining()) throw new IOException("string runs past the end of the file");
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /** Wall-clock time as stored (database DATETIMEs carry no zone), in milliseconds; Long.MIN_VALUE for null. */
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value == null ? Long.MIN_VALUE : value.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        long millis = in.getLong();
+        if (millis == Long.MIN_VALUE) return null;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,148 @@
+package fasttracklogistics.snapshot;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Growable byte buffer holding the payload of one snapshot frame, with the varint encodings the format
+ * is built from. A frame on disk is: type byte, payload length (varint), payload, CRC-32C of the payload
+ * (4 bytes, big-endian). Written by {@link SnapshotWriter}, read back by {@link SnapshotReader}.
+ */
+final class FrameBuffer {
+    private byte[] bytes;
+    private int length;
+    private int position; // Read position
+
+    FrameBuffer(int initialCapacity) {
+        bytes = new byte[initialCapacity];
+    }
+
+    int length() {
+        return length;
+    }
+
+    void clear() {
+        length = 0;
+        position = 0;
+    }
+
+    // --- Writing ---
+
+    /** Unsigned LEB128: 7 bits per byte, high bit set on all but the last. */
+    void writeVarint(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    /** Zigzag varint, so small negative numbers stay short too. */
+    void writeSignedVarint(long value) {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    /** Length-prefixed UTF-8. */
+    void writeString(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(utf8.length);
+        ensureCapacity(utf8.length);
+        System.arraycopy(utf8, 0, bytes, length, utf8.length);
+        length += utf8.length;
+    }
+
+    /** Writes this buffer as one frame of the given type. */
+    void writeFrame(OutputStream out, int type) throws IOException {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, length);
+        int checksum = (int) crc.getValue();
+
+        FrameBuffer prefix = new FrameBuffer(11);
+        prefix.bytes[prefix.length++] = (byte) type;
+        prefix.writeVarint(length);
+        out.write(prefix.bytes, 0, prefix.length);
+        out.write(bytes, 0, length);
+        out.write(new byte[]{(byte) (checksum >>> 24), (byte) (checksum >>> 16), (byte) (checksum >>> 8), (byte) checksum});
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+
+    // --- Reading ---
+
+    /**
+     * Replaces the contents with the next frame's payload after checking its checksum.
+     *
+     * @return The frame type.
+     * @throws IOException If the stream ends early or the checksum does not match.
+     */
+    int readFrame(InputStream in, String context) throws IOException {
+        int type = in.read();
+        if (type < 0) throw new EOFException("Snapshot is truncated: expected a frame in " + context);
+        long payloadLength = readVarint(in);
+        if (payloadLength > Integer.MAX_VALUE - 8) throw new IOException("Snapshot is corrupt: frame of " + payloadLength + " bytes in " + context);
+        clear();
+        ensureCapacity((int) payloadLength);
+        if (in.readNBytes(bytes, 0, (int) payloadLength) != payloadLength) {
+            throw new EOFException("Snapshot is truncated in " + context);
+        }
+        length = (int) payloadLength;
+        byte[] stored = in.readNBytes(4);
+        if (stored.length != 4) throw new EOFException("Snapshot is truncated in " + context);
+
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, length);
+        int expected = ((stored[0] & 0xFF) << 24) | ((stored[1] & 0xFF) << 16) | ((stored[2] & 0xFF) << 8) | (stored[3] & 0xFF);
+        if ((int) crc.getValue() != expected) throw new IOException("Snapshot is corrupt: checksum mismatch in " + context);
+        return type;
+    }
+
+    boolean hasRemaining() {
+        return position < length;
+    }
+
+    long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= length) throw new IOException("Snapshot is corrupt: value runs past the end of its frame");
+            byte b = bytes[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IOException("Snapshot is corrupt: varint longer than 10 bytes");
+    }
+
+    long readSignedVarint() throws IOException {
+        long encoded = readVarint();
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    String readString() throws IOException {
+        long utf8Length = readVarint();
+        if (utf8Length > length - position) throw new IOException("Snapshot is corrupt: string runs past the end of its frame");
+        String value = new String(bytes, position, (int) utf8Length, StandardCharsets.UTF_8);
+        position += (int) utf8Length;
+        return value;
+    }
+
+    /** Reads a varint straight from the stream (frame lengths, which precede the buffered payload). */
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) throw new EOFException("Snapshot is truncated inside a frame header");
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Snapshot is corrupt: varint longer than 10 bytes");
+    }
+}
@@ -0,0 +1,174 @@
+package fasttracklogistics.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads a snapshot written by {@link SnapshotWriter}, one table and one row at a time. Every frame's
+ * checksum is verified before its rows are returned, each table's row count is checked against its end
+ * frame, and a file missing its final frame is reported as truncated. Not thread-safe.
+ *
+ * Usage: {@code while ((table = nextTable()) != null) while ((row = readRow()) != null) ...}
+ */
+public class SnapshotReader implements AutoCloseable {
+    private final InputStream in;
+    private final FrameBuffer frame = new FrameBuffer(SnapshotWriter.BLOCK_BYTES + 64 * 1024);
+    private final LocalDateTime createdAt;
+    private SnapshotTable table;
+    private List<List<String>> dictionaries; // Per column; null for non-text columns
+    private long[] previous;
+    private long tableRows;
+    private int tableCount;
+    private boolean finished;
+
+    /**
+     * Reads the file header.
+     *
+     * @throws IOException If this is not a snapshot or was written by an incompatible version.
+     */
+    public SnapshotReader(InputStream in) throws IOException {
+        this.in = in;
+        byte[] magic = in.readNBytes(SnapshotWriter.MAGIC.length);
+        if (!Arrays.equals(magic, SnapshotWriter.MAGIC)) throw new IOException("Not a snapshot file");
+        if (frame.readFrame(in, "the file header") != SnapshotWriter.FRAME_FILE_HEADER) {
+            throw new IOException("Snapshot is corrupt: missing file header");
+        }
+        long version = frame.readVarint();
+        if (version != SnapshotWriter.FORMAT_VERSION) {
+            throw new IOException("Snapshot format version " + version + " is not supported (expected " + SnapshotWriter.FORMAT_VERSION + ")");
+        }
+        createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(frame.readVarint()), ZoneId.systemDefault());
+    }
+
+    /** @return When the snapshot was taken, in this machine's time zone. */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Moves to the next table, skipping any rows of the current one that were not read.
+     *
+     * @return The next table, or null once the snapshot's final frame has been read.
+     * @throws IOException If the file is truncated or corrupt, or holds a table this version does not know.
+     */
+    public SnapshotTable nextTable() throws IOException {
+        while (table != null) {
+            readRow(); // Drains the rest of the current table
+        }
+        if (finished) return null;
+
+        int type = frame.readFrame(in, "the table list");
+        if (type == SnapshotWriter.FRAME_END_OF_SNAPSHOT) {
+            long expectedTables = frame.readVarint();
+            if (expectedTables != tableCount) {
+                throw new IOException("Snapshot is corrupt: " + tableCount + " tables read, " + expectedTables + " written");
+            }
+            finished = true;
+            return null;
+        }
+        if (type != SnapshotWriter.FRAME_TABLE_HEADER) throw new IOException("Snapshot is corrupt: expected a table header");
+
+        String name = frame.readString();
+        SnapshotTable known = SnapshotTable.forName(name);
+        if (known == null) throw new IOException("Snapshot holds an unknown table '" + name + "'");
+        List<SnapshotTable.Column> columns = new ArrayList<>();
+        long columnCount = frame.readVarint();
+        for (long i = 0; i < columnCount; i++) {
+            String columnName = frame.readString();
+            int typeOrdinal = (int) frame.readVarint();
+            int scale = (int) frame.readVarint();
+            if (typeOrdinal >= SnapshotTable.ColumnType.values().length) throw new IOException("Snapshot is corrupt: unknown column type in " + name);
+            columns.add(new SnapshotTable.Column(columnName, SnapshotTable.ColumnType.values()[typeOrdinal], scale));
+        }
+        if (!columns.equals(known.getColumns())) {
+            throw new IOException("Table " + name + " in the snapshot has columns " + columns + ", expected " + known.getColumns());
+        }
+
+        table = known;
+        dictionaries = new ArrayList<>(Collections.nCopies(columns.size(), null));
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).type() == SnapshotTable.ColumnType.TEXT) dictionaries.set(i, new ArrayList<>());
+        }
+        previous = new long[columns.size()];
+        tableRows = 0;
+        frame.clear();
+        return table;
+    }
+
+    /**
+     * @return The next row of the current table, values in column order typed as
+     *         {@link SnapshotTable.ColumnType#getJavaType()}, or null at the end of the table.
+     * @throws IOException If the file is truncated or corrupt.
+     */
+    public Object[] readRow() throws IOException {
+        if (table == null) return null;
+        if (!frame.hasRemaining()) {
+            int type = frame.readFrame(in, "table " + table);
+            if (type == SnapshotWriter.FRAME_TABLE_END) {
+                long expectedRows = frame.readVarint();
+                if (expectedRows != tableRows) {
+                    throw new IOException("Snapshot is corrupt: " + tableRows + " rows read from " + table + ", " + expectedRows + " written");
+                }
+                table = null;
+                tableCount++;
+                frame.clear();
+                return null;
+            }
+            if (type != SnapshotWriter.FRAME_ROW_BLOCK) throw new IOException("Snapshot is corrupt: expected rows of " + table);
+        }
+
+        List<SnapshotTable.Column> columns = table.getColumns();
+        Object[] values = new Object[columns.size()];
+        long nullFlags = frame.readVarint();
+        for (int i = 0; i < values.length; i++) {
+            if ((nullFlags & (1L << i)) != 0) continue;
+            SnapshotTable.Column column = columns.get(i);
+            switch (column.type()) {
+                case SERIAL -> {
+                    previous[i] += frame.readSignedVarint();
+                    values[i] = (int) previous[i];
+                }
+                case INT -> values[i] = (int) frame.readSignedVarint();
+                case BOOLEAN -> values[i] = frame.readVarint() != 0;
+                case DECIMAL -> values[i] = BigDecimal.valueOf(frame.readSignedVarint(), column.scale());
+                case DATETIME -> {
+                    previous[i] += frame.readSignedVarint();
+                    values[i] = LocalDateTime.ofEpochSecond(Math.floorDiv(previous[i], 1000),
+                            Math.floorMod(previous[i], 1000) * 1_000_000, ZoneOffset.UTC);
+                }
+                case TEXT -> values[i] = readText(i);
+            }
+        }
+        tableRows++;
+        return values;
+    }
+
+    private String readText(int column) throws IOException {
+        List<String> dictionary = dictionaries.get(column);
+        long code = frame.readVarint();
+        if (code > 0) {
+            if (code > dictionary.size()) throw new IOException("Snapshot is corrupt: dictionary index out of range in " + table);
+            return dictionary.get((int) code - 1);
+        }
+        String value = frame.readString();
+        // Same rule as the writer, so both number the dictionary identically
+        if (value.length() <= SnapshotWriter.DICTIONARY_MAX_LENGTH && dictionary.size() < SnapshotWriter.DICTIONARY_MAX_ENTRIES) {
+            dictionary.add(value);
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,148 @@
+package fasttracklogistics.snapshot;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The layout of one table in a snapshot: its columns in file order and how each is encoded.
+ * A snapshot records the layout of every table it contains, and {@link SnapshotReader} refuses a file
+ * whose layout differs from the one compiled in here, so changing a definition below needs a new
+ * {@link SnapshotWriter#FORMAT_VERSION}.
+ */
+public class SnapshotTable {
+
+    /** How a column's values are encoded. */
+    public enum ColumnType {
+        /** Ascending primary key, stored as the difference from the previous row's. */
+        SERIAL(Integer.class),
+        /** Any int, e.g. a foreign key, stored as a zigzag varint. */
+        INT(Integer.class),
+        BOOLEAN(Boolean.class),
+        /** Fixed-point number, stored as its unscaled value at {@link Column#scale()}. */
+        DECIMAL(BigDecimal.class),
+        /** Date and time, stored as epoch milliseconds (wall clock read as UTC), as the difference from the previous row's. */
+        DATETIME(LocalDateTime.class),
+        /** String, dictionary-encoded: a value seen before in the column is stored as its dictionary index. */
+        TEXT(String.class);
+
+        private final Class<?> javaType;
+
+        ColumnType(Class<?> javaType) {
+            this.javaType = javaType;
+        }
+
+        /** @return The class of this column's values in a row array. */
+        public Class<?> getJavaType() {
+            return javaType;
+        }
+    }
+
+    /** One column; {@code scale} is only used by DECIMAL columns. */
+    public record Column(String name, ColumnType type, int scale) {
+        Column(String name, ColumnType type) {
+            this(name, type, 0);
+        }
+    }
+
+    public static final SnapshotTable PERSONNEL = new SnapshotTable("delivery_personnel", List.of(
+            new Column("personnel_id", ColumnType.SERIAL),
+            new Column("name", ColumnType.TEXT),
+            new Column("contact_info", ColumnType.TEXT),
+            new Column("personnel_type", ColumnType.TEXT),
+            new Column("license_number", ColumnType.TEXT),
+            new Column("vehicle_details", ColumnType.TEXT),
+            new Column("availability_status", ColumnType.TEXT)));
+
+    public static final SnapshotTable SHIPMENTS = new SnapshotTable("shipments", List.of(
+            new Column("shipment_id", ColumnType.SERIAL),
+            new Column("tracking_number", ColumnType.TEXT),
+            new Column("sender_name", ColumnType.TEXT),
+            new Column("sender_address", ColumnType.TEXT),
+            new Column("sender_contact", ColumnType.TEXT),
+            new Column("receiver_name", ColumnType.TEXT),
+            new Column("receiver_address", ColumnType.TEXT),
+            new Column("receiver_contact", ColumnType.TEXT),
+            new Column("package_contents", ColumnType.TEXT),
+            new Column("weight", ColumnType.DECIMAL, 2),
+            new Column("dimensions", ColumnType.TEXT),
+            new Column("delivery_status", ColumnType.TEXT),
+            new Column("current_location", ColumnType.TEXT),
+            new Column("estimated_delivery_time", ColumnType.DATETIME),
+            new Column("actual_delivery_time", ColumnType.DATETIME),
+            new Column("special_instructions", ColumnType.TEXT),
+            new Column("creation_date", ColumnType.DATETIME)));
+
+    public static final SnapshotTable DELIVERIES = new SnapshotTable("deliveries", List.of(
+            new Column("delivery_id", ColumnType.SERIAL),
+            new Column("shipment_id", ColumnType.INT),
+            new Column("personnel_id", ColumnType.INT),
+            new Column("scheduled_pickup_time", ColumnType.DATETIME),
+            new Column("actual_pickup_time", ColumnType.DATETIME),
+            new Column("scheduled_delivery_time", ColumnType.DATETIME),
+            new Column("actual_delivery_time", ColumnType.DATETIME),
+            new Column("delivery_status", ColumnType.TEXT),
+            new Column("route_details", ColumnType.TEXT),
+            new Column("delivery_notes", ColumnType.TEXT)));
+
+    /** locked_by and locked_at are left out: dispatch leases belong to the source database's workers. */
+    public static final SnapshotTable NOTIFICATIONS = new SnapshotTable("notifications", List.of(
+            new Column("notification_id", ColumnType.SERIAL),
+            new Column("recipient_type", ColumnType.TEXT),
+            new Column("recipient_id", ColumnType.INT),
+            new Column("related_shipment_id", ColumnType.INT),
+            new Column("related_personnel_id", ColumnType.INT),
+            new Column("message", ColumnType.TEXT),
+            new Column("notification_type", ColumnType.TEXT),
+            new Column("timestamp", ColumnType.DATETIME),
+            new Column("is_read", ColumnType.BOOLEAN),
+            new Column("contact_method", ColumnType.TEXT),
+            new Column("dispatch_status", ColumnType.TEXT),
+            new Column("dispatch_attempts", ColumnType.INT),
+            new Column("dispatch_priority", ColumnType.INT),
+            new Column("next_attempt_at", ColumnType.DATETIME),
+            new Column("last_error", ColumnType.TEXT)));
+
+    /** Every table a snapshot holds, parents before children, which is also the order they are restored in. */
+    public static final List<SnapshotTable> ALL = List.of(PERSONNEL, SHIPMENTS, DELIVERIES, NOTIFICATIONS);
+
+    private final String name;
+    private final List<Column> columns;
+
+    SnapshotTable(String name, List<Column> columns) {
+        if (columns.size() > 63) throw new IllegalArgumentException("A row's null flags must fit in one long"); // See SnapshotWriter
+        this.name = name;
+        this.columns = columns;
+    }
+
+    /** @return The table with this name, or null if snapshots do not hold it. */
+    public static SnapshotTable forName(String name) {
+        for (SnapshotTable table : ALL) {
+            if (table.name.equals(name)) return table;
+        }
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /** @return The column names, in file order. */
+    public List<String> getColumnNames() {
+        return columns.stream().map(Column::name).toList();
+    }
+
+    /** @return The Java class of each column's values, in file order. */
+    public List<Class<?>> getJavaTypes() {
+        return columns.stream().<Class<?>>map(column -> column.type().getJavaType()).toList();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,166 @@
+package fasttracklogistics.snapshot;
+
+import fasttracklogistics.dao.NotificationDAO;
+import fasttracklogistics.dao.SnapshotDAO;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copies the shipments, personnel, deliveries and notifications tables between databases as a compact
+ * binary snapshot (see {@link SnapshotWriter} for the format), e.g. to seed a test environment or
+ * restore a depot, in place of replaying an SQL dump.
+ * <ul>
+ *   <li>{@code export} reads all four tables in one consistent transaction and writes the snapshot.
+ *       The file only appears under its name once complete.</li>
+ *   <li>{@code verify} reads a snapshot end to end, checking every checksum, and prints its row counts.</li>
+ *   <li>{@code restore} verifies the snapshot first, then loads it with batched inserts and constraint checks
+ *       deferred, keeping the original IDs, returns notifications exported mid-send to 'Pending' and rebuilds
+ *       the notification counters. The tables and the notifications archive must be empty unless {@code --replace}
+ *       is given, which truncates them first, along with the delta sync tombstones of the dataset being replaced.
+ *       It moves the dataset epoch on, so workstations discard their warm-start caches; close them beforehand,
+ *       as a running one's delta sync sees the restored rows but not the deleted ones.</li>
+ * </ul>
+ * Usage: {@code java fasttracklogistics.snapshot.SnapshotTool export|verify|restore <file> [--replace]}
+ */
+public class SnapshotTool {
+    /**
+     * Tables not in a snapshot that still belong to the dataset it replaces: archived notifications (whose ids a
+     * restore would reuse) and the deletions delta sync replays. A replace empties them with the snapshot's tables.
+     */
+    private static final List<String> DATASET_HISTORY_TABLES = List.of("notifications_archive", "row_tombstones");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: java fasttracklogistics.snapshot.SnapshotTool export|verify|restore <file> [--replace]");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[1]);
+        boolean replace = args.length > 2 && args[2].equals("--replace");
+        long start = System.nanoTime();
+        Map<String, Long> rowCounts;
+        switch (args[0]) {
+            case "export" -> rowCounts = export(new SnapshotDAO(), file);
+            case "verify" -> rowCounts = verify(file);
+            case "restore" -> rowCounts = restore(new SnapshotDAO(), new NotificationDAO(), file, replace);
+            default -> {
+                System.err.println("Unknown command '" + args[0] + "'; expected export, verify or restore");
+                System.exit(2);
+                return;
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        long totalRows = rowCounts.values().stream().mapToLong(Long::longValue).sum();
+        rowCounts.forEach((table, rows) -> System.out.printf("  %-20s %,12d rows%n", table, rows));
+        System.out.printf("%s: %,d rows, %,d bytes (%.1f bytes/row) in %.2f s (%,.0f rows/s)%n", args[0], totalRows,
+                Files.size(file), Files.size(file) / (double) Math.max(1, totalRows), seconds, totalRows / seconds);
+    }
+
+    /**
+     * Writes a snapshot of the database to {@code file}, via a temporary file so a failed export leaves no
+     * half-written snapshot behind.
+     *
+     * @return Rows written per table.
+     */
+    static Map<String, Long> export(SnapshotDAO snapshotDAO, Path file) throws IOException, SQLException {
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+        try (SnapshotDAO.ExportSession session = snapshotDAO.openExport();
+             SnapshotWriter writer = new SnapshotWriter(new BufferedOutputStream(Files.newOutputStream(partial), 1 << 16))) {
+            for (SnapshotTable table : SnapshotTable.ALL) {
+                writer.beginTable(table);
+                session.streamRows(table.getName(), table.getColumnNames(), table.getJavaTypes(), writer::writeRow);
+                rowCounts.put(table.getName(), writer.endTable());
+            }
+            writer.finish();
+        } catch (IOException | SQLException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rowCounts;
+    }
+
+    /**
+     * Reads the whole snapshot, checking checksums, layouts and row counts.
+     *
+     * @return Rows per table.
+     * @throws IOException If the snapshot is unreadable, truncated or corrupt.
+     */
+    static Map<String, Long> verify(Path file) throws IOException {
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+        try (SnapshotReader reader = open(file)) {
+            SnapshotTable table;
+            while ((table = reader.nextTable()) != null) {
+                long rows = 0;
+                while (reader.readRow() != null) {
+                    rows++;
+                }
+                rowCounts.put(table.getName(), rows);
+            }
+            System.out.println("Snapshot taken " + reader.getCreatedAt());
+        }
+        return rowCounts;
+    }
+
+    /**
+     * Loads a snapshot into the database. The file is verified before any row is touched, so a damaged
+     * snapshot never wipes tables.
+     *
+     * @return Rows inserted per table.
+     */
+    static Map<String, Long> restore(SnapshotDAO snapshotDAO, NotificationDAO notificationDAO, Path file, boolean replace)
+            throws IOException, SQLException {
+        verify(file);
+        Map<String, Long> rowCounts = new LinkedHashMap<>();
+        try (SnapshotDAO.RestoreSession session = snapshotDAO.openRestore();
+             SnapshotReader reader = open(file)) {
+            List<String> childFirst = new ArrayList<>();
+            for (SnapshotTable table : SnapshotTable.ALL) {
+                childFirst.add(table.getName());
+            }
+            Collections.reverse(childFirst);
+            if (!replace) {
+                List<String> mustBeEmpty = new ArrayList<>(childFirst);
+                mustBeEmpty.add("notifications_archive"); // Restored notification ids would collide with archived ones
+                for (String table : mustBeEmpty) {
+                    if (session.countRows(table) > 0) {
+                        throw new IOException("Table " + table + " is not empty; use --replace to delete its rows first");
+                    }
+                }
+            }
+            session.bumpDatasetEpoch(); // Before any row changes: a restore that fails halfway still invalidates caches
+            if (replace) {
+                List<String> toEmpty = new ArrayList<>(DATASET_HISTORY_TABLES);
+                toEmpty.addAll(childFirst);
+                session.deleteAll(toEmpty);
+            }
+
+            SnapshotTable table;
+            while ((table = reader.nextTable()) != null) {
+                rowCounts.put(table.getName(), session.insertRows(table.getName(), table.getColumnNames(), reader::readRow));
+            }
+        }
+        // Rows exported mid-send come back 'Processing' without a lease, which no sweep would ever release
+        notificationDAO.releaseUnleasedClaims();
+        notificationDAO.rebuildNotificationCounters(); // Counters are derived data and not part of the snapshot
+        return rowCounts;
+    }
+
+    private static SnapshotReader open(Path file) throws IOException {
+        return new SnapshotReader(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+    }
+}
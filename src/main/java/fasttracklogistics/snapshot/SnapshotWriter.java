@@ -0,0 +1,181 @@
+package fasttracklogistics.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams tables into a snapshot file. The file is the magic bytes and {@link #FORMAT_VERSION}, then
+ * checksummed frames (see {@link FrameBuffer}): a file header frame with the creation time; for each
+ * table a header frame naming its columns, row blocks of up to {@value #BLOCK_ROWS} rows, and an end
+ * frame with the row count; then one frame ending the snapshot with the table count. A file without
+ * that last frame is incomplete and is refused on restore.
+ *
+ * A row is a varint of null flags (bit i set if column i is null) followed by each non-null value in
+ * the encoding of its {@link SnapshotTable.ColumnType}. Short strings are dictionary-encoded per column:
+ * the first occurrence is written out and numbered, later ones are written as that number, so statuses,
+ * types and repeated names cost a byte or two. Serials and date-times are stored as the difference from
+ * the previous row's, which for rows read in key order is usually one or two bytes.
+ *
+ * Usage: {@code beginTable}, {@code writeRow}..., {@code endTable} for each table, then {@link #finish()}.
+ * Not thread-safe.
+ */
+public class SnapshotWriter implements AutoCloseable {
+    public static final int FORMAT_VERSION = 1;
+
+    static final byte[] MAGIC = "FTLSNAP\n".getBytes(StandardCharsets.US_ASCII);
+    static final int FRAME_FILE_HEADER = 0;
+    static final int FRAME_TABLE_HEADER = 1;
+    static final int FRAME_ROW_BLOCK = 2;
+    static final int FRAME_TABLE_END = 3;
+    static final int FRAME_END_OF_SNAPSHOT = 4;
+
+    static final int BLOCK_ROWS = 8_192;
+    static final int BLOCK_BYTES = 1 << 20; // A block is also cut once it reaches this size
+    /** Strings up to this many characters enter the column dictionary; longer ones (addresses, messages) rarely repeat. */
+    static final int DICTIONARY_MAX_LENGTH = 64;
+    static final int DICTIONARY_MAX_ENTRIES = 1 << 16;
+
+    private final OutputStream out;
+    private final FrameBuffer block = new FrameBuffer(BLOCK_BYTES + 64 * 1024);
+    private SnapshotTable table;
+    private List<Map<String, Integer>> dictionaries; // Per column; null for non-text columns
+    private long[] previous; // Last SERIAL / DATETIME value per column
+    private int blockRows;
+    private long tableRows;
+    private int tableCount;
+
+    /**
+     * @param out Where the snapshot goes; buffer it, rows are written in frames of up to about a megabyte.
+     */
+    public SnapshotWriter(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(MAGIC);
+        FrameBuffer version = new FrameBuffer(16);
+        version.writeVarint(FORMAT_VERSION);
+        version.writeVarint(System.currentTimeMillis());
+        version.writeFrame(out, FRAME_FILE_HEADER);
+    }
+
+    public void beginTable(SnapshotTable table) throws IOException {
+        if (this.table != null) throw new IllegalStateException("Table " + this.table + " was not ended");
+        this.table = table;
+        List<SnapshotTable.Column> columns = table.getColumns();
+        dictionaries = new ArrayList<>(Collections.nCopies(columns.size(), null));
+        previous = new long[columns.size()];
+        tableRows = 0;
+
+        FrameBuffer header = new FrameBuffer(512);
+        header.writeString(table.getName());
+        header.writeVarint(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            SnapshotTable.Column column = columns.get(i);
+            header.writeString(column.name());
+            header.writeVarint(column.type().ordinal());
+            header.writeVarint(column.scale());
+            if (column.type() == SnapshotTable.ColumnType.TEXT) dictionaries.set(i, new HashMap<>());
+        }
+        header.writeFrame(out, FRAME_TABLE_HEADER);
+        block.clear();
+        blockRows = 0;
+    }
+
+    /**
+     * @param values One value per column, in the table's column order, of the column's Java type or null.
+     */
+    public void writeRow(Object[] values) throws IOException {
+        List<SnapshotTable.Column> columns = table.getColumns();
+        if (values.length != columns.size()) {
+            throw new IllegalArgumentException("Table " + table + " has " + columns.size() + " columns, got " + values.length + " values");
+        }
+        long nullFlags = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) nullFlags |= 1L << i;
+        }
+        block.writeVarint(nullFlags);
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = values[i];
+            if (value == null) continue;
+            SnapshotTable.Column column = columns.get(i);
+            switch (column.type()) {
+                case SERIAL -> {
+                    long id = (Integer) value;
+                    block.writeSignedVarint(id - previous[i]);
+                    previous[i] = id;
+                }
+                case INT -> block.writeSignedVarint((Integer) value);
+                case BOOLEAN -> block.writeVarint((Boolean) value ? 1 : 0);
+                case DECIMAL -> block.writeSignedVarint(((BigDecimal) value).setScale(column.scale(), RoundingMode.HALF_UP).unscaledValue().longValueExact());
+                case DATETIME -> {
+                    long millis = ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli();
+                    block.writeSignedVarint(millis - previous[i]);
+                    previous[i] = millis;
+                }
+                case TEXT -> writeText(i, (String) value);
+            }
+        }
+        tableRows++;
+        if (++blockRows == BLOCK_ROWS || block.length() >= BLOCK_BYTES) flushBlock();
+    }
+
+    /** Index + 1 for a dictionary hit, else 0 followed by the string (which then joins the dictionary if short enough). */
+    private void writeText(int column, String value) {
+        Map<String, Integer> dictionary = dictionaries.get(column);
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            block.writeVarint(index + 1);
+            return;
+        }
+        block.writeVarint(0);
+        block.writeString(value);
+        if (value.length() <= DICTIONARY_MAX_LENGTH && dictionary.size() < DICTIONARY_MAX_ENTRIES) {
+            dictionary.put(value, dictionary.size());
+        }
+    }
+
+    /**
+     * Ends the current table.
+     *
+     * @return The number of rows written to it.
+     */
+    public long endTable() throws IOException {
+        flushBlock();
+        FrameBuffer end = new FrameBuffer(16);
+        end.writeVarint(tableRows);
+        end.writeFrame(out, FRAME_TABLE_END);
+        table = null;
+        dictionaries = null;
+        tableCount++;
+        return tableRows;
+    }
+
+    /** Marks the snapshot complete and flushes it. */
+    public void finish() throws IOException {
+        if (table != null) throw new IllegalStateException("Table " + table + " was not ended");
+        FrameBuffer end = new FrameBuffer(16);
+        end.writeVarint(tableCount);
+        end.writeFrame(out, FRAME_END_OF_SNAPSHOT);
+        out.flush();
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockRows == 0) return;
+        block.writeFrame(out, FRAME_ROW_BLOCK); // Rows run to the end of the payload, so no row count is needed
+        block.clear();
+        blockRows = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,116 @@
+package fasttracklogistics.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-memory histogram of non-negative durations (HDR-style log/linear buckets).
+ * Values below 128 are counted exactly; above that each power-of-two range is split
+ * into 64 linear sub-buckets, so any reported percentile is within ~1.6% of the true value.
+ * Histograms can be updated one value at a time and merged (e.g. month into year)
+ * without ever keeping or sorting the raw values.
+ */
+public class DurationHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;      // 128
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;      // 64
+
+    /** Largest value tracked exactly by bucket; larger values are clamped (2^20 min is almost two years). */
+    public static final long MAX_TRACKABLE_VALUE = (1L << 20) - 1;
+    private static final int MAX_BUCKET_INDEX = bucketIndex(MAX_TRACKABLE_VALUE);
+
+    private long[] counts = new long[SUB_BUCKET_COUNT]; // Grows on demand, never beyond MAX_BUCKET_INDEX + 1
+    private long totalCount;
+    private long totalValue;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue;
+
+    /**
+     * Records a single duration. Negative values are ignored; values above
+     * {@link #MAX_TRACKABLE_VALUE} are clamped to it.
+     *
+     * @param value The duration to record (e.g. minutes).
+     */
+    public void record(long value) {
+        if (value < 0) return;
+        long clamped = Math.min(value, MAX_TRACKABLE_VALUE);
+        int index = bucketIndex(clamped);
+        ensureCapacity(index);
+        counts[index]++;
+        totalCount++;
+        totalValue += clamped;
+        minValue = Math.min(minValue, clamped);
+        maxValue = Math.max(maxValue, clamped);
+    }
+
+    /**
+     * Adds all counts of another histogram into this one.
+     *
+     * @param other The histogram to merge in (left unchanged).
+     */
+    public void merge(DurationHistogram other) {
+        if (other == null || other.totalCount == 0) return;
+        ensureCapacity(other.counts.length - 1);
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalValue += other.totalValue;
+        minValue = Math.min(minValue, other.minValue);
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    /**
+     * Returns the value at the given percentile, e.g. 50.0 for the median.
+     * The result is the upper bound of the bucket holding that rank, capped at the observed maximum.
+     *
+     * @param percentile Percentile between 0 and 100.
+     * @return The value at that percentile, or 0 if the histogram is empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        double p = Math.max(0.0, Math.min(100.0, percentile));
+        long targetRank = Math.max(1, (long) Math.ceil(p / 100.0 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= targetRank) {
+                return Math.min(highestEquivalentValue(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    public long getTotalCount() { return totalCount; }
+
+    public long getMinValue() { return totalCount == 0 ? 0 : minValue; }
+
+    public long getMaxValue() { return maxValue; }
+
+    public double getMean() { return totalCount == 0 ? 0.0 : (double) totalValue / totalCount; }
+
+    private void ensureCapacity(int index) {
+        if (index >= counts.length) {
+            int newLength = Math.min(Math.max(index + 1, counts.length * 2), MAX_BUCKET_INDEX + 1);
+            counts = Arrays.copyOf(counts, newLength);
+        }
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Shift so the value lands in [64, 128); each shift step is one more log bucket of 64 linear slots
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) ((value >> shift) - SUB_BUCKET_HALF);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long subBucket = offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return (subBucket << shift) + (1L << shift) - 1;
+    }
+}
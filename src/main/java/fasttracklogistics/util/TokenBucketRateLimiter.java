@@ -0,0 +1,114 @@
+package fasttracklogistics.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket rate limiter with one bucket per key.
+ * Each bucket's state (available tokens, last refill time) is an immutable snapshot updated with
+ * compare-and-set, so threads taking tokens for different keys never contend and threads on the
+ * same key retry instead of blocking. Buckets are created on first use and can be evicted once idle.
+ *
+ * @param <K> Key type, e.g. a recipient identifier or a channel name.
+ */
+public class TokenBucketRateLimiter<K> {
+    private final double capacity;
+    private final double tokensPerNano;
+    private final ConcurrentHashMap<K, AtomicReference<State>> buckets = new ConcurrentHashMap<>();
+
+    // --- Metrics ---
+    private final AtomicLong grantedCount = new AtomicLong();
+    private final AtomicLong deniedCount = new AtomicLong();
+
+    /**
+     * @param capacity Maximum burst: tokens a bucket can hold (buckets start full).
+     * @param refillPerSecond Sustained rate: tokens added per second.
+     */
+    public TokenBucketRateLimiter(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Takes one token from the key's bucket if one is available.
+     *
+     * @param key The bucket to take from.
+     * @return 0 if a token was taken, otherwise how many nanoseconds until one will be available.
+     */
+    public long tryAcquire(K key) {
+        AtomicReference<State> bucket = buckets.computeIfAbsent(key, k -> new AtomicReference<>(new State(capacity, System.nanoTime())));
+        while (true) {
+            State current = bucket.get();
+            long now = System.nanoTime();
+            double tokens = refill(current, now);
+            if (tokens >= 1.0) {
+                if (bucket.compareAndSet(current, new State(tokens - 1.0, now))) {
+                    grantedCount.incrementAndGet();
+                    return 0;
+                }
+            } else {
+                deniedCount.incrementAndGet();
+                return (long) Math.ceil((1.0 - tokens) / tokensPerNano);
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire}, e.g. when a second limiter then refused the same send.
+     */
+    public void refund(K key) {
+        AtomicReference<State> bucket = buckets.get(key);
+        if (bucket == null) return;
+        while (true) {
+            State current = bucket.get();
+            long now = System.nanoTime();
+            State refunded = new State(Math.min(capacity, refill(current, now) + 1.0), now);
+            if (bucket.compareAndSet(current, refunded)) {
+                grantedCount.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes buckets that have refilled completely; they behave exactly like a new bucket,
+     * so dropping them loses nothing and keeps the map bounded by the number of active keys.
+     *
+     * @return The number of buckets removed.
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.entrySet().removeIf(entry -> refill(entry.getValue().get(), now) >= capacity);
+        return before - buckets.size();
+    }
+
+    /**
+     * @return Tokens currently available for the key (a full bucket if the key has no state).
+     */
+    public double getAvailableTokens(K key) {
+        AtomicReference<State> bucket = buckets.get(key);
+        return bucket == null ? capacity : refill(bucket.get(), System.nanoTime());
+    }
+
+    public int getTrackedKeyCount() { return buckets.size(); }
+    public long getGrantedCount() { return grantedCount.get(); }
+    public long getDeniedCount() { return deniedCount.get(); }
+
+    private double refill(State state, long now) {
+        return Math.min(capacity, state.tokens + (now - state.updatedNanos) * tokensPerNano);
+    }
+
+    /** Immutable bucket snapshot; replaced as a whole on every update. */
+    private static final class State {
+        final double tokens;
+        final long updatedNanos;
+
+        State(double tokens, long updatedNanos) {
+            this.tokens = tokens;
+            this.updatedNanos = updatedNanos;
+        }
+    }
+}
@@ -3,25 +3,18 @@ package fasttracklogistics.view;
 import fasttracklogistics.model.Shipment;
 import fasttracklogistics.model.DeliveryPersonnel;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 public class AssignDriversPanel extends JPanel {
     private JTable unassignedShipmentsTable;
     private JTable availablePersonnelTable;
-    private DefaultTableModel unassignedShipmentsTableModel;
-    private DefaultTableModel availablePersonnelTableModel;
+    private ListTableModel<Shipment> unassignedShipmentsTableModel;
+    private ListTableModel<DeliveryPersonnel> availablePersonnelTableModel;
     private JButton assignButton;
     private JButton refreshButton;
 
-    // Maps to store IDs for easy lookup (populated by controller)
-    private Map<Integer, Shipment> allShipmentsMap;
-    private Map<Integer, DeliveryPersonnel> allPersonnelMap;
-
     public AssignDriversPanel() {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -33,12 +26,9 @@ public class AssignDriversPanel extends JPanel {
         // Unassigned Shipments Table
         JPanel unassignedShipmentsPanel = new JPanel(new BorderLayout());
         unassignedShipmentsPanel.setBorder(BorderFactory.createTitledBorder("Unassigned Shipments (Status: Pending)"));
-        unassignedShipmentsTableModel = new DefaultTableModel(new Object[]{
+        unassignedShipmentsTableModel = new ListTableModel<>(new String[]{
                 "Shipment ID", "Tracking No.", "Receiver Name", "Receiver Contact", "Contents", "Status"
-        }, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-        };
+        }, Shipment::getShipmentId, AssignDriversPanel::cellValue);
         unassignedShipmentsTable = new JTable(unassignedShipmentsTableModel);
         unassignedShipmentsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         unassignedShipmentsPanel.add(new JScrollPane(unassignedShipmentsTable), BorderLayout.CENTER);
@@ -47,12 +37,9 @@ public class AssignDriversPanel extends JPanel {
         // Available Personnel Table
         JPanel availablePersonnelPanel = new JPanel(new BorderLayout());
         availablePersonnelPanel.setBorder(BorderFactory.createTitledBorder("Available Delivery Personnel"));
-        availablePersonnelTableModel = new DefaultTableModel(new Object[]{
+        availablePersonnelTableModel = new ListTableModel<>(new String[]{
                 "Personnel ID", "Name", "Contact Info", "Vehicle Type", "Availability"
-        }, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) { return false; }
-        };
+        }, DeliveryPersonnel::getPersonnelId, AssignDriversPanel::cellValue);
         availablePersonnelTable = new JTable(availablePersonnelTableModel);
         availablePersonnelTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         availablePersonnelPanel.add(new JScrollPane(availablePersonnelTable), BorderLayout.CENTER);
@@ -82,69 +69,67 @@ public class AssignDriversPanel extends JPanel {
 
     // --- Methods to update the View ---
     public void displayUnassignedShipments(List<Shipment> shipments) {
-        unassignedShipmentsTableModel.setRowCount(0);
-        allShipmentsMap = shipments.stream()
-                .collect(Collectors.toMap(Shipment::getShipmentId, s -> s));
-        for (Shipment s : shipments) {
-            unassignedShipmentsTableModel.addRow(new Object[]{
-                    s.getShipmentId(),
-                    s.getTrackingNumber(),
-                    s.getReceiverName(),
-                    s.getReceiverContact(),
-                    s.getPackageContents(),
-                    s.getDeliveryStatus()
-            });
-        }
+        unassignedShipmentsTableModel.setRows(shipments);
     }
 
     public void displayAvailablePersonnel(List<DeliveryPersonnel> personnelList) {
-        availablePersonnelTableModel.setRowCount(0);
-        allPersonnelMap = personnelList.stream()
-                .collect(Collectors.toMap(DeliveryPersonnel::getPersonnelId, p -> p));
-        for (DeliveryPersonnel p : personnelList) {
-            availablePersonnelTableModel.addRow(new Object[]{
-                    p.getPersonnelId(),
-                    p.getName(),
-                    p.getContactInfo(),
-                    p.getVehicleDetails(),
-                    p.getAvailabilityStatus()
-            });
-        }
+        availablePersonnelTableModel.setRows(personnelList);
+    }
+
+    /**
+     * Shows or refreshes one unassigned shipment row.
+     */
+    public void upsertUnassignedShipment(Shipment shipment) {
+        unassignedShipmentsTableModel.upsert(shipment);
+    }
+
+    public void removeUnassignedShipment(int shipmentId) {
+        unassignedShipmentsTableModel.remove(shipmentId);
+    }
+
+    /**
+     * Shows or refreshes one available personnel row.
+     */
+    public void upsertAvailablePersonnel(DeliveryPersonnel personnel) {
+        availablePersonnelTableModel.upsert(personnel);
+    }
+
+    public void removeAvailablePersonnel(int personnelId) {
+        availablePersonnelTableModel.remove(personnelId);
+    }
+
+    private static Object cellValue(Shipment s, int column) {
+        return switch (column) {
+            case 0 -> s.getShipmentId();
+            case 1 -> s.getTrackingNumber();
+            case 2 -> s.getReceiverName();
+            case 3 -> s.getReceiverContact();
+            case 4 -> s.getPackageContents();
+            case 5 -> s.getDeliveryStatus();
+            default -> null;
+        };
+    }
+
+    private static Object cellValue(DeliveryPersonnel p, int column) {
+        return switch (column) {
+            case 0 -> p.getPersonnelId();
+            case 1 -> p.getName();
+            case 2 -> p.getContactInfo();
+            case 3 -> p.getVehicleDetails();
+            case 4 -> p.getAvailabilityStatus();
+            default -> null;
+        };
     }
 
     // --- Methods to get selected items ---
     public int getSelectedShipmentId() {
         int selectedRow = unassignedShipmentsTable.getSelectedRow();
-        if (selectedRow != -1) {
-            Object idValue = unassignedShipmentsTableModel.getValueAt(selectedRow, 0);
-            if (idValue instanceof Integer) {
-                return (int) idValue;
-            } else if (idValue instanceof String) {
-                try {
-                    return Integer.parseInt((String) idValue);
-                } catch (NumberFormatException e) {
-                    return -1;
-                }
-            }
-        }
-        return -1;
+        return selectedRow != -1 ? unassignedShipmentsTableModel.getRow(selectedRow).getShipmentId() : -1;
     }
 
     public int getSelectedPersonnelId() {
         int selectedRow = availablePersonnelTable.getSelectedRow();
-        if (selectedRow != -1) {
-            Object idValue = availablePersonnelTableModel.getValueAt(selectedRow, 0);
-            if (idValue instanceof Integer) {
-                return (int) idValue;
-            } else if (idValue instanceof String) {
-                try {
-                    return Integer.parseInt((String) idValue);
-                } catch (NumberFormatException e) {
-                    return -1;
-                }
-            }
-        }
-        return -1;
+        return selectedRow != -1 ? availablePersonnelTableModel.getRow(selectedRow).getPersonnelId() : -1;
     }
 
     public void showMessage(String message, String title, int messageType) {
@@ -1,12 +1,11 @@
 package fasttracklogistics.view;
 
 import fasttracklogistics.model.CustomerNotification; // Import the specific customer notification model
+import fasttracklogistics.service.ReferenceDataRegistry;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
 
 /**
  * JPanel to display a table of notifications specifically for Customers.
@@ -14,28 +13,20 @@ import java.util.Map;
  */
 public class CustomerNotificationsTabPanel extends JPanel {
     private JTable notificationsTable;
-    private DefaultTableModel tableModel;
-    private Map<Integer, String> shipmentIdToTrackingNumberMap; // To show readable shipment info
-    private Map<String, Integer> customerContactToShipmentIdMap; // For reverse lookup (customer display name to shipment ID)
+    private ListTableModel<CustomerNotification> tableModel;
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final ReferenceDataRegistry referenceData; // To show readable customer and shipment info
 
-    public CustomerNotificationsTabPanel() {
+    public CustomerNotificationsTabPanel(ReferenceDataRegistry referenceData) {
+        this.referenceData = referenceData;
         setLayout(new BorderLayout());
 
         // Define columns for customer notifications table
         String[] columnNames = {"ID", "Recipient (Shipment ID)", "Related Shipment", "Message", "Type", "Timestamp", "Read", "Method"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // All cells non-editable
-            }
-        };
+        tableModel = new ListTableModel<>(columnNames, CustomerNotification::getNotificationId, this::cellValue);
         notificationsTable = new JTable(tableModel);
         notificationsTable.setFillsViewportHeight(true);
         add(new JScrollPane(notificationsTable), BorderLayout.CENTER);
-
-        // Initialize maps. These will be populated by the controller via setter methods.
-        this.shipmentIdToTrackingNumberMap = new java.util.HashMap<>();
-        this.customerContactToShipmentIdMap = new java.util.HashMap<>();
     }
 
     /**
@@ -44,63 +35,52 @@ public class CustomerNotificationsTabPanel extends JPanel {
      * @param notifications List of CustomerNotification objects to display.
      */
     public void displayNotifications(List<CustomerNotification> notifications) {
-        tableModel.setRowCount(0); // Clear existing rows
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-        for (CustomerNotification n : notifications) {
-            String recipientDisplayName = getCustomerDisplayName(n.getCustomerShipmentId()); // Get readable customer name
-            String shipmentDisplayName = shipmentIdToTrackingNumberMap.getOrDefault(n.getRelatedShipmentId(), "N/A"); // Get readable related shipment info
-
-            tableModel.addRow(new Object[]{
-                    n.getNotificationId(),
-                    recipientDisplayName,
-                    shipmentDisplayName,
-                    n.getMessage(),
-                    n.getNotificationType(),
-                    n.getTimestamp() != null ? n.getTimestamp().format(formatter) : "N/A",
-                    n.isRead() ? "Yes" : "No",
-                    n.getContactMethod()
-            });
-        }
+        tableModel.setRows(notifications);
     }
 
-    // --- Helper methods for display names (called by Controller to set data) ---
-
     /**
-     * Sets the map for resolving shipment IDs to readable tracking numbers/receiver names.
-     * This map is crucial for correctly displaying related shipment information in the table.
-     * @param map A map where keys are Shipment IDs (Integer) and values are display strings (e.g., "TRK123 (Receiver Name)").
+     * Computes one cell when the table paints it, so display names and timestamps are only formatted for visible rows.
      */
-    public void setShipmentIdToTrackingNumberMap(Map<Integer, String> map) {
-        this.shipmentIdToTrackingNumberMap.clear();
-        this.shipmentIdToTrackingNumberMap.putAll(map);
+    private Object cellValue(CustomerNotification n, int column) {
+        return switch (column) {
+            case 0 -> n.getNotificationId();
+            case 1 -> getCustomerDisplayName(n.getCustomerShipmentId()); // Readable customer name
+            case 2 -> getShipmentDisplayName(n.getRelatedShipmentId()); // Readable related shipment info
+            case 3 -> n.getMessage();
+            case 4 -> n.getNotificationType();
+            case 5 -> n.getTimestamp() != null ? n.getTimestamp().format(DATE_TIME_FORMAT) : "N/A";
+            case 6 -> n.isRead() ? "Yes" : "No";
+            case 7 -> n.getContactMethod();
+            default -> null;
+        };
     }
 
     /**
-     * Sets the map for resolving recipient IDs (which are effectively Shipment IDs for customers)
-     * to a customer-friendly display name. This map helps in displaying the actual customer associated
-     * with the notification based on their linked shipment.
-     * @param map A map where keys are customer display strings (e.g., "John Doe (Shipment: TRK456)")
-     * and values are the associated Shipment IDs (Integer).
+     * @return The notification IDs of the selected table rows (empty if nothing is selected).
      */
-    public void setCustomerContactToShipmentIdMap(Map<String, Integer> map) {
-        this.customerContactToShipmentIdMap.clear();
-        this.customerContactToShipmentIdMap.putAll(map);
+    public List<Integer> getSelectedNotificationIds() {
+        List<Integer> ids = new java.util.ArrayList<>();
+        for (int viewRow : notificationsTable.getSelectedRows()) {
+            int modelRow = notificationsTable.convertRowIndexToModel(viewRow);
+            ids.add(tableModel.getRow(modelRow).getNotificationId());
+        }
+        return ids;
     }
 
+    // --- Display names, read from the shared registry when a cell is painted ---
+
     /**
-     * Helper method to get the customer's display name from the cached map.
      * @param customerShipmentId The shipment ID acting as the customer's proxy ID.
-     * @return A formatted display string for the customer, or "N/A" / fallback if not found.
+     * @return A formatted display string for the customer, or "N/A" / fallback if not loaded.
      */
     private String getCustomerDisplayName(int customerShipmentId) {
         if (customerShipmentId == 0) return "N/A";
-        // Iterate through the map to find the display name associated with the customerShipmentId
-        for (Map.Entry<String, Integer> entry : customerContactToShipmentIdMap.entrySet()) {
-            if (entry.getValue().equals(customerShipmentId)) {
-                return entry.getKey();
-            }
-        }
-        return "Customer (Shipment ID: " + customerShipmentId + ")"; // Fallback if not found
+        String name = referenceData.getSnapshot().getCustomerName(customerShipmentId);
+        return name != null ? name : "Customer (Shipment ID: " + customerShipmentId + ")"; // Fallback if not found
+    }
+
+    private String getShipmentDisplayName(int shipmentId) {
+        String name = referenceData.getSnapshot().getShipmentName(shipmentId);
+        return name != null ? name : "N/A";
     }
 }
@@ -0,0 +1,158 @@
+package fasttracklogistics.view;
+
+import fasttracklogistics.dao.QuerySpec;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionListener;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A row of filter inputs above a table. Each input maps to one database column and becomes an
+ * index-friendly condition in a {@link QuerySpec}: a choice becomes an equality, a date range a half-open
+ * range over whole days, and a text search a prefix match on the chosen column.
+ */
+class FilterBar extends JPanel {
+    private static final String ANY = "All";
+
+    private final List<Choice> choices = new ArrayList<>();
+    private final List<DateRange> dateRanges = new ArrayList<>();
+    private final Map<String, String> searchColumnsByLabel = new LinkedHashMap<>();
+    private JComboBox<String> searchColumnComboBox;
+    private JTextField searchField;
+    private final JButton applyButton = new JButton("Apply");
+    private final JButton resetButton = new JButton("Reset");
+
+    FilterBar() {
+        super(new FlowLayout(FlowLayout.LEFT, 8, 4));
+        setBorder(BorderFactory.createTitledBorder("Filter"));
+        resetButton.addActionListener(e -> {
+            reset();
+            applyButton.doClick();
+        });
+    }
+
+    /** Adds a drop-down that filters the column to one of the given values ("All" for no filter). */
+    FilterBar addChoice(String label, String column, String... values) {
+        JComboBox<String> comboBox = new JComboBox<>();
+        comboBox.addItem(ANY);
+        for (String value : values) comboBox.addItem(value);
+        choices.add(new Choice(column, comboBox));
+        add(new JLabel(label + ":"));
+        add(comboBox);
+        return this;
+    }
+
+    /** Adds from/to date fields (YYYY-MM-DD, both inclusive, either may be empty) for a date-time column. */
+    FilterBar addDateRange(String label, String column) {
+        DateRange range = new DateRange(label, column, new JTextField(8), new JTextField(8));
+        dateRanges.add(range);
+        range.from.setToolTipText("YYYY-MM-DD");
+        range.to.setToolTipText("YYYY-MM-DD");
+        range.from.addActionListener(e -> applyButton.doClick());
+        range.to.addActionListener(e -> applyButton.doClick());
+        add(new JLabel(label + " from:"));
+        add(range.from);
+        add(new JLabel("to:"));
+        add(range.to);
+        return this;
+    }
+
+    /**
+     * Adds a "starts with" text search over one of the given columns, chosen from a drop-down.
+     *
+     * @param labels Drop-down entries.
+     * @param columns The database column for each entry.
+     */
+    FilterBar addPrefixSearch(String[] labels, String[] columns) {
+        for (int i = 0; i < labels.length; i++) {
+            searchColumnsByLabel.put(labels[i], columns[i]);
+        }
+        searchColumnComboBox = new JComboBox<>(labels);
+        searchField = new JTextField(12);
+        searchField.addActionListener(e -> applyButton.doClick()); // Enter applies
+        add(searchColumnComboBox);
+        add(new JLabel("starts with:"));
+        add(searchField);
+        return this;
+    }
+
+    /** Adds the Apply and Reset buttons; call after the inputs. */
+    FilterBar addButtons() {
+        add(applyButton);
+        add(resetButton);
+        return this;
+    }
+
+    void addApplyListener(ActionListener listener) {
+        applyButton.addActionListener(listener);
+    }
+
+    /**
+     * Adds the filters currently entered to the spec.
+     *
+     * @return false (after telling the user) if a date could not be parsed.
+     */
+    boolean applyTo(QuerySpec spec) {
+        for (Choice choice : choices) {
+            Object selected = choice.comboBox.getSelectedItem();
+            if (selected != null && !ANY.equals(selected)) {
+                spec.whereEquals(choice.column, (String) selected);
+            }
+        }
+        for (DateRange range : dateRanges) {
+            try {
+                String from = range.from.getText().trim();
+                String to = range.to.getText().trim();
+                if (!from.isEmpty()) spec.whereFrom(range.column, LocalDate.parse(from).atStartOfDay());
+                if (!to.isEmpty()) spec.whereBefore(range.column, LocalDate.parse(to).plusDays(1).atStartOfDay());
+            } catch (DateTimeParseException e) {
+                JOptionPane.showMessageDialog(this, "Invalid date for " + range.label + ". Please use YYYY-MM-DD.",
+                        "Input Error", JOptionPane.ERROR_MESSAGE);
+                return false;
+            }
+        }
+        if (searchField != null && !searchField.getText().trim().isEmpty()) {
+            spec.whereStartsWith(searchColumnsByLabel.get((String) searchColumnComboBox.getSelectedItem()), searchField.getText().trim());
+        }
+        return true;
+    }
+
+    private void reset() {
+        for (Choice choice : choices) choice.comboBox.setSelectedItem(ANY);
+        for (DateRange range : dateRanges) {
+            range.from.setText("");
+            range.to.setText("");
+        }
+        if (searchField != null) searchField.setText("");
+    }
+
+    private static final class Choice {
+        final String column;
+        final JComboBox<String> comboBox;
+
+        Choice(String column, JComboBox<String> comboBox) {
+            this.column = column;
+            this.comboBox = comboBox;
+        }
+    }
+
+    private static final class DateRange {
+        final String label;
+        final String column;
+        final JTextField from;
+        final JTextField to;
+
+        DateRange(String label, String column, JTextField from, JTextField to) {
+            this.label = label;
+            this.column = column;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package fasttracklogistics.view;
+
+import javax.swing.JComponent;
+import javax.swing.JTabbedPane;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tabbed pane whose tabs are wired up (controller constructed, initial data loaded) the first time they
+ * are selected instead of all at startup, so the time to the first usable screen is that of the tab shown
+ * first. {@link #prewarmRemainingTabs} then initializes the others one at a time while the user works,
+ * so switching tabs later is usually instant too. Each initialization's duration is logged.
+ *
+ * A tab may have a preload, which reads its initial data on a background thread (into the caches its controller
+ * reads from) before the initializer wires the controller on the event dispatch thread, so neither a first
+ * selection nor a pre-warm runs its queries on the event dispatch thread.
+ *
+ * A tab's panel exists from the start; only its initializer is deferred. Use from the event dispatch thread only.
+ */
+public class LazyTabbedPane extends JTabbedPane {
+    private static final Logger LOGGER = Logger.getLogger(LazyTabbedPane.class.getName());
+
+    /** Reads a tab's initial data; runs on a background thread. */
+    @FunctionalInterface
+    public interface Preload {
+        void run() throws Exception;
+    }
+
+    private final Map<JComponent, Preload> pendingPreloads = new HashMap<>();
+    private final Map<JComponent, Runnable> pendingInitializers = new HashMap<>();
+    private final Set<JComponent> loading = new HashSet<>(); // Tabs whose preload is running
+    private Timer prewarmTimer;
+
+    public LazyTabbedPane() {
+        addChangeListener(e -> {
+            if (getSelectedComponent() instanceof JComponent selected) initialize(selected, "first selection");
+        });
+    }
+
+    /**
+     * Adds a tab whose initializer runs on the event dispatch thread when the tab is first selected or
+     * pre-warmed, whichever comes first. The first tab added is selected, so its initializer runs at once.
+     */
+    public void addLazyTab(String title, JComponent panel, Runnable initializer) {
+        addLazyTab(title, panel, null, initializer);
+    }
+
+    /**
+     * Adds a tab whose preload runs on a background thread when the tab is first selected or pre-warmed,
+     * followed by its initializer on the event dispatch thread. The initializer also runs if the preload fails
+     * (the failure is logged), so the controller's own load reports the error.
+     *
+     * @param preload May be null: the initializer then runs at once.
+     */
+    public void addLazyTab(String title, JComponent panel, Preload preload, Runnable initializer) {
+        if (preload != null) pendingPreloads.put(panel, preload);
+        pendingInitializers.put(panel, initializer);
+        addTab(title, panel);
+    }
+
+    /**
+     * Starts initializing the tabs not yet selected, one every {@code intervalMillis} and never two preloads at
+     * once, leaving the event dispatch thread free for input in between. Call once the window has been painted.
+     */
+    public void prewarmRemainingTabs(int intervalMillis) {
+        if (prewarmTimer != null || pendingInitializers.isEmpty()) return;
+        prewarmTimer = new Timer(intervalMillis, e -> {
+            if (!loading.isEmpty()) return; // Wait for the running preload
+            for (int i = 0; i < getTabCount(); i++) { // In tab order
+                if (getComponentAt(i) instanceof JComponent panel && pendingInitializers.containsKey(panel)) {
+                    initialize(panel, "pre-warm");
+                    return;
+                }
+            }
+            prewarmTimer.stop();
+            LOGGER.log(Level.INFO, "All tabs initialized");
+        });
+        prewarmTimer.start();
+    }
+
+    private void initialize(JComponent panel, String trigger) {
+        if (loading.contains(panel)) return; // Wired when its preload finishes
+        Preload preload = pendingPreloads.remove(panel); // Removed first: runs once even if it fails
+        if (preload == null) {
+            wire(panel, trigger, System.nanoTime());
+            return;
+        }
+        loading.add(panel);
+        long start = System.nanoTime();
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                preload.run();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    LOGGER.log(Level.WARNING, "Preload failed for tab '" + getTitleAt(indexOfComponent(panel)) + "'", ex.getCause());
+                }
+                loading.remove(panel);
+                wire(panel, trigger, start);
+            }
+        }.execute();
+    }
+
+    private void wire(JComponent panel, String trigger, long start) {
+        Runnable initializer = pendingInitializers.remove(panel); // Removed first: runs once even if it fails
+        if (initializer == null) return;
+        String title = getTitleAt(indexOfComponent(panel));
+        long wireStart = System.nanoTime();
+        try {
+            initializer.run();
+        } finally {
+            long end = System.nanoTime();
+            LOGGER.log(Level.INFO, String.format("Tab '%s' initialized in %d ms, %d ms of it on the event dispatch thread (%s)", title,
+                    TimeUnit.NANOSECONDS.toMillis(end - start), TimeUnit.NANOSECONDS.toMillis(end - wireStart), trigger));
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package fasttracklogistics.view;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-only table model over a data set too large to hold in memory.
+ * It knows only the total row count; rows are fetched in fixed-size blocks from a {@link PageSource}
+ * on a background thread the first time the table paints them, and a few blocks ahead of the viewport
+ * are prefetched. Loaded blocks are kept in an LRU cache of bounded size, so memory and open time
+ * do not depend on the size of the data set. Rows still loading show a placeholder.
+ *
+ * Block requests are served newest first, so while the user drags the scrollbar the block under the
+ * viewport is loaded before the ones scrolled past. Use from the event dispatch thread only.
+ *
+ * @param <T> The model type shown in each row.
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+    private static final Logger LOGGER = Logger.getLogger(LazyTableModel.class.getName());
+    private static final String LOADING_TEXT = "Loading...";
+    private static final long FAILED_BLOCK_RETRY_MILLIS = 5_000;
+
+    /** Supplies the row count and blocks of rows, in a stable order. Called on the loader thread. */
+    public interface PageSource<T> {
+        int count() throws SQLException;
+        List<T> page(int offset, int limit) throws SQLException;
+    }
+
+    private final String[] columnNames;
+    private final ToIntFunction<? super T> idOf;
+    private final ListTableModel.CellValue<? super T> cellValue;
+    private final int blockSize;
+    private final int prefetchBlocks;
+    private final int maxPendingBlocks;
+
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "lazy-table-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LinkedBlockingDeque<BlockRequest> pendingBlocks = new LinkedBlockingDeque<>(); // Newest first
+
+    // Event dispatch thread only
+    private PageSource<T> source;
+    private int generation; // Bumped whenever the cache is dropped; block results for older generations are ignored
+    private int latestCountRequest; // Only the newest count result is applied
+    private boolean invalidateRequested; // A reload is on its way: keep showing the old rows, load nothing new
+    private int rowCount;
+    private final LinkedHashMap<Integer, List<T>> blocks;
+    private final Set<Integer> requestedBlocks = new HashSet<>();
+    private final Map<Integer, Long> failedBlocks = new HashMap<>(); // Block -> failure time, to avoid retrying on every repaint
+
+    /**
+     * Creates a model loading blocks of 200 rows, caching up to 50 blocks and prefetching 2 blocks ahead.
+     */
+    public LazyTableModel(String[] columnNames, ToIntFunction<? super T> idOf, ListTableModel.CellValue<? super T> cellValue) {
+        this(columnNames, idOf, cellValue, 200, 50, 2);
+    }
+
+    /**
+     * @param blockSize Rows fetched per query.
+     * @param maxCachedBlocks Blocks kept in memory; the least recently painted block is evicted first.
+     * @param prefetchBlocks Blocks loaded ahead of (and one behind) the painted block.
+     */
+    public LazyTableModel(String[] columnNames, ToIntFunction<? super T> idOf, ListTableModel.CellValue<? super T> cellValue,
+                          int blockSize, int maxCachedBlocks, int prefetchBlocks) {
+        this.columnNames = columnNames.clone();
+        this.idOf = idOf;
+        this.cellValue = cellValue;
+        this.blockSize = blockSize;
+        this.prefetchBlocks = prefetchBlocks;
+        this.maxPendingBlocks = maxCachedBlocks;
+        this.blocks = new LinkedHashMap<>(16, 0.75f, true) { // Access order: get() marks a block as recently used
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > maxCachedBlocks;
+            }
+        };
+    }
+
+    /**
+     * Switches to a new source (for example a different sort or filter) and reloads.
+     */
+    public void setSource(PageSource<T> source) {
+        this.source = source;
+        reload();
+    }
+
+    /**
+     * Switches to a new source whose row count and first block are already known (e.g. from a warm-start cache)
+     * and shows them at once, then re-reads the count in the background and reloads only if it changed.
+     * Falls back to {@link #setSource(PageSource)} if the block does not fit the count and block size.
+     */
+    public void setSource(PageSource<T> source, int knownCount, List<T> firstBlock) {
+        if (knownCount < 0 || firstBlock.size() != Math.min(blockSize, knownCount)) {
+            setSource(source);
+            return;
+        }
+        this.source = source;
+        generation++;
+        invalidateRequested = false;
+        pendingBlocks.clear();
+        requestedBlocks.clear();
+        blocks.clear();
+        failedBlocks.clear();
+        rowCount = knownCount;
+        if (knownCount > 0) blocks.put(0, new ArrayList<>(firstBlock));
+        fireTableDataChanged();
+        reloadIfCountChanged();
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Re-reads the row count and drops every cached block; the visible rows are fetched again as they repaint.
+     */
+    public void reload() {
+        loadCount(true);
+    }
+
+    /**
+     * Re-reads the row count and reloads only if it changed, e.g. after a row that may be new was reported.
+     */
+    public void reloadIfCountChanged() {
+        loadCount(false);
+    }
+
+    private void loadCount(boolean invalidate) {
+        if (source == null) return;
+        PageSource<T> requestSource = source;
+        int request = ++latestCountRequest;
+        invalidateRequested |= invalidate;
+        loader.execute(() -> {
+            try {
+                int count = requestSource.count();
+                SwingUtilities.invokeLater(() -> {
+                    if (request != latestCountRequest) return; // A newer count is on its way
+                    if (!invalidateRequested && count == rowCount) return;
+                    invalidateRequested = false;
+                    generation++;
+                    pendingBlocks.clear();
+                    requestedBlocks.clear();
+                    blocks.clear();
+                    failedBlocks.clear();
+                    rowCount = count;
+                    fireTableDataChanged();
+                });
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Could not count rows for table", e);
+                SwingUtilities.invokeLater(() -> {
+                    if (request == latestCountRequest) invalidateRequested = false; // Keep the rows already shown
+                });
+            }
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        T row = getRow(rowIndex);
+        if (row == null) {
+            return columnIndex == 0 ? LOADING_TEXT : "";
+        }
+        return cellValue.valueAt(row, columnIndex);
+    }
+
+    /**
+     * @return The row object at the given index, or null if its block is still loading (the load is requested).
+     */
+    public T getRow(int rowIndex) {
+        int block = rowIndex / blockSize;
+        List<T> rows = blocks.get(block);
+        requestBlock(block);
+        for (int ahead = 1; ahead <= prefetchBlocks; ahead++) {
+            requestBlock(block + ahead);
+        }
+        requestBlock(block - 1); // Scrolling up
+        int offsetInBlock = rowIndex % blockSize;
+        return rows != null && offsetInBlock < rows.size() ? rows.get(offsetInBlock) : null;
+    }
+
+    /**
+     * Replaces a row in place if its block is loaded.
+     *
+     * @return true if the row was found and replaced.
+     */
+    public boolean replace(T row) {
+        int id = idOf.applyAsInt(row);
+        for (Map.Entry<Integer, List<T>> entry : blocks.entrySet()) {
+            List<T> rows = entry.getValue();
+            for (int i = 0; i < rows.size(); i++) {
+                if (idOf.applyAsInt(rows.get(i)) == id) {
+                    rows.set(i, row);
+                    int rowIndex = entry.getKey() * blockSize + i;
+                    fireTableRowsUpdated(rowIndex, rowIndex);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void requestBlock(int block) {
+        if (source == null || invalidateRequested || block < 0 || block * blockSize >= rowCount) return;
+        if (blocks.containsKey(block) || !requestedBlocks.add(block)) return;
+        Long failedAt = failedBlocks.get(block);
+        if (failedAt != null && System.currentTimeMillis() - failedAt < FAILED_BLOCK_RETRY_MILLIS) {
+            requestedBlocks.remove(block);
+            return;
+        }
+        pendingBlocks.addFirst(new BlockRequest(generation, block, source));
+        BlockRequest dropped = pendingBlocks.size() > maxPendingBlocks ? pendingBlocks.pollLast() : null;
+        if (dropped != null) {
+            requestedBlocks.remove(dropped.block); // Scrolled far past; requested again if it comes back into view
+        }
+        loader.execute(this::loadNewestBlock);
+    }
+
+    /** Runs on the loader thread: fetches the most recently requested block. */
+    private void loadNewestBlock() {
+        BlockRequest request = pendingBlocks.pollFirst();
+        if (request == null) return; // Taken by an earlier task or dropped
+        try {
+            List<T> rows = request.source.page(request.block * blockSize, blockSize);
+            SwingUtilities.invokeLater(() -> {
+                if (request.generation != generation) return;
+                requestedBlocks.remove(request.block);
+                failedBlocks.remove(request.block);
+                blocks.put(request.block, rows);
+                int first = request.block * blockSize;
+                int last = Math.min(first + blockSize, rowCount) - 1;
+                if (last >= first) {
+                    fireTableRowsUpdated(first, last);
+                }
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Could not load rows " + request.block * blockSize + "-" + ((request.block + 1) * blockSize - 1), e);
+            SwingUtilities.invokeLater(() -> {
+                if (request.generation != generation) return;
+                requestedBlocks.remove(request.block);
+                failedBlocks.put(request.block, System.currentTimeMillis());
+            });
+        }
+    }
+
+    /** A block load requested for one generation of the model. */
+    private final class BlockRequest {
+        final int generation;
+        final int block;
+        final PageSource<T> source;
+
+        BlockRequest(int generation, int block, PageSource<T> source) {
+            this.generation = generation;
+            this.block = block;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package fasttracklogistics.view;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read-only table model backed directly by a list of model objects.
+ * Cell values are computed on demand for the rows the table actually paints, so no Object[] per row
+ * is built up front, and an id-to-row index makes single-row changes O(1) to locate.
+ *
+ * {@link #setRows(List)} replaces everything with one {@code fireTableDataChanged}; {@link #upsert},
+ * {@link #remove} and {@link #fireRowsUpdated} fire row-level insert/update/delete events, so the
+ * table keeps its selection and only repaints what changed. Use from the event dispatch thread only.
+ *
+ * @param <T> The model type shown in each row.
+ */
+public class ListTableModel<T> extends AbstractTableModel {
+
+    /** Produces the value shown in one cell of a row. */
+    @FunctionalInterface
+    public interface CellValue<T> {
+        Object valueAt(T row, int column);
+    }
+
+    private final String[] columnNames;
+    private final ToIntFunction<? super T> idOf;
+    private final CellValue<? super T> cellValue;
+    private final List<T> rows = new ArrayList<>();
+    private final Map<Integer, Integer> rowIndexById = new HashMap<>();
+
+    /**
+     * @param columnNames Column headers.
+     * @param idOf Extracts the unique id used to find a row again.
+     * @param cellValue Computes a cell's displayed value from the row object.
+     */
+    public ListTableModel(String[] columnNames, ToIntFunction<? super T> idOf, CellValue<? super T> cellValue) {
+        this.columnNames = columnNames.clone();
+        this.idOf = idOf;
+        this.cellValue = cellValue;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return cellValue.valueAt(rows.get(rowIndex), columnIndex);
+    }
+
+    /**
+     * Replaces all rows and fires a single data-changed event.
+     */
+    public void setRows(List<? extends T> newRows) {
+        rows.clear();
+        rows.addAll(newRows);
+        rowIndexById.clear();
+        for (int i = 0; i < rows.size(); i++) {
+            rowIndexById.put(idOf.applyAsInt(rows.get(i)), i);
+        }
+        fireTableDataChanged();
+    }
+
+    /**
+     * Replaces the row with the same id in place, or appends it if there is none.
+     */
+    public void upsert(T row) {
+        int id = idOf.applyAsInt(row);
+        Integer index = rowIndexById.get(id);
+        if (index != null) {
+            rows.set(index, row);
+            fireTableRowsUpdated(index, index);
+            return;
+        }
+        rows.add(row);
+        rowIndexById.put(id, rows.size() - 1);
+        fireTableRowsInserted(rows.size() - 1, rows.size() - 1);
+    }
+
+    /**
+     * Removes the row with the given id, if shown.
+     *
+     * @return The removed row object, or null if there was none.
+     */
+    public T remove(int id) {
+        Integer index = rowIndexById.remove(id);
+        if (index == null) return null;
+        T removed = rows.remove((int) index);
+        for (int i = index; i < rows.size(); i++) {
+            rowIndexById.put(idOf.applyAsInt(rows.get(i)), i); // Rows below moved up by one
+        }
+        fireTableRowsDeleted(index, index);
+        return removed;
+    }
+
+    /**
+     * Fires update events for the rows matching the predicate, e.g. after a lookup used to render them changed.
+     */
+    public void fireRowsUpdated(Predicate<? super T> affected) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (affected.test(rows.get(i))) {
+                fireTableRowsUpdated(i, i);
+            }
+        }
+    }
+
+    /**
+     * @return The row object at the given model index.
+     */
+    public T getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    /**
+     * @return The row object with the given id, or null if not shown.
+     */
+    public T getRowById(int id) {
+        Integer index = rowIndexById.get(id);
+        return index == null ? null : rows.get(index);
+    }
+
+    /**
+     * @return A read-only view of the rows in display order.
+     */
+    public List<T> getRows() {
+        return Collections.unmodifiableList(rows);
+    }
+}
@@ -1,32 +1,31 @@
 package fasttracklogistics.view;
 
+import fasttracklogistics.dao.QuerySpec;
 import fasttracklogistics.model.DeliveryPersonnel;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.util.List;
 
 public class ManagePersonnelPanel extends JPanel {
     private JTable personnelTable;
-    private DefaultTableModel tableModel;
+    private ListTableModel<DeliveryPersonnel> tableModel;
     private JTextField nameField, contactInfoField, licenseNumberField, vehicleDetailsField;
     private JComboBox<String> personnelTypeComboBox, availabilityStatusComboBox;
-    private JButton addButton, updateButton, removeButton, clearButton;
+    private JButton addButton, updateButton, removeButton, clearButton, importButton;
+    private SortHeader sortHeader;
+    private FilterBar filterBar;
 
     public ManagePersonnelPanel() {
         setLayout(new BorderLayout(10, 10));
 
         // --- Table for displaying personnel ---
-        tableModel = new DefaultTableModel(new Object[]{
+        tableModel = new ListTableModel<>(new String[]{
                 "ID", "Name", "Contact Info", "Type", "License No.", "Vehicle Details", "Availability"
-        }, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        }, DeliveryPersonnel::getPersonnelId, ManagePersonnelPanel::cellValue);
         personnelTable = new JTable(tableModel);
         personnelTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         add(new JScrollPane(personnelTable), BorderLayout.CENTER);
@@ -49,7 +48,7 @@ public class ManagePersonnelPanel extends JPanel {
         inputFormPanel.add(contactInfoField, gbc(1, row++));
 
         inputFormPanel.add(new JLabel("Personnel Type:"), gbc(0, row));
-        String[] personnelTypes = {"Driver", "Courier", "Administrator"};
+        String[] personnelTypes = DeliveryPersonnel.PERSONNEL_TYPES.toArray(new String[0]);
         personnelTypeComboBox = new JComboBox<>(personnelTypes);
         inputFormPanel.add(personnelTypeComboBox, gbc(1, row++));
 
@@ -62,21 +61,34 @@ public class ManagePersonnelPanel extends JPanel {
         inputFormPanel.add(vehicleDetailsField, gbc(1, row++));
 
         inputFormPanel.add(new JLabel("Availability Status:"), gbc(0, row));
-        String[] availabilityStatuses = {"Available", "On Duty", "On Leave", "Unavailable"};
+        String[] availabilityStatuses = DeliveryPersonnel.AVAILABILITY_STATUSES.toArray(new String[0]);
         availabilityStatusComboBox = new JComboBox<>(availabilityStatuses);
         inputFormPanel.add(availabilityStatusComboBox, gbc(1, row++));
 
+        // --- Sorting and filtering, both done by the database ---
+        sortHeader = new SortHeader(personnelTable, new String[]{
+                "personnel_id", "name", null, "personnel_type", "license_number", null, "availability_status"
+        });
+        filterBar = new FilterBar()
+                .addChoice("Type", "personnel_type", personnelTypes)
+                .addChoice("Availability", "availability_status", availabilityStatuses)
+                .addPrefixSearch(new String[]{"Name", "License No."}, new String[]{"name", "license_number"})
+                .addButtons();
+        add(filterBar, BorderLayout.NORTH);
+
         // --- Buttons ---
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
         addButton = new JButton("Add Personnel");
         updateButton = new JButton("Update Personnel");
         removeButton = new JButton("Remove Personnel");
         clearButton = new JButton("Clear Fields");
+        importButton = new JButton("Import CSV...");
 
         buttonPanel.add(addButton);
         buttonPanel.add(updateButton);
         buttonPanel.add(removeButton);
         buttonPanel.add(clearButton);
+        buttonPanel.add(importButton);
 
         JPanel southPanel = new JPanel(new BorderLayout());
         southPanel.add(inputFormPanel, BorderLayout.CENTER);
@@ -112,24 +124,59 @@ public class ManagePersonnelPanel extends JPanel {
         clearButton.addActionListener(listener);
     }
 
+    public void addImportButtonListener(ActionListener listener) {
+        importButton.addActionListener(listener);
+    }
+
     public void addTableSelectionListener(ListSelectionListener listener) {
         personnelTable.getSelectionModel().addListSelectionListener(listener);
     }
 
+    /**
+     * Registers a listener for header clicks and applied filters; it should reload with {@link #getQuerySpec()}.
+     */
+    public void addQueryChangeListener(Runnable listener) {
+        sortHeader.addSortChangeListener(listener);
+        filterBar.addApplyListener(e -> listener.run());
+    }
+
+    /**
+     * @return The sort order and filters currently chosen for the personnel table, or null if a filter input is invalid
+     * (the user has already been told).
+     */
+    public QuerySpec getQuerySpec() {
+        QuerySpec spec = new QuerySpec();
+        sortHeader.applyTo(spec);
+        return filterBar.applyTo(spec) ? spec : null;
+    }
+
     // --- Methods to update the View ---
     public void displayPersonnel(List<DeliveryPersonnel> personnelList) {
-        tableModel.setRowCount(0); // Clear existing data
-        for (DeliveryPersonnel p : personnelList) {
-            tableModel.addRow(new Object[]{
-                    p.getPersonnelId(),
-                    p.getName(),
-                    p.getContactInfo(),
-                    p.getPersonnelType(),
-                    p.getLicenseNumber(),
-                    p.getVehicleDetails(),
-                    p.getAvailabilityStatus()
-            });
-        }
+        tableModel.setRows(personnelList);
+    }
+
+    /**
+     * Replaces the personnel row in place, or appends it if it is not shown yet.
+     */
+    public void upsertPersonnelRow(DeliveryPersonnel personnel) {
+        tableModel.upsert(personnel);
+    }
+
+    public void removePersonnelRow(int personnelId) {
+        tableModel.remove(personnelId);
+    }
+
+    private static Object cellValue(DeliveryPersonnel p, int column) {
+        return switch (column) {
+            case 0 -> p.getPersonnelId();
+            case 1 -> p.getName();
+            case 2 -> p.getContactInfo();
+            case 3 -> p.getPersonnelType();
+            case 4 -> p.getLicenseNumber();
+            case 5 -> p.getVehicleDetails();
+            case 6 -> p.getAvailabilityStatus();
+            default -> null;
+        };
     }
 
     // --- Methods to get/set input field values ---
@@ -175,19 +222,25 @@ public class ManagePersonnelPanel extends JPanel {
 
     public int getSelectedPersonnelId() {
         int selectedRow = personnelTable.getSelectedRow();
-        if (selectedRow != -1) {
-            Object idValue = tableModel.getValueAt(selectedRow, 0);
-            if (idValue instanceof Integer) {
-                return (int) idValue;
-            } else if (idValue instanceof String) {
-                try {
-                    return Integer.parseInt((String) idValue);
-                } catch (NumberFormatException e) {
-                    return -1;
-                }
-            }
-        }
-        return -1;
+        return selectedRow != -1 ? tableModel.getRow(selectedRow).getPersonnelId() : -1;
+    }
+
+    /**
+     * Asks for the personnel roster to import.
+     *
+     * @return The chosen file, or null if the user cancelled.
+     */
+    public File chooseImportFile() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Personnel Roster");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+        return chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION ? chooser.getSelectedFile() : null;
+    }
+
+    /** Disables the import button while an import runs, so the same file is not started twice. */
+    public void setImportInProgress(boolean inProgress) {
+        importButton.setEnabled(!inProgress);
+        importButton.setText(inProgress ? "Importing..." : "Import CSV...");
     }
 
     public void showMessage(String message, String title, int messageType) {
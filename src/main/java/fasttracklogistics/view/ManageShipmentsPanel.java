@@ -1,11 +1,13 @@
 package fasttracklogistics.view;
 
+import fasttracklogistics.dao.QuerySpec;
 import fasttracklogistics.model.Shipment;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.io.File;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -13,7 +15,8 @@ import java.util.List;
 
 public class ManageShipmentsPanel extends JPanel {
     private JTable shipmentsTable;
-    private DefaultTableModel tableModel;
+    private LazyTableModel<Shipment> tableModel; // Loads blocks of rows as they scroll into view
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     // Corrected fields to match Shipment model and DB schema
     private JTextField trackingNumberField, senderNameField, senderAddressField, senderContactField,
             receiverNameField, receiverAddressField, receiverContactField,
@@ -21,22 +24,19 @@ public class ManageShipmentsPanel extends JPanel {
             estimatedDeliveryTimeField, actualDeliveryTimeField;
     private JComboBox<String> deliveryStatusComboBox; // Changed to JComboBox
     private JTextArea specialInstructionsArea;
-    private JButton addButton, updateButton, removeButton, clearButton;
+    private JButton addButton, updateButton, removeButton, clearButton, importButton;
+    private SortHeader sortHeader;
+    private FilterBar filterBar;
 
     public ManageShipmentsPanel() {
         setLayout(new BorderLayout(10, 10));
 
         // --- Table for displaying shipments ---
-        tableModel = new DefaultTableModel(new Object[]{
+        tableModel = new LazyTableModel<>(new String[]{
                 "ID", "Tracking No.", "Sender", "Sender Addr", "Sender Contact",
                 "Receiver", "Receiver Addr", "Receiver Contact", "Contents", "Weight", "Dimensions",
                 "Status", "Location", "Est. Delivery", "Actual Delivery", "Special Instr.", "Created On"
-        }, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make cells non-editable
-            }
-        };
+        }, Shipment::getShipmentId, ManageShipmentsPanel::cellValue);
         shipmentsTable = new JTable(tableModel);
         shipmentsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         JScrollPane scrollPane = new JScrollPane(shipmentsTable);
@@ -103,7 +103,7 @@ public class ManageShipmentsPanel extends JPanel {
 
         // Row 11: Delivery Status (JComboBox)
         inputFormPanel.add(new JLabel("Delivery Status:"), gbc(0, row));
-        String[] statuses = {"Pending", "Scheduled", "In Transit", "Out for Delivery", "Delivered", "Canceled", "Failed"};
+        String[] statuses = Shipment.DELIVERY_STATUSES.toArray(new String[0]);
         deliveryStatusComboBox = new JComboBox<>(statuses);
         inputFormPanel.add(deliveryStatusComboBox, gbc(1, row++));
 
@@ -131,17 +131,33 @@ public class ManageShipmentsPanel extends JPanel {
         inputFormPanel.add(specialInstructionsScrollPane, gbc(1, row++, 1.0)); // weighty for JTextArea
 
 
+        // --- Sorting and filtering, both done by the database ---
+        sortHeader = new SortHeader(shipmentsTable, new String[]{
+                "shipment_id", "tracking_number", "sender_name", null, null,
+                "receiver_name", null, null, null, null, null,
+                "delivery_status", null, "estimated_delivery_time", null, null, "creation_date"
+        });
+        filterBar = new FilterBar()
+                .addChoice("Status", "delivery_status", statuses)
+                .addDateRange("Est. delivery", "estimated_delivery_time")
+                .addPrefixSearch(new String[]{"Tracking No.", "Receiver", "Sender"},
+                        new String[]{"tracking_number", "receiver_name", "sender_name"})
+                .addButtons();
+        add(filterBar, BorderLayout.NORTH);
+
         // --- Buttons ---
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
         addButton = new JButton("Add Shipment");
         updateButton = new JButton("Update Shipment");
         removeButton = new JButton("Remove Shipment");
         clearButton = new JButton("Clear Fields");
+        importButton = new JButton("Import CSV...");
 
         buttonPanel.add(addButton);
         buttonPanel.add(updateButton);
         buttonPanel.add(removeButton);
         buttonPanel.add(clearButton);
+        buttonPanel.add(importButton);
 
         JPanel southPanel = new JPanel(new BorderLayout());
         southPanel.add(inputFormPanel, BorderLayout.CENTER);
@@ -188,37 +204,91 @@ public class ManageShipmentsPanel extends JPanel {
         clearButton.addActionListener(listener);
     }
 
+    public void addImportButtonListener(ActionListener listener) {
+        importButton.addActionListener(listener);
+    }
+
     public void addTableSelectionListener(ListSelectionListener listener) {
         shipmentsTable.getSelectionModel().addListSelectionListener(listener);
     }
 
+    /**
+     * Registers a listener for header clicks and applied filters; it should reload with {@link #getQuerySpec()}.
+     */
+    public void addQueryChangeListener(Runnable listener) {
+        sortHeader.addSortChangeListener(listener);
+        filterBar.addApplyListener(e -> listener.run());
+    }
+
+    /**
+     * @return The sort order and filters currently chosen for the shipments table, or null if a filter input is invalid
+     * (the user has already been told).
+     */
+    public QuerySpec getQuerySpec() {
+        QuerySpec spec = new QuerySpec();
+        sortHeader.applyTo(spec);
+        return filterBar.applyTo(spec) ? spec : null;
+    }
+
     // --- Methods to update the View (called by Controller) ---
-    public void displayShipments(List<Shipment> shipments) {
-        tableModel.setRowCount(0); // Clear existing data
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        for (Shipment s : shipments) {
-            tableModel.addRow(new Object[]{
-                    s.getShipmentId(),
-                    s.getTrackingNumber(),
-                    s.getSenderName(),
-                    s.getSenderAddress(),
-                    s.getSenderContact(),
-                    s.getReceiverName(),
-                    s.getReceiverAddress(),
-                    s.getReceiverContact(),
-                    s.getPackageContents(),
-                    s.getWeight(),
-                    s.getDimensions(),
-                    s.getDeliveryStatus(),
-                    s.getCurrentLocation(),
-                    s.getEstimatedDeliveryTime() != null ? s.getEstimatedDeliveryTime().format(formatter) : "N/A",
-                    s.getActualDeliveryTime() != null ? s.getActualDeliveryTime().format(formatter) : "N/A",
-                    s.getSpecialInstructions(),
-                    s.getCreationDate() != null ? s.getCreationDate().format(formatter) : "N/A"
-            });
+    /**
+     * Sets where the table fetches its rows from and loads the row count; rows load as they are scrolled into view.
+     */
+    public void setShipmentSource(LazyTableModel.PageSource<Shipment> source) {
+        tableModel.setSource(source);
+    }
+
+    /** Shows a row count and first block already known, then checks the count in the background. */
+    public void setShipmentSource(LazyTableModel.PageSource<Shipment> source, int knownCount, List<Shipment> firstRows) {
+        tableModel.setSource(source, knownCount, firstRows);
+    }
+
+    public int getShipmentBlockSize() {
+        return tableModel.getBlockSize();
+    }
+
+    public void reloadShipments() {
+        tableModel.reload();
+    }
+
+    /**
+     * Replaces the shipment's row in place if it is loaded; otherwise it may be new, so the row count is rechecked.
+     * Only right for the unfiltered view in shipment ID order; otherwise call {@link #reloadShipments()} instead.
+     */
+    public void upsertShipmentRow(Shipment shipment) {
+        if (!tableModel.replace(shipment)) {
+            tableModel.reloadIfCountChanged();
         }
     }
 
+    public void removeShipmentRow(int shipmentId) {
+        tableModel.reload(); // Rows below the deleted one shift up a position
+    }
+
+    // Formatted only for the cells being painted
+    private static Object cellValue(Shipment s, int column) {
+        return switch (column) {
+            case 0 -> s.getShipmentId();
+            case 1 -> s.getTrackingNumber();
+            case 2 -> s.getSenderName();
+            case 3 -> s.getSenderAddress();
+            case 4 -> s.getSenderContact();
+            case 5 -> s.getReceiverName();
+            case 6 -> s.getReceiverAddress();
+            case 7 -> s.getReceiverContact();
+            case 8 -> s.getPackageContents();
+            case 9 -> s.getWeight();
+            case 10 -> s.getDimensions();
+            case 11 -> s.getDeliveryStatus();
+            case 12 -> s.getCurrentLocation();
+            case 13 -> s.getEstimatedDeliveryTime() != null ? s.getEstimatedDeliveryTime().format(DATE_TIME_FORMAT) : "N/A";
+            case 14 -> s.getActualDeliveryTime() != null ? s.getActualDeliveryTime().format(DATE_TIME_FORMAT) : "N/A";
+            case 15 -> s.getSpecialInstructions();
+            case 16 -> s.getCreationDate() != null ? s.getCreationDate().format(DATE_TIME_FORMAT) : "N/A";
+            default -> null;
+        };
+    }
+
     // --- Methods to get/set input field values (called by Controller) ---
     public Shipment getShipmentFromFields() { // Renamed from getShipmentInput for clarity
         String trackingNumber = trackingNumberField.getText().trim();
@@ -336,19 +406,26 @@ public class ManageShipmentsPanel extends JPanel {
 
     public int getSelectedShipmentId() {
         int selectedRow = shipmentsTable.getSelectedRow();
-        if (selectedRow != -1) {
-            Object idValue = tableModel.getValueAt(selectedRow, 0);
-            if (idValue instanceof Integer) {
-                return (int) idValue;
-            } else if (idValue instanceof String) {
-                try {
-                    return Integer.parseInt((String) idValue);
-                } catch (NumberFormatException e) {
-                    return -1;
-                }
-            }
-        }
-        return -1;
+        Shipment selected = selectedRow != -1 ? tableModel.getRow(selectedRow) : null; // Null while the row is loading
+        return selected != null ? selected.getShipmentId() : -1;
+    }
+
+    /**
+     * Asks for the shipment manifest to import.
+     *
+     * @return The chosen file, or null if the user cancelled.
+     */
+    public File chooseImportFile() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Shipment Manifest");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+        return chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION ? chooser.getSelectedFile() : null;
+    }
+
+    /** Disables the import button while an import runs, so the same file is not started twice. */
+    public void setImportInProgress(boolean inProgress) {
+        importButton.setEnabled(!inProgress);
+        importButton.setText(inProgress ? "Importing..." : "Import CSV...");
     }
 
     public void showMessage(String message, String title, int messageType) {
@@ -1,16 +1,15 @@
 package fasttracklogistics.view;
 
 import fasttracklogistics.model.Shipment;
-import fasttracklogistics.model.DeliveryPersonnel;
 import fasttracklogistics.model.Notification; // Keep this import for the generic type in displayNotifications
 import fasttracklogistics.model.CustomerNotification; // **NEW: Import CustomerNotification model**
 import fasttracklogistics.model.PersonnelNotification; // **NEW: Import PersonnelNotification model**
+import fasttracklogistics.service.ReferenceDataRegistry;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors; // Needed for stream operations in displayNotifications
 
 /**
@@ -21,28 +20,40 @@ import java.util.stream.Collectors; // Needed for stream operations in displayNo
 public class NotificationPanel extends JPanel {
     // Send Notification Panel Components
     private JComboBox<String> recipientTypeComboBox;
-    private JComboBox<String> recipientComboBox;
-    private JComboBox<String> relatedShipmentComboBox;
-    private JComboBox<String> relatedPersonnelComboBox;
+    private JPanel recipientCards; // One recipient picker per recipient type
+    private SearchablePicker<Shipment> customerPicker; // A customer is identified by one of their shipments
+    private SearchablePicker<Integer> personnelRecipientPicker; // Personnel ids, shown by name
+    private SearchablePicker<Shipment> relatedShipmentPicker;
+    private JComboBox<Integer> relatedPersonnelComboBox; // Personnel ids (0 = N/A), shown by name
     private JTextArea messageTextArea;
     private JTextField contactMethodField;
     private JComboBox<String> notificationTypeComboBox;
     private JButton sendNotificationButton;
 
+    // Broadcast Panel Components (reuse the message, type and contact method fields above)
+    private JComboBox<String> broadcastSegmentComboBox;
+    private JTextField broadcastFilterField;
+    private JButton broadcastButton;
+    private JProgressBar broadcastProgressBar;
+    private JLabel broadcastStatusLabel;
+
     // View Notifications Panel Components (now uses custom tab panels)
     private JTabbedPane notificationTabbedPane;
     private CustomerNotificationsTabPanel customerNotificationsTabPanel; // Dedicated panel for customer notifications
     private PersonnelNotificationsTabPanel personnelNotificationsTabPanel; // Dedicated panel for personnel notifications
     private JButton refreshButton;
-
-    // Maps for ComboBox population and reverse lookup (data caches managed here and passed to sub-panels)
-    private Map<String, Integer> customerContactToShipmentIdMap;
-    private Map<String, Integer> personnelNameToIdMap;
-    private Map<String, Integer> trackingNumberToShipmentIdMap;
-    private Map<Integer, String> shipmentIdToTrackingNumberMap; // For displaying related shipment info
-    private Map<Integer, String> personnelIdToNameMap;           // For displaying personnel names
-
-    public NotificationPanel() {
+    private JButton newerPageButton;
+    private JButton olderPageButton;
+    private JButton markReadButton;
+    private JToggleButton viewArchiveToggle;
+    private JLabel pageLabel;
+    private JLabel countsLabel;
+
+    // Shipment and personnel names shown here and in the sub-panels (shared with the other panels)
+    private final ReferenceDataRegistry referenceData;
+
+    public NotificationPanel(ReferenceDataRegistry referenceData) {
+        this.referenceData = referenceData;
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
@@ -62,26 +73,40 @@ public class NotificationPanel extends JPanel {
         gbc.gridx = 1; gbc.gridy = row++; gbc.weightx = 1.0;
         sendPanel.add(recipientTypeComboBox, gbc);
 
-        // Recipient (dynamically populated)
+        // Recipient (searched as the user types; the picker follows the recipient type)
         gbc.gridx = 0; gbc.gridy = row; gbc.anchor = GridBagConstraints.EAST;
         sendPanel.add(new JLabel("Recipient:"), gbc);
-        recipientComboBox = new JComboBox<>();
+        customerPicker = new SearchablePicker<>(ReferenceDataRegistry::customerName, Shipment::getShipmentId, 20);
+        customerPicker.setToolTipText("Type the start of the receiver's name or a tracking number");
+        personnelRecipientPicker = new SearchablePicker<>(this::personnelDisplayName, Integer::intValue, 20);
+        personnelRecipientPicker.setToolTipText("Type part of the person's name");
+        recipientCards = new JPanel(new CardLayout());
+        recipientCards.add(customerPicker, "Customer");
+        recipientCards.add(personnelRecipientPicker, "Personnel");
+        recipientTypeComboBox.addActionListener(e ->
+                ((CardLayout) recipientCards.getLayout()).show(recipientCards, getSelectedRecipientType()));
         gbc.gridx = 1; gbc.gridy = row++;
-        sendPanel.add(recipientComboBox, gbc);
+        sendPanel.add(recipientCards, gbc);
 
-        // Related Shipment (Optional)
+        // Related Shipment (Optional; empty means N/A)
         gbc.gridx = 0; gbc.gridy = row; gbc.anchor = GridBagConstraints.EAST;
         sendPanel.add(new JLabel("Related Shipment (Optional):"), gbc);
-        relatedShipmentComboBox = new JComboBox<>();
-        relatedShipmentComboBox.addItem("N/A"); // Default option
+        relatedShipmentPicker = new SearchablePicker<>(ReferenceDataRegistry::shipmentName, Shipment::getShipmentId, 20);
+        relatedShipmentPicker.setToolTipText("Type the start of a tracking number or receiver name; leave empty for none");
         gbc.gridx = 1; gbc.gridy = row++;
-        sendPanel.add(relatedShipmentComboBox, gbc);
+        sendPanel.add(relatedShipmentPicker, gbc);
 
         // Related Personnel (Optional)
         gbc.gridx = 0; gbc.gridy = row; gbc.anchor = GridBagConstraints.EAST;
         sendPanel.add(new JLabel("Related Personnel (Optional):"), gbc);
         relatedPersonnelComboBox = new JComboBox<>();
-        relatedPersonnelComboBox.addItem("N/A"); // Default option
+        relatedPersonnelComboBox.addItem(0); // Default option
+        relatedPersonnelComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, personnelDisplayName((Integer) value), index, isSelected, cellHasFocus);
+            }
+        });
         gbc.gridx = 1; gbc.gridy = row++;
         sendPanel.add(relatedPersonnelComboBox, gbc);
 
@@ -115,7 +140,45 @@ public class NotificationPanel extends JPanel {
         gbc.gridx = 0; gbc.gridy = row; gbc.gridwidth = 2; gbc.fill = GridBagConstraints.NONE; gbc.anchor = GridBagConstraints.CENTER;
         sendPanel.add(sendNotificationButton, gbc);
 
-        add(sendPanel, BorderLayout.NORTH);
+        // --- Broadcast Panel ---
+        JPanel broadcastPanel = new JPanel(new GridBagLayout());
+        broadcastPanel.setBorder(BorderFactory.createTitledBorder("Broadcast to Segment"));
+        GridBagConstraints bgbc = new GridBagConstraints();
+        bgbc.insets = new Insets(5, 5, 5, 5);
+        bgbc.fill = GridBagConstraints.HORIZONTAL;
+        int brow = 0;
+
+        bgbc.gridx = 0; bgbc.gridy = brow; bgbc.anchor = GridBagConstraints.EAST;
+        broadcastPanel.add(new JLabel("Segment:"), bgbc);
+        broadcastSegmentComboBox = new JComboBox<>();
+        bgbc.gridx = 1; bgbc.gridy = brow++; bgbc.weightx = 1.0;
+        broadcastPanel.add(broadcastSegmentComboBox, bgbc);
+
+        bgbc.gridx = 0; bgbc.gridy = brow; bgbc.weightx = 0;
+        broadcastPanel.add(new JLabel("Matching:"), bgbc);
+        broadcastFilterField = new JTextField(15);
+        broadcastFilterField.setToolTipText("Status or availability to match; for locations % and _ act as wildcards");
+        bgbc.gridx = 1; bgbc.gridy = brow++; bgbc.weightx = 1.0;
+        broadcastPanel.add(broadcastFilterField, bgbc);
+
+        broadcastButton = new JButton("Broadcast Message");
+        bgbc.gridx = 0; bgbc.gridy = brow++; bgbc.gridwidth = 2; bgbc.fill = GridBagConstraints.NONE; bgbc.anchor = GridBagConstraints.CENTER;
+        broadcastPanel.add(broadcastButton, bgbc);
+
+        broadcastProgressBar = new JProgressBar();
+        broadcastProgressBar.setStringPainted(true);
+        broadcastProgressBar.setString("");
+        bgbc.gridy = brow++; bgbc.fill = GridBagConstraints.HORIZONTAL;
+        broadcastPanel.add(broadcastProgressBar, bgbc);
+
+        broadcastStatusLabel = new JLabel(" ");
+        bgbc.gridy = brow;
+        broadcastPanel.add(broadcastStatusLabel, bgbc);
+
+        JPanel composePanel = new JPanel(new BorderLayout(10, 10));
+        composePanel.add(sendPanel, BorderLayout.CENTER);
+        composePanel.add(broadcastPanel, BorderLayout.EAST);
+        add(composePanel, BorderLayout.NORTH);
 
         // --- View Notifications Panel (with JTabbedPane) ---
         JPanel viewPanel = new JPanel(new BorderLayout(5, 5));
@@ -124,8 +187,8 @@ public class NotificationPanel extends JPanel {
         notificationTabbedPane = new JTabbedPane();
 
         // Instantiate the new tab panels
-        customerNotificationsTabPanel = new CustomerNotificationsTabPanel();
-        personnelNotificationsTabPanel = new PersonnelNotificationsTabPanel();
+        customerNotificationsTabPanel = new CustomerNotificationsTabPanel(referenceData);
+        personnelNotificationsTabPanel = new PersonnelNotificationsTabPanel(referenceData);
 
         // Add the new panels as tabs
         notificationTabbedPane.addTab("Customer Notifications", customerNotificationsTabPanel);
@@ -133,8 +196,23 @@ public class NotificationPanel extends JPanel {
 
         viewPanel.add(notificationTabbedPane, BorderLayout.CENTER);
 
+        newerPageButton = new JButton("< Newer");
+        olderPageButton = new JButton("Older >");
+        pageLabel = new JLabel("Page 1");
+        countsLabel = new JLabel(" ");
+        markReadButton = new JButton("Mark Selected Read");
+        viewArchiveToggle = new JToggleButton("View Archive");
+        viewArchiveToggle.setToolTipText("Browse archived (older, read) notifications instead of the inbox");
         refreshButton = new JButton("Refresh Notifications");
         JPanel refreshButtonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        refreshButtonPanel.add(newerPageButton);
+        refreshButtonPanel.add(pageLabel);
+        refreshButtonPanel.add(olderPageButton);
+        refreshButtonPanel.add(Box.createHorizontalStrut(20));
+        refreshButtonPanel.add(countsLabel);
+        refreshButtonPanel.add(Box.createHorizontalStrut(20));
+        refreshButtonPanel.add(markReadButton);
+        refreshButtonPanel.add(viewArchiveToggle);
         refreshButtonPanel.add(refreshButton);
         viewPanel.add(refreshButtonPanel, BorderLayout.SOUTH);
 
@@ -146,12 +224,32 @@ public class NotificationPanel extends JPanel {
         sendNotificationButton.addActionListener(listener);
     }
 
+    public void addBroadcastButtonListener(ActionListener listener) {
+        broadcastButton.addActionListener(listener);
+    }
+
     public void addRefreshButtonListener(ActionListener listener) {
         refreshButton.addActionListener(listener);
     }
 
-    public void addRecipientTypeComboBoxListener(ActionListener listener) {
-        recipientTypeComboBox.addActionListener(listener);
+    public void addNewerPageButtonListener(ActionListener listener) {
+        newerPageButton.addActionListener(listener);
+    }
+
+    public void addOlderPageButtonListener(ActionListener listener) {
+        olderPageButton.addActionListener(listener);
+    }
+
+    public void addMarkReadButtonListener(ActionListener listener) {
+        markReadButton.addActionListener(listener);
+    }
+
+    public void addViewArchiveToggleListener(ActionListener listener) {
+        viewArchiveToggle.addActionListener(listener);
+    }
+
+    public boolean isViewingArchive() {
+        return viewArchiveToggle.isSelected();
     }
 
     // Getter for the JTabbedPane to add change listeners in the controller
@@ -159,69 +257,134 @@ public class NotificationPanel extends JPanel {
         return notificationTabbedPane;
     }
 
+    /**
+     * @return "Customer" or "Personnel" depending on the selected tab. Tab titles carry unread badges,
+     * so the tab is identified by its panel rather than its title.
+     */
+    public String getActiveRecipientType() {
+        Component selected = notificationTabbedPane.getSelectedComponent();
+        if (selected == customerNotificationsTabPanel) return "Customer";
+        if (selected == personnelNotificationsTabPanel) return "Personnel";
+        return null;
+    }
+
+    public void selectRecipientTypeTab(String recipientType) {
+        if ("Customer".equals(recipientType)) {
+            notificationTabbedPane.setSelectedComponent(customerNotificationsTabPanel);
+        } else if ("Personnel".equals(recipientType)) {
+            notificationTabbedPane.setSelectedComponent(personnelNotificationsTabPanel);
+        }
+    }
+
+    /**
+     * Shows the unread count as a badge on the recipient type's tab title.
+     */
+    public void setUnreadBadge(String recipientType, int unreadCount) {
+        String title = recipientType + " Notifications" + (unreadCount > 0 ? " (" + unreadCount + ")" : "");
+        if ("Customer".equals(recipientType)) {
+            notificationTabbedPane.setTitleAt(notificationTabbedPane.indexOfComponent(customerNotificationsTabPanel), title);
+        } else if ("Personnel".equals(recipientType)) {
+            notificationTabbedPane.setTitleAt(notificationTabbedPane.indexOfComponent(personnelNotificationsTabPanel), title);
+        }
+    }
+
+    public void setPageInfo(int pageNumber, boolean hasNewer, boolean hasOlder) {
+        pageLabel.setText("Page " + pageNumber);
+        newerPageButton.setEnabled(hasNewer);
+        olderPageButton.setEnabled(hasOlder);
+    }
+
+    public void setNotificationCounts(int unreadCount, int totalCount) {
+        countsLabel.setText("Unread: " + unreadCount + " / Total: " + totalCount);
+        markReadButton.setEnabled(!isViewingArchive()); // Archived notifications are already read
+    }
+
+    public List<Integer> getSelectedNotificationIds() {
+        if ("Customer".equals(getActiveRecipientType())) {
+            return customerNotificationsTabPanel.getSelectedNotificationIds();
+        } else if ("Personnel".equals(getActiveRecipientType())) {
+            return personnelNotificationsTabPanel.getSelectedNotificationIds();
+        }
+        return List.of();
+    }
+
     // Public method to set the selected recipient type in the combo box
     public void setSelectedRecipientType(String type) {
         recipientTypeComboBox.setSelectedItem(type);
     }
 
-    // --- Populators for ComboBoxes (also pass maps to sub-panels) ---
-    public void populatePersonnelComboBox(List<DeliveryPersonnel> personnelList) {
-        recipientComboBox.removeAllItems(); // Clear previous items in the main recipient combo box
-        relatedPersonnelComboBox.removeAllItems(); // Clear related personnel combo box
-
-        personnelNameToIdMap = new java.util.HashMap<>();
-        personnelIdToNameMap = new java.util.HashMap<>();
+    // --- Pickers and ComboBoxes ---
+    /**
+     * Sets where the customer and related-shipment pickers find shipments as the user types.
+     */
+    public void setShipmentSource(SearchablePicker.MatchSource<Shipment> source) {
+        customerPicker.setSource(source);
+        relatedShipmentPicker.setSource(source);
+    }
 
-        // Add "N/A" option for related personnel
-        relatedPersonnelComboBox.addItem("N/A");
-        personnelNameToIdMap.put("N/A", 0); // Map N/A to 0 for DB NULL handling
-        personnelIdToNameMap.put(0, "N/A"); // Reverse map for N/A
+    /**
+     * Sets where the personnel recipient picker finds people as the user types.
+     */
+    public void setPersonnelSource(SearchablePicker.MatchSource<Integer> source) {
+        personnelRecipientPicker.setSource(source);
+    }
 
-        for (DeliveryPersonnel p : personnelList) {
-            String displayName = p.getName() + " (" + p.getPersonnelId() + ")"; // Use ID for unique display
-            recipientComboBox.addItem(displayName); // For main recipient selection
-            relatedPersonnelComboBox.addItem(displayName); // For related personnel selection
-            personnelNameToIdMap.put(displayName, p.getPersonnelId());
-            personnelIdToNameMap.put(p.getPersonnelId(), displayName);
-        }
-        // Also update the personnel tab panel with the map
-        personnelNotificationsTabPanel.setPersonnelIdToNameMap(personnelIdToNameMap);
+    /**
+     * Shows a renamed shipment in the tables and pickers (the registry already has the new name).
+     */
+    public void updateShipment(Shipment shipment) {
+        customerPicker.refreshSelected(shipment);
+        relatedShipmentPicker.refreshSelected(shipment);
+        repaintNotifications();
     }
 
-    public void populateCustomerComboBox(List<Shipment> shipments) {
-        recipientComboBox.removeAllItems(); // Clear previous items in the main recipient combo box
-        customerContactToShipmentIdMap = new java.util.HashMap<>();
+    /**
+     * Repaints both notification tables, e.g. after names they show were loaded or changed (cells are computed when painted).
+     */
+    public void repaintNotifications() {
+        notificationTabbedPane.repaint();
+    }
 
-        for (Shipment s : shipments) {
-            String displayName = s.getReceiverName() + " (Shipment: " + s.getTrackingNumber() + ")";
-            if (!customerContactToShipmentIdMap.containsKey(displayName)) {
-                recipientComboBox.addItem(displayName);
-                customerContactToShipmentIdMap.put(displayName, s.getShipmentId()); // Use shipment ID as proxy for customer ID
-            }
-        }
-        // Also update the customer tab panel with the map
-        // **FIXED TYPO HERE: customerContactToShipmentToIdMap -> customerContactToShipmentIdMap**
-        customerNotificationsTabPanel.setCustomerContactToShipmentIdMap(customerContactToShipmentIdMap);
+    /**
+     * Clears a deleted shipment from the pickers (its notifications keep the last known name).
+     */
+    public void removeShipment(int shipmentId) {
+        if (customerPicker.getSelectedId() == shipmentId) customerPicker.clearSelection();
+        if (relatedShipmentPicker.getSelectedId() == shipmentId) relatedShipmentPicker.clearSelection();
     }
 
-    public void populateRelatedShipmentComboBox(List<Shipment> shipments) {
-        relatedShipmentComboBox.removeAllItems();
-        relatedShipmentComboBox.addItem("N/A"); // Option for no related shipment
-        trackingNumberToShipmentIdMap = new java.util.HashMap<>();
-        shipmentIdToTrackingNumberMap = new java.util.HashMap<>();
+    private String personnelDisplayName(Integer personnelId) {
+        if (personnelId == null || personnelId == 0) return "N/A";
+        String name = referenceData.getSnapshot().getPersonnelName(personnelId);
+        return name != null ? name : "Personnel ID: " + personnelId;
+    }
 
-        trackingNumberToShipmentIdMap.put("N/A", 0); // Map N/A to 0 for DB NULL handling
-        shipmentIdToTrackingNumberMap.put(0, "N/A");
+    /**
+     * Fills the related-personnel combo with everyone known to the registry, keeping the selection if possible,
+     * and repaints the tables (a person may have been renamed).
+     */
+    public void populatePersonnelComboBox() {
+        Integer selected = (Integer) relatedPersonnelComboBox.getSelectedItem();
+        relatedPersonnelComboBox.removeAllItems();
+        relatedPersonnelComboBox.addItem(0); // "N/A", stored as NULL
+        List<Integer> personnelIds = referenceData.getSnapshot().getPersonnelIds();
+        for (int personnelId : personnelIds) {
+            relatedPersonnelComboBox.addItem(personnelId);
+        }
+        relatedPersonnelComboBox.setSelectedItem(selected != null && personnelIds.contains(selected) ? selected : 0);
+        if (personnelRecipientPicker.getSelectedId() != 0 && !personnelIds.contains(personnelRecipientPicker.getSelectedId())) {
+            personnelRecipientPicker.clearSelection(); // Deleted
+        } else {
+            personnelRecipientPicker.refreshSelected(personnelRecipientPicker.getSelected()); // Shows a new name
+        }
+        repaintNotifications();
+    }
 
-        for (Shipment s : shipments) {
-            String displayName = s.getTrackingNumber() + " (" + s.getReceiverName() + ")";
-            relatedShipmentComboBox.addItem(displayName);
-            trackingNumberToShipmentIdMap.put(displayName, s.getShipmentId());
-            shipmentIdToTrackingNumberMap.put(s.getShipmentId(), displayName);
+    public void populateBroadcastSegmentComboBox(List<String> segmentNames) {
+        broadcastSegmentComboBox.removeAllItems();
+        for (String name : segmentNames) {
+            broadcastSegmentComboBox.addItem(name);
         }
-        // Also update both tab panels with the map
-        customerNotificationsTabPanel.setShipmentIdToTrackingNumberMap(shipmentIdToTrackingNumberMap);
-        personnelNotificationsTabPanel.setShipmentIdToTrackingNumberMap(shipmentIdToTrackingNumberMap);
     }
 
     // --- Getters for Input ---
@@ -230,31 +393,21 @@ public class NotificationPanel extends JPanel {
     }
 
     public int getSelectedRecipientId() {
-        String selectedRecipientDisplayName = (String) recipientComboBox.getSelectedItem();
-        if (selectedRecipientDisplayName == null) return 0;
-
         if ("Customer".equals(getSelectedRecipientType())) {
-            return customerContactToShipmentIdMap.getOrDefault(selectedRecipientDisplayName, 0);
+            return customerPicker.getSelectedId();
         } else if ("Personnel".equals(getSelectedRecipientType())) {
-            return personnelNameToIdMap.getOrDefault(selectedRecipientDisplayName, 0);
+            return personnelRecipientPicker.getSelectedId();
         }
         return 0;
     }
 
     public int getSelectedRelatedShipmentId() {
-        String selectedShipmentDisplayName = (String) relatedShipmentComboBox.getSelectedItem();
-        if (selectedShipmentDisplayName == null || "N/A".equals(selectedShipmentDisplayName)) {
-            return 0;
-        }
-        return trackingNumberToShipmentIdMap.getOrDefault(selectedShipmentDisplayName, 0);
+        return relatedShipmentPicker.getSelectedId();
     }
 
     public int getSelectedRelatedPersonnelId() {
-        String selectedPersonnelDisplayName = (String) relatedPersonnelComboBox.getSelectedItem();
-        if (selectedPersonnelDisplayName == null || "N/A".equals(selectedPersonnelDisplayName)) {
-            return 0;
-        }
-        return personnelNameToIdMap.getOrDefault(selectedPersonnelDisplayName, 0);
+        Integer selectedPersonnelId = (Integer) relatedPersonnelComboBox.getSelectedItem();
+        return selectedPersonnelId != null ? selectedPersonnelId : 0;
     }
 
     public String getNotificationMessage() {
@@ -269,6 +422,37 @@ public class NotificationPanel extends JPanel {
         return contactMethodField.getText().trim();
     }
 
+    public String getSelectedBroadcastSegment() {
+        return (String) broadcastSegmentComboBox.getSelectedItem();
+    }
+
+    public String getBroadcastFilterValue() {
+        return broadcastFilterField.getText().trim();
+    }
+
+    // --- Broadcast progress ---
+    /**
+     * Disables the broadcast button while a broadcast runs and resets the progress bar.
+     * @param inProgress True when a broadcast starts, false when it ends.
+     */
+    public void setBroadcastInProgress(boolean inProgress) {
+        broadcastButton.setEnabled(!inProgress);
+        if (inProgress) {
+            broadcastProgressBar.setValue(0);
+            broadcastProgressBar.setString("Resolving recipients...");
+        }
+    }
+
+    public void setBroadcastProgress(int sent, int total) {
+        broadcastProgressBar.setMaximum(Math.max(total, 1));
+        broadcastProgressBar.setValue(sent);
+        broadcastProgressBar.setString(sent + " / " + total);
+    }
+
+    public void setBroadcastStatus(String status) {
+        broadcastStatusLabel.setText(status);
+    }
+
     // --- Display Methods (Delegated to sub-panels) ---
     /**
      * Delegates notification display to the appropriate sub-panel based on recipient type.
@@ -309,8 +493,8 @@ public class NotificationPanel extends JPanel {
         messageTextArea.setText("");
         contactMethodField.setText("App");
         notificationTypeComboBox.setSelectedItem("Status Update");
-        relatedShipmentComboBox.setSelectedItem("N/A");
-        relatedPersonnelComboBox.setSelectedItem("N/A");
+        relatedShipmentPicker.clearSelection();
+        relatedPersonnelComboBox.setSelectedItem(0);
     }
 
     public void showMessage(String message, String title, int messageType) {
@@ -1,12 +1,11 @@
 package fasttracklogistics.view;
 
 import fasttracklogistics.model.PersonnelNotification; // Import the specific personnel notification model
+import fasttracklogistics.service.ReferenceDataRegistry;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
 
 /**
  * JPanel to display a table of notifications specifically for Delivery Personnel.
@@ -14,29 +13,20 @@ import java.util.Map;
  */
 public class PersonnelNotificationsTabPanel extends JPanel {
     private JTable notificationsTable;
-    private DefaultTableModel tableModel;
-    private Map<Integer, String> personnelIdToNameMap;         // To show readable personnel info (ID to Name)
-    private Map<Integer, String> shipmentIdToTrackingNumberMap; // To show readable shipment info (ID to Tracking # / Receiver Name)
+    private ListTableModel<PersonnelNotification> tableModel;
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private final ReferenceDataRegistry referenceData; // To show readable personnel and shipment info
 
-
-    public PersonnelNotificationsTabPanel() {
+    public PersonnelNotificationsTabPanel(ReferenceDataRegistry referenceData) {
+        this.referenceData = referenceData;
         setLayout(new BorderLayout());
 
         // Define columns for personnel notifications table
         String[] columnNames = {"ID", "Recipient (Personnel ID)", "Related Shipment", "Related Personnel (if applicable)", "Message", "Type", "Timestamp", "Read", "Method"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // All cells non-editable
-            }
-        };
+        tableModel = new ListTableModel<>(columnNames, PersonnelNotification::getNotificationId, this::cellValue);
         notificationsTable = new JTable(tableModel);
         notificationsTable.setFillsViewportHeight(true);
         add(new JScrollPane(notificationsTable), BorderLayout.CENTER);
-
-        // Initialize maps. These will be populated by the controller via setter methods.
-        this.personnelIdToNameMap = new java.util.HashMap<>();
-        this.shipmentIdToTrackingNumberMap = new java.util.HashMap<>();
     }
 
     /**
@@ -45,47 +35,48 @@ public class PersonnelNotificationsTabPanel extends JPanel {
      * @param notifications List of PersonnelNotification objects to display.
      */
     public void displayNotifications(List<PersonnelNotification> notifications) {
-        tableModel.setRowCount(0); // Clear existing rows
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-        for (PersonnelNotification n : notifications) {
-            String recipientDisplayName = personnelIdToNameMap.getOrDefault(n.getPersonnelId(), "Personnel ID: " + n.getPersonnelId());
-            String relatedShipmentDisplayName = shipmentIdToTrackingNumberMap.getOrDefault(n.getRelatedShipmentId(), "N/A");
-            String relatedPersonnelDisplayName = personnelIdToNameMap.getOrDefault(n.getRelatedPersonnelId(), "N/A"); // For other related personnel
-
-            tableModel.addRow(new Object[]{
-                    n.getNotificationId(),
-                    recipientDisplayName,
-                    relatedShipmentDisplayName,
-                    relatedPersonnelDisplayName,
-                    n.getMessage(),
-                    n.getNotificationType(),
-                    n.getTimestamp() != null ? n.getTimestamp().format(formatter) : "N/A",
-                    n.isRead() ? "Yes" : "No",
-                    n.getContactMethod()
-            });
-        }
+        tableModel.setRows(notifications);
     }
 
-    // --- Helper methods for display names (called by Controller to set data) ---
-
     /**
-     * Sets the map for resolving personnel IDs to readable names.
-     * This map is crucial for correctly displaying recipient and related personnel names in the table.
-     * @param map A map where keys are Personnel IDs (Integer) and values are display names (e.g., "John Doe (123)").
+     * Computes one cell when the table paints it, so display names and timestamps are only formatted for visible rows.
      */
-    public void setPersonnelIdToNameMap(Map<Integer, String> map) {
-        this.personnelIdToNameMap.clear();
-        this.personnelIdToNameMap.putAll(map);
+    private Object cellValue(PersonnelNotification n, int column) {
+        return switch (column) {
+            case 0 -> n.getNotificationId();
+            case 1 -> getPersonnelDisplayName(n.getPersonnelId(), "Personnel ID: " + n.getPersonnelId());
+            case 2 -> getShipmentDisplayName(n.getRelatedShipmentId());
+            case 3 -> getPersonnelDisplayName(n.getRelatedPersonnelId(), "N/A"); // For other related personnel
+            case 4 -> n.getMessage();
+            case 5 -> n.getNotificationType();
+            case 6 -> n.getTimestamp() != null ? n.getTimestamp().format(DATE_TIME_FORMAT) : "N/A";
+            case 7 -> n.isRead() ? "Yes" : "No";
+            case 8 -> n.getContactMethod();
+            default -> null;
+        };
     }
 
     /**
-     * Sets the map for resolving shipment IDs to readable tracking numbers/receiver names.
-     * This map is crucial for correctly displaying related shipment information in the table.
-     * @param map A map where keys are Shipment IDs (Integer) and values are display strings (e.g., "TRK123 (Receiver Name)").
+     * @return The notification IDs of the selected table rows (empty if nothing is selected).
      */
-    public void setShipmentIdToTrackingNumberMap(Map<Integer, String> map) {
-        this.shipmentIdToTrackingNumberMap.clear();
-        this.shipmentIdToTrackingNumberMap.putAll(map);
+    public List<Integer> getSelectedNotificationIds() {
+        List<Integer> ids = new java.util.ArrayList<>();
+        for (int viewRow : notificationsTable.getSelectedRows()) {
+            int modelRow = notificationsTable.convertRowIndexToModel(viewRow);
+            ids.add(tableModel.getRow(modelRow).getNotificationId());
+        }
+        return ids;
+    }
+
+    // --- Display names, read from the shared registry when a cell is painted ---
+
+    private String getPersonnelDisplayName(int personnelId, String fallback) {
+        String name = referenceData.getSnapshot().getPersonnelName(personnelId);
+        return name != null ? name : fallback;
+    }
+
+    private String getShipmentDisplayName(int shipmentId) {
+        String name = referenceData.getSnapshot().getShipmentName(shipmentId);
+        return name != null ? name : "N/A";
     }
 }
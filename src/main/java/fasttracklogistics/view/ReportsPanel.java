@@ -30,6 +30,7 @@ public class ReportsPanel extends JPanel {
         reportTypeComboBox = new JComboBox<>(new String[]{
                 "Monthly Shipment Volume",
                 "Delivery Performance",
+                "Delivery Duration Percentiles",
                 "Personnel Availability",
                 "Shipment Status Overview"
         });
@@ -106,6 +107,12 @@ public class ReportsPanel extends JPanel {
         summaryArea.setText(""); // Clear summary
     }
 
+    // Method to display a table together with a summary (e.g., percentile reports)
+    public void displayTabularReport(List<String[]> data, String[] columnNames, String summary) {
+        displayTabularReport(data, columnNames);
+        summaryArea.setText(summary);
+    }
+
     // Method to display summary reports (e.g., overall stats)
     public void displaySummaryReport(String summary) {
         summaryArea.setText(summary);
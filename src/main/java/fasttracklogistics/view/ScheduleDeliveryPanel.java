@@ -1,10 +1,11 @@
 package fasttracklogistics.view;
 
+import fasttracklogistics.dao.QuerySpec;
 import fasttracklogistics.model.Delivery;
 import fasttracklogistics.model.Shipment;
 import fasttracklogistics.model.DeliveryPersonnel;
+import fasttracklogistics.service.ReferenceDataRegistry;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
 import java.awt.event.ActionListener;
@@ -12,41 +13,35 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Map;
-import java.util.Vector; // Used by JComboBox, but not strictly needed for Map-based population
+import java.util.Set;
 
 public class ScheduleDeliveryPanel extends JPanel {
     private JTable deliveriesTable;
-    private DefaultTableModel tableModel;
-    private JComboBox<String> shipmentComboBox, personnelComboBox;
+    private ListTableModel<Delivery> tableModel; // Also the id index of the deliveries shown, for incremental updates
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private SearchablePicker<Shipment> shipmentPicker;
+    private JComboBox<Integer> personnelComboBox; // Personnel ids (0 = unassigned), shown by name
     private JTextField scheduledPickupTimeField, actualPickupTimeField,
             scheduledDeliveryTimeField, actualDeliveryTimeField,
             routeDetailsField, deliveryNotesField;
     private JComboBox<String> deliveryStatusComboBox;
     private JButton addButton, updateButton, removeButton, clearButton;
+    private SortHeader sortHeader;
+    private FilterBar filterBar;
 
-    // Maps to store IDs corresponding to display names in ComboBoxes
-    private Map<String, Integer> shipmentDisplayNameToIdMap;
-    private Map<String, Integer> personnelDisplayNameToIdMap;
-    private Map<Integer, String> shipmentIdToDisplayNameMap; // For reverse lookup for table display
-    private Map<Integer, String> personnelIdToDisplayNameMap; // For reverse lookup for table display
+    // Shipment and personnel names shown in the table and the personnel combo (shared with the other panels)
+    private final ReferenceDataRegistry referenceData;
 
-
-
-    public ScheduleDeliveryPanel() {
+    public ScheduleDeliveryPanel(ReferenceDataRegistry referenceData) {
+        this.referenceData = referenceData;
         setLayout(new BorderLayout(10, 10));
 
         // --- Table for displaying deliveries ---
-        tableModel = new DefaultTableModel(new Object[]{
+        tableModel = new ListTableModel<>(new String[]{
                 "Delivery ID", "Shipment", "Personnel", "Scheduled Pickup",
                 "Actual Pickup", "Scheduled Delivery", "Actual Delivery",
                 "Status", "Route Details", "Notes"
-        }, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        }, Delivery::getDeliveryId, this::cellValue);
         deliveriesTable = new JTable(tableModel);
         deliveriesTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         add(new JScrollPane(deliveriesTable), BorderLayout.CENTER);
@@ -61,11 +56,18 @@ public class ScheduleDeliveryPanel extends JPanel {
         int row = 0;
 
         inputFormPanel.add(new JLabel("Shipment:"), gbc(0, row));
-        shipmentComboBox = new JComboBox<>();
-        inputFormPanel.add(shipmentComboBox, gbc(1, row++));
+        shipmentPicker = new SearchablePicker<>(ReferenceDataRegistry::shipmentName, Shipment::getShipmentId, 25);
+        shipmentPicker.setToolTipText("Type the start of a tracking number or receiver name");
+        inputFormPanel.add(shipmentPicker, gbc(1, row++));
 
         inputFormPanel.add(new JLabel("Personnel:"), gbc(0, row));
         personnelComboBox = new JComboBox<>();
+        personnelComboBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, personnelDisplayName((Integer) value), index, isSelected, cellHasFocus);
+            }
+        });
         inputFormPanel.add(personnelComboBox, gbc(1, row++));
 
         inputFormPanel.add(new JLabel("Scheduled Pickup (YYYY-MM-DD HH:MM:SS):"), gbc(0, row));
@@ -99,6 +101,17 @@ public class ScheduleDeliveryPanel extends JPanel {
         deliveryNotesField = new JTextField(25);
         inputFormPanel.add(deliveryNotesField, gbc(1, row++));
 
+        // --- Sorting and filtering, both done by the database (the shipment and personnel columns are display names, not sortable) ---
+        sortHeader = new SortHeader(deliveriesTable, new String[]{
+                "delivery_id", null, null, "scheduled_pickup_time", null,
+                "scheduled_delivery_time", "actual_delivery_time", "delivery_status", null, null
+        });
+        filterBar = new FilterBar()
+                .addChoice("Status", "delivery_status", statuses)
+                .addDateRange("Scheduled delivery", "scheduled_delivery_time")
+                .addButtons();
+        add(filterBar, BorderLayout.NORTH);
+
         // --- Buttons ---
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
         addButton = new JButton("Schedule Delivery");
@@ -149,64 +162,166 @@ public class ScheduleDeliveryPanel extends JPanel {
         deliveriesTable.getSelectionModel().addListSelectionListener(listener);
     }
 
-    // --- Methods to populate combo boxes ---
-    public void populateShipmentComboBox(List<Shipment> shipments) {
-        shipmentComboBox.removeAllItems();
-        shipmentDisplayNameToIdMap = new java.util.HashMap<>();
-        shipmentIdToDisplayNameMap = new java.util.HashMap<>();
-        for (Shipment s : shipments) {
-            String displayName = s.getTrackingNumber() + " - " + s.getReceiverName();
-            shipmentComboBox.addItem(displayName);
-            shipmentDisplayNameToIdMap.put(displayName, s.getShipmentId());
-            shipmentIdToDisplayNameMap.put(s.getShipmentId(), displayName);
-        }
+    /**
+     * Registers a listener for header clicks and applied filters; it should reload with {@link #getQuerySpec()}.
+     */
+    public void addQueryChangeListener(Runnable listener) {
+        sortHeader.addSortChangeListener(listener);
+        filterBar.addApplyListener(e -> listener.run());
+    }
+
+    /**
+     * @return The sort order and filters currently chosen for the deliveries table, or null if a filter input is invalid
+     * (the user has already been told).
+     */
+    public QuerySpec getQuerySpec() {
+        QuerySpec spec = new QuerySpec();
+        sortHeader.applyTo(spec);
+        return filterBar.applyTo(spec) ? spec : null;
+    }
+
+    // --- Methods to populate the pickers ---
+    /**
+     * Sets where the shipment picker finds matches as the user types.
+     */
+    public void setShipmentSource(SearchablePicker.MatchSource<Shipment> source) {
+        shipmentPicker.setSource(source);
     }
 
-    public void populatePersonnelComboBox(List<DeliveryPersonnel> personnelList) {
+    /**
+     * Fills the personnel combo with everyone known to the registry.
+     */
+    public void populatePersonnelComboBox() {
+        Integer selected = (Integer) personnelComboBox.getSelectedItem();
         personnelComboBox.removeAllItems();
-        personnelComboBox.addItem("Unassigned"); // Option for no personnel
-        personnelDisplayNameToIdMap = new java.util.HashMap<>();
-        personnelIdToDisplayNameMap = new java.util.HashMap<>();
-        personnelDisplayNameToIdMap.put("Unassigned", 0); // Map "Unassigned" to ID 0 or -1
-        personnelIdToDisplayNameMap.put(0, "Unassigned");
-
-        for (DeliveryPersonnel p : personnelList) {
-            String displayName = p.getName() + " (" + p.getAvailabilityStatus() + ")";
-            personnelComboBox.addItem(displayName);
-            personnelDisplayNameToIdMap.put(displayName, p.getPersonnelId());
-            personnelIdToDisplayNameMap.put(p.getPersonnelId(), displayName);
+        personnelComboBox.addItem(0); // Option for no personnel
+        for (int personnelId : referenceData.getSnapshot().getPersonnelIds()) {
+            personnelComboBox.addItem(personnelId);
+        }
+        personnelComboBox.setSelectedItem(selected != null ? selected : 0);
+        repaintAllDeliveryRows();
+    }
+
+    /**
+     * Shows a renamed shipment in the delivery rows and the picker, if shown there (the registry already has the new name).
+     */
+    public void updateShipment(Shipment shipment) {
+        shipmentPicker.refreshSelected(shipment);
+        refreshDeliveryRows(d -> d.getShipmentId() == shipment.getShipmentId());
+    }
+
+    /**
+     * Removes a deleted shipment's delivery rows (the database cascades the delete to deliveries) and clears it from the picker.
+     */
+    public void removeShipment(int shipmentId) {
+        if (shipmentPicker.getSelectedId() == shipmentId) shipmentPicker.clearSelection();
+        List<Integer> cascaded = new java.util.ArrayList<>();
+        for (Delivery d : tableModel.getRows()) {
+            if (d.getShipmentId() == shipmentId) cascaded.add(d.getDeliveryId());
+        }
+        cascaded.forEach(this::removeDeliveryRow);
+    }
+
+    /**
+     * Adds or renames one personnel option and refreshes the delivery rows that show it.
+     */
+    public void upsertPersonnelOption(DeliveryPersonnel personnel) {
+        if (indexOfItem(personnelComboBox, personnel.getPersonnelId()) == -1) {
+            personnelComboBox.addItem(personnel.getPersonnelId());
+        }
+        personnelComboBox.repaint(); // Options are named when painted
+        refreshDeliveryRows(d -> d.getPersonnelId() == personnel.getPersonnelId());
+    }
+
+    /**
+     * Removes a deleted person's option; their deliveries are shown as unassigned (the database sets personnel_id to NULL).
+     */
+    public void removePersonnelOption(int personnelId) {
+        personnelComboBox.removeItem(personnelId);
+        for (Delivery d : tableModel.getRows()) {
+            if (d.getPersonnelId() == personnelId) d.setPersonnelId(0);
+        }
+        refreshDeliveryRows(d -> d.getPersonnelId() == 0);
+    }
+
+    private static int indexOfItem(JComboBox<Integer> comboBox, Integer item) {
+        for (int i = 0; i < comboBox.getItemCount(); i++) {
+            if (item.equals(comboBox.getItemAt(i))) return i;
         }
+        return -1;
+    }
+
+    private String personnelDisplayName(Integer personnelId) {
+        if (personnelId == null || personnelId == 0) return "Unassigned";
+        String name = referenceData.getSnapshot().getPersonnelName(personnelId);
+        return name != null ? name : "Personnel ID: " + personnelId;
     }
 
     // --- Methods to update the View ---
+    /**
+     * Shows the deliveries; the registry should already have their shipments' names.
+     */
     public void displayDeliveries(List<Delivery> deliveries) {
-        tableModel.setRowCount(0); // Clear existing data
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        for (Delivery d : deliveries) {
-            String shipmentName = shipmentIdToDisplayNameMap.getOrDefault(d.getShipmentId(), "Unknown Shipment ID: " + d.getShipmentId());
-            String personnelName = personnelIdToDisplayNameMap.getOrDefault(d.getPersonnelId(), "Unassigned");
-
-            tableModel.addRow(new Object[]{
-                    d.getDeliveryId(),
-                    shipmentName,
-                    personnelName,
-                    d.getScheduledPickupTime() != null ? d.getScheduledPickupTime().format(formatter) : "N/A",
-                    d.getActualPickupTime() != null ? d.getActualPickupTime().format(formatter) : "N/A",
-                    d.getScheduledDeliveryTime() != null ? d.getScheduledDeliveryTime().format(formatter) : "N/A",
-                    d.getActualDeliveryTime() != null ? d.getActualDeliveryTime().format(formatter) : "N/A",
-                    d.getDeliveryStatus(),
-                    d.getRouteDetails(),
-                    d.getDeliveryNotes()
-            });
+        tableModel.setRows(deliveries);
+    }
+
+    /**
+     * Replaces the delivery's row in place, or appends it if it is not shown yet. Only right for the unfiltered
+     * view in delivery ID order; otherwise reload with {@link #getQuerySpec()}'s query instead.
+     */
+    public void upsertDeliveryRow(Delivery delivery) {
+        tableModel.upsert(delivery);
+    }
+
+    /**
+     * Repaints the rows of these shipments, e.g. once their names have been read.
+     */
+    public void refreshShipmentNames(Set<Integer> shipmentIds) {
+        refreshDeliveryRows(d -> shipmentIds.contains(d.getShipmentId()));
+    }
+
+    public void removeDeliveryRow(int deliveryId) {
+        tableModel.remove(deliveryId);
+    }
+
+    // Shipment and personnel names are looked up at paint time, so a renamed option only needs a repaint
+    private void refreshDeliveryRows(java.util.function.Predicate<Delivery> affected) {
+        tableModel.fireRowsUpdated(affected);
+    }
+
+    private void repaintAllDeliveryRows() {
+        if (tableModel.getRowCount() > 0) {
+            tableModel.fireTableRowsUpdated(0, tableModel.getRowCount() - 1);
         }
     }
 
+    private Object cellValue(Delivery d, int column) {
+        return switch (column) {
+            case 0 -> d.getDeliveryId();
+            case 1 -> shipmentDisplayName(d.getShipmentId());
+            case 2 -> personnelDisplayName(d.getPersonnelId());
+            case 3 -> d.getScheduledPickupTime() != null ? d.getScheduledPickupTime().format(DATE_TIME_FORMAT) : "N/A";
+            case 4 -> d.getActualPickupTime() != null ? d.getActualPickupTime().format(DATE_TIME_FORMAT) : "N/A";
+            case 5 -> d.getScheduledDeliveryTime() != null ? d.getScheduledDeliveryTime().format(DATE_TIME_FORMAT) : "N/A";
+            case 6 -> d.getActualDeliveryTime() != null ? d.getActualDeliveryTime().format(DATE_TIME_FORMAT) : "N/A";
+            case 7 -> d.getDeliveryStatus();
+            case 8 -> d.getRouteDetails();
+            case 9 -> d.getDeliveryNotes();
+            default -> null;
+        };
+    }
+
+    private String shipmentDisplayName(int shipmentId) {
+        String name = referenceData.getSnapshot().getShipmentName(shipmentId);
+        return name != null ? name : "Unknown Shipment ID: " + shipmentId;
+    }
+
     // --- Methods to get/set input field values ---
     public Delivery getDeliveryFromFields() { // Renamed for clarity
-        Integer shipmentId = shipmentDisplayNameToIdMap.get((String) shipmentComboBox.getSelectedItem());
-        Integer personnelId = personnelDisplayNameToIdMap.get((String) personnelComboBox.getSelectedItem());
+        int shipmentId = shipmentPicker.getSelectedId();
+        Integer personnelId = (Integer) personnelComboBox.getSelectedItem();
 
-        if (shipmentId == null || shipmentId == 0) { // Shipment is mandatory
+        if (shipmentId == 0) { // Shipment is mandatory
             showMessage("Please select a Shipment.", "Input Error", JOptionPane.ERROR_MESSAGE);
             return null;
         }
@@ -243,17 +358,21 @@ public class ScheduleDeliveryPanel extends JPanel {
         return delivery;
     }
 
-    public void setDeliveryFields(Delivery delivery) { // Renamed for clarity
+    /**
+     * Fills the form from a delivery.
+     *
+     * @param shipment The delivery's shipment, shown in the shipment picker (null if it no longer exists).
+     */
+    public void setDeliveryFields(Delivery delivery, Shipment shipment) { // Renamed for clarity
         if (delivery == null) {
             clearFields();
             return;
         }
 
-        String shipmentDisplayName = shipmentIdToDisplayNameMap.getOrDefault(delivery.getShipmentId(), "Unknown Shipment ID: " + delivery.getShipmentId());
-        shipmentComboBox.setSelectedItem(shipmentDisplayName);
+        shipmentPicker.setSelected(shipment);
 
-        String personnelDisplayName = personnelIdToDisplayNameMap.getOrDefault(delivery.getPersonnelId(), "Unassigned");
-        personnelComboBox.setSelectedItem(personnelDisplayName);
+        int personnelId = delivery.getPersonnelId();
+        personnelComboBox.setSelectedItem(indexOfItem(personnelComboBox, personnelId) != -1 ? personnelId : 0);
 
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -267,8 +386,8 @@ public class ScheduleDeliveryPanel extends JPanel {
     }
 
     public void clearFields() { // Renamed for clarity
-        shipmentComboBox.setSelectedIndex(-1);
-        personnelComboBox.setSelectedItem("Unassigned");
+        shipmentPicker.clearSelection();
+        personnelComboBox.setSelectedItem(0);
         scheduledPickupTimeField.setText("");
         actualPickupTimeField.setText("");
         scheduledDeliveryTimeField.setText("");
@@ -281,19 +400,7 @@ public class ScheduleDeliveryPanel extends JPanel {
 
     public int getSelectedDeliveryId() {
         int selectedRow = deliveriesTable.getSelectedRow();
-        if (selectedRow != -1) {
-            Object idValue = tableModel.getValueAt(selectedRow, 0);
-            if (idValue instanceof Integer) {
-                return (int) idValue;
-            } else if (idValue instanceof String) {
-                try {
-                    return Integer.parseInt((String) idValue);
-                } catch (NumberFormatException e) {
-                    return -1;
-                }
-            }
-        }
-        return -1;
+        return selectedRow != -1 ? tableModel.getRow(selectedRow).getDeliveryId() : -1;
     }
 
     public void showMessage(String message, String title, int messageType) {
@@ -316,12 +423,4 @@ public class ScheduleDeliveryPanel extends JPanel {
             return null;
         }
     }
-    public JComboBox<String> getShipmentComboBox() {
-        return shipmentComboBox;
-    }
-
-    // Public getter for personnelComboBox
-    public JComboBox<String> getPersonnelComboBox() {
-        return personnelComboBox;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,256 @@
+package fasttracklogistics.view;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Search-as-you-type replacement for a combo box over a large table.
+ * Nothing is loaded up front: when the user pauses typing (or focuses the empty field) the
+ * {@link MatchSource} is asked for the first few matches on a background thread, and only those
+ * are shown in a popup list. Up/Down move through the matches, Enter or a click picks one, Escape closes.
+ * Editing the text after picking clears the choice; leaving the field restores the picked item's name.
+ * Use from the event dispatch thread only.
+ *
+ * @param <T> The model type offered, e.g. Shipment.
+ */
+public class SearchablePicker<T> extends JPanel {
+    private static final Logger LOGGER = Logger.getLogger(SearchablePicker.class.getName());
+    private static final int SEARCH_DELAY_MILLIS = 150;
+    private static final int DEFAULT_MATCH_LIMIT = 20;
+
+    // One shared thread for all pickers; only the newest request of each picker is shown
+    private static final ExecutorService SEARCHER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "picker-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Finds the items matching typed text (an empty string asks for a default selection). Called off the EDT. */
+    @FunctionalInterface
+    public interface MatchSource<T> {
+        List<T> find(String text, int limit) throws SQLException;
+    }
+
+    private final Function<? super T, String> displayName;
+    private final ToIntFunction<? super T> idOf;
+    private final JTextField field;
+    private final JPopupMenu popup = new JPopupMenu();
+    private final DefaultListModel<T> matchModel = new DefaultListModel<>();
+    private final JList<T> matchList = new JList<>(matchModel);
+    private final Timer searchTimer = new Timer(SEARCH_DELAY_MILLIS, null);
+    private final int matchLimit;
+
+    private MatchSource<T> source;
+    private T selected;
+    private boolean settingText; // Text set by the picker itself; not a search
+    private int latestRequest;
+
+    /**
+     * @param displayName Text shown for an item, in the list and in the field once picked.
+     * @param idOf The item's id, returned by {@link #getSelectedId()}.
+     * @param columns Width of the text field.
+     */
+    public SearchablePicker(Function<? super T, String> displayName, ToIntFunction<? super T> idOf, int columns) {
+        super(new BorderLayout());
+        this.displayName = displayName;
+        this.idOf = idOf;
+        this.matchLimit = DEFAULT_MATCH_LIMIT;
+        this.field = new JTextField(columns);
+        field.setToolTipText("Type to search");
+        add(field, BorderLayout.CENTER);
+
+        matchList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        matchList.setFocusable(false); // Keep typing in the field while the popup is open
+        matchList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, displayName.apply((T) value), index, isSelected, cellHasFocus);
+            }
+        });
+        matchList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (matchList.locationToIndex(e.getPoint()) != -1) pickHighlighted();
+            }
+        });
+        popup.setFocusable(false);
+        popup.add(new JScrollPane(matchList));
+
+        searchTimer.setRepeats(false);
+        searchTimer.addActionListener(e -> search());
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { textEdited(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { textEdited(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { textEdited(); }
+        });
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusGained(FocusEvent e) {
+                if (selected == null) searchTimer.restart();
+            }
+
+            @Override
+            public void focusLost(FocusEvent e) {
+                popup.setVisible(false);
+                showSelectedText(); // Half-typed text doesn't count as a choice
+            }
+        });
+        field.addActionListener(e -> {
+            if (popup.isVisible() && matchList.getSelectedIndex() == -1 && !matchModel.isEmpty()) {
+                matchList.setSelectedIndex(0); // Enter on a typed prefix takes the best match
+            }
+            pickHighlighted();
+        });
+
+        InputMap inputMap = field.getInputMap(JComponent.WHEN_FOCUSED);
+        ActionMap actionMap = field.getActionMap();
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), "nextMatch");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0), "previousMatch");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "hideMatches");
+        actionMap.put("nextMatch", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (!popup.isVisible()) searchTimer.restart();
+                else moveHighlight(1);
+            }
+        });
+        actionMap.put("previousMatch", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) { moveHighlight(-1); }
+        });
+        actionMap.put("hideMatches", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) { popup.setVisible(false); }
+        });
+    }
+
+    /**
+     * Sets where matches come from and clears the current choice.
+     */
+    public void setSource(MatchSource<T> source) {
+        this.source = source;
+        setSelected(null);
+    }
+
+    /** @return The picked item, or null if none. */
+    public T getSelected() {
+        return selected;
+    }
+
+    /** @return The picked item's id, or 0 if none. */
+    public int getSelectedId() {
+        return selected != null ? idOf.applyAsInt(selected) : 0;
+    }
+
+    /**
+     * Shows the given item as picked (null clears the choice) without searching.
+     */
+    public void setSelected(T item) {
+        selected = item;
+        popup.setVisible(false);
+        showSelectedText();
+    }
+
+    public void clearSelection() {
+        setSelected(null);
+    }
+
+    /**
+     * Updates the picked item in place if it has the same id as the given one (e.g. after it was renamed).
+     */
+    public void refreshSelected(T item) {
+        if (selected != null && idOf.applyAsInt(selected) == idOf.applyAsInt(item)) {
+            setSelected(item);
+        }
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        field.setEnabled(enabled);
+    }
+
+    private void textEdited() {
+        if (settingText) return;
+        selected = null; // The text no longer names the picked item
+        searchTimer.restart();
+    }
+
+    private void showSelectedText() {
+        settingText = true;
+        try {
+            field.setText(selected != null ? displayName.apply(selected) : "");
+        } finally {
+            settingText = false;
+        }
+    }
+
+    /** Asks the source for matches of the current text; results of superseded requests are dropped. */
+    private void search() {
+        if (source == null || !field.isShowing() || !field.hasFocus()) return;
+        MatchSource<T> requestSource = source;
+        String text = field.getText().trim();
+        int request = ++latestRequest;
+        SEARCHER.execute(() -> {
+            try {
+                List<T> matches = requestSource.find(text, matchLimit);
+                SwingUtilities.invokeLater(() -> {
+                    if (request == latestRequest && requestSource == source) showMatches(matches);
+                });
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Could not search for '" + text + "'", e);
+            }
+        });
+    }
+
+    private void showMatches(List<T> matches) {
+        if (matches.isEmpty() || !field.hasFocus()) {
+            popup.setVisible(false);
+            return;
+        }
+        matchModel.clear();
+        matchModel.addAll(matches);
+        matchList.setVisibleRowCount(Math.min(matches.size(), 10));
+        matchList.clearSelection();
+        popup.setPopupSize(null); // Let the popup re-measure for the new row count
+        popup.setPopupSize(Math.max(field.getWidth(), popup.getPreferredSize().width), popup.getPreferredSize().height);
+        if (!popup.isVisible()) {
+            popup.show(field, 0, field.getHeight());
+        }
+    }
+
+    private void moveHighlight(int delta) {
+        if (!popup.isVisible() || matchModel.isEmpty()) return;
+        int index = Math.max(0, Math.min(matchModel.size() - 1, matchList.getSelectedIndex() + delta));
+        matchList.setSelectedIndex(index);
+        matchList.ensureIndexIsVisible(index);
+    }
+
+    private void pickHighlighted() {
+        T highlighted = popup.isVisible() ? matchList.getSelectedValue() : null;
+        popup.setVisible(false);
+        if (highlighted != null) {
+            setSelected(highlighted);
+        }
+    }
+}
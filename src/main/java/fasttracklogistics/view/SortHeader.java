@@ -0,0 +1,77 @@
+package fasttracklogistics.view;
+
+import fasttracklogistics.dao.QuerySpec;
+
+import javax.swing.*;
+import javax.swing.table.JTableHeader;
+import javax.swing.table.TableCellRenderer;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Header-click sorting for tables whose rows are sorted by the database.
+ * Clicking a sortable column sorts by it ascending, clicking it again toggles the direction;
+ * the header shows the usual sort arrow. Nothing is sorted in memory: listeners are told to reload
+ * with {@link #applyTo(QuerySpec)}.
+ */
+class SortHeader {
+    private final JTable table;
+    private final String[] sortColumns; // Database column per model column, null if that column can't be sorted
+    private final List<Runnable> listeners = new ArrayList<>();
+    private int sortedModelColumn = -1;
+    private QuerySpec.Direction direction = QuerySpec.Direction.ASC;
+
+    /**
+     * @param table The table whose header becomes clickable.
+     * @param sortColumns For each model column, the database column to sort by, or null if not sortable.
+     */
+    SortHeader(JTable table, String[] sortColumns) {
+        this.table = table;
+        this.sortColumns = sortColumns.clone();
+
+        JTableHeader header = table.getTableHeader();
+        TableCellRenderer baseRenderer = header.getDefaultRenderer();
+        header.setDefaultRenderer((t, value, isSelected, hasFocus, row, column) -> {
+            JComponent component = (JComponent) baseRenderer.getTableCellRendererComponent(t, value, isSelected, hasFocus, row, column);
+            if (component instanceof JLabel label) {
+                boolean sorted = t != null && t.convertColumnIndexToModel(column) == sortedModelColumn;
+                label.setIcon(sorted ? UIManager.getIcon(direction == QuerySpec.Direction.ASC
+                        ? "Table.ascendingSortIcon" : "Table.descendingSortIcon") : null);
+                label.setHorizontalTextPosition(SwingConstants.LEADING);
+            }
+            return component;
+        });
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = header.columnAtPoint(e.getPoint());
+                if (viewColumn == -1) return;
+                int modelColumn = table.convertColumnIndexToModel(viewColumn);
+                if (modelColumn >= SortHeader.this.sortColumns.length || SortHeader.this.sortColumns[modelColumn] == null) return;
+                if (modelColumn == sortedModelColumn) {
+                    direction = direction == QuerySpec.Direction.ASC ? QuerySpec.Direction.DESC : QuerySpec.Direction.ASC;
+                } else {
+                    sortedModelColumn = modelColumn;
+                    direction = QuerySpec.Direction.ASC;
+                }
+                header.repaint();
+                listeners.forEach(Runnable::run);
+            }
+        });
+    }
+
+    void addSortChangeListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Sets the spec's sort order to the clicked column (leaves it unsorted if no column was clicked yet).
+     */
+    void applyTo(QuerySpec spec) {
+        if (sortedModelColumn != -1) {
+            spec.sortBy(sortColumns[sortedModelColumn], direction);
+        }
+    }
+}
@@ -2,15 +2,39 @@ package fasttracklogistics.view;
 
 import fasttracklogistics.model.Shipment;
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
+import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TrackShipmentPanel extends JPanel {
+    private static final int SUGGESTION_DELAY_MILLIS = 120; // Typing pause after which suggestions refresh
+    private static final int SUGGESTION_ROWS = 10;
+
     private JTextField trackingNumberField;
     private JButton trackButton;
     private JTextArea shipmentDetailsArea;
     private JLabel statusLabel, currentLocationLabel, estimatedDeliveryLabel, actualDeliveryLabel; // Added actualDeliveryLabel
+    private JTextField searchQueryField;
+    private JButton searchButton;
+    private JLabel searchSummaryLabel;
+    private JTable searchResultsTable;
+    private ListTableModel<Shipment> searchResultsModel;
+
+    // Tracking number suggestions
+    private final JPopupMenu suggestionPopup = new JPopupMenu();
+    private final DefaultListModel<String> suggestionModel = new DefaultListModel<>();
+    private final JList<String> suggestionList = new JList<>(suggestionModel);
+    private final Timer suggestionTimer = new Timer(SUGGESTION_DELAY_MILLIS, null);
+    private final List<Runnable> trackingNumberInputListeners = new ArrayList<>();
+    private boolean settingTrackingNumber; // Text set from a chosen suggestion; don't ask for new suggestions
 
     public TrackShipmentPanel() {
         setLayout(new BorderLayout(10, 10));
@@ -26,8 +50,41 @@ public class TrackShipmentPanel extends JPanel {
 
         trackButton = new JButton("Track Shipment");
         searchPanel.add(trackButton);
+        initSuggestions();
+
+        // --- Free-text Search Panel ---
+        JPanel textSearchPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
+        textSearchPanel.setBorder(BorderFactory.createTitledBorder("Search Shipments (names, addresses, contents, notes)"));
+
+        textSearchPanel.add(new JLabel("Words:"));
+        searchQueryField = new JTextField(25);
+        textSearchPanel.add(searchQueryField);
 
-        add(searchPanel, BorderLayout.NORTH);
+        searchButton = new JButton("Search");
+        searchQueryField.addActionListener(e -> searchButton.doClick()); // Enter searches
+        textSearchPanel.add(searchButton);
+        searchSummaryLabel = new JLabel(" ");
+        textSearchPanel.add(searchSummaryLabel);
+
+        JPanel northPanel = new JPanel(new GridLayout(2, 1));
+        northPanel.add(searchPanel);
+        northPanel.add(textSearchPanel);
+        add(northPanel, BorderLayout.NORTH);
+
+        // --- Search Results Table ---
+        searchResultsModel = new ListTableModel<>(
+                new String[]{"Tracking No.", "Sender", "Receiver", "Receiver Address", "Contents", "Status"},
+                Shipment::getShipmentId, TrackShipmentPanel::cellValue);
+        searchResultsTable = new JTable(searchResultsModel);
+        searchResultsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        searchResultsTable.getSelectionModel().addListSelectionListener(e -> {
+            int selectedRow = searchResultsTable.getSelectedRow();
+            if (!e.getValueIsAdjusting() && selectedRow != -1) {
+                displayShipmentDetails(searchResultsModel.getRow(selectedRow));
+            }
+        });
+        JScrollPane resultsScrollPane = new JScrollPane(searchResultsTable);
+        resultsScrollPane.setBorder(BorderFactory.createTitledBorder("Search Results"));
 
         // --- Display Panel ---
         JPanel displayPanel = new JPanel(new GridBagLayout());
@@ -72,7 +129,100 @@ public class TrackShipmentPanel extends JPanel {
         JScrollPane scrollPane = new JScrollPane(shipmentDetailsArea);
         displayPanel.add(scrollPane, gbc);
 
-        add(displayPanel, BorderLayout.CENTER);
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, resultsScrollPane, displayPanel);
+        splitPane.setResizeWeight(0.4);
+        add(splitPane, BorderLayout.CENTER);
+    }
+
+    /**
+     * Sets up the type-ahead popup under the tracking number field. Input listeners are told once the user
+     * pauses typing; Up/Down move through the suggestions, Enter or a click tracks the chosen one, Escape closes.
+     */
+    private void initSuggestions() {
+        suggestionTimer.setRepeats(false);
+        suggestionTimer.addActionListener(e -> trackingNumberInputListeners.forEach(Runnable::run));
+
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.setFocusable(false); // Keep typing in the field while the popup is open
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (suggestionList.locationToIndex(e.getPoint()) != -1) acceptSuggestion();
+            }
+        });
+        suggestionPopup.setFocusable(false);
+        suggestionPopup.add(new JScrollPane(suggestionList));
+
+        trackingNumberField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { inputChanged(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { inputChanged(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { inputChanged(); }
+        });
+        trackingNumberField.addActionListener(e -> {
+            if (suggestionPopup.isVisible() && suggestionList.getSelectedIndex() != -1) {
+                acceptSuggestion();
+            } else {
+                suggestionPopup.setVisible(false);
+                trackButton.doClick();
+            }
+        });
+
+        InputMap inputMap = trackingNumberField.getInputMap(JComponent.WHEN_FOCUSED);
+        ActionMap actionMap = trackingNumberField.getActionMap();
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), "nextSuggestion");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_UP, 0), "previousSuggestion");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "hideSuggestions");
+        actionMap.put("nextSuggestion", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) { moveSuggestionSelection(1); }
+        });
+        actionMap.put("previousSuggestion", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) { moveSuggestionSelection(-1); }
+        });
+        actionMap.put("hideSuggestions", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) { suggestionPopup.setVisible(false); }
+        });
+    }
+
+    private void inputChanged() {
+        if (!settingTrackingNumber) suggestionTimer.restart();
+    }
+
+    private void moveSuggestionSelection(int delta) {
+        if (!suggestionPopup.isVisible() || suggestionModel.isEmpty()) return;
+        int index = Math.max(0, Math.min(suggestionModel.size() - 1, suggestionList.getSelectedIndex() + delta));
+        suggestionList.setSelectedIndex(index);
+        suggestionList.ensureIndexIsVisible(index);
+    }
+
+    private void acceptSuggestion() {
+        String chosen = suggestionList.getSelectedValue();
+        suggestionPopup.setVisible(false);
+        if (chosen == null) return;
+        settingTrackingNumber = true;
+        try {
+            trackingNumberField.setText(chosen);
+        } finally {
+            settingTrackingNumber = false;
+        }
+        trackButton.doClick();
+    }
+
+    private static Object cellValue(Shipment shipment, int column) {
+        return switch (column) {
+            case 0 -> shipment.getTrackingNumber();
+            case 1 -> shipment.getSenderName();
+            case 2 -> shipment.getReceiverName();
+            case 3 -> shipment.getReceiverAddress();
+            case 4 -> shipment.getPackageContents();
+            case 5 -> shipment.getDeliveryStatus();
+            default -> null;
+        };
     }
 
     public void addTrackButtonListener(ActionListener listener) {
@@ -83,6 +233,52 @@ public class TrackShipmentPanel extends JPanel {
         return trackingNumberField.getText().trim();
     }
 
+    /**
+     * Registers a listener called when the user pauses while typing a tracking number, to refresh suggestions.
+     */
+    public void addTrackingNumberInputListener(Runnable listener) {
+        trackingNumberInputListeners.add(listener);
+    }
+
+    /**
+     * Shows tracking number suggestions under the field, or hides the popup if there are none.
+     */
+    public void showTrackingNumberSuggestions(List<String> suggestions) {
+        String typed = getTrackingNumberInput();
+        if (suggestions.isEmpty() || !trackingNumberField.isShowing()
+                || (suggestions.size() == 1 && suggestions.get(0).equalsIgnoreCase(typed))) {
+            suggestionPopup.setVisible(false);
+            return;
+        }
+        suggestionModel.clear();
+        suggestionModel.addAll(suggestions);
+        suggestionList.setVisibleRowCount(Math.min(suggestions.size(), SUGGESTION_ROWS));
+        suggestionList.clearSelection();
+        suggestionPopup.setPopupSize(null); // Let the popup re-measure for the new row count
+        suggestionPopup.setPopupSize(trackingNumberField.getWidth(), suggestionPopup.getPreferredSize().height);
+        if (!suggestionPopup.isVisible()) {
+            suggestionPopup.show(trackingNumberField, 0, trackingNumberField.getHeight());
+        }
+    }
+
+    public void addSearchButtonListener(ActionListener listener) {
+        searchButton.addActionListener(listener);
+    }
+
+    public String getSearchQueryInput() {
+        return searchQueryField.getText().trim();
+    }
+
+    /**
+     * Shows the shipments matching a free-text search, best match first; selecting one shows its details.
+     *
+     * @param summary Short text shown next to the search field, e.g. the number of matches and the time taken.
+     */
+    public void displaySearchResults(List<Shipment> shipments, String summary) {
+        searchResultsModel.setRows(shipments);
+        searchSummaryLabel.setText(summary);
+    }
+
     public void displayShipmentDetails(Shipment shipment) {
         if (shipment == null) {
             statusLabel.setText("Shipment Not Found");